@@ -22,6 +22,24 @@ public final class EntityConstants
      */
     public static final String TABLE_NAME_ACCOUNT_TRANSACTION = "tbl_account_transaction";
     
+    /**
+     * Upload (file) fingerprint table name
+     * @since 1.0.0
+     */
+    public static final String TABLE_NAME_UPLOAD_FINGERPRINT = "tbl_upload_fingerprint";
+    
+    /**
+     * Batch job outbox table name
+     * @since 1.0.0
+     */
+    public static final String TABLE_NAME_BATCH_JOB_OUTBOX = "tbl_batch_job_outbox";
+    
+    /**
+     * Processed batch (job) table name
+     * @since 1.0.0
+     */
+    public static final String TABLE_NAME_PROCESSED_BATCH = "tbl_processed_batch";
+    
     /**
      * Account number column name
      * @since 1.0.0
@@ -58,6 +76,54 @@ public final class EntityConstants
      */
     public static final String COLUMN_NAME_TRX_TIME = "col_trx_time";
     
+    /**
+     * Row (natural key) fingerprint column name
+     * @since 1.0.0
+     */
+    public static final String COLUMN_NAME_ROW_FINGERPRINT = "col_row_fingerprint";
+    
+    /**
+     * SHA-256 (hex) column name
+     * @since 1.0.0
+     */
+    public static final String COLUMN_NAME_SHA256 = "col_sha256";
+    
+    /**
+     * File name column name
+     * @since 1.0.0
+     */
+    public static final String COLUMN_NAME_FILE_NAME = "col_file_name";
+    
+    /**
+     * File size column name
+     * @since 1.0.0
+     */
+    public static final String COLUMN_NAME_FILE_SIZE = "col_file_size";
+    
+    /**
+     * Batch (job) identifier column name
+     * @since 1.0.0
+     */
+    public static final String COLUMN_NAME_BATCH_ID = "col_batch_id";
+    
+    /**
+     * Ingest (upload) job identifier column name
+     * @since 1.0.0
+     */
+    public static final String COLUMN_NAME_JOB_ID = "col_job_id";
+    
+    /**
+     * Message (partition) key column name
+     * @since 1.0.0
+     */
+    public static final String COLUMN_NAME_PARTITION_KEY = "col_partition_key";
+    
+    /**
+     * Encoded message payload column name
+     * @since 1.0.0
+     */
+    public static final String COLUMN_NAME_PAYLOAD = "col_payload";
+    
     /**
      * Identifier column name
      * <p>
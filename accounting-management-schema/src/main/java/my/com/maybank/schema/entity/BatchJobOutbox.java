@@ -0,0 +1,113 @@
+package my.com.maybank.schema.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.Nonnull;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import my.com.maybank.schema.EntityConstants;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Batch job outbox entry ; a batch job written in the same database
+ * transaction as the rows it was built from, published (then deleted) by a
+ * relay
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@JsonInclude(
+    JsonInclude.Include.NON_NULL
+)
+@Accessors(
+    fluent = false,
+    chain = true
+)
+@Getter
+@Setter
+@EqualsAndHashCode(
+    doNotUseGetters = true
+)
+@Entity
+@Table(
+    name = EntityConstants.TABLE_NAME_BATCH_JOB_OUTBOX
+)
+public class BatchJobOutbox
+{
+    /**
+     * Outbox sequence (primary key) ; publication order
+     * @since 1.0.0
+     */
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(
+        name = EntityConstants.COLUMN_NAME_ID,
+        updatable = false
+    )
+    private Long id;
+
+    /**
+     * Batch job identifier
+     * @since 1.0.0
+     */
+    @Column(
+        name = EntityConstants.COLUMN_NAME_BATCH_ID,
+        length = 36,
+        nullable = false,
+        updatable = false
+    )
+    private String batchId;
+
+    /**
+     * Ingest job identifier (if any)
+     * @since 1.0.0
+     */
+    @Column(
+        name = EntityConstants.COLUMN_NAME_JOB_ID,
+        length = 36,
+        updatable = false
+    )
+    private String jobId;
+
+    /**
+     * Message (partition) key (if any)
+     * @since 1.0.0
+     */
+    @Column(
+        name = EntityConstants.COLUMN_NAME_PARTITION_KEY,
+        length = 255,
+        updatable = false
+    )
+    private String partitionKey;
+
+    /**
+     * Encoded batch job, in its wire format
+     * @since 1.0.0
+     */
+    @Column(
+        name = EntityConstants.COLUMN_NAME_PAYLOAD,
+        nullable = false,
+        updatable = false
+    )
+    private byte[] payload;
+
+    /**
+     * Created date/time
+     * @since 1.0.0
+     */
+    @Nonnull
+    @CreationTimestamp
+    @Column(
+        name = EntityConstants.COLUMN_NAME_CREATED,
+        updatable = false
+    )
+    private LocalDateTime created;
+}
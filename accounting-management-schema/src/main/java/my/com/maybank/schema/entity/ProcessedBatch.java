@@ -0,0 +1,77 @@
+package my.com.maybank.schema.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.Nonnull;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import my.com.maybank.schema.EntityConstants;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Processed batch job ; written in the same database transaction as the 
+ * rows of the batch job, so a redelivered batch job is persisted once
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@JsonInclude(
+    JsonInclude.Include.NON_NULL
+)
+@Accessors(
+    fluent = false,
+    chain = true
+)
+@Getter
+@Setter
+@EqualsAndHashCode(
+    doNotUseGetters = true
+)
+@Entity
+@Table(
+    name = EntityConstants.TABLE_NAME_PROCESSED_BATCH
+)
+public class ProcessedBatch
+{
+    /**
+     * Batch job identifier (primary key)
+     * @since 1.0.0
+     */
+    @EqualsAndHashCode.Include
+    @Id
+    @Column(
+        name = EntityConstants.COLUMN_NAME_BATCH_ID,
+        length = 36,
+        nullable = false,
+        updatable = false
+    )
+    private String batchId;
+    
+    /**
+     * Ingest job identifier (if any)
+     * @since 1.0.0
+     */
+    @Column(
+        name = EntityConstants.COLUMN_NAME_JOB_ID,
+        length = 36,
+        updatable = false
+    )
+    private String jobId;
+    
+    /**
+     * Created date/time ; pruned past the retention
+     * @since 1.0.0
+     */
+    @Nonnull
+    @CreationTimestamp
+    @Column(
+        name = EntityConstants.COLUMN_NAME_CREATED,
+        updatable = false
+    )
+    private LocalDateTime created;
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -45,7 +46,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 )
 @Entity
 @Table(
-    name = EntityConstants.TABLE_NAME_ACCOUNT_TRANSACTION
+    name = EntityConstants.TABLE_NAME_ACCOUNT_TRANSACTION,
+    indexes = @Index(
+        name = "idx_account_trx_rowfp", 
+        columnList = EntityConstants.COLUMN_NAME_ROW_FINGERPRINT
+    )
 )
 public class Transaction
 {
@@ -128,6 +133,18 @@ public class Transaction
     )
     private Date time;
     
+    /**
+     * Natural key (account, amount, date, time, description) fingerprint of 
+     * the ingested row ; {@code null} for rows created before it was tracked
+     * @since 1.0.0
+     */
+    @JsonIgnore
+    @Column(
+        name = EntityConstants.COLUMN_NAME_ROW_FINGERPRINT,
+        updatable = false
+    )
+    private Long rowFingerprint;
+    
     /**
      * Modified date/time
      * @since 1.0.0
@@ -0,0 +1,89 @@
+package my.com.maybank.schema.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.Nonnull;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import my.com.maybank.schema.EntityConstants;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Uploaded file fingerprint, used to short-circuit an exact re-upload of a 
+ * file that was already ingested
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@JsonInclude(
+    JsonInclude.Include.NON_NULL
+)
+@Accessors(
+    fluent = false,
+    chain = true
+)
+@Getter
+@Setter
+@EqualsAndHashCode(
+    doNotUseGetters = true
+)
+@Entity
+@Table(
+    name = EntityConstants.TABLE_NAME_UPLOAD_FINGERPRINT
+)
+public class UploadFingerprint
+{
+    /**
+     * SHA-256 (lower case hex) of the uploaded bytes (primary key)
+     * @since 1.0.0
+     */
+    @EqualsAndHashCode.Include
+    @Id
+    @Column(
+        name = EntityConstants.COLUMN_NAME_SHA256,
+        length = 64,
+        nullable = false,
+        updatable = false
+    )
+    private String sha256;
+    
+    /**
+     * Uploaded file name (first upload)
+     * @since 1.0.0
+     */
+    @Column(
+        name = EntityConstants.COLUMN_NAME_FILE_NAME,
+        length = 255,
+        nullable = false,
+        updatable = false
+    )
+    private String fileName;
+    
+    /**
+     * Uploaded file size (in bytes)
+     * @since 1.0.0
+     */
+    @Column(
+        name = EntityConstants.COLUMN_NAME_FILE_SIZE,
+        nullable = false,
+        updatable = false
+    )
+    private Long fileSize;
+    
+    /**
+     * Created date/time
+     * @since 1.0.0
+     */
+    @Nonnull
+    @CreationTimestamp
+    @Column(
+        name = EntityConstants.COLUMN_NAME_CREATED,
+        updatable = false
+    )
+    private LocalDateTime created;
+}
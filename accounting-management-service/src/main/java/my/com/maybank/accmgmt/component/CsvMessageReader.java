@@ -1,8 +1,10 @@
 package my.com.maybank.accmgmt.component;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import java.io.InputStream;
 import java.util.function.Consumer;
 
 /**
@@ -17,6 +19,10 @@ public interface CsvMessageReader<O extends Enum<O>, M>
 {
     /**
      * Read the CSV and consume the message
+     * <p>
+     * Parallel implementations may invoke {@code consume} from several threads 
+     * concurrently and in no particular order
+     * </p>
      * @param csvFilePath                       CSV file path. Must not be 
      *                                          {@code null} or blank/empty
      * @param operation                         Operation to act on the message
@@ -33,4 +39,114 @@ public interface CsvMessageReader<O extends Enum<O>, M>
                                 final O operation,
                                 @Nonnull
                                 final Consumer<M> consume);
+    
+    /**
+     * Read the CSV directly from a stream (i.e. the HTTP request body) and 
+     * consume the message as soon as each batch is complete
+     * <p>
+     * The stream is read as the bytes arrive ; nothing is staged to disk by the 
+     * reader. The stream is closed by the reader once it is fully consumed
+     * </p>
+     * @param csvInputStream                    CSV content stream. Must not be 
+     *                                          {@code null}
+     * @param csvSourceName                     CSV source name used for logging 
+     *                                          and error messages (i.e. the 
+     *                                          uploaded file name). Must not be 
+     *                                          {@code null} or blank/empty
+     * @param operation                         Operation to act on the message
+     * @param consume                           Consumer callback. Must not be 
+     *                                          {@code null}
+     * @return                                  Number of CSV lines read
+     * @since 1.0.0
+     */
+    public long readAndCallback(@Nonnull
+                                final InputStream csvInputStream,
+                                @Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String csvSourceName,
+                                @Nonnull
+                                final O operation,
+                                @Nonnull
+                                final Consumer<M> consume);
+    
+    /**
+     * Read the CSV file and consume the message ; rows that cannot be 
+     * converted or validated go to {@code rejectSink} while the other rows 
+     * keep flowing
+     * <p>
+     * Readers that do not support rejects fail on the first bad row (the 
+     * default)
+     * </p>
+     * @param csvFilePath                       CSV file path. Must not be 
+     *                                          {@code null} or blank/empty
+     * @param operation                         Operation to act on the message
+     * @param consume                           Consumer callback. Must not be 
+     *                                          {@code null}
+     * @param rejectSink                        Reject sink, {@code null} to 
+     *                                          fail on the first bad row
+     * @return                                  Number of CSV lines read 
+     *                                          (rejected rows excluded)
+     * @since 1.0.0
+     */
+    public default long readAndCallback(@Nonnull
+                                        @NotBlank
+                                        @NotEmpty
+                                        final String csvFilePath, 
+                                        @Nonnull
+                                        final O operation,
+                                        @Nonnull
+                                        final Consumer<M> consume,
+                                        @Nullable
+                                        final RowRejectSink rejectSink)
+    {
+        return readAndCallback(
+            csvFilePath,
+            operation,
+            consume
+        );
+    }
+    
+    /**
+     * Read the CSV directly from a stream and consume the message ; rows that 
+     * cannot be converted or validated go to {@code rejectSink} while the 
+     * other rows keep flowing
+     * <p>
+     * Readers that do not support rejects fail on the first bad row (the 
+     * default)
+     * </p>
+     * @param csvInputStream                    CSV content stream. Must not be 
+     *                                          {@code null}
+     * @param csvSourceName                     CSV source name used for logging 
+     *                                          and error messages. Must not be 
+     *                                          {@code null} or blank/empty
+     * @param operation                         Operation to act on the message
+     * @param consume                           Consumer callback. Must not be 
+     *                                          {@code null}
+     * @param rejectSink                        Reject sink, {@code null} to 
+     *                                          fail on the first bad row
+     * @return                                  Number of CSV lines read 
+     *                                          (rejected rows excluded)
+     * @since 1.0.0
+     */
+    public default long readAndCallback(@Nonnull
+                                        final InputStream csvInputStream,
+                                        @Nonnull
+                                        @NotBlank
+                                        @NotEmpty
+                                        final String csvSourceName,
+                                        @Nonnull
+                                        final O operation,
+                                        @Nonnull
+                                        final Consumer<M> consume,
+                                        @Nullable
+                                        final RowRejectSink rejectSink)
+    {
+        return readAndCallback(
+            csvInputStream,
+            csvSourceName,
+            operation,
+            consume
+        );
+    }
 }
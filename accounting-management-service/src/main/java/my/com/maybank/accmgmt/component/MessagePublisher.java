@@ -0,0 +1,43 @@
+package my.com.maybank.accmgmt.component;
+
+import jakarta.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Message producer split into its CPU bound half (prepare) and its I/O half 
+ * (publish) so both can run on different threads of a pipeline
+ * @param <M>                                   Message type to produce to send 
+ *                                              to a producer pipeline
+ * @param <P>                                   Prepared (serialised) message 
+ *                                              type handed to the transport
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+public interface MessagePublisher<M, P>
+       extends MessageProducer<M>
+{
+    /**
+     * Prepare the message for the transport
+     * @param message                           Message to prepare. Must not be 
+     *                                          {@code null}
+     * @return                                  Prepared message
+     * @since 1.0.0
+     */
+    @Nonnull
+    public P prepareMessage(@Nonnull
+                            final M message);
+    
+    /**
+     * Publish the prepared message without waiting for the transport to 
+     * take it over
+     * @param preparedMessage                   Prepared message. Must not be 
+     *                                          {@code null}
+     * @return                                  Future completing once the 
+     *                                          transport took the message 
+     *                                          over
+     * @since 1.0.0
+     */
+    @Nonnull
+    public CompletableFuture<Void> publishMessage(@Nonnull
+                                                  final P preparedMessage);
+}
@@ -0,0 +1,33 @@
+package my.com.maybank.accmgmt.component;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * Sink for the rows a lenient CSV read rejects instead of aborting
+ * <p>
+ * Implementations must be thread-safe ; parallel readers reject rows from 
+ * several threads
+ * </p>
+ * @since 1.0.0
+ * @see CsvMessageReader
+ * @author ChristopherCKW
+ */
+public interface RowRejectSink
+{
+    /**
+     * Reject a row
+     * @param lineNumber                        Line number of the row within 
+     *                                          the source (header is line 
+     *                                          {@code 1})
+     * @param row                               Raw row text (if available)
+     * @param reason                            Reject reason. Must not be 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    public void reject(final long lineNumber,
+                       @Nullable
+                       final String row,
+                       @Nonnull
+                       final String reason);
+}
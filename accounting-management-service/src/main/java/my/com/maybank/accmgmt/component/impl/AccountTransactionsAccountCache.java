@@ -0,0 +1,451 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.repository.AccountRepository;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.schema.entity.Account;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Accounts resolved by the <b>CREATE</b> batch jobs, keyed on
+ * {@code accountNumber} and holding the owning {@code customerId}
+ * <p>
+ * The accounts of a batch job are resolved at once : the ones not cached are
+ * loaded with a single {@code IN} query, the ownership of each row is then
+ * checked in memory by the caller. A batch of rows references a handful of
+ * accounts over and over ; once resolved, an account is answered without a
+ * query for {@link DefaultAppService#getAccountingAccountCacheTtlMs()}, and an
+ * unknown one for {@link DefaultAppService#getAccountingAccountCacheNegativeTtlMs()}.
+ * The least recently used accounts go first past
+ * {@link DefaultAppService#getAccountingAccountCacheCapacity()}
+ * </p>
+ * <p>
+ * An account inserted, updated or deleted through JPA is invalidated once
+ * its transaction committed (Hibernate post-commit events) ; changes made
+ * behind JPA (native SQL, another service) show within the time to live.
+ * Accounts loaded while an invalidation landed are not cached, the load may
+ * have read the row before it changed
+ * </p>
+ * <ul>
+ * <li>{@value #ACCOUNT_CACHE_HITS_METRIC} : accounts answered from the cache,
+ * found or unknown</li>
+ * <li>{@value #ACCOUNT_CACHE_MISSES_METRIC} : accounts looked up in the
+ * database</li>
+ * </ul>
+ * @since 1.0.0
+ * @see AccountRepository#findByAccountNumberIn(java.util.Collection)
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Component
+public class AccountTransactionsAccountCache
+       implements PostCommitInsertEventListener,
+                  PostCommitUpdateEventListener,
+                  PostCommitDeleteEventListener
+{
+    /**
+     * Account cache hits metric name
+     * @since 1.0.0
+     */
+    public static final String ACCOUNT_CACHE_HITS_METRIC = "accounting.account.cache.hits";
+
+    /**
+     * Account cache misses metric name
+     * @since 1.0.0
+     */
+    public static final String ACCOUNT_CACHE_MISSES_METRIC = "accounting.account.cache.misses";
+
+    /**
+     * Account numbers per {@code IN} query ; well below the JDBC bind
+     * parameter limit
+     * @since 1.0.0
+     */
+    public static final int MAX_ACCOUNTS_PER_QUERY = 1000;
+
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    @NonNull
+    @Nonnull
+    private final AccountRepository accountRepository;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    @NonNull
+    @Nonnull
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactoryProvider;
+
+    /**
+     * Accounts answered from the cache
+     * @since 1.0.0
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Accounts looked up in the database
+     * @since 1.0.0
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Invalidations so far ; changed under the cache lock
+     * @since 1.0.0
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private Map<String, CachedAccount> cachedAccounts;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private LongCounter hitsCounter;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private LongCounter missesCounter;
+
+    @PostConstruct
+    protected void init()
+    {
+        final int capacity = ((DefaultAppService)appService).getAccountingAccountCacheCapacity();
+        // access ordered ; the least recently used account goes first
+        this.cachedAccounts = new LinkedHashMap<>(
+            16,
+            0.75f,
+            true
+        )
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedAccount> eldest)
+            {
+                return size()>capacity;
+            }
+        };
+        final Meter meter = GlobalOpenTelemetry.getMeter(
+            getClass().getName()
+        );
+        this.hitsCounter = meter.counterBuilder(
+            ACCOUNT_CACHE_HITS_METRIC
+        ).setDescription(
+            "Accounts of the account transaction batch jobs answered from the cache"
+        ).build();
+        this.missesCounter = meter.counterBuilder(
+            ACCOUNT_CACHE_MISSES_METRIC
+        ).setDescription(
+            "Accounts of the account transaction batch jobs looked up in the database"
+        ).build();
+        if(!((DefaultAppService)appService).getAccountingAccountCacheEnabled())
+        {
+            return;
+        }
+        entityManagerFactoryProvider.ifAvailable(
+            entityManagerFactoryToProcess -> {
+                final EventListenerRegistry eventListenerRegistry = entityManagerFactoryToProcess.unwrap(
+                    SessionFactoryImplementor.class
+                ).getServiceRegistry().getService(
+                    EventListenerRegistry.class
+                );
+                eventListenerRegistry.appendListeners(
+                    EventType.POST_COMMIT_INSERT,
+                    this
+                );
+                eventListenerRegistry.appendListeners(
+                    EventType.POST_COMMIT_UPDATE,
+                    this
+                );
+                eventListenerRegistry.appendListeners(
+                    EventType.POST_COMMIT_DELETE,
+                    this
+                );
+            }
+        );
+        log.info(
+            "Account resolution cache ENABLED ; ({}) account(s), time to live ({})ms, unknown account(s) ({})ms",
+            capacity,
+            ((DefaultAppService)appService).getAccountingAccountCacheTtlMs(),
+            ((DefaultAppService)appService).getAccountingAccountCacheNegativeTtlMs()
+        );
+    }
+
+    /**
+     * Resolve the owners of the accounts of a batch job ; one query (per
+     * {@value #MAX_ACCOUNTS_PER_QUERY} accounts not cached) at most
+     * @param accountNumbers                    Account numbers (repeats
+     *                                          allowed). Must not be
+     *                                          {@code null}
+     * @return                                  Owning customer identifier
+     *                                          per account number found ;
+     *                                          unknown accounts are left out
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Map<String, Long> resolveOwners(@Nonnull
+                                           final Collection<String> accountNumbers)
+    {
+        final Collection<String> distinctAccountNumbers = new LinkedHashSet<>(
+            accountNumbers
+        );
+        final Map<String, Long> accountOwners = new HashMap<>();
+        final List<String> accountNumbersToLoad = new ArrayList<>();
+        final boolean enabled = ((DefaultAppService)appService).getAccountingAccountCacheEnabled();
+        final long nowNanos = System.nanoTime();
+        for(final String accountNumber : distinctAccountNumbers)
+        {
+            final CachedAccount cachedAccount;
+            if(enabled)
+            {
+                synchronized(cachedAccounts)
+                {
+                    cachedAccount = cachedAccounts.get(
+                        accountNumber
+                    );
+                }
+            }
+            else
+            {
+                cachedAccount = null;
+            }
+            if(cachedAccount==null || cachedAccount.getExpiresNanos() - nowNanos<=0l)
+            {
+                accountNumbersToLoad.add(
+                    accountNumber
+                );
+                continue;
+            }
+            if(cachedAccount.getCustomerId()!=null)
+            {
+                accountOwners.put(
+                    accountNumber,
+                    cachedAccount.getCustomerId()
+                );
+            }
+        }
+        if(enabled)
+        {
+            // found or unknown, answered without a query
+            final long hitCount = distinctAccountNumbers.size() - accountNumbersToLoad.size();
+            hits.addAndGet(
+                hitCount
+            );
+            hitsCounter.add(
+                hitCount
+            );
+            misses.addAndGet(
+                accountNumbersToLoad.size()
+            );
+            missesCounter.add(
+                accountNumbersToLoad.size()
+            );
+        }
+        if(accountNumbersToLoad.isEmpty())
+        {
+            return accountOwners;
+        }
+
+        // an invalidation landing during the load makes it stale
+        final long invalidationsBeforeLoad = invalidations.get();
+        final Map<String, Long> loadedAccountOwners = new HashMap<>();
+        for(int i = 0; i < accountNumbersToLoad.size(); i += MAX_ACCOUNTS_PER_QUERY)
+        {
+            accountRepository.findByAccountNumberIn(
+                accountNumbersToLoad.subList(
+                    i,
+                    Math.min(
+                        i + MAX_ACCOUNTS_PER_QUERY,
+                        accountNumbersToLoad.size()
+                    )
+                )
+            ).forEach(
+                accountToProcess -> loadedAccountOwners.put(
+                    accountToProcess.getAccountNumber(),
+                    accountToProcess.getCustomerId()
+                )
+            );
+        }
+        accountOwners.putAll(
+            loadedAccountOwners
+        );
+        if(!enabled)
+        {
+            return accountOwners;
+        }
+        final long loadedNanos = System.nanoTime();
+        final long ttlNanos = TimeUnit.MILLISECONDS.toNanos(
+            ((DefaultAppService)appService).getAccountingAccountCacheTtlMs()
+        );
+        final long negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(
+            ((DefaultAppService)appService).getAccountingAccountCacheNegativeTtlMs()
+        );
+        synchronized(cachedAccounts)
+        {
+            if(invalidations.get()!=invalidationsBeforeLoad)
+            {
+                log.debug(
+                    "Account resolution of ({}) account(s) NOT CACHED ; invalidated while loading",
+                    accountNumbersToLoad.size()
+                );
+                return accountOwners;
+            }
+            accountNumbersToLoad.forEach(
+                accountNumberToProcess -> {
+                    final Long customerId = loadedAccountOwners.get(
+                        accountNumberToProcess
+                    );
+                    if(customerId==null && negativeTtlNanos<=0l)
+                    {
+                        cachedAccounts.remove(
+                            accountNumberToProcess
+                        );
+                        return;
+                    }
+                    cachedAccounts.put(
+                        accountNumberToProcess,
+                        new CachedAccount(
+                            customerId,
+                            loadedNanos + (customerId==null?negativeTtlNanos:ttlNanos)
+                        )
+                    );
+                }
+            );
+        }
+        return accountOwners;
+    }
+
+    /**
+     * Forget an account
+     * @param accountNumber                     Account number. Must not be
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    public void invalidate(@Nonnull
+                           final String accountNumber)
+    {
+        synchronized(cachedAccounts)
+        {
+            cachedAccounts.remove(
+                accountNumber
+            );
+            invalidations.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event)
+    {
+        // an unknown account may exist now
+        invalidate(
+            event.getEntity()
+        );
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event)
+    {
+        invalidate(
+            event.getEntity()
+        );
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(final PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event)
+    {
+        invalidate(
+            event.getEntity()
+        );
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {}
+
+    @Override
+    public boolean requiresPostCommitHandling(final EntityPersister persister)
+    {
+        return Account.class.isAssignableFrom(
+            persister.getMappedClass()
+        );
+    }
+
+    /**
+     * Forget the account of a committed entity change ; other entities are
+     * ignored
+     * @since 1.0.0
+     */
+    private void invalidate(@Nullable
+                            final Object entity)
+    {
+        if(entity instanceof Account && ((Account)entity).getAccountNumber()!=null)
+        {
+            invalidate(
+                ((Account)entity).getAccountNumber()
+            );
+        }
+    }
+
+    /**
+     * Cached resolution
+     * @since 1.0.0
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class CachedAccount
+    {
+        /**
+         * Owning customer identifier ; {@code null} if the account is unknown
+         * @since 1.0.0
+         */
+        @Nullable
+        private final Long customerId;
+
+        /**
+         * {@link System#nanoTime()} it expires at
+         * @since 1.0.0
+         */
+        private final long expiresNanos;
+    }
+}
@@ -0,0 +1,339 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.NonNull;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+
+/**
+ * Groups {@link AccountTransaction}(s) into {@link AccountTransactionsBatchJob}(s) 
+ * of at most {@code batchSize} items and hands each full batch to the consumer
+ * <p>
+ * A batch is also closed once its estimated serialised size reaches 
+ * {@code maxBatchBytes} or it has been open for {@code maxLingerNanos} (both 
+ * checked as rows are added ; see {@link AccountTransactionsBatchSizer})
+ * </p>
+ * <p>
+ * With a {@code keyOf} function the open rows are grouped by key and every 
+ * group becomes its own batch (with {@link AccountTransactionsBatchJob#getPartitionKey()} 
+ * set), so all rows of a key travel on the same Kafka partition in order. The 
+ * limits above apply to the open rows of every key together, which bounds 
+ * the buffered rows but makes batches smaller the more keys are interleaved 
+ * in the input
+ * </p>
+ * <p>
+ * Not thread-safe ; each reader thread (or parsing range) uses its own 
+ * assembler
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+public class AccountTransactionsBatchAssembler
+{
+    /**
+     * Estimated JSON bytes of a row besides its values (field names, quotes, 
+     * separators)
+     * @since 1.0.0
+     */
+    private static final int ROW_OVERHEAD_BYTES = 96;
+    
+    /**
+     * Estimated JSON bytes of a numeric value
+     * @since 1.0.0
+     */
+    private static final int NUMBER_BYTES = 16;
+    
+    /**
+     * Max batch size
+     * @since 1.0.0
+     */
+    @Getter
+    private final int batchSize;
+    
+    /**
+     * Max estimated serialised bytes per batch
+     * @since 1.0.0
+     */
+    @Getter
+    private final long maxBatchBytes;
+    
+    /**
+     * Max time a batch stays open ; {@code 0} to disable
+     * @since 1.0.0
+     */
+    @Getter
+    private final long maxLingerNanos;
+    
+    /**
+     * Operation for every assembled batch
+     * @since 1.0.0
+     */
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsBatchJob.Operation operation;
+    
+    /**
+     * Consumer callback for every full (or flushed) batch
+     * @since 1.0.0
+     */
+    @NonNull
+    @Nonnull
+    private final Consumer<AccountTransactionsBatchJob> consume;
+    
+    /**
+     * Row key of every batch ; {@code null} for unkeyed batches
+     * @since 1.0.0
+     */
+    @Nullable
+    private final Function<AccountTransaction, String> keyOf;
+    
+    /**
+     * Current open batch(es), by key (a single {@code null} key batch when 
+     * unkeyed)
+     * @since 1.0.0
+     */
+    @Nonnull
+    private final Map<String, AccountTransactionsBatchJob> openBatches = new LinkedHashMap<>();
+    
+    /**
+     * Rows of the open batch(es)
+     * @since 1.0.0
+     */
+    private int openBatchRows;
+    
+    /**
+     * Estimated serialised bytes of the open batch(es)
+     * @since 1.0.0
+     */
+    private long openBatchBytes;
+    
+    /**
+     * {@link System#nanoTime()} the open batch(es) got their first row
+     * @since 1.0.0
+     */
+    private long openBatchNanos;
+    
+    /**
+     * Number of batches handed to the consumer
+     * @since 1.0.0
+     */
+    @Getter
+    private long batchesProduced;
+    
+    /**
+     * Assembler closing a batch every {@code batchSize} rows
+     * @param batchSize                         Rows per batch. Must be greater 
+     *                                          than {@code 0}
+     * @param operation                         Operation for every batch. Must 
+     *                                          not be {@code null}
+     * @param consume                           Callback for every batch. Must 
+     *                                          not be {@code null}
+     * @since 1.0.0
+     */
+    public AccountTransactionsBatchAssembler(final int batchSize,
+                                             @NonNull
+                                             @Nonnull
+                                             final AccountTransactionsBatchJob.Operation operation,
+                                             @NonNull
+                                             @Nonnull
+                                             final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        this(
+            batchSize,
+            Long.MAX_VALUE,
+            0l,
+            operation,
+            consume
+        );
+    }
+    
+    /**
+     * Assembler closing a batch on whichever of row count, byte budget or 
+     * linger time is reached first
+     * @param batchSize                         Max rows per batch. Must be 
+     *                                          greater than {@code 0}
+     * @param maxBatchBytes                     Max estimated serialised bytes 
+     *                                          per batch
+     * @param maxLingerNanos                    Max time a batch stays open ; 
+     *                                          {@code 0} to disable
+     * @param operation                         Operation for every batch. Must 
+     *                                          not be {@code null}
+     * @param consume                           Callback for every batch. Must 
+     *                                          not be {@code null}
+     * @since 1.0.0
+     */
+    public AccountTransactionsBatchAssembler(final int batchSize,
+                                             final long maxBatchBytes,
+                                             final long maxLingerNanos,
+                                             @NonNull
+                                             @Nonnull
+                                             final AccountTransactionsBatchJob.Operation operation,
+                                             @NonNull
+                                             @Nonnull
+                                             final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        this(
+            batchSize,
+            maxBatchBytes,
+            maxLingerNanos,
+            null,
+            operation,
+            consume
+        );
+    }
+    
+    /**
+     * Assembler grouping the rows by key, closing the open batches on 
+     * whichever of row count, byte budget or linger time is reached first
+     * @param batchSize                         Max rows per batch. Must be 
+     *                                          greater than {@code 0}
+     * @param maxBatchBytes                     Max estimated serialised bytes 
+     *                                          per batch
+     * @param maxLingerNanos                    Max time a batch stays open ; 
+     *                                          {@code 0} to disable
+     * @param keyOf                             Row key (may return 
+     *                                          {@code null}) ; {@code null} 
+     *                                          for unkeyed batches
+     * @param operation                         Operation for every batch. Must 
+     *                                          not be {@code null}
+     * @param consume                           Callback for every batch. Must 
+     *                                          not be {@code null}
+     * @since 1.0.0
+     */
+    public AccountTransactionsBatchAssembler(final int batchSize,
+                                             final long maxBatchBytes,
+                                             final long maxLingerNanos,
+                                             @Nullable
+                                             final Function<AccountTransaction, String> keyOf,
+                                             @NonNull
+                                             @Nonnull
+                                             final AccountTransactionsBatchJob.Operation operation,
+                                             @NonNull
+                                             @Nonnull
+                                             final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        this.batchSize = batchSize;
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxLingerNanos = maxLingerNanos;
+        this.keyOf = keyOf;
+        this.operation = operation;
+        this.consume = consume;
+    }
+    
+    /**
+     * Add the account transaction to the open batch (of its key) ; the open 
+     * batch(es) are handed to the consumer once they reach {@link #batchSize}, 
+     * {@link #maxBatchBytes} or {@link #maxLingerNanos}
+     * @param accountTransaction                Account transaction. Must not be 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    public void add(@Nonnull
+                    final AccountTransaction accountTransaction)
+    {
+        if(openBatchRows==0)
+        {
+            openBatchBytes = 0l;
+            openBatchNanos = maxLingerNanos>0l?System.nanoTime():0l;
+        }
+        final String partitionKey = keyOf!=null?keyOf.apply(accountTransaction):null;
+        AccountTransactionsBatchJob accountTransactionsBatchJob = openBatches.get(
+            partitionKey
+        );
+        if(accountTransactionsBatchJob==null)
+        {
+            accountTransactionsBatchJob = new AccountTransactionsBatchJob().setBatchId(
+                UUID.randomUUID().toString()
+            ).setBatchSize(
+                batchSize
+            ).setOperation(
+                operation
+            ).setPartitionKey(
+                partitionKey
+            ).setBatchAccountTransaction(
+                new ArrayList<>(
+                    keyOf!=null?16:Math.min(
+                        batchSize,
+                        1024
+                    )
+                )
+            );
+            openBatches.put(
+                partitionKey,
+                accountTransactionsBatchJob
+            );
+        }
+        accountTransactionsBatchJob.getBatchAccountTransaction().add(
+            accountTransaction
+        );
+        openBatchRows++;
+        openBatchBytes += estimateSerializedBytes(
+            accountTransaction
+        );
+        if(openBatchRows>=batchSize || 
+            openBatchBytes>=maxBatchBytes || 
+            (maxLingerNanos>0l && System.nanoTime() - openBatchNanos>=maxLingerNanos))
+        {
+            flush();
+        }
+    }
+    
+    /**
+     * Hand the open batch(es) (if any) to the consumer, in the order their 
+     * key first showed up
+     * @since 1.0.0
+     */
+    public void flush()
+    {
+        if(openBatchRows==0)
+        {
+            return;
+        }
+        final AccountTransactionsBatchJob[] accountTransactionsBatchJobsToSend = openBatches.values().toArray(
+            AccountTransactionsBatchJob[]::new
+        );
+        openBatches.clear();
+        openBatchRows = 0;
+        for(AccountTransactionsBatchJob accountTransactionsBatchJobToSend : accountTransactionsBatchJobsToSend)
+        {
+            consume.accept(
+                accountTransactionsBatchJobToSend
+            );
+            batchesProduced++;
+        }
+    }
+    
+    /**
+     * Estimate the JSON bytes of a row without serialising it
+     * @param accountTransaction                Account transaction. Must not be 
+     *                                          {@code null}
+     * @return                                  Estimated bytes
+     * @since 1.0.0
+     */
+    static long estimateSerializedBytes(@Nonnull
+                                        final AccountTransaction accountTransaction)
+    {
+        return ROW_OVERHEAD_BYTES + 
+            length(accountTransaction.getId()) + 
+            length(accountTransaction.getAccountNumber()) + 
+            length(accountTransaction.getDescription()) + 
+            length(accountTransaction.getTrxDate()) + 
+            length(accountTransaction.getTrxTime()) + 
+            (accountTransaction.getTrxAmount()!=null?NUMBER_BYTES:0) + 
+            (accountTransaction.getCustomerId()!=null?NUMBER_BYTES:0);
+    }
+    
+    private static int length(@Nullable
+                              final String value)
+    {
+        return value!=null?value.length():0;
+    }
+}
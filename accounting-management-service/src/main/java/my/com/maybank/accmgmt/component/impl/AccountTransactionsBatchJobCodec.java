@@ -0,0 +1,688 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.core.configuration.service.AppService;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link AccountTransactionsBatchJob} Kafka message codec
+ * <p>
+ * Messages are encoded in the {@link DefaultAppService#getAccountingKafkaWireFormat()}
+ * format ; decoding detects the format from the message itself, so JSON and
+ * binary messages can share the topic during a rollout (upgrade the
+ * consumers first, then switch the producers to
+ * {@link DefaultAppService.WireFormat#BINARY})
+ * </p>
+ * <p>
+ * Binary layout (version {@value #BINARY_VERSION}) :
+ * </p>
+ * <pre>
+ * message     := MAGIC(2) VERSION(1) batchId jobId batchSize operation count row*
+ * batchId     := optString
+ * jobId       := optString
+ * batchSize   := varint (value + 1, 0 when null)
+ * operation   := optString (enum name)
+ * count       := varint
+ * row         := presence(1) [id] [accountNumber] [trxAmount] [description] [trxDate] [trxTime] [customerId] lineNumber
+ * trxAmount   := zigzag varint of cents when {@link #PRESENT_AMOUNT_IN_CENTS}, else 8 bytes IEEE 754
+ * customerId  := zigzag varint
+ * lineNumber  := varint (value + 1, 0 when null) ; not in version 1
+ * string      := varint length + UTF-8 bytes
+ * optString   := varint (length + 1, 0 when null) + UTF-8 bytes
+ * </pre>
+ * <p>
+ * Field names are never written and amounts with at most two decimals are
+ * written as integer cents ; a typical {@code dataSource.txt} batch is
+ * roughly a third of its JSON counterpart and decodes without any
+ * reflection
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Component
+public class AccountTransactionsBatchJobCodec
+{
+    /**
+     * Binary message magic ; {@code 0xA7} can neither start a JSON document
+     * nor a valid UTF-8 sequence
+     * @since 1.0.0
+     */
+    static final byte[] BINARY_MAGIC = {
+        (byte)0xA7,
+        (byte)'B'
+    };
+
+    /**
+     * Binary layout version
+     * @since 1.0.0
+     */
+    static final byte BINARY_VERSION = 2;
+
+    /**
+     * Oldest binary layout version still decoded ; version {@code 1} rows
+     * carry no line number
+     * @since 1.0.0
+     */
+    static final byte MIN_BINARY_VERSION = 1;
+
+    private static final int PRESENT_ID = 1;
+
+    private static final int PRESENT_ACCOUNT_NUMBER = 1 << 1;
+
+    private static final int PRESENT_AMOUNT = 1 << 2;
+
+    private static final int PRESENT_DESCRIPTION = 1 << 3;
+
+    private static final int PRESENT_TRX_DATE = 1 << 4;
+
+    private static final int PRESENT_TRX_TIME = 1 << 5;
+
+    private static final int PRESENT_CUSTOMER_ID = 1 << 6;
+
+    /**
+     * {@code trxAmount} is written as integer cents
+     * @since 1.0.0
+     */
+    private static final int PRESENT_AMOUNT_IN_CENTS = 1 << 7;
+
+    /**
+     * Largest amount (in cents) written as integer cents ; above it a
+     * {@code double} no longer holds every cent exactly
+     * @since 1.0.0
+     */
+    private static final long MAX_AMOUNT_IN_CENTS = 1l << 52;
+
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    @NonNull
+    @Nonnull
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Encode the batch job in the configured wire format
+     * @param accountTransactionsBatchJob       Batch job. Must not be
+     *                                          {@code null}
+     * @return                                  Message payload
+     * @throws IOException                      If the JSON serialisation
+     *                                          fails
+     * @since 1.0.0
+     */
+    @Nonnull
+    public byte[] encode(@Nonnull
+                         final AccountTransactionsBatchJob accountTransactionsBatchJob)
+            throws IOException
+    {
+        if(((DefaultAppService)appService).getAccountingKafkaWireFormat()==DefaultAppService.WireFormat.BINARY)
+        {
+            return encodeBinary(
+                accountTransactionsBatchJob
+            );
+        }
+        return objectMapper.writeValueAsBytes(
+            accountTransactionsBatchJob
+        );
+    }
+
+    /**
+     * Decode a message of either wire format
+     * @param message                           Message payload. Must not be
+     *                                          {@code null}
+     * @return                                  Batch job
+     * @throws IOException                      If the message is malformed or
+     *                                          of an unsupported binary
+     *                                          version
+     * @since 1.0.0
+     */
+    @Nonnull
+    public AccountTransactionsBatchJob decode(@Nonnull
+                                              final byte[] message)
+            throws IOException
+    {
+        if(isBinary(
+            message
+        ))
+        {
+            return decodeBinary(
+                message
+            );
+        }
+        return objectMapper.readValue(
+            message,
+            AccountTransactionsBatchJob.class
+        );
+    }
+
+    /**
+     * @param message                           Message payload. Must not be
+     *                                          {@code null}
+     * @return                                  {@code true} if the message
+     *                                          starts with
+     *                                          {@link #BINARY_MAGIC}
+     * @since 1.0.0
+     */
+    public static boolean isBinary(@Nonnull
+                                   final byte[] message)
+    {
+        return message.length>=BINARY_MAGIC.length &&
+            message[0]==BINARY_MAGIC[0] &&
+            message[1]==BINARY_MAGIC[1];
+    }
+
+    /**
+     * Encode the batch job in the binary wire format
+     * @param accountTransactionsBatchJob       Batch job. Must not be
+     *                                          {@code null}
+     * @return                                  Message payload
+     * @since 1.0.0
+     */
+    @Nonnull
+    static byte[] encodeBinary(@Nonnull
+                               final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        final List<AccountTransaction> batchAccountTransaction = Objects.requireNonNullElse(
+            accountTransactionsBatchJob.getBatchAccountTransaction(),
+            List.of()
+        );
+        final BinaryWriter binaryWriter = new BinaryWriter(
+            64 + batchAccountTransaction.size()*64
+        );
+        binaryWriter.writeBytes(
+            BINARY_MAGIC
+        );
+        binaryWriter.writeByte(
+            BINARY_VERSION
+        );
+        binaryWriter.writeOptString(
+            accountTransactionsBatchJob.getBatchId()
+        );
+        binaryWriter.writeOptString(
+            accountTransactionsBatchJob.getJobId()
+        );
+        binaryWriter.writeVarLong(
+            Objects.isNull(accountTransactionsBatchJob.getBatchSize())?0l:accountTransactionsBatchJob.getBatchSize() + 1l
+        );
+        binaryWriter.writeOptString(
+            Objects.isNull(accountTransactionsBatchJob.getOperation())?null:accountTransactionsBatchJob.getOperation().name()
+        );
+        binaryWriter.writeVarLong(
+            batchAccountTransaction.size()
+        );
+        for(AccountTransaction accountTransaction : batchAccountTransaction)
+        {
+            final Double trxAmount = accountTransaction.getTrxAmount();
+            final long trxAmountInCents = Objects.isNull(trxAmount)?0l:Math.round(
+                trxAmount*100d
+            );
+            final boolean inCents = Objects.nonNull(trxAmount) &&
+                Math.abs(trxAmountInCents)<MAX_AMOUNT_IN_CENTS &&
+                Double.doubleToLongBits(trxAmountInCents/100d)==Double.doubleToLongBits(trxAmount);
+            final int presence = (Objects.nonNull(accountTransaction.getId())?PRESENT_ID:0) |
+                (Objects.nonNull(accountTransaction.getAccountNumber())?PRESENT_ACCOUNT_NUMBER:0) |
+                (Objects.nonNull(trxAmount)?PRESENT_AMOUNT:0) |
+                (Objects.nonNull(accountTransaction.getDescription())?PRESENT_DESCRIPTION:0) |
+                (Objects.nonNull(accountTransaction.getTrxDate())?PRESENT_TRX_DATE:0) |
+                (Objects.nonNull(accountTransaction.getTrxTime())?PRESENT_TRX_TIME:0) |
+                (Objects.nonNull(accountTransaction.getCustomerId())?PRESENT_CUSTOMER_ID:0) |
+                (inCents?PRESENT_AMOUNT_IN_CENTS:0);
+            binaryWriter.writeByte(
+                presence
+            );
+            if((presence & PRESENT_ID)!=0)
+            {
+                binaryWriter.writeString(
+                    accountTransaction.getId()
+                );
+            }
+            if((presence & PRESENT_ACCOUNT_NUMBER)!=0)
+            {
+                binaryWriter.writeString(
+                    accountTransaction.getAccountNumber()
+                );
+            }
+            if(inCents)
+            {
+                binaryWriter.writeZigZagLong(
+                    trxAmountInCents
+                );
+            }
+            else if((presence & PRESENT_AMOUNT)!=0)
+            {
+                binaryWriter.writeDouble(
+                    trxAmount
+                );
+            }
+            if((presence & PRESENT_DESCRIPTION)!=0)
+            {
+                binaryWriter.writeString(
+                    accountTransaction.getDescription()
+                );
+            }
+            if((presence & PRESENT_TRX_DATE)!=0)
+            {
+                binaryWriter.writeString(
+                    accountTransaction.getTrxDate()
+                );
+            }
+            if((presence & PRESENT_TRX_TIME)!=0)
+            {
+                binaryWriter.writeString(
+                    accountTransaction.getTrxTime()
+                );
+            }
+            if((presence & PRESENT_CUSTOMER_ID)!=0)
+            {
+                binaryWriter.writeZigZagLong(
+                    accountTransaction.getCustomerId()
+                );
+            }
+            binaryWriter.writeVarLong(
+                Objects.isNull(accountTransaction.getLineNumber())?0l:accountTransaction.getLineNumber() + 1l
+            );
+        }
+        return binaryWriter.toByteArray();
+    }
+
+    /**
+     * Decode a binary wire format message
+     * @param message                           Message payload, starting with
+     *                                          {@link #BINARY_MAGIC}. Must not
+     *                                          be {@code null}
+     * @return                                  Batch job
+     * @throws IOException                      If the message is malformed or
+     *                                          of an unsupported version
+     * @since 1.0.0
+     */
+    @Nonnull
+    static AccountTransactionsBatchJob decodeBinary(@Nonnull
+                                                    final byte[] message)
+            throws IOException
+    {
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(
+            message
+        );
+        try
+        {
+            byteBuffer.position(
+                BINARY_MAGIC.length
+            );
+            final byte version = byteBuffer.get();
+            if(version<MIN_BINARY_VERSION || version>BINARY_VERSION)
+            {
+                throw new IOException(
+                    String.format(
+                        "Binary batch job version (%d) NOT SUPPORTED ; expected (%d) to (%d)",
+                        version,
+                        MIN_BINARY_VERSION,
+                        BINARY_VERSION
+                    )
+                );
+            }
+            final AccountTransactionsBatchJob accountTransactionsBatchJob = new AccountTransactionsBatchJob().setBatchId(
+                readOptString(
+                    byteBuffer
+                )
+            ).setJobId(
+                readOptString(
+                    byteBuffer
+                )
+            );
+            final long batchSize = readVarLong(
+                byteBuffer
+            );
+            accountTransactionsBatchJob.setBatchSize(
+                batchSize==0l?null:Math.toIntExact(batchSize - 1l)
+            );
+            final String operation = readOptString(
+                byteBuffer
+            );
+            accountTransactionsBatchJob.setOperation(
+                Objects.isNull(operation)?null:AccountTransactionsBatchJob.Operation.valueOf(
+                    operation
+                )
+            );
+            final int count = Math.toIntExact(
+                readVarLong(
+                    byteBuffer
+                )
+            );
+            // every row takes at least its presence byte
+            if(count>byteBuffer.remaining())
+            {
+                throw new IOException(
+                    String.format(
+                        "Binary batch job row count (%d) EXCEEDS the message size",
+                        count
+                    )
+                );
+            }
+            final List<AccountTransaction> batchAccountTransaction = new ArrayList<>(
+                count
+            );
+            for(int i = 0; i < count; i++)
+            {
+                final int presence = byteBuffer.get() & 0xFF;
+                final AccountTransaction accountTransaction = new AccountTransaction();
+                if((presence & PRESENT_ID)!=0)
+                {
+                    accountTransaction.setId(
+                        readString(
+                            byteBuffer
+                        )
+                    );
+                }
+                if((presence & PRESENT_ACCOUNT_NUMBER)!=0)
+                {
+                    accountTransaction.setAccountNumber(
+                        readString(
+                            byteBuffer
+                        )
+                    );
+                }
+                if((presence & PRESENT_AMOUNT_IN_CENTS)!=0)
+                {
+                    accountTransaction.setTrxAmount(
+                        readZigZagLong(
+                            byteBuffer
+                        )/100d
+                    );
+                }
+                else if((presence & PRESENT_AMOUNT)!=0)
+                {
+                    accountTransaction.setTrxAmount(
+                        byteBuffer.getDouble()
+                    );
+                }
+                if((presence & PRESENT_DESCRIPTION)!=0)
+                {
+                    accountTransaction.setDescription(
+                        readString(
+                            byteBuffer
+                        )
+                    );
+                }
+                if((presence & PRESENT_TRX_DATE)!=0)
+                {
+                    accountTransaction.setTrxDate(
+                        readString(
+                            byteBuffer
+                        )
+                    );
+                }
+                if((presence & PRESENT_TRX_TIME)!=0)
+                {
+                    accountTransaction.setTrxTime(
+                        readString(
+                            byteBuffer
+                        )
+                    );
+                }
+                if((presence & PRESENT_CUSTOMER_ID)!=0)
+                {
+                    accountTransaction.setCustomerId(
+                        readZigZagLong(
+                            byteBuffer
+                        )
+                    );
+                }
+                if(version>=2)
+                {
+                    final long lineNumber = readVarLong(
+                        byteBuffer
+                    );
+                    accountTransaction.setLineNumber(
+                        lineNumber==0l?null:lineNumber - 1l
+                    );
+                }
+                batchAccountTransaction.add(
+                    accountTransaction
+                );
+            }
+            return accountTransactionsBatchJob.setBatchAccountTransaction(
+                batchAccountTransaction
+            );
+        }
+        catch(BufferUnderflowException | IllegalArgumentException | ArithmeticException e)
+        {
+            throw new IOException(
+                String.format(
+                    "Binary batch job of (%d) bytes IS MALFORMED ; %s",
+                    message.length,
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+
+    private static long readVarLong(@Nonnull
+                                    final ByteBuffer byteBuffer)
+    {
+        long value = 0l;
+        for(int shift = 0; shift < 64; shift += 7)
+        {
+            final byte b = byteBuffer.get();
+            value |= (long)(b & 0x7F) << shift;
+            if((b & 0x80)==0)
+            {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Varint TOO LONG"
+        );
+    }
+
+    private static long readZigZagLong(@Nonnull
+                                       final ByteBuffer byteBuffer)
+    {
+        final long value = readVarLong(
+            byteBuffer
+        );
+        return (value >>> 1) ^ -(value & 1l);
+    }
+
+    @Nonnull
+    private static String readString(@Nonnull
+                                     final ByteBuffer byteBuffer)
+    {
+        return readString(
+            byteBuffer,
+            Math.toIntExact(
+                readVarLong(
+                    byteBuffer
+                )
+            )
+        );
+    }
+
+    @Nullable
+    private static String readOptString(@Nonnull
+                                        final ByteBuffer byteBuffer)
+    {
+        final long length = readVarLong(
+            byteBuffer
+        );
+        return length==0l?null:readString(
+            byteBuffer,
+            Math.toIntExact(
+                length - 1l
+            )
+        );
+    }
+
+    @Nonnull
+    private static String readString(@Nonnull
+                                     final ByteBuffer byteBuffer,
+                                     final int length)
+    {
+        if(length>byteBuffer.remaining())
+        {
+            throw new BufferUnderflowException();
+        }
+        final String value = new String(
+            byteBuffer.array(),
+            byteBuffer.arrayOffset() + byteBuffer.position(),
+            length,
+            StandardCharsets.UTF_8
+        );
+        byteBuffer.position(
+            byteBuffer.position() + length
+        );
+        return value;
+    }
+
+    /**
+     * Growable byte array writer
+     * @since 1.0.0
+     */
+    private static final class BinaryWriter
+    {
+        private byte[] buffer;
+
+        private int position;
+
+        private BinaryWriter(final int initialCapacity)
+        {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        private void ensureCapacity(final int length)
+        {
+            if(position + length>buffer.length)
+            {
+                buffer = Arrays.copyOf(
+                    buffer,
+                    Math.max(
+                        buffer.length << 1,
+                        position + length
+                    )
+                );
+            }
+        }
+
+        private void writeByte(final int value)
+        {
+            ensureCapacity(
+                1
+            );
+            buffer[position++] = (byte)value;
+        }
+
+        private void writeBytes(@Nonnull
+                                final byte[] value)
+        {
+            ensureCapacity(
+                value.length
+            );
+            System.arraycopy(
+                value,
+                0,
+                buffer,
+                position,
+                value.length
+            );
+            position += value.length;
+        }
+
+        private void writeVarLong(final long value)
+        {
+            ensureCapacity(
+                10
+            );
+            long remaining = value;
+            while((remaining & ~0x7Fl)!=0l)
+            {
+                buffer[position++] = (byte)((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            buffer[position++] = (byte)remaining;
+        }
+
+        private void writeZigZagLong(final long value)
+        {
+            writeVarLong(
+                (value << 1) ^ (value >> 63)
+            );
+        }
+
+        private void writeDouble(final double value)
+        {
+            final long bits = Double.doubleToLongBits(
+                value
+            );
+            ensureCapacity(
+                8
+            );
+            for(int shift = 56; shift >= 0; shift -= 8)
+            {
+                buffer[position++] = (byte)(bits >>> shift);
+            }
+        }
+
+        private void writeString(@Nonnull
+                                 final String value)
+        {
+            final byte[] bytes = value.getBytes(
+                StandardCharsets.UTF_8
+            );
+            writeVarLong(
+                bytes.length
+            );
+            writeBytes(
+                bytes
+            );
+        }
+
+        private void writeOptString(@Nullable
+                                    final String value)
+        {
+            if(Objects.isNull(value))
+            {
+                writeVarLong(
+                    0l
+                );
+                return;
+            }
+            final byte[] bytes = value.getBytes(
+                StandardCharsets.UTF_8
+            );
+            writeVarLong(
+                bytes.length + 1l
+            );
+            writeBytes(
+                bytes
+            );
+        }
+
+        @Nonnull
+        private byte[] toByteArray()
+        {
+            return Arrays.copyOf(
+                buffer,
+                position
+            );
+        }
+    }
+}
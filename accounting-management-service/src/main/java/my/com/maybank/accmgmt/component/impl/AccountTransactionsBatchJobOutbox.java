@@ -0,0 +1,373 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.MessagePublisher;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.repository.BatchJobOutboxRepository;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.InternalException;
+import my.com.maybank.schema.entity.BatchJobOutbox;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transactional outbox of {@link AccountTransactionsBatchJob}(s)
+ * <p>
+ * {@link #readAndAppend(java.util.function.Function)} writes the batch jobs
+ * of a read to {@code tbl_batch_job_outbox} in the database transaction the
+ * read runs in ; they are published if and only if that transaction commits,
+ * and the request thread never waits on the transport. The relay (one
+ * thread per instance, every {@link DefaultAppService#getAccountingOutboxRelayPollMs()}
+ * and right after an append commits) claims up to
+ * {@link DefaultAppService#getAccountingOutboxRelayBatchSize()} of the
+ * oldest entries with {@code FOR UPDATE SKIP LOCKED}, publishes them in
+ * outbox order without waiting for each acknowledgement, then deletes them
+ * once all are acknowledged, in the claiming transaction. Several instances
+ * relay side by side on disjoint entries ; a relay dying mid round leaves its
+ * entries to the next one (published at least once)
+ * </p>
+ * @since 1.0.0
+ * @see BatchJobOutboxRepository
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Component
+public class AccountTransactionsBatchJobOutbox
+{
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
+
+    @NonNull
+    @Nonnull
+    private final BatchJobOutboxRepository batchJobOutboxRepository;
+
+    @NonNull
+    @Nonnull
+    private final MessagePublisher<AccountTransactionsBatchJob, ?> accountTransactionsBatchMessagePublisher;
+
+    @NonNull
+    @Nonnull
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Outbox entries published by this instance
+     * @since 1.0.0
+     */
+    private final AtomicLong entriesRelayed = new AtomicLong();
+
+    @Getter(
+        AccessLevel.PROTECTED
+    )
+    private TransactionTemplate relayTransactionTemplate;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private ScheduledExecutorService relayScheduler;
+
+    @PostConstruct
+    protected void init()
+    {
+        this.relayTransactionTemplate = new TransactionTemplate(
+            transactionManager
+        );
+        if(!((DefaultAppService)appService).getAccountingOutboxEnabled())
+        {
+            return;
+        }
+        this.relayScheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                final Thread thread = new Thread(
+                    runnable,
+                    "outbox-relay"
+                );
+                thread.setDaemon(
+                    true
+                );
+                return thread;
+            }
+        );
+        relayScheduler.scheduleWithFixedDelay(
+            this::drain,
+            ((DefaultAppService)appService).getAccountingOutboxRelayPollMs(),
+            ((DefaultAppService)appService).getAccountingOutboxRelayPollMs(),
+            TimeUnit.MILLISECONDS
+        );
+        log.info(
+            "Outbox relay STARTED ; batch size ({}), poll every ({})ms",
+            ((DefaultAppService)appService).getAccountingOutboxRelayBatchSize(),
+            ((DefaultAppService)appService).getAccountingOutboxRelayPollMs()
+        );
+    }
+
+    @PreDestroy
+    protected void destroy()
+    {
+        if(relayScheduler!=null)
+        {
+            relayScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Run the read in a database transaction, appending every batch job it
+     * produces to the outbox in that same transaction
+     * @param read                              Read ; given the batch callback,
+     *                                          returns the batch jobs produced.
+     *                                          Must not be {@code null}
+     * @return                                  Batch jobs appended (published
+     *                                          by the relay once committed)
+     * @since 1.0.0
+     */
+    @Transactional
+    public List<AccountTransactionsBatchJob> readAndAppend(@Nonnull
+                                                           final Function<Consumer<AccountTransactionsBatchJob>, List<AccountTransactionsBatchJob>> read)
+    {
+        final List<AccountTransactionsBatchJob> accountTransactionsBatchJobs = read.apply(
+            this::append
+        );
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    wakeUp();
+                }
+            }
+        );
+        return accountTransactionsBatchJobs;
+    }
+
+    /**
+     * Run a relay round
+     * @return                                  Number of outbox entries
+     *                                          published (and deleted)
+     * @throws InternalException                If an entry could not be
+     *                                          published ; the round is rolled
+     *                                          back, its entries stay in the
+     *                                          outbox
+     * @since 1.0.0
+     */
+    public int relay()
+    {
+        return relayTransactionTemplate.execute(
+            transactionStatus -> {
+                final List<BatchJobOutbox> batchJobOutboxes = batchJobOutboxRepository.claimOldest(
+                    ((DefaultAppService)appService).getAccountingOutboxRelayBatchSize()
+                );
+                if(batchJobOutboxes.isEmpty())
+                {
+                    return 0;
+                }
+                // published in outbox order, acknowledged in any order
+                final CompletableFuture<?>[] published = new CompletableFuture<?>[batchJobOutboxes.size()];
+                for(int i = 0; i < published.length; i++)
+                {
+                    published[i] = publish(
+                        batchJobOutboxes.get(
+                            i
+                        )
+                    );
+                }
+                try
+                {
+                    CompletableFuture.allOf(
+                        published
+                    ).join();
+                }
+                catch(Exception e)
+                {
+                    throw new InternalException(
+                        String.format(
+                            "Outbox relay of (%d) entries FAILURE ; %s",
+                            batchJobOutboxes.size(),
+                            e.getMessage()
+                        ),
+                        e
+                    );
+                }
+                batchJobOutboxRepository.deleteAllInBatch(
+                    batchJobOutboxes
+                );
+                entriesRelayed.addAndGet(
+                    batchJobOutboxes.size()
+                );
+                return batchJobOutboxes.size();
+            }
+        );
+    }
+
+    /**
+     * Append the batch job to the outbox ; joins the running transaction
+     * @since 1.0.0
+     */
+    private void append(@Nonnull
+                        final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        try
+        {
+            batchJobOutboxRepository.save(
+                new BatchJobOutbox().setBatchId(
+                    accountTransactionsBatchJob.getBatchId()
+                ).setJobId(
+                    accountTransactionsBatchJob.getJobId()
+                ).setPartitionKey(
+                    accountTransactionsBatchJob.getPartitionKey()
+                ).setPayload(
+                    accountTransactionsBatchJobCodec.encode(
+                        accountTransactionsBatchJob
+                    )
+                )
+            );
+        }
+        catch(Exception e)
+        {
+            throw new InternalException(
+                String.format(
+                    "Account transaction batch job '%s' outbox append FAILURE ; %s",
+                    accountTransactionsBatchJob.getBatchId(),
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+
+    /**
+     * Publish an outbox entry ; straight from its payload to Kafka, decoded
+     * for any other transport
+     * @since 1.0.0
+     */
+    @Nonnull
+    private CompletableFuture<Void> publish(@Nonnull
+                                            final BatchJobOutbox batchJobOutbox)
+    {
+        if(accountTransactionsBatchMessagePublisher instanceof AccountTransactionsBatchMessageKafkaProducer)
+        {
+            return ((AccountTransactionsBatchMessageKafkaProducer)accountTransactionsBatchMessagePublisher).publishSerializedRecord(
+                new ProducerRecord<>(
+                    ((DefaultAppService)appService).getAccountingKafkaTopic(),
+                    batchJobOutbox.getPartitionKey(),
+                    batchJobOutbox.getPayload()
+                )
+            );
+        }
+        try
+        {
+            final AccountTransactionsBatchJob accountTransactionsBatchJob = accountTransactionsBatchJobCodec.decode(
+                batchJobOutbox.getPayload()
+            );
+            accountTransactionsBatchJob.setPartitionKey(
+                batchJobOutbox.getPartitionKey()
+            );
+            return publish(
+                accountTransactionsBatchMessagePublisher,
+                accountTransactionsBatchJob
+            );
+        }
+        catch(Exception e)
+        {
+            return CompletableFuture.failedFuture(
+                e
+            );
+        }
+    }
+
+    /**
+     * Prepare then publish through the publisher
+     * @param <P>                               Prepared message type
+     * @since 1.0.0
+     */
+    @Nonnull
+    private static <P> CompletableFuture<Void> publish(@Nonnull
+                                                       final MessagePublisher<AccountTransactionsBatchJob, P> messagePublisher,
+                                                       @Nonnull
+                                                       final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        return messagePublisher.publishMessage(
+            messagePublisher.prepareMessage(
+                accountTransactionsBatchJob
+            )
+        );
+    }
+
+    /**
+     * Relay rounds until the outbox is drained (or a round fails)
+     * @since 1.0.0
+     */
+    private void drain()
+    {
+        try
+        {
+            while(relay()>=((DefaultAppService)appService).getAccountingOutboxRelayBatchSize())
+            {
+                log.debug(
+                    "Outbox relay round FULL ; relaying again"
+                );
+            }
+        }
+        catch(Exception e)
+        {
+            // retried next poll
+            log.warn(
+                "Outbox relay FAILURE ; {}",
+                e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Run a relay round now rather than at the next poll
+     * @since 1.0.0
+     */
+    private void wakeUp()
+    {
+        if(relayScheduler==null)
+        {
+            return;
+        }
+        try
+        {
+            relayScheduler.execute(
+                this::drain
+            );
+        }
+        catch(RejectedExecutionException e)
+        {
+            log.debug(
+                "Outbox relay IS SHUT DOWN ; {}",
+                e.getMessage()
+            );
+        }
+    }
+}
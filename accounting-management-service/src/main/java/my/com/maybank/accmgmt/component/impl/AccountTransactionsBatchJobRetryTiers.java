@@ -0,0 +1,1080 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.InternalException;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AcknowledgingConsumerAwareMessageListener;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ConsumerAwareRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * Non-blocking retry of the batch jobs failing to persist ; only with the
+ * {@link DefaultAppService.Transport#KAFKA} transport
+ * <p>
+ * A failing batch job is not retried in place (holding back its partition)
+ * but published to the next retry topic
+ * ({@link DefaultAppService#getAccountingKafkaRetryTopic(int)}) and the
+ * listener moves on. A retry topic container waits out the tier delay
+ * ({@link DefaultAppService#getAccountingKafkaRetryDelayMs(int)}, growing
+ * every tier) and hands the batch job to the
+ * {@link AccountTransactionsBatchMessageKafkaConsumer} again. Past the last
+ * tier, or when the payload cannot be read at all, the batch job goes to the
+ * dead-letter topic ({@link DefaultAppService#getAccountingKafkaDeadLetterTopic()})
+ * with the failure in the {@code kafka_dlt-exception-*} headers, and only
+ * then is its ingest job told of the failure. Dead letters are sent back to
+ * the topic in bulk with {@link #redrive(int)}
+ * </p>
+ * <p>
+ * A retried batch job is persisted out of order with the later batch jobs of
+ * its account ; the retry topic tiers trade that ordering for an unblocked
+ * partition
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "app.service.accounting.transport",
+    havingValue = "KAFKA",
+    matchIfMissing = true
+)
+@Component
+public class AccountTransactionsBatchJobRetryTiers
+       implements SmartLifecycle
+{
+    /**
+     * Header of the retry attempts a batch job went through (a decimal
+     * number)
+     * @since 1.0.0
+     */
+    public static final String RETRY_ATTEMPT_HEADER = "accmgmt-retry-attempt";
+
+    /**
+     * Header of the epoch time (in milliseconds, a decimal number) a retried
+     * batch job is due
+     * @since 1.0.0
+     */
+    public static final String RETRY_DUE_HEADER = "accmgmt-retry-due-ms";
+
+    /**
+     * Consumer group suffix of the dead-letter topic re-drive (offsets only,
+     * its partitions are assigned)
+     * @since 1.0.0
+     */
+    public static final String REDRIVE_GROUP_ID_SUFFIX = "-dlt-redrive";
+
+    /**
+     * How long a re-drive poll waits for dead letters
+     * @since 1.0.0
+     */
+    private static final long REDRIVE_POLL_TIMEOUT_MS = 2000l;
+
+    /**
+     * Polls in a row without progress before a re-drive gives up on the dead
+     * letters left (e.g. the broker stopped serving them)
+     * @since 1.0.0
+     */
+    private static final int REDRIVE_MAX_STALLED_POLLS = 3;
+
+    /**
+     * How often a waiting retry checks the container is still running
+     * @since 1.0.0
+     */
+    private static final long RETRY_WAIT_SLICE_MS = 100l;
+
+    /**
+     * Kafka consumer default {@code max.poll.interval.ms}, on top of the
+     * retry tier delay
+     * @since 1.0.0
+     */
+    private static final long MAX_POLL_INTERVAL_MS = 300000l;
+
+    /**
+     * How long the startup waits for the retry and dead-letter topics
+     * @since 1.0.0
+     */
+    private static final long TOPIC_CREATE_TIMEOUT_MS = 10000l;
+
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    @NonNull
+    @Nonnull
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsBatchMessageKafkaConsumer accountTransactionsBatchMessageKafkaConsumer;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry;
+
+    /**
+     * Error handler of the batch job listener container ; in place retries
+     * (then the batch job skipped) when the retry topics are disabled. Either
+     * way it tells the ingest job of a failed batch job, once
+     * @since 1.0.0
+     */
+    private CommonErrorHandler errorHandler;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private KafkaOperations<String, byte[]> kafkaOperations;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final List<KafkaMessageListenerContainer<String, byte[]>> retryTierContainers = new ArrayList<>();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private volatile boolean running;
+
+    @PostConstruct
+    protected void init()
+    {
+        if(!((DefaultAppService)appService).getAccountingKafkaRetryEnabled())
+        {
+            // in place retries (DefaultErrorHandler back-off), then skipped
+            this.errorHandler = new DefaultErrorHandler(
+                (record, exception) -> failed(
+                    record,
+                    exception,
+                    "retries EXHAUSTED, SKIPPED",
+                    "Batch '%s' ; %s"
+                )
+            );
+            return;
+        }
+        this.kafkaOperations = newKafkaOperations();
+        // no in place retry ; the first failure goes to the next retry topic
+        this.errorHandler = new DefaultErrorHandler(
+            newRecoverer(),
+            new FixedBackOff(
+                0l,
+                0l
+            )
+        );
+        // the retry topic containers ack each record, recovered ones too
+        final DefaultErrorHandler retryTierErrorHandler = new DefaultErrorHandler(
+            newRecoverer(),
+            new FixedBackOff(
+                0l,
+                0l
+            )
+        );
+        retryTierErrorHandler.setCommitRecovered(
+            true
+        );
+        for(int tier = 0; tier < ((DefaultAppService)appService).getAccountingKafkaRetryTiers(); tier++)
+        {
+            retryTierContainers.add(
+                newRetryTierContainer(
+                    tier,
+                    retryTierErrorHandler
+                )
+            );
+        }
+        log.info(
+            "Kafka batch job retry topics ENABLED ; ({}) tier(s) {}, then dead-letter topic {}",
+            retryTierContainers.size(),
+            IntStream.range(
+                0,
+                retryTierContainers.size()
+            ).mapToObj(
+                tier -> String.format(
+                    "%s(%dms)",
+                    ((DefaultAppService)appService).getAccountingKafkaRetryTopic(
+                        tier
+                    ),
+                    ((DefaultAppService)appService).getAccountingKafkaRetryDelayMs(
+                        tier
+                    )
+                )
+            ).collect(
+                Collectors.joining(
+                    ", "
+                )
+            ),
+            ((DefaultAppService)appService).getAccountingKafkaDeadLetterTopic()
+        );
+    }
+
+    @PreDestroy
+    protected void destroy()
+    {
+        if(kafkaOperations instanceof KafkaTemplate)
+        {
+            ((KafkaTemplate<String, byte[]>)kafkaOperations).getProducerFactory().reset();
+        }
+    }
+
+    @Override
+    public void start()
+    {
+        if(kafkaOperations!=null)
+        {
+            createTopics();
+        }
+        this.running = true;
+        retryTierContainers.forEach(
+            KafkaMessageListenerContainer::start
+        );
+    }
+
+    @Override
+    public void stop()
+    {
+        // a waiting retry gives its batch job back (uncommitted) and returns
+        this.running = false;
+        retryTierContainers.forEach(
+            KafkaMessageListenerContainer::stop
+        );
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return running;
+    }
+
+    /**
+     * Send the dead letters back to the batch job topic, oldest first (per
+     * partition) ; each is consumed as a fresh batch job (retry attempts
+     * reset)
+     * <p>
+     * Every dead-letter topic partition is assigned and read from the
+     * position committed by the {@value #REDRIVE_GROUP_ID_SUFFIX} consumer
+     * group (from its beginning at first) up to its end offset when the call
+     * started, so a dead letter is re-driven once and the dead letters of a
+     * later failure wait for the next call
+     * </p>
+     * @param maxRecords                        Max dead letters to re-drive
+     * @return                                  Dead letters re-driven ;
+     *                                          {@code 0} once the dead-letter
+     *                                          topic is drained
+     * @throws InternalException                If the retry topics are
+     *                                          disabled, or the dead letters
+     *                                          could not be re-driven (none
+     *                                          of this call is committed, the
+     *                                          ones sent are re-driven twice)
+     * @since 1.0.0
+     */
+    public synchronized long redrive(final int maxRecords)
+    {
+        if(kafkaOperations==null)
+        {
+            throw new InternalException(
+                "Kafka batch job retry topics DISABLED ; nothing to re-drive"
+            );
+        }
+        final DefaultAppService defaultAppService = (DefaultAppService)appService;
+        final Properties consumerProperties = new Properties();
+        // a committed position past the topic retention restarts from the oldest
+        consumerProperties.setProperty(
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG,
+            "earliest"
+        );
+        consumerProperties.setProperty(
+            ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG,
+            "false"
+        );
+        consumerProperties.setProperty(
+            ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+            String.valueOf(
+                Math.max(
+                    1,
+                    maxRecords
+                )
+            )
+        );
+        try(final Consumer<String, byte[]> consumer = consumerFactory.createConsumer(
+            defaultAppService.getAccountingKafkaConsumerGroupId() + REDRIVE_GROUP_ID_SUFFIX,
+            null,
+            null,
+            consumerProperties
+        ))
+        {
+            final List<TopicPartition> deadLetterPartitions = Optional.ofNullable(
+                consumer.partitionsFor(
+                    defaultAppService.getAccountingKafkaDeadLetterTopic()
+                )
+            ).orElse(
+                List.of()
+            ).stream().map(
+                partitionInfo -> new TopicPartition(
+                    partitionInfo.topic(),
+                    partitionInfo.partition()
+                )
+            ).toList();
+            consumer.assign(
+                deadLetterPartitions
+            );
+            final Map<TopicPartition, OffsetAndMetadata> committedOffsets = consumer.committed(
+                new HashSet<>(
+                    deadLetterPartitions
+                )
+            );
+            deadLetterPartitions.forEach(
+                deadLetterPartition -> {
+                    final OffsetAndMetadata committedOffset = committedOffsets.get(
+                        deadLetterPartition
+                    );
+                    if(committedOffset!=null)
+                    {
+                        consumer.seek(
+                            deadLetterPartition,
+                            committedOffset
+                        );
+                    }
+                    else
+                    {
+                        consumer.seekToBeginning(
+                            List.of(
+                                deadLetterPartition
+                            )
+                        );
+                    }
+                }
+            );
+            // the dead letters of the call ; later ones wait for the next
+            final Map<TopicPartition, Long> endOffsets = consumer.endOffsets(
+                deadLetterPartitions
+            );
+            final Map<TopicPartition, OffsetAndMetadata> redrivenOffsets = new HashMap<>();
+            final List<CompletableFuture<?>> sends = new ArrayList<>();
+            int stalledPolls = 0;
+            while(sends.size()<maxRecords)
+            {
+                final List<TopicPartition> pendingPartitions = deadLetterPartitions.stream().filter(
+                    deadLetterPartition -> consumer.position(
+                        deadLetterPartition
+                    )<endOffsets.getOrDefault(
+                        deadLetterPartition,
+                        0l
+                    )
+                ).toList();
+                if(pendingPartitions.isEmpty())
+                {
+                    break;
+                }
+                if(stalledPolls>=REDRIVE_MAX_STALLED_POLLS)
+                {
+                    log.warn(
+                        "Kafka dead-letter topic {} re-drive STALLED ; partition(s) {} NOT DRAINED, left for the next re-drive",
+                        defaultAppService.getAccountingKafkaDeadLetterTopic(),
+                        pendingPartitions
+                    );
+                    break;
+                }
+                final ConsumerRecords<String, byte[]> deadLetters = consumer.poll(
+                    Duration.ofMillis(
+                        REDRIVE_POLL_TIMEOUT_MS
+                    )
+                );
+                stalledPolls = deadLetters.isEmpty()?stalledPolls + 1:0;
+                for(final ConsumerRecord<String, byte[]> deadLetter : deadLetters)
+                {
+                    final TopicPartition deadLetterPartition = new TopicPartition(
+                        deadLetter.topic(),
+                        deadLetter.partition()
+                    );
+                    if(sends.size()>=maxRecords || 
+                        deadLetter.offset()>=endOffsets.getOrDefault(deadLetterPartition, 0l))
+                    {
+                        continue;
+                    }
+                    sends.add(
+                        kafkaOperations.send(
+                            new ProducerRecord<>(
+                                defaultAppService.getAccountingKafkaTopic(),
+                                null,
+                                deadLetter.key(),
+                                deadLetter.value(),
+                                redriveHeaders(
+                                    deadLetter.headers()
+                                )
+                            )
+                        )
+                    );
+                    redrivenOffsets.put(
+                        deadLetterPartition,
+                        new OffsetAndMetadata(
+                            deadLetter.offset() + 1
+                        )
+                    );
+                }
+            }
+
+            // committed once every re-driven batch job is on the topic
+            CompletableFuture.allOf(
+                sends.toArray(
+                    CompletableFuture[]::new
+                )
+            ).join();
+            if(!redrivenOffsets.isEmpty())
+            {
+                consumer.commitSync(
+                    redrivenOffsets
+                );
+            }
+            log.info(
+                "Kafka dead-letter topic {} re-drive COMPLETED ; ({}) batch job(s) sent back to {}",
+                defaultAppService.getAccountingKafkaDeadLetterTopic(),
+                sends.size(),
+                defaultAppService.getAccountingKafkaTopic()
+            );
+            return sends.size();
+        }
+        catch(Exception e)
+        {
+            log.error(
+                "Kafka dead-letter topic {} re-drive FAILURE ; {}",
+                defaultAppService.getAccountingKafkaDeadLetterTopic(),
+                e.getMessage(),
+                e
+            );
+            throw new InternalException(
+                String.format(
+                    "Kafka dead-letter topic %s re-drive FAILURE ; %s",
+                    defaultAppService.getAccountingKafkaDeadLetterTopic(),
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+
+    /**
+     * Destination of a failed batch job ; the retry topic of its attempt,
+     * the dead-letter topic past the last tier or if it cannot be read
+     * @param record                            Failed record
+     * @param exception                         Failure
+     * @return                                  Destination ; no partition
+     *                                          ({@code -1}), the key picks it
+     * @since 1.0.0
+     */
+    @Nonnull
+    protected TopicPartition resolveDestination(@Nonnull
+                                                final ConsumerRecord<?, ?> record,
+                                                @Nullable
+                                                final Exception exception)
+    {
+        if(isDeadLetter(
+            record
+        ))
+        {
+            return new TopicPartition(
+                ((DefaultAppService)appService).getAccountingKafkaDeadLetterTopic(),
+                -1
+            );
+        }
+        return new TopicPartition(
+            ((DefaultAppService)appService).getAccountingKafkaRetryTopic(
+                retryAttempt(
+                    record
+                )
+            ),
+            -1
+        );
+    }
+
+    /**
+     * Headers added to a failed batch job ; its retry attempt and, unless
+     * dead-lettered, when it is due
+     * @param record                            Failed record
+     * @param exception                         Failure
+     * @return                                  Headers to add
+     * @since 1.0.0
+     */
+    @Nonnull
+    protected Headers retryHeaders(@Nonnull
+                                   final ConsumerRecord<?, ?> record,
+                                   @Nullable
+                                   final Exception exception)
+    {
+        final int retryAttempt = retryAttempt(
+            record
+        );
+        final Headers headers = new RecordHeaders();
+        headers.add(
+            RETRY_ATTEMPT_HEADER,
+            String.valueOf(
+                retryAttempt + 1
+            ).getBytes(
+                StandardCharsets.UTF_8
+            )
+        );
+        if(!isDeadLetter(
+            record
+        ))
+        {
+            headers.add(
+                RETRY_DUE_HEADER,
+                String.valueOf(
+                    System.currentTimeMillis() + ((DefaultAppService)appService).getAccountingKafkaRetryDelayMs(
+                        retryAttempt
+                    )
+                ).getBytes(
+                    StandardCharsets.UTF_8
+                )
+            );
+        }
+        return headers;
+    }
+
+    /**
+     * Producer of the retry and dead-letter topics ; overridden by the tests
+     * @return                                  Kafka operations, never
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    protected KafkaOperations<String, byte[]> newKafkaOperations()
+    {
+        final Map<String, Object> configProps = new HashMap<>();
+        configProps.put(
+            ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
+            ((DefaultAppService)appService).getAccountingKafkaEndpoint()
+        );
+        configProps.put(
+            ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
+            StringSerializer.class
+        );
+        configProps.put(
+            ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+            ByteArraySerializer.class
+        );
+        // a batch job must not be lost between topics
+        configProps.put(
+            ProducerConfig.ACKS_CONFIG,
+            "all"
+        );
+        configProps.put(
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG,
+            true
+        );
+        return new KafkaTemplate<>(
+            new DefaultKafkaProducerFactory<>(
+                configProps
+            )
+        );
+    }
+
+    /**
+     * Publish to the next retry topic (or the dead-letter topic) ; the ingest
+     * job is told of the failure once dead-lettered only
+     * @return                                  Recoverer, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    private ConsumerAwareRecordRecoverer newRecoverer()
+    {
+        final DeadLetterPublishingRecoverer deadLetterPublishingRecoverer = new DeadLetterPublishingRecoverer(
+            kafkaOperations,
+            this::resolveDestination
+        );
+        // keyed ; the producer partitioner picks the partition
+        deadLetterPublishingRecoverer.setVerifyPartition(
+            false
+        );
+        deadLetterPublishingRecoverer.setHeadersFunction(
+            this::retryHeaders
+        );
+        return (record, consumer, exception) -> {
+            deadLetterPublishingRecoverer.accept(
+                record,
+                consumer,
+                exception
+            );
+            if(isDeadLetter(
+                record
+            ))
+            {
+                failed(
+                    record,
+                    exception,
+                    String.format(
+                        "DEAD-LETTERED to %s after (%d) retry(ies)",
+                        ((DefaultAppService)appService).getAccountingKafkaDeadLetterTopic(),
+                        retryAttempt(
+                            record
+                        )
+                    ),
+                    "Batch '%s' dead-lettered ; %s"
+                );
+            }
+            else
+            {
+                log.warn(
+                    "Account transaction batch job from {}-{}@{} FAILURE, RETRY ({}) in ({})ms ; {}",
+                    record.topic(),
+                    record.partition(),
+                    record.offset(),
+                    retryAttempt(
+                        record
+                    ) + 1,
+                    ((DefaultAppService)appService).getAccountingKafkaRetryDelayMs(
+                        retryAttempt(
+                            record
+                        )
+                    ),
+                    NestedExceptionUtils.getMostSpecificCause(
+                        exception
+                    ).getMessage()
+                );
+            }
+        };
+    }
+
+    /**
+     * Retry topic container of a tier ; a record at a time, acked once
+     * persisted or recovered
+     * @param tier                              Retry tier
+     * @param retryTierErrorHandler             Error handler
+     * @return                                  Container, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    private KafkaMessageListenerContainer<String, byte[]> newRetryTierContainer(final int tier,
+                                                                                @Nonnull
+                                                                                final CommonErrorHandler retryTierErrorHandler)
+    {
+        final ContainerProperties containerProperties = new ContainerProperties(
+            ((DefaultAppService)appService).getAccountingKafkaRetryTopic(
+                tier
+            )
+        );
+        containerProperties.setGroupId(
+            ((DefaultAppService)appService).getAccountingKafkaConsumerGroupId() + DefaultAppService.ACCOUNTING_KAFKA_RETRY_TOPIC_SUFFIX + tier
+        );
+        containerProperties.setAckMode(
+            ContainerProperties.AckMode.MANUAL_IMMEDIATE
+        );
+        // the listener waits out the tier delay between polls
+        final Properties consumerProperties = new Properties();
+        consumerProperties.setProperty(
+            ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+            "1"
+        );
+        consumerProperties.setProperty(
+            ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG,
+            String.valueOf(
+                ((DefaultAppService)appService).getAccountingKafkaRetryDelayMs(
+                    tier
+                ) + MAX_POLL_INTERVAL_MS
+            )
+        );
+        containerProperties.setKafkaConsumerProperties(
+            consumerProperties
+        );
+        containerProperties.setMessageListener(
+            (AcknowledgingConsumerAwareMessageListener<String, byte[]>)(record, acknowledgment, consumer) -> {
+                if(!awaitRetryDue(
+                    record
+                ))
+                {
+                    // stopping ; consumed again once restarted
+                    consumer.seek(
+                        new TopicPartition(
+                            record.topic(),
+                            record.partition()
+                        ),
+                        record.offset()
+                    );
+                    return;
+                }
+                accountTransactionsBatchMessageKafkaConsumer.onMessage(
+                    record
+                );
+                acknowledgment.acknowledge();
+            }
+        );
+        final KafkaMessageListenerContainer<String, byte[]> retryTierContainer = new KafkaMessageListenerContainer<>(
+            consumerFactory,
+            containerProperties
+        );
+        retryTierContainer.setCommonErrorHandler(
+            retryTierErrorHandler
+        );
+        retryTierContainer.setBeanName(
+            ((DefaultAppService)appService).getAccountingKafkaRetryTopic(
+                tier
+            ) + "-container"
+        );
+        return retryTierContainer;
+    }
+
+    /**
+     * Wait until the retried batch job is due
+     * @param record                            Retried record
+     * @return                                  {@code true} once due,
+     *                                          {@code false} if stopped
+     *                                          before
+     * @since 1.0.0
+     */
+    private boolean awaitRetryDue(@Nonnull
+                                  final ConsumerRecord<String, byte[]> record)
+    {
+        final long retryDueMs = Optional.ofNullable(
+            record.headers().lastHeader(
+                RETRY_DUE_HEADER
+            )
+        ).map(
+            headerToProcess -> Long.parseLong(
+                new String(
+                    headerToProcess.value(),
+                    StandardCharsets.UTF_8
+                )
+            )
+        ).orElse(
+            0l
+        );
+        while(System.currentTimeMillis()<retryDueMs)
+        {
+            if(!running)
+            {
+                return false;
+            }
+            try
+            {
+                TimeUnit.MILLISECONDS.sleep(
+                    Math.min(
+                        RETRY_WAIT_SLICE_MS,
+                        retryDueMs - System.currentTimeMillis()
+                    )
+                );
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tell the ingest job of a batch job given up on (dead-lettered, or
+     * skipped after its in place retries) ; the only place a failed batch job
+     * of the Kafka transport is counted, so once whatever its attempts
+     * @param record                            Failed record
+     * @param exception                         Failure
+     * @param outcome                           What became of the record, for
+     *                                          the log
+     * @param ingestJobFailureFormat            Ingest job failure format of
+     *                                          the batch id and the failure
+     * @since 1.0.0
+     */
+    private void failed(@Nonnull
+                        final ConsumerRecord<?, ?> record,
+                        @Nullable
+                        final Exception exception,
+                        @Nonnull
+                        final String outcome,
+                        @Nonnull
+                        final String ingestJobFailureFormat)
+    {
+        final String failure = exception==null?
+            "unknown":
+            NestedExceptionUtils.getMostSpecificCause(
+                exception
+            ).getMessage();
+        log.error(
+            "Account transaction batch job from {}-{}@{} {} ; {}",
+            record.topic(),
+            record.partition(),
+            record.offset(),
+            outcome,
+            failure
+        );
+        Optional.ofNullable(
+            decode(
+                record
+            )
+        ).ifPresent(
+            accountTransactionsBatchJobToProcess -> accountTransactionsIngestJobRegistry.update(
+                accountTransactionsBatchJobToProcess.getJobId(),
+                ingestJobToProcess -> ingestJobToProcess.batchFailed(
+                    accountTransactionsBatchJobToProcess.getBatchId(),
+                    String.format(
+                        ingestJobFailureFormat,
+                        accountTransactionsBatchJobToProcess.getBatchId(),
+                        failure
+                    )
+                )
+            )
+        );
+    }
+
+    /**
+     * Whether a failed batch job goes to the dead-letter topic
+     * @param record                            Failed record
+     * @return                                  {@code true} past the last
+     *                                          tier, or if it cannot be read
+     *                                          (retrying would not help)
+     * @since 1.0.0
+     */
+    private boolean isDeadLetter(@Nonnull
+                                 final ConsumerRecord<?, ?> record)
+    {
+        return retryAttempt(
+            record
+        )>=((DefaultAppService)appService).getAccountingKafkaRetryTiers() || decode(
+            record
+        )==null;
+    }
+
+    /**
+     * @param record                            Record
+     * @return                                  Retry attempts the record went
+     *                                          through ; {@code 0} for a
+     *                                          first failure
+     * @since 1.0.0
+     */
+    private static int retryAttempt(@Nonnull
+                                    final ConsumerRecord<?, ?> record)
+    {
+        return Optional.ofNullable(
+            record.headers().lastHeader(
+                RETRY_ATTEMPT_HEADER
+            )
+        ).map(
+            headerToProcess -> Integer.parseInt(
+                new String(
+                    headerToProcess.value(),
+                    StandardCharsets.UTF_8
+                )
+            )
+        ).orElse(
+            0
+        );
+    }
+
+    /**
+     * @param record                            Record
+     * @return                                  Batch job ; {@code null} if
+     *                                          the payload cannot be read
+     * @since 1.0.0
+     */
+    @Nullable
+    private AccountTransactionsBatchJob decode(@Nonnull
+                                               final ConsumerRecord<?, ?> record)
+    {
+        if(!(record.value() instanceof byte[]))
+        {
+            return null;
+        }
+        try
+        {
+            return accountTransactionsBatchJobCodec.decode(
+                (byte[])record.value()
+            );
+        }
+        catch(Exception e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Headers of a re-driven dead letter ; retry and dead-letter headers
+     * dropped
+     * @param headers                           Dead letter headers
+     * @return                                  Headers, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    private static Headers redriveHeaders(@Nonnull
+                                          final Headers headers)
+    {
+        final Headers redriveHeaders = new RecordHeaders();
+        for(final Header header : headers)
+        {
+            if(!header.key().startsWith(
+                KafkaHeaders.PREFIX
+            ) && !RETRY_ATTEMPT_HEADER.equals(
+                header.key()
+            ) && !RETRY_DUE_HEADER.equals(
+                header.key()
+            ))
+            {
+                redriveHeaders.add(
+                    header
+                );
+            }
+        }
+        return redriveHeaders;
+    }
+
+    /**
+     * Create the retry and dead-letter topics with the partitions of the
+     * batch job topic (keyed records stay on the same partition number) ;
+     * left to the broker topic auto creation if it fails
+     * @since 1.0.0
+     */
+    private void createTopics()
+    {
+        final DefaultAppService defaultAppService = (DefaultAppService)appService;
+        final Map<String, Object> configProps = new HashMap<>();
+        configProps.put(
+            AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+            defaultAppService.getAccountingKafkaEndpoint()
+        );
+        configProps.put(
+            AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG,
+            (int)TOPIC_CREATE_TIMEOUT_MS
+        );
+        configProps.put(
+            AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG,
+            (int)TOPIC_CREATE_TIMEOUT_MS
+        );
+        try(final Admin admin = Admin.create(
+            configProps
+        ))
+        {
+            final int topicPartitions = admin.describeTopics(
+                List.of(
+                    defaultAppService.getAccountingKafkaTopic()
+                )
+            ).allTopicNames().get(
+                TOPIC_CREATE_TIMEOUT_MS,
+                TimeUnit.MILLISECONDS
+            ).get(
+                defaultAppService.getAccountingKafkaTopic()
+            ).partitions().size();
+            final List<NewTopic> newTopics = new ArrayList<>();
+            for(int tier = 0; tier < retryTierContainers.size(); tier++)
+            {
+                newTopics.add(
+                    new NewTopic(
+                        defaultAppService.getAccountingKafkaRetryTopic(
+                            tier
+                        ),
+                        Optional.of(
+                            topicPartitions
+                        ),
+                        Optional.empty()
+                    )
+                );
+            }
+            newTopics.add(
+                new NewTopic(
+                    defaultAppService.getAccountingKafkaDeadLetterTopic(),
+                    Optional.of(
+                        topicPartitions
+                    ),
+                    Optional.empty()
+                )
+            );
+            admin.createTopics(
+                newTopics
+            ).values().forEach(
+                (topic, created) -> {
+                    try
+                    {
+                        created.get(
+                            TOPIC_CREATE_TIMEOUT_MS,
+                            TimeUnit.MILLISECONDS
+                        );
+                        log.info(
+                            "Kafka topic {} of ({}) partition(s) CREATED",
+                            topic,
+                            topicPartitions
+                        );
+                    }
+                    catch(InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    catch(Exception e)
+                    {
+                        if(!(e.getCause() instanceof TopicExistsException))
+                        {
+                            log.warn(
+                                "Kafka topic {} create FAILURE, left to the broker ; {}",
+                                topic,
+                                e.getMessage()
+                            );
+                        }
+                    }
+                }
+            );
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch(Exception e)
+        {
+            log.warn(
+                "Kafka retry and dead-letter topics create FAILURE, left to the broker ; {}",
+                e.getMessage()
+            );
+        }
+    }
+}
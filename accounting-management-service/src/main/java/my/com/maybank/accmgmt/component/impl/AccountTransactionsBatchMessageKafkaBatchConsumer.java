@@ -0,0 +1,416 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.service.AccountingService;
+import my.com.maybank.core.configuration.service.AppService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link my.com.maybank.accmgmt.models.AccountTransactionsBatchJob} message
+ * consumer of a whole poll ; see {@link DefaultAppService.ListenerMode#BATCH}
+ * <p>
+ * Consecutive batch jobs of the poll with the same operation and ingest job
+ * are merged into one batch job persisted in a single database transaction
+ * (its rows flushed as JDBC batches), so the commit count no longer grows
+ * with the batch count. Consecutive only, so an <b>UPDATE</b> never overtakes
+ * the <b>CREATE</b> polled before it
+ * </p>
+ * <p>
+ * A merged batch job failing to persist is split in halves retried in order
+ * until the failing batch job is isolated ; the batch jobs before it stay
+ * persisted and the listener fails with a {@link BatchListenerFailedException}
+ * at its index, so the container error handler commits the offsets before
+ * it and retries (then skips) it and the rest of the poll
+ * </p>
+ * @since 1.0.0
+ * @see AccountTransactionsBatchMessageKafkaConsumer
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Accessors(
+    fluent = false,
+    chain = true
+)
+@Getter
+@Setter
+@RequiredArgsConstructor
+@Component
+public class AccountTransactionsBatchMessageKafkaBatchConsumer
+       implements BatchMessageListener<String, byte[]>,
+                  BatchAcknowledgingMessageListener<String, byte[]>
+{
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
+
+    @NonNull
+    @Nonnull
+    private final AccountingService accountingService;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsBatchSizer accountTransactionsBatchSizer;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsProcessedBatches accountTransactionsProcessedBatches;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsOffsetCommits accountTransactionsOffsetCommits;
+
+    /**
+     * Consume a poll, acknowledging its offsets once persisted ; see
+     * {@link DefaultAppService.ListenerAckMode#AFTER_COMMIT}
+     * @param data                              Consumer records
+     * @param acknowledgment                    Offset acknowledgement ;
+     *                                          {@code null} if the listener
+     *                                          container commits by itself
+     * @since 1.0.0
+     */
+    @Override
+    public void onMessage(final List<ConsumerRecord<String, byte[]>> data,
+                          @Nullable
+                          final Acknowledgment acknowledgment)
+    {
+        if(acknowledgment==null || !accountTransactionsOffsetCommits.isEnabled())
+        {
+            onMessage(
+                data
+            );
+            return;
+        }
+        accountTransactionsOffsetCommits.track(
+            data,
+            acknowledgment::acknowledge
+        );
+        try
+        {
+            onMessage(
+                data
+            );
+        }
+        catch(RuntimeException e)
+        {
+            // the error handler commits the batch jobs persisted before the
+            // failing one, then retries or recovers it
+            accountTransactionsOffsetCommits.failed(
+                data
+            );
+            throw e;
+        }
+        accountTransactionsOffsetCommits.completed(
+            data
+        );
+    }
+
+    @Override
+    public void onMessage(final List<ConsumerRecord<String, byte[]>> data)
+    {
+        log.info(
+            "Kafka endpoint {} consuming ({}) record(s) ...",
+            ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+            data.size()
+        );
+        final List<AccountTransactionsBatchJob> accountTransactionsBatchJobs = new ArrayList<>(
+            data.size()
+        );
+        for(int i = 0; i < data.size(); i++)
+        {
+            try
+            {
+                accountTransactionsBatchJobs.add(
+                    accountTransactionsBatchJobCodec.decode(
+                        data.get(
+                            i
+                        ).value()
+                    )
+                );
+            }
+            catch(Exception e)
+            {
+                // persist what came before, the error handler takes it from here
+                persist(
+                    accountTransactionsBatchJobs
+                );
+                log.error(
+                    "Account transaction batch job listen from {} FAILURE ; record ({}) of ({}) UNREADABLE ; {}",
+                    ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                    i,
+                    data.size(),
+                    e.getMessage(),
+                    e
+                );
+                throw new BatchListenerFailedException(
+                    String.format(
+                        "Account transaction batch job listen from %s FAILURE ; %s",
+                        ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                        e.getMessage()
+                    ),
+                    e,
+                    i
+                );
+            }
+        }
+        persist(
+            accountTransactionsBatchJobs
+        );
+    }
+
+    /**
+     * Persist the batch jobs, a run of mergeable batch jobs at a time
+     * @param accountTransactionsBatchJobs      Batch jobs, in poll order (from
+     *                                          index {@code 0})
+     * @throws BatchListenerFailedException     At the first batch job that
+     *                                          could not be persisted
+     * @since 1.0.0
+     */
+    protected void persist(@Nonnull
+                           final List<AccountTransactionsBatchJob> accountTransactionsBatchJobs)
+    {
+        int runStart = 0;
+        for(int i = 1; i <= accountTransactionsBatchJobs.size(); i++)
+        {
+            if(i==accountTransactionsBatchJobs.size() || !isMergeable(
+                accountTransactionsBatchJobs.get(
+                    runStart
+                ),
+                accountTransactionsBatchJobs.get(
+                    i
+                )
+            ))
+            {
+                persistRun(
+                    accountTransactionsBatchJobs.subList(
+                        runStart,
+                        i
+                    ),
+                    runStart
+                );
+                runStart = i;
+            }
+        }
+    }
+
+    /**
+     * Persist a run merged, splitting it on failure
+     * @param run                               Mergeable batch jobs
+     * @param index                             Poll index of the first one
+     * @since 1.0.0
+     */
+    private void persistRun(@Nonnull
+                            final List<AccountTransactionsBatchJob> run,
+                            final int index)
+    {
+        try
+        {
+            persistMerged(
+                run
+            );
+        }
+        catch(Exception e)
+        {
+            if(run.size()>1)
+            {
+                log.warn(
+                    "Account transaction merged batch job of ({}) batch job(s) FAILURE, SPLITTING ; {}",
+                    run.size(),
+                    e.getMessage()
+                );
+                final int half = run.size()/2;
+                persistRun(
+                    run.subList(
+                        0,
+                        half
+                    ),
+                    index
+                );
+                persistRun(
+                    run.subList(
+                        half,
+                        run.size()
+                    ),
+                    index + half
+                );
+                return;
+            }
+            final AccountTransactionsBatchJob accountTransactionsBatchJob = run.get(
+                0
+            );
+            // the container error handler tells the ingest job once it gives 
+            // up on the batch job, not on every attempt
+            log.error(
+                "Account transaction batch job '{}' process FAILURE ; {}",
+                accountTransactionsBatchJob.getBatchId(),
+                e.getMessage(),
+                e
+            );
+            throw new BatchListenerFailedException(
+                String.format(
+                    "Account transaction batch job '%s' process FAILURE ; %s",
+                    accountTransactionsBatchJob.getBatchId(),
+                    e.getMessage()
+                ),
+                e,
+                index
+            );
+        }
+    }
+
+    /**
+     * Persist the run as one batch job, in one database transaction
+     * @since 1.0.0
+     */
+    private void persistMerged(@Nonnull
+                               final List<AccountTransactionsBatchJob> polledRun)
+    {
+        // redelivered ; counted by the ingest job already
+        final List<AccountTransactionsBatchJob> run = polledRun.stream().filter(
+            accountTransactionsBatchJobToProcess -> !accountTransactionsProcessedBatches.isProcessed(
+                accountTransactionsBatchJobToProcess.getBatchId()
+            )
+        ).toList();
+        if(run.size()<polledRun.size())
+        {
+            log.info(
+                "Account transaction batch job(s) PERSISTED ALREADY, SKIPPED ; ({}) of ({}) redelivered",
+                polledRun.size() - run.size(),
+                polledRun.size()
+            );
+        }
+        if(run.isEmpty())
+        {
+            return;
+        }
+        final AccountTransactionsBatchJob firstAccountTransactionsBatchJob = run.get(
+            0
+        );
+        if(firstAccountTransactionsBatchJob.getOperation()==AccountTransactionsBatchJob.Operation.COMMIT)
+        {
+            // read_committed ; every batch of the upload is visible too
+            log.info(
+                "Account transaction upload job ID({}) COMMITTED ; ({}) batch(es) published",
+                firstAccountTransactionsBatchJob.getJobId(),
+                firstAccountTransactionsBatchJob.getBatchSize()
+            );
+            return;
+        }
+
+        final AccountTransactionsBatchJob mergedAccountTransactionsBatchJob;
+        if(run.size()==1)
+        {
+            mergedAccountTransactionsBatchJob = firstAccountTransactionsBatchJob;
+        }
+        else
+        {
+            final List<AccountTransaction> mergedBatchAccountTransaction = new ArrayList<>();
+            run.forEach(
+                accountTransactionsBatchJobToProcess -> mergedBatchAccountTransaction.addAll(
+                    accountTransactionsBatchJobToProcess.getBatchAccountTransaction()
+                )
+            );
+            mergedAccountTransactionsBatchJob = new AccountTransactionsBatchJob().setBatchId(
+                firstAccountTransactionsBatchJob.getBatchId()
+            ).setJobId(
+                firstAccountTransactionsBatchJob.getJobId()
+            ).setBatchSize(
+                mergedBatchAccountTransaction.size()
+            ).setOperation(
+                firstAccountTransactionsBatchJob.getOperation()
+            ).setPartitionKey(
+                firstAccountTransactionsBatchJob.getPartitionKey()
+            ).setBatchAccountTransaction(
+                mergedBatchAccountTransaction
+            ).setMergedBatchIds(
+                run.stream().map(
+                    AccountTransactionsBatchJob::getBatchId
+                ).toList()
+            );
+        }
+
+        final long persistStartNanos = System.nanoTime();
+        final long completedBatchProcess = accountingService.batchConsumerOperationAccountTransactions(
+            mergedAccountTransactionsBatchJob
+        );
+        if(completedBatchProcess==AccountingService.BATCH_PERSISTED_ALREADY)
+        {
+            // claimed by an earlier delivery ; counted by the ingest job 
+            // already
+            return;
+        }
+        // the adaptive batch policy tunes the producer batches ; feed it the
+        // average per (producer) batch job
+        accountTransactionsBatchSizer.persisted(
+            mergedAccountTransactionsBatchJob.getBatchAccountTransaction().stream().mapToLong(
+                AccountTransactionsBatchAssembler::estimateSerializedBytes
+            ).sum()/run.size(),
+            (System.nanoTime() - persistStartNanos)/run.size()
+        );
+        log.info(
+            "Account transaction batch job ID({}) operation ({}) COMPLETED ; ({}) batch job(s) merged, total no. of ITEMS PROCESSED({})",
+            mergedAccountTransactionsBatchJob.getBatchId(),
+            mergedAccountTransactionsBatchJob.getOperation(),
+            run.size(),
+            completedBatchProcess
+        );
+        // every batch job counts as persisted, the rows once
+        for(int i = 0; i < run.size(); i++)
+        {
+            final long batchRows = i==0?completedBatchProcess:0l;
+            final AccountTransactionsBatchJob persistedAccountTransactionsBatchJob = run.get(
+                i
+            );
+            accountTransactionsIngestJobRegistry.update(
+                persistedAccountTransactionsBatchJob.getJobId(),
+                ingestJobToProcess -> ingestJobToProcess.batchPersisted(
+                    persistedAccountTransactionsBatchJob.getBatchId(),
+                    batchRows
+                )
+            );
+        }
+    }
+
+    /**
+     * @return                                  {@code true} if the next batch
+     *                                          job can be merged into the run
+     * @since 1.0.0
+     */
+    private static boolean isMergeable(@Nonnull
+                                       final AccountTransactionsBatchJob runAccountTransactionsBatchJob,
+                                       @Nonnull
+                                       final AccountTransactionsBatchJob nextAccountTransactionsBatchJob)
+    {
+        return runAccountTransactionsBatchJob.getOperation()!=AccountTransactionsBatchJob.Operation.COMMIT &&
+               runAccountTransactionsBatchJob.getOperation()==nextAccountTransactionsBatchJob.getOperation() &&
+               Objects.equals(
+                   runAccountTransactionsBatchJob.getJobId(),
+                   nextAccountTransactionsBatchJob.getJobId()
+               );
+    }
+}
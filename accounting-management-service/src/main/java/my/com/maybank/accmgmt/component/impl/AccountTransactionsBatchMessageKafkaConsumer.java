@@ -1,10 +1,9 @@
 package my.com.maybank.accmgmt.component.impl;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.Nonnull;
-import java.lang.reflect.Type;
-import java.util.concurrent.atomic.AtomicReference;
+import jakarta.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -18,7 +17,9 @@ import my.com.maybank.accmgmt.service.AccountingService;
 import my.com.maybank.core.configuration.service.AppService;
 import my.com.maybank.core.exception.InternalException;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
 import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 /**
@@ -37,8 +38,9 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 @Component
 public class AccountTransactionsBatchMessageKafkaConsumer
-       implements MessageConsumer<String>,
-                  MessageListener<String, String> 
+       implements MessageConsumer<byte[]>,
+                  MessageListener<String, byte[]>,
+                  AcknowledgingMessageListener<String, byte[]>
 {
     @NonNull
     @Nonnull
@@ -46,19 +48,84 @@ public class AccountTransactionsBatchMessageKafkaConsumer
     
     @NonNull
     @Nonnull
-    private final ObjectMapper objectMapper;
+    private final AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
     
     @NonNull
     @Nonnull
     private final AccountingService accountingService;
     
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry;
+    
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsBatchSizer accountTransactionsBatchSizer;
+    
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsProcessedBatches accountTransactionsProcessedBatches;
+    
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsOffsetCommits accountTransactionsOffsetCommits;
+    
+    /**
+     * Consume a record, acknowledging its offset once persisted ; see 
+     * {@link DefaultAppService.ListenerAckMode#AFTER_COMMIT}
+     * @param data                              Consumer record
+     * @param acknowledgment                    Offset acknowledgement ; 
+     *                                          {@code null} if the listener 
+     *                                          container commits by itself
+     * @since 1.0.0
+     */
     @Override
-    public void onMessage(final ConsumerRecord<String, String> data)
+    public void onMessage(final ConsumerRecord<String, byte[]> data,
+                          @Nullable
+                          final Acknowledgment acknowledgment)
+    {
+        if(acknowledgment==null || !accountTransactionsOffsetCommits.isEnabled())
+        {
+            onMessage(
+                data
+            );
+            return;
+        }
+        final List<ConsumerRecord<String, byte[]>> records = List.of(
+            data
+        );
+        accountTransactionsOffsetCommits.track(
+            records,
+            acknowledgment::acknowledge
+        );
+        try
+        {
+            onMessage(
+                data
+            );
+        }
+        catch(RuntimeException e)
+        {
+            // the error handler retries or recovers it
+            accountTransactionsOffsetCommits.failed(
+                records
+            );
+            throw e;
+        }
+        accountTransactionsOffsetCommits.completed(
+            records
+        );
+    }
+    
+    @Override
+    public void onMessage(final ConsumerRecord<String, byte[]> data)
     {
         log.debug(
             "Received consumer record data SUCCESS ; \n\tkey={} \n\tvalue={}",
             data.key(),
-            data.value()
+            describe(
+                data.value()
+            )
         );
         listenMessage(
             data.value()
@@ -66,57 +133,190 @@ public class AccountTransactionsBatchMessageKafkaConsumer
     }
     
     @Override
-    public void listenMessage(final String message)
+    public void listenMessage(final byte[] message)
     {
         log.info(
             "Kafka endpoint {} consuming ...\n\t{}",
             ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
-            message
+            describe(
+                message
+            )
         );
         
-        final AtomicReference<AccountTransactionsBatchJob> accountTransactionsBatchJobAsType = new AtomicReference<>();
+        final AccountTransactionsBatchJob accountTransactionsBatchJob;
         try
         {
-            accountTransactionsBatchJobAsType.set(
-                objectMapper.readValue(
-                    message,
-                    new TypeReference<AccountTransactionsBatchJob>() {
-                        @Override
-                        public Type getType()
-                        {
-                            return AccountTransactionsBatchJob.class;
-                        }
-                    }
-                )
+            accountTransactionsBatchJob = accountTransactionsBatchJobCodec.decode(
+                message
+            );
+        }
+        catch(Exception e)
+        {
+            log.error(
+                "Account transaction batch job listen from {} FAILURE ; {}, payload ---\n\t{}", 
+                ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                e.getMessage(),
+                describe(
+                    message
+                ),
+                e
+            );
+            throw new InternalException(
+                String.format(
+                    "Account transaction batch job listen from %s FAILURE ; %s",
+                    ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                    e.getMessage()
+                ),
+                e
             );
+        }
+        processBatchJob(
+            accountTransactionsBatchJob
+        );
+    }
+    
+    /**
+     * Persist a (decoded) batch job and report it to its ingest job ; 
+     * whatever transport it came through
+     * @param accountTransactionsBatchJob       Batch job. Must not be 
+     *                                          {@code null}
+     * @throws InternalException                If the batch could not be 
+     *                                          persisted (the ingest job is 
+     *                                          told so)
+     * @since 1.0.0
+     */
+    public void processBatchJob(@Nonnull
+                                final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        try
+        {
+            if(accountTransactionsBatchJob.getOperation()==AccountTransactionsBatchJob.Operation.COMMIT)
+            {
+                // read_committed ; every batch of the upload is visible too
+                log.info(
+                    "Account transaction upload job ID({}) COMMITTED ; ({}) batch(es) published",
+                    accountTransactionsBatchJob.getJobId(),
+                    accountTransactionsBatchJob.getBatchSize()
+                );
+                return;
+            }
+            if(accountTransactionsProcessedBatches.isProcessed(
+                accountTransactionsBatchJob.getBatchId()
+            ))
+            {
+                // redelivered ; counted by the ingest job already
+                log.info(
+                    "Account transaction batch job ID({}) PERSISTED ALREADY, SKIPPED ; redelivered",
+                    accountTransactionsBatchJob.getBatchId()
+                );
+                return;
+            }
             
+            final long persistStartNanos = System.nanoTime();
             final long completedBatchProcess = accountingService.batchConsumerOperationAccountTransactions(
-                accountTransactionsBatchJobAsType.get()
+                accountTransactionsBatchJob
+            );
+            if(completedBatchProcess==AccountingService.BATCH_PERSISTED_ALREADY)
+            {
+                // claimed by an earlier delivery ; counted by the ingest job 
+                // already
+                return;
+            }
+            // persist latency feedback for the adaptive batch policy ; the 
+            // budget is in estimated JSON bytes whatever the wire format
+            accountTransactionsBatchSizer.persisted(
+                accountTransactionsBatchJob.getBatchAccountTransaction().stream().mapToLong(
+                    AccountTransactionsBatchAssembler::estimateSerializedBytes
+                ).sum(),
+                System.nanoTime() - persistStartNanos
             );
             log.info(
                 "Account transaction batch job ID({}) operation ({}) COMPLETED ; total no. of ITEMS PROCESSED({})",
-                accountTransactionsBatchJobAsType.get().getBatchId(),
-                accountTransactionsBatchJobAsType.get().getOperation(),
+                accountTransactionsBatchJob.getBatchId(),
+                accountTransactionsBatchJob.getOperation(),
                 completedBatchProcess
             );
+            accountTransactionsIngestJobRegistry.update(
+                accountTransactionsBatchJob.getJobId(),
+                ingestJobToProcess -> ingestJobToProcess.batchPersisted(
+                    accountTransactionsBatchJob.getBatchId(),
+                    completedBatchProcess
+                )
+            );
         }
         catch(Exception e)
         {
+            // the Kafka container error handler tells the ingest job once it 
+            // gives up on the batch job, not on every attempt
+            if(!isKafkaTransport())
+            {
+                accountTransactionsIngestJobRegistry.update(
+                    accountTransactionsBatchJob.getJobId(),
+                    ingestJobToProcess -> ingestJobToProcess.batchFailed(
+                        accountTransactionsBatchJob.getBatchId(),
+                        String.format(
+                            "Batch '%s' ; %s",
+                            accountTransactionsBatchJob.getBatchId(),
+                            e.getMessage()
+                        )
+                    )
+                );
+            }
             log.error(
-                "Account transaction batch job listen from {} FAILURE ; {}, payload ---\n\t{}", 
-                ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                "Account transaction batch job '{}' process FAILURE ; {}", 
+                accountTransactionsBatchJob.getBatchId(),
                 e.getMessage(),
-                message,
                 e
             );
             throw new InternalException(
                 String.format(
-                    "Account transaction batch job listen from %s FAILURE ; %s",
-                    ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                    "Account transaction batch job '%s' process FAILURE ; %s",
+                    accountTransactionsBatchJob.getBatchId(),
                     e.getMessage()
                 ),
                 e
             );
         }
     }
+    
+    /**
+     * Loggable form of a message ; JSON as is, binary as its size
+     * @param message                           Message payload
+     * @return                                  Loggable message
+     * @since 1.0.0
+     */
+    @Nonnull
+    private static String describe(final byte[] message)
+    {
+        if(message==null)
+        {
+            return "null";
+        }
+        if(AccountTransactionsBatchJobCodec.isBinary(
+            message
+        ))
+        {
+            return String.format(
+                "<binary batch job of (%d) bytes>",
+                message.length
+            );
+        }
+        return new String(
+            message,
+            StandardCharsets.UTF_8
+        );
+    }
+    
+    /**
+     * Whether a failing batch job is left to the Kafka listener container 
+     * error handler ; see {@link AccountTransactionsBatchJobRetryTiers#getErrorHandler()}
+     * @return                                  {@code true} with the 
+     *                                          {@link DefaultAppService.Transport#KAFKA} 
+     *                                          transport
+     * @since 1.0.0
+     */
+    private boolean isKafkaTransport()
+    {
+        return ((DefaultAppService)appService).getAccountingTransport()==DefaultAppService.Transport.KAFKA;
+    }
 }
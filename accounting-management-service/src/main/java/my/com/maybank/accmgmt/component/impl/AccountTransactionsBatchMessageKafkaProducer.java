@@ -1,12 +1,22 @@
 package my.com.maybank.accmgmt.component.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
@@ -17,13 +27,19 @@ import lombok.extern.slf4j.Slf4j;
 import my.com.maybank.accmgmt.configuration.DefaultAppService;
 import my.com.maybank.accmgmt.models.AccountTransaction;
 import my.com.maybank.core.configuration.service.AppService;
+import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
-import my.com.maybank.accmgmt.component.MessageProducer;
+import my.com.maybank.accmgmt.component.MessagePublisher;
 import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
 import my.com.maybank.core.exception.InternalException;
 
@@ -41,17 +57,28 @@ import my.com.maybank.core.exception.InternalException;
 @Getter
 @Setter
 @RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "app.service.accounting.transport",
+    havingValue = "KAFKA",
+    matchIfMissing = true
+)
 @Component
 public class AccountTransactionsBatchMessageKafkaProducer
-       implements MessageProducer<AccountTransactionsBatchJob>
+       implements MessagePublisher<AccountTransactionsBatchJob, ProducerRecord<String, byte[]>>
 {
+    /**
+     * Effective producer tuning metric name
+     * @since 1.0.0
+     */
+    public static final String PRODUCER_CONFIG_METRIC = "accounting.kafka.producer.config";
+    
     @NonNull
     @Nonnull
     private final AppService appService;
     
     @NonNull
     @Nonnull
-    private final ObjectMapper objectMapper;
+    private final AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
     
     @Getter(
         AccessLevel.PROTECTED
@@ -60,7 +87,32 @@ public class AccountTransactionsBatchMessageKafkaProducer
         AccessLevel.PROTECTED
     )
     @Nonnull
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    
+    /**
+     * Sends awaiting the broker acknowledgement ; see 
+     * {@link DefaultAppService#getAccountingKafkaPublishMaxInFlight()}
+     * @since 1.0.0
+     */
+    @Getter(
+        AccessLevel.PROTECTED
+    )
+    @Setter(
+        AccessLevel.NONE
+    )
+    private Semaphore inFlightPermits;
+    
+    /**
+     * Effective producer tuning exposed as metrics
+     * @since 1.0.0
+     */
+    @Getter(
+        AccessLevel.PROTECTED
+    )
+    @Setter(
+        AccessLevel.NONE
+    )
+    private ObservableLongGauge producerConfigGauge;
     
     @PostConstruct
     protected void init()
@@ -68,23 +120,148 @@ public class AccountTransactionsBatchMessageKafkaProducer
         this.kafkaTemplate = new KafkaTemplate<>(
             producerFactory()
         );
+        // plain sends (e.g. UPDATE batches) stay outside of any transaction
+        this.kafkaTemplate.setAllowNonTransactional(
+            true
+        );
+        this.inFlightPermits = new Semaphore(
+            ((DefaultAppService)appService).getAccountingKafkaPublishMaxInFlight()
+        );
+        final DefaultAppService defaultAppService = (DefaultAppService)appService;
+        final Map<String, Object> producerConfigs = producerConfigs();
+        final AttributeKey<String> configAttributeKey = AttributeKey.stringKey(
+            "config"
+        );
+        final AttributeKey<String> valueAttributeKey = AttributeKey.stringKey(
+            "value"
+        );
+        // numeric settings as is, flags as 0/1, names as a value attribute
+        this.producerConfigGauge = GlobalOpenTelemetry.getMeter(
+            getClass().getName()
+        ).gaugeBuilder(
+            PRODUCER_CONFIG_METRIC
+        ).ofLongs().setDescription(
+            "Effective Kafka producer tuning of the account transaction batch jobs"
+        ).buildWithCallback(
+            measurement -> {
+                measurement.record(
+                    1l,
+                    Attributes.of(
+                        configAttributeKey,
+                        "profile",
+                        valueAttributeKey,
+                        defaultAppService.getAccountingKafkaProducerProfile().name()
+                    )
+                );
+                producerConfigs.forEach(
+                    (producerConfigName, producerConfigValue) -> {
+                        if(producerConfigValue instanceof Number)
+                        {
+                            measurement.record(
+                                ((Number)producerConfigValue).longValue(),
+                                Attributes.of(
+                                    configAttributeKey,
+                                    producerConfigName
+                                )
+                            );
+                        }
+                        else if(producerConfigValue instanceof Boolean)
+                        {
+                            measurement.record(
+                                ((Boolean)producerConfigValue) ? 1l : 0l,
+                                Attributes.of(
+                                    configAttributeKey,
+                                    producerConfigName
+                                )
+                            );
+                        }
+                        else
+                        {
+                            measurement.record(
+                                1l,
+                                Attributes.of(
+                                    configAttributeKey,
+                                    producerConfigName,
+                                    valueAttributeKey,
+                                    String.valueOf(
+                                        producerConfigValue
+                                    )
+                                )
+                            );
+                        }
+                    }
+                );
+            }
+        );
         log.info(
-            "Kafka producer INITIALIZED"
+            "Kafka producer INITIALIZED ; profile {}, tuning {}",
+            defaultAppService.getAccountingKafkaProducerProfile(),
+            producerConfigs
         );
     }
     
     @PreDestroy
     protected void destroy()
     {
+        producerConfigGauge.close();
         getKafkaTemplate().destroy();
         log.info(
             "Kafka producer DESTROYED"
         );
     }
     
-    protected ProducerFactory<String, String> producerFactory()
+    /**
+     * Producer tuning ; {@link DefaultAppService#getAccountingKafkaProducerConfigs()} 
+     * with the send retries
+     * <p>
+     * A failed send is only retried by the Kafka producer itself 
+     * ({@link DefaultAppService#getAccountingKafkaPublishRetries()} times, 
+     * {@link DefaultAppService#getAccountingKafkaPublishRetryBackoffMs()} 
+     * apart) ; an idempotent producer keeps the partition order and writes a 
+     * retried record once. Without idempotence the in-flight requests per 
+     * connection default to {@code 1}, so a retry cannot overtake the next 
+     * batch of its key either
+     * </p>
+     * @return                                  Kafka producer properties (by 
+     *                                          {@link ProducerConfig} name)
+     * @since 1.0.0
+     */
+    @Nonnull
+    protected Map<String, Object> producerConfigs()
     {
-        final Map<String, Object> configProps = new HashMap<>();
+        final Map<String, Object> producerConfigs = new LinkedHashMap<>(
+            ((DefaultAppService)appService).getAccountingKafkaProducerConfigs()
+        );
+        producerConfigs.put(
+            ProducerConfig.RETRIES_CONFIG,
+            ((DefaultAppService)appService).getAccountingKafkaPublishRetries()
+        );
+        producerConfigs.put(
+            ProducerConfig.RETRY_BACKOFF_MS_CONFIG,
+            ((DefaultAppService)appService).getAccountingKafkaPublishRetryBackoffMs()
+        );
+        if(Boolean.FALSE.equals(producerConfigs.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG)))
+        {
+            producerConfigs.putIfAbsent(
+                ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION,
+                1
+            );
+        }
+        return producerConfigs;
+    }
+    
+    /**
+     * Producer factory ; tuned by {@link #producerConfigs()}
+     * @return                                  Producer factory
+     * @throws InternalException                If the producer configuration 
+     *                                          is invalid (fails the startup)
+     * @since 1.0.0
+     */
+    protected ProducerFactory<String, byte[]> producerFactory()
+    {
+        final Map<String, Object> configProps = new HashMap<>(
+            producerConfigs()
+        );
         configProps.put(
             ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
             ((DefaultAppService)appService).getAccountingKafkaEndpoint()
@@ -95,11 +272,71 @@ public class AccountTransactionsBatchMessageKafkaProducer
         );
         configProps.put(
             ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
-            StringSerializer.class
+            ByteArraySerializer.class
         );
-        return new DefaultKafkaProducerFactory<>(
+        final boolean publishTransactional = ((DefaultAppService)appService).getAccountingKafkaPublishTransactional();
+        try
+        {
+            // same checks as the (lazily created) Kafka producer, up front
+            final Map<String, Object> checkedConfigProps = new HashMap<>(
+                configProps
+            );
+            if(publishTransactional)
+            {
+                checkedConfigProps.put(
+                    ProducerConfig.TRANSACTIONAL_ID_CONFIG,
+                    ((DefaultAppService)appService).getAccountingKafkaPublishTransactionalIdPrefix()
+                );
+            }
+            new ProducerConfig(
+                checkedConfigProps
+            );
+        }
+        catch(ConfigException e)
+        {
+            throw new InternalException(
+                String.format(
+                    "Configuration for property 'app.service.accounting.kafka.producer' IS INVALID ; %s",
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+        final DefaultKafkaProducerFactory<String, byte[]> producerFactory = new DefaultKafkaProducerFactory<>(
             configProps
         );
+        if(publishTransactional)
+        {
+            producerFactory.setTransactionIdPrefix(
+                ((DefaultAppService)appService).getAccountingKafkaPublishTransactionalIdPrefix()
+            );
+        }
+        return producerFactory;
+    }
+    
+    /**
+     * Begin a Kafka transaction for the batches of an upload ; only with 
+     * {@link DefaultAppService#getAccountingKafkaPublishTransactional()}
+     * @return                                  Transaction ; publish the 
+     *                                          batches then 
+     *                                          {@link Transaction#commit(org.apache.kafka.clients.producer.ProducerRecord)}, 
+     *                                          closing it uncommitted aborts it
+     * @since 1.0.0
+     * @see AccountTransactionsIngestPipeline
+     */
+    @Nonnull
+    public Transaction beginTransaction()
+    {
+        if(!getKafkaTemplate().isTransactional())
+        {
+            throw new InternalException(
+                "Kafka producer IS NOT TRANSACTIONAL ; see property 'app.service.accounting.kafka.publish-transactional'"
+            );
+        }
+        return new Transaction(
+            getKafkaTemplate().getProducerFactory().createProducer(),
+            ((DefaultAppService)appService).getAccountingKafkaPublishTransactionBatches()
+        );
     }
     
     @Override
@@ -111,46 +348,535 @@ public class AccountTransactionsBatchMessageKafkaProducer
             ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
             accountTransactionsBatchJob
         );
-        
-        final AtomicReference<String> accountTransactionsBatchJobAsJson = new AtomicReference<>();
-        final String kafkaTopic = ((DefaultAppService)appService).getAccountingKafkaTopic();
+        sendSerializedRecord(
+            serializeRecord(
+                accountTransactionsBatchJob
+            )
+        );
+    }
+    
+    @Nonnull
+    @Override
+    public ProducerRecord<String, byte[]> prepareMessage(@Nonnull
+                                                         final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        return serializeRecord(
+            accountTransactionsBatchJob
+        );
+    }
+    
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> publishMessage(@Nonnull
+                                                  final ProducerRecord<String, byte[]> accountTransactionsBatchJobRecord)
+    {
+        return publishSerializedRecord(
+            accountTransactionsBatchJobRecord
+        );
+    }
+    
+    /**
+     * Serialise the batch job to its message payload (in the 
+     * {@link DefaultAppService#getAccountingKafkaWireFormat()} format) ; the 
+     * CPU bound half of {@link #sendMessage(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)}
+     * @param accountTransactionsBatchJob       Batch job. Must not be 
+     *                                          {@code null}
+     * @return                                  Message payload
+     * @since 1.0.0
+     * @see AccountTransactionsIngestPipeline
+     */
+    @Nonnull
+    public byte[] serializeMessage(@Nonnull
+                                   final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
         try
         {
-            accountTransactionsBatchJobAsJson.set(
-                objectMapper.writeValueAsString(
-                    accountTransactionsBatchJob
-                )
-            );
-            getKafkaTemplate().send(
-                kafkaTopic, 
-                accountTransactionsBatchJobAsJson.get()
-            );
-            log.info(
-                "Account transaction batch job sent to {} SUCCESS ; payload ---\n\t{}", 
-                ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
-                accountTransactionsBatchJobAsJson.get()
-            );
-            accountTransactionsBatchJobAsJson.set(
-                null
+            return accountTransactionsBatchJobCodec.encode(
+                accountTransactionsBatchJob
             );
         }
         catch(Exception e)
         {
             log.error(
-                "Account transaction batch job sent to {} FAILURE ; {}, payload ---\n\t{}", 
-                ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                "Account transaction batch job '{}' serialise FAILURE ; {}", 
+                accountTransactionsBatchJob.getBatchId(),
                 e.getMessage(),
-                accountTransactionsBatchJobAsJson.get(),
                 e
             );
             throw new InternalException(
                 String.format(
-                    "Account transaction batch job sent to %s FAILURE ; %s",
-                    ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                    "Account transaction batch job '%s' serialise FAILURE ; %s",
+                    accountTransactionsBatchJob.getBatchId(),
                     e.getMessage()
                 ),
                 e
             );
         }
     }
+    
+    /**
+     * Serialise the batch job to its Kafka record ; keyed by 
+     * {@link AccountTransactionsBatchJob#getPartitionKey()} (if any) so every 
+     * batch of a key lands on the same partition
+     * @param accountTransactionsBatchJob       Batch job. Must not be 
+     *                                          {@code null}
+     * @return                                  Record for 
+     *                                          {@link DefaultAppService#getAccountingKafkaTopic()}
+     * @since 1.0.0
+     * @see #serializeMessage(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)
+     */
+    @Nonnull
+    public ProducerRecord<String, byte[]> serializeRecord(@Nonnull
+                                                          final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        return new ProducerRecord<>(
+            ((DefaultAppService)appService).getAccountingKafkaTopic(),
+            accountTransactionsBatchJob.getPartitionKey(),
+            serializeMessage(
+                accountTransactionsBatchJob
+            )
+        );
+    }
+    
+    /**
+     * Send an already serialised batch job payload and wait for the broker 
+     * acknowledgement ; the I/O half of 
+     * {@link #sendMessage(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)}
+     * @param accountTransactionsBatchJobBytes   Message payload. Must not be 
+     *                                          {@code null}
+     * @throws InternalException                If the send still fails after 
+     *                                          the producer retries (see 
+     *                                          {@link #producerConfigs()})
+     * @since 1.0.0
+     * @see #publishSerializedMessage(byte[])
+     */
+    public void sendSerializedMessage(@Nonnull
+                                      final byte[] accountTransactionsBatchJobBytes)
+    {
+        sendSerializedRecord(
+            new ProducerRecord<>(
+                ((DefaultAppService)appService).getAccountingKafkaTopic(),
+                accountTransactionsBatchJobBytes
+            )
+        );
+    }
+    
+    /**
+     * Send an already serialised batch job record and wait for the broker 
+     * acknowledgement
+     * @param accountTransactionsBatchJobRecord  Record. Must not be 
+     *                                          {@code null}
+     * @throws InternalException                If the send still fails after 
+     *                                          the producer retries (see 
+     *                                          {@link #producerConfigs()})
+     * @since 1.0.0
+     * @see #publishSerializedRecord(org.apache.kafka.clients.producer.ProducerRecord)
+     */
+    public void sendSerializedRecord(@Nonnull
+                                     final ProducerRecord<String, byte[]> accountTransactionsBatchJobRecord)
+    {
+        try
+        {
+            publishSerializedRecord(
+                accountTransactionsBatchJobRecord
+            ).join();
+        }
+        catch(CompletionException e)
+        {
+            if(e.getCause() instanceof InternalException)
+            {
+                throw (InternalException)e.getCause();
+            }
+            throw new InternalException(
+                e.getCause().getMessage(),
+                e.getCause()
+            );
+        }
+    }
+    
+    /**
+     * Send an already serialised batch job payload without waiting for the 
+     * broker acknowledgement
+     * <p>
+     * At most {@link DefaultAppService#getAccountingKafkaPublishMaxInFlight()} 
+     * sends await their acknowledgement ; the calling thread blocks until a 
+     * slot frees up. A failed send is retried by the Kafka producer (see 
+     * {@link #producerConfigs()}) before the returned future fails ; it is 
+     * never resent on top, which could duplicate it or reorder its key
+     * </p>
+     * @param accountTransactionsBatchJobBytes   Message payload. Must not be 
+     *                                          {@code null}
+     * @return                                  Future completing once the 
+     *                                          broker acknowledged the 
+     *                                          payload
+     * @since 1.0.0
+     * @see AccountTransactionsIngestPipeline
+     */
+    @Nonnull
+    public CompletableFuture<Void> publishSerializedMessage(@Nonnull
+                                                            final byte[] accountTransactionsBatchJobBytes)
+    {
+        return publishSerializedRecord(
+            new ProducerRecord<>(
+                ((DefaultAppService)appService).getAccountingKafkaTopic(),
+                accountTransactionsBatchJobBytes
+            )
+        );
+    }
+    
+    /**
+     * Send an already serialised batch job record without waiting for the 
+     * broker acknowledgement ; same in-flight bound and retries as 
+     * {@link #publishSerializedMessage(byte[])}
+     * @param accountTransactionsBatchJobRecord  Record. Must not be 
+     *                                          {@code null}
+     * @return                                  Future completing once the 
+     *                                          broker acknowledged the 
+     *                                          record
+     * @since 1.0.0
+     * @see AccountTransactionsIngestPipeline
+     */
+    @Nonnull
+    public CompletableFuture<Void> publishSerializedRecord(@Nonnull
+                                                           final ProducerRecord<String, byte[]> accountTransactionsBatchJobRecord)
+    {
+        final CompletableFuture<Void> acknowledged = acquireInFlight();
+        publish(
+            accountTransactionsBatchJobRecord,
+            acknowledged
+        );
+        return acknowledged;
+    }
+    
+    /**
+     * Wait for an in-flight slot
+     * @return                                  Acknowledgement future ; 
+     *                                          releases the slot once done
+     * @throws InternalException                If interrupted meanwhile
+     * @since 1.0.0
+     */
+    @Nonnull
+    private CompletableFuture<Void> acquireInFlight()
+    {
+        try
+        {
+            inFlightPermits.acquire();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InternalException(
+                String.format(
+                    "Account transaction batch job send to %s INTERRUPTED",
+                    ((DefaultAppService)appService).getAccountingKafkaEndpoint()
+                ),
+                e
+            );
+        }
+        final CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+        acknowledged.whenComplete(
+            (result, e) -> inFlightPermits.release()
+        );
+        return acknowledged;
+    }
+    
+    /**
+     * Send ; completes {@code acknowledged} once the broker acknowledged the 
+     * record or the producer gave up retrying it
+     * @since 1.0.0
+     */
+    private void publish(@Nonnull
+                         final ProducerRecord<String, byte[]> accountTransactionsBatchJobRecord,
+                         @Nonnull
+                         final CompletableFuture<Void> acknowledged)
+    {
+        CompletableFuture<SendResult<String, byte[]>> sent;
+        try
+        {
+            sent = getKafkaTemplate().send(
+                accountTransactionsBatchJobRecord
+            );
+        }
+        catch(Exception e)
+        {
+            sent = CompletableFuture.failedFuture(
+                e
+            );
+        }
+        sent.whenComplete(
+            (sendResult, e) -> {
+                if(Objects.isNull(e))
+                {
+                    log.debug(
+                        "Account transaction batch job key '{}' payload of ({}) bytes sent to {} ACKNOWLEDGED ; partition ({}) offset ({})", 
+                        accountTransactionsBatchJobRecord.key(),
+                        accountTransactionsBatchJobRecord.value().length,
+                        ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                        sendResult.getRecordMetadata().partition(),
+                        sendResult.getRecordMetadata().offset()
+                    );
+                    acknowledged.complete(
+                        null
+                    );
+                    return;
+                }
+                log.error(
+                    "Account transaction batch job sent to {} FAILURE ; {}, payload of ({}) bytes", 
+                    ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                    e.getMessage(),
+                    accountTransactionsBatchJobRecord.value().length,
+                    e
+                );
+                acknowledged.completeExceptionally(
+                    new InternalException(
+                        String.format(
+                            "Account transaction batch job sent to %s FAILURE ; %s",
+                            ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                            e.getMessage()
+                        ),
+                        e
+                    )
+                );
+            }
+        );
+    }
+    
+    /**
+     * Kafka transaction spanning the batches of an upload
+     * <p>
+     * Batches are sent from any thread without waiting (up to 
+     * {@link DefaultAppService#getAccountingKafkaPublishMaxInFlight()}) ; 
+     * failed sends are not resent (the Kafka producer already retries, a 
+     * failure aborts the transaction). With 
+     * {@link DefaultAppService#getAccountingKafkaPublishTransactionBatches()} 
+     * greater than {@code 0} the transaction is committed and a new one begun 
+     * every that many batches, so an aborted upload may leave the batches of 
+     * earlier transactions visible
+     * </p>
+     * @since 1.0.0
+     */
+    public final class Transaction
+           implements AutoCloseable
+    {
+        @Nonnull
+        private final Producer<String, byte[]> producer;
+        
+        private final int transactionBatches;
+        
+        /**
+         * Sends hold the read lock, commits the write lock
+         * @since 1.0.0
+         */
+        @Nonnull
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        
+        @Nonnull
+        private final AtomicInteger batchesInTransaction = new AtomicInteger();
+        
+        /**
+         * Batches acknowledged (committed or not)
+         * @since 1.0.0
+         */
+        @Getter
+        @Nonnull
+        private final AtomicLong batchesAcknowledged = new AtomicLong();
+        
+        private volatile boolean committed;
+        
+        private Transaction(@Nonnull
+                            final Producer<String, byte[]> producer,
+                            final int transactionBatches)
+        {
+            this.producer = producer;
+            this.transactionBatches = transactionBatches;
+            try
+            {
+                producer.beginTransaction();
+            }
+            catch(RuntimeException e)
+            {
+                producer.close();
+                throw new InternalException(
+                    String.format(
+                        "Account transaction batch job transaction begin on %s FAILURE ; %s",
+                        ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                        e.getMessage()
+                    ),
+                    e
+                );
+            }
+        }
+        
+        /**
+         * Send a batch job record in the transaction without waiting for the 
+         * broker acknowledgement
+         * @param accountTransactionsBatchJobRecord  Record. Must not be 
+         *                                          {@code null}
+         * @return                                  Future completing once the 
+         *                                          broker acknowledged the 
+         *                                          record (uncommitted)
+         * @since 1.0.0
+         */
+        @Nonnull
+        public CompletableFuture<Void> publish(@Nonnull
+                                               final ProducerRecord<String, byte[]> accountTransactionsBatchJobRecord)
+        {
+            final CompletableFuture<Void> acknowledged = acquireInFlight();
+            try
+            {
+                if(transactionBatches>0 && 
+                    batchesInTransaction.get()>=transactionBatches)
+                {
+                    commitAndBegin();
+                }
+                lock.readLock().lock();
+                try
+                {
+                    batchesInTransaction.incrementAndGet();
+                    producer.send(
+                        accountTransactionsBatchJobRecord,
+                        (recordMetadata, e) -> {
+                            if(Objects.isNull(e))
+                            {
+                                batchesAcknowledged.incrementAndGet();
+                                acknowledged.complete(
+                                    null
+                                );
+                                return;
+                            }
+                            acknowledged.completeExceptionally(
+                                new InternalException(
+                                    String.format(
+                                        "Account transaction batch job sent to %s in transaction FAILURE ; %s",
+                                        ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                                        e.getMessage()
+                                    ),
+                                    e
+                                )
+                            );
+                        }
+                    );
+                }
+                finally
+                {
+                    lock.readLock().unlock();
+                }
+            }
+            catch(RuntimeException e)
+            {
+                acknowledged.completeExceptionally(
+                    e
+                );
+            }
+            return acknowledged;
+        }
+        
+        /**
+         * Send the commit marker and commit ; every record sent in the 
+         * transaction becomes visible to {@code read_committed} consumers at 
+         * once
+         * @param commitMarkerRecord            Commit marker record. Must not 
+         *                                      be {@code null}
+         * @throws InternalException            If the commit failed (the 
+         *                                      transaction is aborted on 
+         *                                      {@link #close()})
+         * @since 1.0.0
+         */
+        public void commit(@Nonnull
+                           final ProducerRecord<String, byte[]> commitMarkerRecord)
+        {
+            lock.writeLock().lock();
+            try
+            {
+                producer.send(
+                    commitMarkerRecord
+                );
+                producer.commitTransaction();
+                committed = true;
+                log.info(
+                    "Account transaction batch job transaction on {} COMMITTED ; ({}) batch(es) acknowledged",
+                    ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                    batchesAcknowledged.get()
+                );
+            }
+            catch(RuntimeException e)
+            {
+                throw new InternalException(
+                    String.format(
+                        "Account transaction batch job transaction commit on %s FAILURE ; %s",
+                        ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                        e.getMessage()
+                    ),
+                    e
+                );
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        /**
+         * Commit the batches so far and begin the next transaction ; waits 
+         * for the sends in progress
+         * @since 1.0.0
+         */
+        private void commitAndBegin()
+        {
+            lock.writeLock().lock();
+            try
+            {
+                if(batchesInTransaction.get()>=transactionBatches)
+                {
+                    producer.commitTransaction();
+                    log.debug(
+                        "Account transaction batch job transaction of ({}) batch(es) COMMITTED ; next one begun",
+                        batchesInTransaction.get()
+                    );
+                    batchesInTransaction.set(
+                        0
+                    );
+                    producer.beginTransaction();
+                }
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        /**
+         * Abort the transaction unless committed, then release the producer
+         * @since 1.0.0
+         */
+        @Override
+        public void close()
+        {
+            try
+            {
+                if(!committed)
+                {
+                    producer.abortTransaction();
+                    log.warn(
+                        "Account transaction batch job transaction on {} ABORTED ; ({}) uncommitted batch(es) discarded",
+                        ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                        batchesInTransaction.get()
+                    );
+                }
+            }
+            catch(RuntimeException e)
+            {
+                log.error(
+                    "Account transaction batch job transaction abort on {} FAILURE ; {}",
+                    ((DefaultAppService)appService).getAccountingKafkaEndpoint(),
+                    e.getMessage(),
+                    e
+                );
+            }
+            finally
+            {
+                producer.close();
+            }
+        }
+    }
 }
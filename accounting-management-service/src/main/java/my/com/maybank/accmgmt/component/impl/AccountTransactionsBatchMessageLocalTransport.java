@@ -0,0 +1,845 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.MessageConsumer;
+import my.com.maybank.accmgmt.component.MessagePublisher;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.utils.BoundedMpmcQueue;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.InternalException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process {@link my.com.maybank.accmgmt.models.AccountTransactionsBatchJob}
+ * transport for single node deployments ; takes the place of the Kafka
+ * producer and consumer with {@link DefaultAppService.Transport#LOCAL}
+ * <p>
+ * Published batch jobs go into a preallocated ring of
+ * {@link DefaultAppService#getAccountingLocalRingCapacity()} slots (a full
+ * ring holds the publisher back) drained by a single consumer thread, up to
+ * {@link DefaultAppService#getAccountingLocalConsumerBatch()} batch jobs a
+ * round, persisting them as the Kafka consumer would
+ * ({@link AccountTransactionsBatchMessageKafkaConsumer#processBatchJob(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)})
+ * </p>
+ * <p>
+ * With {@link DefaultAppService.LocalDurability#JOURNAL} every batch job is
+ * appended (length prefixed, codec encoded) to
+ * {@link DefaultAppService#getAccountingLocalJournalPath()} and synced
+ * before it counts as published ; concurrent publishers share a sync (group
+ * commit). The consumer checkpoints its journal position after every round
+ * and empties the journal once it caught up ; on startup the batch jobs past
+ * the checkpoint are replayed (a torn tail record is dropped)
+ * </p>
+ * @since 1.0.0
+ * @see BoundedMpmcQueue
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@ConditionalOnProperty(
+    name = "app.service.accounting.transport",
+    havingValue = "LOCAL"
+)
+@Component
+public class AccountTransactionsBatchMessageLocalTransport
+       implements MessagePublisher<AccountTransactionsBatchJob, AccountTransactionsBatchMessageLocalTransport.Entry>,
+                  MessageConsumer<AccountTransactionsBatchJob>
+{
+    /**
+     * Idle rounds spent spinning before parking
+     * @since 1.0.0
+     */
+    private static final int IDLE_SPINS = 100;
+
+    /**
+     * Max park time of an idle (or backed off) thread
+     * @since 1.0.0
+     */
+    private static final long IDLE_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(
+        1l
+    );
+
+    /**
+     * Max time the consumer is given to drain the ring on shutdown
+     * @since 1.0.0
+     */
+    private static final long DRAIN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(
+        30l
+    );
+
+    @Nonnull
+    private final AppService appService;
+
+    @Nonnull
+    private final AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
+
+    /**
+     * Persists a consumed batch job
+     * @since 1.0.0
+     */
+    @Getter(
+        AccessLevel.NONE
+    )
+    @Nonnull
+    private final Consumer<AccountTransactionsBatchJob> batchJobProcessor;
+
+    @Getter(
+        AccessLevel.PROTECTED
+    )
+    private BoundedMpmcQueue<Entry> ring;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private Thread consumerThread;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private volatile boolean running;
+
+    /**
+     * Journal ; {@code null} unless {@link DefaultAppService.LocalDurability#JOURNAL}
+     * @since 1.0.0
+     */
+    @Getter(
+        AccessLevel.NONE
+    )
+    @Nullable
+    private FileChannel journal;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    @Nullable
+    private FileChannel checkpoint;
+
+    /**
+     * Serialises journal appends with their ring enqueue (same order in both)
+     * @since 1.0.0
+     */
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final ReentrantLock journalLock = new ReentrantLock();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final Object syncMonitor = new Object();
+
+    /**
+     * Journal positions are logical ; they keep growing when the journal file
+     * is emptied (the file starts at {@link #journalBase})
+     * @since 1.0.0
+     */
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final AtomicLong journalAppended = new AtomicLong();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final AtomicLong journalSynced = new AtomicLong();
+
+    /**
+     * Logical position of the journal file start ; consumer thread only
+     * @since 1.0.0
+     */
+    @Getter(
+        AccessLevel.NONE
+    )
+    private long journalBase;
+
+    /**
+     * Batch jobs taken off the ring
+     * @since 1.0.0
+     */
+    private final AtomicLong batchJobsConsumed = new AtomicLong();
+
+    @Autowired
+    public AccountTransactionsBatchMessageLocalTransport(@Nonnull
+                                                         final AppService appService,
+                                                         @Nonnull
+                                                         final AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec,
+                                                         @Nonnull
+                                                         final AccountTransactionsBatchMessageKafkaConsumer accountTransactionsBatchMessageKafkaConsumer)
+    {
+        this(
+            appService,
+            accountTransactionsBatchJobCodec,
+            accountTransactionsBatchMessageKafkaConsumer::processBatchJob
+        );
+    }
+
+    AccountTransactionsBatchMessageLocalTransport(@Nonnull
+                                                  final AppService appService,
+                                                  @Nonnull
+                                                  final AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec,
+                                                  @Nonnull
+                                                  final Consumer<AccountTransactionsBatchJob> batchJobProcessor)
+    {
+        this.appService = Objects.requireNonNull(
+            appService
+        );
+        this.accountTransactionsBatchJobCodec = Objects.requireNonNull(
+            accountTransactionsBatchJobCodec
+        );
+        this.batchJobProcessor = Objects.requireNonNull(
+            batchJobProcessor
+        );
+    }
+
+    @PostConstruct
+    protected void init()
+    {
+        final DefaultAppService defaultAppService = (DefaultAppService)appService;
+        this.ring = new BoundedMpmcQueue<>(
+            defaultAppService.getAccountingLocalRingCapacity()
+        );
+        final List<Entry> replayEntries = defaultAppService.getAccountingLocalDurability()==DefaultAppService.LocalDurability.JOURNAL?
+            openJournal(
+                defaultAppService.getAccountingLocalJournalPath()
+            ):
+            new ArrayList<>();
+
+        this.running = true;
+        this.consumerThread = new Thread(
+            this::consumeLoop,
+            "local-transport-consumer"
+        );
+        this.consumerThread.setDaemon(
+            true
+        );
+        this.consumerThread.start();
+        for(Entry replayEntry : replayEntries)
+        {
+            enqueue(
+                replayEntry
+            );
+        }
+        log.info(
+            "Local transport INITIALIZED ; ring capacity ({}), consumer batch ({}), durability ({}), ({}) batch job(s) replayed",
+            ring.capacity(),
+            defaultAppService.getAccountingLocalConsumerBatch(),
+            defaultAppService.getAccountingLocalDurability(),
+            replayEntries.size()
+        );
+    }
+
+    @PreDestroy
+    protected void destroy()
+    {
+        running = false;
+        if(consumerThread!=null)
+        {
+            try
+            {
+                consumerThread.join(
+                    DRAIN_TIMEOUT_MILLIS
+                );
+                if(consumerThread.isAlive())
+                {
+                    consumerThread.interrupt();
+                    consumerThread.join(
+                        DRAIN_TIMEOUT_MILLIS
+                    );
+                }
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if(ring!=null && ring.size()>0)
+        {
+            log.warn(
+                "Local transport CLOSED with ({}) batch job(s) NOT CONSUMED ; {}",
+                ring.size(),
+                journal!=null?"replayed on restart":"LOST"
+            );
+        }
+        closeQuietly(
+            journal
+        );
+        closeQuietly(
+            checkpoint
+        );
+    }
+
+    @Override
+    public void sendMessage(@Nonnull
+                            final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        try
+        {
+            publishMessage(
+                prepareMessage(
+                    accountTransactionsBatchJob
+                )
+            ).join();
+        }
+        catch(CompletionException e)
+        {
+            if(e.getCause() instanceof InternalException)
+            {
+                throw (InternalException)e.getCause();
+            }
+            throw new InternalException(
+                e.getCause().getMessage(),
+                e.getCause()
+            );
+        }
+    }
+
+    /**
+     * Prepare the batch job for the ring ; encoded (for the journal) with
+     * {@link DefaultAppService.LocalDurability#JOURNAL} only
+     * @param accountTransactionsBatchJob       Batch job. Must not be
+     *                                          {@code null}
+     * @return                                  Ring entry
+     * @throws InternalException                If the batch job could not be
+     *                                          encoded
+     * @since 1.0.0
+     */
+    @Nonnull
+    @Override
+    public Entry prepareMessage(@Nonnull
+                                final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        if(journal==null)
+        {
+            return new Entry(
+                accountTransactionsBatchJob,
+                null
+            );
+        }
+        try
+        {
+            final byte[] accountTransactionsBatchJobBytes = accountTransactionsBatchJobCodec.encode(
+                accountTransactionsBatchJob
+            );
+            return new Entry(
+                accountTransactionsBatchJob,
+                ByteBuffer.allocate(
+                    Integer.BYTES + accountTransactionsBatchJobBytes.length
+                ).putInt(
+                    accountTransactionsBatchJobBytes.length
+                ).put(
+                    accountTransactionsBatchJobBytes
+                ).flip()
+            );
+        }
+        catch(Exception e)
+        {
+            throw new InternalException(
+                String.format(
+                    "Account transaction batch job '%s' serialise FAILURE ; %s",
+                    accountTransactionsBatchJob.getBatchId(),
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+
+    /**
+     * Hand the entry over to the consumer thread ; blocks while the ring is
+     * full
+     * @param entry                             Ring entry. Must not be
+     *                                          {@code null}
+     * @return                                  Future completing once the
+     *                                          entry is in the ring (and
+     *                                          synced to the journal with
+     *                                          {@link DefaultAppService.LocalDurability#JOURNAL})
+     * @since 1.0.0
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> publishMessage(@Nonnull
+                                                  final Entry entry)
+    {
+        if(!running)
+        {
+            return CompletableFuture.failedFuture(
+                new InternalException(
+                    "Local transport IS CLOSED"
+                )
+            );
+        }
+        if(journal==null)
+        {
+            enqueue(
+                entry
+            );
+            return CompletableFuture.completedFuture(
+                null
+            );
+        }
+        try
+        {
+            journalLock.lock();
+            try
+            {
+                while(entry.record.hasRemaining())
+                {
+                    journal.write(
+                        entry.record
+                    );
+                }
+                entry.journalPosition = journalAppended.addAndGet(
+                    entry.record.limit()
+                );
+                enqueue(
+                    entry
+                );
+            }
+            finally
+            {
+                journalLock.unlock();
+            }
+            sync(
+                entry.journalPosition
+            );
+            return CompletableFuture.completedFuture(
+                null
+            );
+        }
+        catch(IOException e)
+        {
+            return CompletableFuture.failedFuture(
+                new InternalException(
+                    String.format(
+                        "Account transaction batch job '%s' journal append FAILURE ; %s",
+                        entry.accountTransactionsBatchJob.getBatchId(),
+                        e.getMessage()
+                    ),
+                    e
+                )
+            );
+        }
+    }
+
+    /**
+     * Process the batch job on the calling thread, bypassing the ring
+     * @param accountTransactionsBatchJob       Batch job. Must not be
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Override
+    public void listenMessage(@Nonnull
+                              final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        batchJobProcessor.accept(
+            accountTransactionsBatchJob
+        );
+    }
+
+    /**
+     * Consumer thread ; drains the ring a batch at a time until closed (and
+     * drained)
+     * @since 1.0.0
+     */
+    private void consumeLoop()
+    {
+        final int consumerBatch = ((DefaultAppService)appService).getAccountingLocalConsumerBatch();
+        int idle = 0;
+        while(!Thread.currentThread().isInterrupted())
+        {
+            long consumedPosition = -1l;
+            int consumed = 0;
+            Entry entry;
+            while(consumed<consumerBatch && (entry = ring.poll())!=null)
+            {
+                consumed++;
+                consumedPosition = Math.max(
+                    consumedPosition,
+                    process(
+                        entry
+                    )
+                );
+            }
+            if(consumed==0)
+            {
+                if(!running)
+                {
+                    return;
+                }
+                idle = idle(
+                    idle
+                );
+                continue;
+            }
+            idle = 0;
+            batchJobsConsumed.addAndGet(
+                consumed
+            );
+            if(consumedPosition>=0l)
+            {
+                checkpoint(
+                    consumedPosition
+                );
+            }
+        }
+    }
+
+    /**
+     * Process a ring entry ; a failed batch job is reported to its ingest job
+     * by the processor and not retried
+     * @return                                  Journal position of the entry,
+     *                                          {@code -1} without journal
+     * @since 1.0.0
+     */
+    private long process(@Nonnull
+                         final Entry entry)
+    {
+        try
+        {
+            if(entry.journalPosition>=0l)
+            {
+                // never persist a batch job the journal could still lose
+                sync(
+                    entry.journalPosition
+                );
+            }
+            batchJobProcessor.accept(
+                entry.accountTransactionsBatchJob
+            );
+        }
+        catch(Exception e)
+        {
+            log.warn(
+                "Local transport batch job '{}' DROPPED ; {}",
+                entry.accountTransactionsBatchJob.getBatchId(),
+                e.getMessage()
+            );
+        }
+        return entry.journalPosition;
+    }
+
+    /**
+     * Put the entry into the ring, backing off while it is full
+     * @since 1.0.0
+     */
+    private void enqueue(@Nonnull
+                         final Entry entry)
+    {
+        int idle = 0;
+        while(!ring.offer(
+            entry
+        ))
+        {
+            idle = idle(
+                idle
+            );
+        }
+    }
+
+    /**
+     * Sync the journal up to (at least) the position ; a single sync covers
+     * every append made before it
+     * @since 1.0.0
+     */
+    private void sync(final long journalPosition)
+            throws IOException
+    {
+        if(journalSynced.get()>=journalPosition)
+        {
+            return;
+        }
+        synchronized(syncMonitor)
+        {
+            if(journalSynced.get()>=journalPosition)
+            {
+                return;
+            }
+            final long appended = journalAppended.get();
+            journal.force(
+                false
+            );
+            journalSynced.set(
+                appended
+            );
+        }
+    }
+
+    /**
+     * Record the consumed journal position ; empties the journal once every
+     * append is consumed
+     * @since 1.0.0
+     */
+    private void checkpoint(final long consumedPosition)
+    {
+        try
+        {
+            if(consumedPosition==journalAppended.get() && journalLock.tryLock())
+            {
+                try
+                {
+                    if(consumedPosition==journalAppended.get())
+                    {
+                        journal.truncate(
+                            0l
+                        );
+                        journalBase = consumedPosition;
+                    }
+                }
+                finally
+                {
+                    journalLock.unlock();
+                }
+            }
+            checkpoint.write(
+                ByteBuffer.allocate(
+                    Long.BYTES
+                ).putLong(
+                    0,
+                    consumedPosition - journalBase
+                ),
+                0l
+            );
+            checkpoint.force(
+                false
+            );
+        }
+        catch(IOException e)
+        {
+            // replayed again on restart at worst
+            log.warn(
+                "Local transport journal checkpoint FAILURE ; {}",
+                e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Open the journal and its checkpoint, dropping a torn tail record
+     * @return                                  Entries past the checkpoint,
+     *                                          to replay
+     * @since 1.0.0
+     */
+    @Nonnull
+    private List<Entry> openJournal(@Nonnull
+                                    final Path journalPath)
+    {
+        final List<Entry> replayEntries = new ArrayList<>();
+        try
+        {
+            Files.createDirectories(
+                journalPath.toAbsolutePath().getParent()
+            );
+            this.journal = FileChannel.open(
+                journalPath,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            );
+            this.checkpoint = FileChannel.open(
+                journalPath.resolveSibling(
+                    journalPath.getFileName() + ".checkpoint"
+                ),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            );
+            final ByteBuffer checkpointBuffer = ByteBuffer.allocate(
+                Long.BYTES
+            );
+            long position = checkpoint.read(
+                checkpointBuffer,
+                0l
+            )==Long.BYTES?checkpointBuffer.getLong(0):0l;
+            final long journalSize = journal.size();
+            if(position<0l || position>journalSize)
+            {
+                // emptied right after the checkpoint was written
+                position = journalSize;
+            }
+            final ByteBuffer lengthBuffer = ByteBuffer.allocate(
+                Integer.BYTES
+            );
+            while(journalSize - position>=Integer.BYTES)
+            {
+                lengthBuffer.clear();
+                journal.read(
+                    lengthBuffer,
+                    position
+                );
+                final int length = lengthBuffer.getInt(
+                    0
+                );
+                if(length<0 || journalSize - position - Integer.BYTES<length)
+                {
+                    break;
+                }
+                final ByteBuffer recordBuffer = ByteBuffer.allocate(
+                    length
+                );
+                journal.read(
+                    recordBuffer,
+                    position + Integer.BYTES
+                );
+                final AccountTransactionsBatchJob accountTransactionsBatchJob;
+                try
+                {
+                    accountTransactionsBatchJob = accountTransactionsBatchJobCodec.decode(
+                        recordBuffer.array()
+                    );
+                }
+                catch(IOException e)
+                {
+                    log.warn(
+                        "Local transport journal record at ({}) UNREADABLE ; {}",
+                        position,
+                        e.getMessage()
+                    );
+                    break;
+                }
+                position += Integer.BYTES + length;
+                final Entry replayEntry = new Entry(
+                    accountTransactionsBatchJob,
+                    null
+                );
+                replayEntry.journalPosition = position;
+                replayEntries.add(
+                    replayEntry
+                );
+            }
+            if(position<journalSize)
+            {
+                log.warn(
+                    "Local transport journal {} TRUNCATED ; ({}) byte(s) torn tail dropped",
+                    journalPath,
+                    journalSize - position
+                );
+                journal.truncate(
+                    position
+                );
+            }
+            journal.position(
+                position
+            );
+            journal.force(
+                false
+            );
+            journalAppended.set(
+                position
+            );
+            journalSynced.set(
+                position
+            );
+            return replayEntries;
+        }
+        catch(IOException e)
+        {
+            throw new InternalException(
+                String.format(
+                    "Local transport journal %s open FAILURE ; %s",
+                    journalPath,
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+
+    /**
+     * Spin first, then park with an exponential back-off capped at
+     * {@link #IDLE_MAX_PARK_NANOS}
+     * @since 1.0.0
+     */
+    private static int idle(final int idle)
+    {
+        if(idle<IDLE_SPINS)
+        {
+            Thread.onSpinWait();
+        }
+        else
+        {
+            LockSupport.parkNanos(
+                Math.min(
+                    IDLE_MAX_PARK_NANOS,
+                    1000l << Math.min(
+                        idle - IDLE_SPINS,
+                        10
+                    )
+                )
+            );
+        }
+        return idle + 1;
+    }
+
+    private static void closeQuietly(@Nullable
+                                     final FileChannel fileChannel)
+    {
+        if(fileChannel==null)
+        {
+            return;
+        }
+        try
+        {
+            fileChannel.close();
+        }
+        catch(IOException e)
+        {
+            log.warn(
+                "Local transport file close FAILURE ; {}",
+                e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Ring entry ; a batch job and its journal record (if any)
+     * @since 1.0.0
+     */
+    public static final class Entry
+    {
+        private final AccountTransactionsBatchJob accountTransactionsBatchJob;
+
+        @Nullable
+        private final ByteBuffer record;
+
+        /**
+         * Logical journal position right after the record, {@code -1}
+         * without journal
+         * @since 1.0.0
+         */
+        private volatile long journalPosition = -1l;
+
+        private Entry(@Nonnull
+                      final AccountTransactionsBatchJob accountTransactionsBatchJob,
+                      @Nullable
+                      final ByteBuffer record)
+        {
+            this.accountTransactionsBatchJob = accountTransactionsBatchJob;
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.core.configuration.service.AppService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Batch policy of the {@link AccountTransactionsBatchAssembler}(s)
+ * <p>
+ * With {@link DefaultAppService.BatchPolicy#ADAPTIVE} a batch is closed on a
+ * serialised byte budget or {@link DefaultAppService#getAccountingKafkaBatchMaxLingerMs()},
+ * whichever comes first. The consumer reports how long each batch took to
+ * persist ({@link #persisted(long, long)}) ; the budget moves towards the
+ * bytes that would persist in {@link DefaultAppService#getAccountingKafkaBatchTargetPersistMs()}
+ * at the observed rate (at most halved or doubled per report, smoothed,
+ * within {@link DefaultAppService#getAccountingKafkaBatchMinBytes()} and
+ * {@link DefaultAppService#getAccountingKafkaBatchMaxBytes()}). Only batches
+ * consumed by this instance tune its budget
+ * </p>
+ * <p>
+ * Rows are grouped and keyed by {@link DefaultAppService#getAccountingKafkaPartitionKey()} 
+ * (if any)
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@Component
+public class AccountTransactionsBatchSizer
+{
+    /**
+     * Share of a new estimate applied to the budget (as a shift, i.e.
+     * {@code 1/4})
+     * @since 1.0.0
+     */
+    private static final int SMOOTHING_SHIFT = 2;
+
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    /**
+     * Current byte budget per batch
+     * @since 1.0.0
+     */
+    @Nonnull
+    private final AtomicLong targetBytes;
+
+    public AccountTransactionsBatchSizer(@NonNull
+                                         @Nonnull
+                                         final AppService appService)
+    {
+        this.appService = appService;
+        this.targetBytes = new AtomicLong(
+            ((DefaultAppService)appService).getAccountingKafkaBatchTargetBytes()
+        );
+    }
+
+    /**
+     * New assembler following the configured batch policy ; the byte budget
+     * is the current one and stays fixed for the assembler lifetime (i.e. one
+     * upload or parsing range), rows grouped by the configured partition key
+     * @param operation                         Operation for every batch. Must
+     *                                          not be {@code null}
+     * @param consume                           Callback for every batch. Must
+     *                                          not be {@code null}
+     * @return                                  Assembler, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public AccountTransactionsBatchAssembler newAssembler(@Nonnull
+                                                          final AccountTransactionsBatchJob.Operation operation,
+                                                          @Nonnull
+                                                          final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        final DefaultAppService defaultAppService = (DefaultAppService)appService;
+        if(defaultAppService.getAccountingKafkaBatchPolicy()!=DefaultAppService.BatchPolicy.ADAPTIVE)
+        {
+            return new AccountTransactionsBatchAssembler(
+                defaultAppService.getAccountingKafkaTransactionJobBatchSize(),
+                Long.MAX_VALUE,
+                0l,
+                keyOf(
+                    defaultAppService.getAccountingKafkaPartitionKey()
+                ),
+                operation,
+                consume
+            );
+        }
+        return new AccountTransactionsBatchAssembler(
+            defaultAppService.getAccountingKafkaTransactionJobBatchSize(),
+            targetBytes.get(),
+            TimeUnit.MILLISECONDS.toNanos(
+                defaultAppService.getAccountingKafkaBatchMaxLingerMs()
+            ),
+            keyOf(
+                defaultAppService.getAccountingKafkaPartitionKey()
+            ),
+            operation,
+            consume
+        );
+    }
+
+    /**
+     * Row key function of the partition key
+     * @param partitionKey                      Partition key. Must not be 
+     *                                          {@code null}
+     * @return                                  Row key function ; 
+     *                                          {@code null} for 
+     *                                          {@link DefaultAppService.PartitionKey#NONE}
+     * @since 1.0.0
+     */
+    @Nullable
+    static Function<AccountTransaction, String> keyOf(@Nonnull
+                                                      final DefaultAppService.PartitionKey partitionKey)
+    {
+        switch(partitionKey)
+        {
+            case ACCOUNT_NUMBER:
+                return AccountTransaction::getAccountNumber;
+            case CUSTOMER_ID:
+                return accountTransaction -> Objects.toString(
+                    accountTransaction.getCustomerId(),
+                    null
+                );
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Report a persisted batch ; ignored unless the batch policy is
+     * {@link DefaultAppService.BatchPolicy#ADAPTIVE}
+     * @param payloadBytes                      Batch payload size (serialised)
+     * @param persistNanos                      Time taken to persist the batch
+     * @since 1.0.0
+     */
+    public void persisted(final long payloadBytes,
+                          final long persistNanos)
+    {
+        final DefaultAppService defaultAppService = (DefaultAppService)appService;
+        if(defaultAppService.getAccountingKafkaBatchPolicy()!=DefaultAppService.BatchPolicy.ADAPTIVE ||
+            payloadBytes<=0l)
+        {
+            return;
+        }
+        final long targetPersistNanos = TimeUnit.MILLISECONDS.toNanos(
+            defaultAppService.getAccountingKafkaBatchTargetPersistMs()
+        );
+        final long minBytes = defaultAppService.getAccountingKafkaBatchMinBytes();
+        final long maxBytes = defaultAppService.getAccountingKafkaBatchMaxBytes();
+        final long updatedTargetBytes = targetBytes.updateAndGet(
+            currentTargetBytes -> {
+                // bytes that would persist in the target time at this rate
+                final long estimateBytes = Math.min(
+                    Math.max(
+                        (long)((double)payloadBytes * targetPersistNanos / Math.max(
+                            persistNanos,
+                            1l
+                        )),
+                        currentTargetBytes >> 1
+                    ),
+                    currentTargetBytes << 1
+                );
+                return Math.min(
+                    Math.max(
+                        currentTargetBytes + ((estimateBytes - currentTargetBytes) >> SMOOTHING_SHIFT),
+                        minBytes
+                    ),
+                    maxBytes
+                );
+            }
+        );
+        log.debug(
+            "Batch of ({}) bytes PERSISTED in ({}) ms ; batch byte budget now ({})",
+            payloadBytes,
+            TimeUnit.NANOSECONDS.toMillis(
+                persistNanos
+            ),
+            updatedTargetBytes
+        );
+    }
+}
@@ -0,0 +1,396 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.CsvMessageReader;
+import my.com.maybank.accmgmt.component.RowRejectSink;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.InternalException;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link my.com.maybank.accmgmt.models.AccountTransaction} CSV reader that
+ * splits lines itself and decodes rows with an
+ * {@link AccountTransactionsColumnarDecoder}
+ * <p>
+ * Rows are decoded into primitive column buffers and only turned into objects
+ * once a full batch is buffered, keeping per row garbage close to zero for
+ * large imports
+ * </p>
+ * @since 1.0.0
+ * @see AccountTransactionsCsvKafkaReader
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Component
+public class AccountTransactionsColumnarCsvKafkaReader
+       implements CsvMessageReader<AccountTransactionsBatchJob.Operation, AccountTransactionsBatchJob>
+{
+    /**
+     * Initial read buffer size ; grows to hold the longest line
+     * @since 1.0.0
+     */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    /**
+     * Batch policy ; creates the batch assembler of every read
+     * @since 1.0.0
+     */
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsBatchSizer accountTransactionsBatchSizer;
+
+    /**
+     * Read the CSV file and perform the callback for each decoded batch
+     * @param filePath                          CSV file path to read/process.
+     *                                          Must not be {@code null} or
+     *                                          blank/empty
+     * @param operation                         Operation to act on
+     * @param consume                           Callback operation. Must not be
+     *                                          {@code null}
+     * @return                                  Total number of CSV lines read
+     * @since 1.0.0
+     */
+    @Override
+    public long readAndCallback(@Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String filePath,
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        return readAndCallback(
+            filePath,
+            operation,
+            consume,
+            null
+        );
+    }
+
+    @Override
+    public long readAndCallback(@Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String filePath,
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume,
+                                @Nullable
+                                final RowRejectSink rejectSink)
+    {
+        try(InputStream csvInputStream = new BufferedInputStream(
+            new FileInputStream(
+                filePath
+            )
+        ))
+        {
+            return readAndCallback(
+                csvInputStream,
+                filePath,
+                operation,
+                consume,
+                rejectSink
+            );
+        }
+        catch(InternalException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            log.error("Error while opening file: " +  filePath, e);
+            throw new InternalException(
+                String.format("Read CSV file '%s' ENCOUNTERED FAILURE ; %s",
+                    filePath,
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+
+    /**
+     * Read the CSV stream and perform the callback for each decoded batch
+     * @param csvInputStream                    CSV stream to read/process. Must
+     *                                          not be {@code null}
+     * @param csvSourceName                     CSV source name (file path or
+     *                                          uploaded file name). Must not be
+     *                                          {@code null} or blank/empty
+     * @param operation                         Operation to act on
+     * @param consume                           Callback operation. Must not be
+     *                                          {@code null}
+     * @return                                  Total number of CSV lines read
+     * @since 1.0.0
+     */
+    @Override
+    public long readAndCallback(@Nonnull
+                                final InputStream csvInputStream,
+                                @Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String csvSourceName,
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        return readAndCallback(
+            csvInputStream,
+            csvSourceName,
+            operation,
+            consume,
+            null
+        );
+    }
+
+    @Override
+    public long readAndCallback(@Nonnull
+                                final InputStream csvInputStream,
+                                @Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String csvSourceName,
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume,
+                                @Nullable
+                                final RowRejectSink rejectSink)
+    {
+        try(InputStream csvInputStreamToRead = csvInputStream)
+        {
+            final long processedLinesCount = readRows(
+                csvInputStreamToRead,
+                csvSourceName,
+                0l,
+                true,
+                operation,
+                consume,
+                rejectSink,
+                () -> false
+            );
+            log.info("Read CSV file '{}' COMPLETED ; number of ({}) lines processed",
+                csvSourceName,
+                processedLinesCount
+            );
+            return processedLinesCount;
+        }
+        catch(InternalException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            log.error("Error while reading file: " +  csvSourceName, e);
+            throw new InternalException(
+                String.format("Read CSV file '%s' ENCOUNTERED FAILURE ; %s",
+                    csvSourceName,
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+
+    /**
+     * Split the stream into lines, decode each row and hand every full batch
+     * to {@code consume}
+     * @param csvInputStream                    CSV content (not closed). Must
+     *                                          not be {@code null}
+     * @param csvSourceName                     CSV source name used for error
+     *                                          messages. Must not be
+     *                                          {@code null}
+     * @param baseLineNumber                    Number of physical lines that
+     *                                          precede the stream content in
+     *                                          the source (i.e. for a parsing
+     *                                          range)
+     * @param skipHeader                        {@code true} if the first line
+     *                                          is the header line
+     * @param operation                         Operation to act on
+     * @param consume                           Callback operation. Must not be
+     *                                          {@code null}
+     * @param rejectSink                        Reject sink for the rows that
+     *                                          cannot be decoded or violate the
+     *                                          bean constraints ; {@code null}
+     *                                          to fail on the first bad row
+     * @param stop                              Checked per line ; reading stops
+     *                                          early once it returns
+     *                                          {@code true}. Must not be
+     *                                          {@code null}
+     * @return                                  Number of rows processed
+     * @throws InternalException                If a row cannot be decoded
+     *                                          (without reject sink) ; the
+     *                                          message holds the line number
+     *                                          within the whole source
+     * @throws Exception                        If the stream cannot be read
+     * @since 1.0.0
+     */
+    long readRows(@Nonnull
+                  final InputStream csvInputStream,
+                  @Nonnull
+                  final String csvSourceName,
+                  final long baseLineNumber,
+                  final boolean skipHeader,
+                  @Nonnull
+                  final AccountTransactionsBatchJob.Operation operation,
+                  @Nonnull
+                  final Consumer<AccountTransactionsBatchJob> consume,
+                  @Nullable
+                  final RowRejectSink rejectSink,
+                  @Nonnull
+                  final BooleanSupplier stop)
+            throws Exception
+    {
+        final AccountTransactionsBatchAssembler accountTransactionsBatchAssembler = accountTransactionsBatchSizer.newAssembler(
+            operation,
+            consume
+        );
+        final AccountTransactionsColumnarDecoder accountTransactionsColumnarDecoder = new AccountTransactionsColumnarDecoder(
+            accountTransactionsBatchAssembler.getBatchSize(),
+            Objects.nonNull(rejectSink)
+        );
+
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        int lineStart = 0;
+        int scanPos = 0;
+        int limit = 0;
+        boolean eof = false;
+        boolean header = skipHeader;
+        long lineNumber = baseLineNumber;
+        long processedLinesCount = 0l;
+        while(!stop.getAsBoolean())
+        {
+            int lineEnd = -1;
+            for(int i = scanPos; i < limit; i++)
+            {
+                if(buffer[i]=='\n')
+                {
+                    lineEnd = i;
+                    break;
+                }
+            }
+            if(lineEnd<0)
+            {
+                if(eof)
+                {
+                    if(lineStart>=limit)
+                    {
+                        break;
+                    }
+                    // last line without terminator
+                    lineEnd = limit;
+                }
+                else
+                {
+                    // keep the partial line and read more
+                    if(lineStart>0)
+                    {
+                        System.arraycopy(buffer, lineStart, buffer, 0, limit - lineStart);
+                        limit -= lineStart;
+                        lineStart = 0;
+                    }
+                    scanPos = limit;
+                    if(limit==buffer.length)
+                    {
+                        buffer = Arrays.copyOf(
+                            buffer,
+                            buffer.length * 2
+                        );
+                    }
+                    final int read = csvInputStream.read(buffer, limit, buffer.length - limit);
+                    if(read<0)
+                    {
+                        eof = true;
+                    }
+                    else
+                    {
+                        limit += read;
+                    }
+                    continue;
+                }
+            }
+
+            lineNumber++;
+            final int rowEnd = lineEnd>lineStart && buffer[lineEnd - 1]=='\r'?lineEnd - 1:lineEnd;
+            if(header)
+            {
+                header = false;
+            }
+            else if(rowEnd>lineStart)
+            {
+                try
+                {
+                    accountTransactionsColumnarDecoder.decodeRow(
+                        buffer,
+                        lineStart,
+                        rowEnd,
+                        lineNumber
+                    );
+                }
+                catch(IllegalArgumentException e)
+                {
+                    if(Objects.nonNull(rejectSink))
+                    {
+                        rejectSink.reject(
+                            lineNumber,
+                            new String(
+                                buffer,
+                                lineStart,
+                                rowEnd - lineStart,
+                                StandardCharsets.UTF_8
+                            ),
+                            e.getMessage()
+                        );
+                        lineStart = scanPos = Math.min(lineEnd + 1, limit);
+                        continue;
+                    }
+                    throw new InternalException(
+                        String.format("Read CSV file '%s' ENCOUNTERED FAILURE ; %s, at line (%d)",
+                            csvSourceName,
+                            e.getMessage(),
+                            lineNumber
+                        ),
+                        e
+                    );
+                }
+                processedLinesCount++;
+                if(accountTransactionsColumnarDecoder.isFull())
+                {
+                    accountTransactionsColumnarDecoder.drainTo(
+                        accountTransactionsBatchAssembler::add
+                    );
+                }
+            }
+            lineStart = scanPos = Math.min(lineEnd + 1, limit);
+        }
+        accountTransactionsColumnarDecoder.drainTo(
+            accountTransactionsBatchAssembler::add
+        );
+        accountTransactionsBatchAssembler.flush();
+        return processedLinesCount;
+    }
+}
@@ -0,0 +1,692 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import lombok.Getter;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsCsvFields;
+
+/**
+ * Columnar decoder for the pipe delimited
+ * {@code ACCOUNT_NUMBER|TRX_AMOUNT|DESCRIPTION|TRX_DATE|TRX_TIME|CUSTOMER_ID}
+ * account transactions row layout
+ * <p>
+ * Each decoded row is scanned byte by byte straight into reusable primitive
+ * column buffers ; string columns are copied into a shared byte arena and kept
+ * as offset/length slices, numeric columns are parsed in place into
+ * {@code double[]}/{@code long[]}. {@link AccountTransaction} objects (and
+ * their strings) are only created when the buffered rows are drained at the
+ * batch boundary, so decoding a row allocates nothing once the buffers are
+ * warm
+ * </p>
+ * <p>
+ * Every column is required ; an empty column is rejected at decode time (the
+ * bean reader fails the same row when the {@code null} reaches the non-null
+ * {@link AccountTransaction} setter). Quoted columns (with {@code ""} escapes)
+ * are supported within a line ; a row is always a single physical line
+ * </p>
+ * <p>
+ * Not thread-safe ; each reader thread (or parsing range) uses its own decoder
+ * </p>
+ * @since 1.0.0
+ * @see AccountTransactionsColumnarCsvKafkaReader
+ * @author ChristopherCKW
+ */
+public class AccountTransactionsColumnarDecoder
+{
+    /**
+     * Number of columns of a row
+     * @since 1.0.0
+     */
+    public static final int COLUMN_COUNT = AccountTransactionsCsvFields.values().length;
+
+    private static final byte DELIMITER = '|';
+
+    private static final byte QUOTE = '"';
+
+    private static final int ACCOUNT_NUMBER = AccountTransactionsCsvFields.ACCOUNT_NUMBER.ordinal();
+
+    private static final int TRX_AMOUNT = AccountTransactionsCsvFields.TRX_AMOUNT.ordinal();
+
+    private static final int DESCRIPTION = AccountTransactionsCsvFields.DESCRIPTION.ordinal();
+
+    private static final int TRX_DATE = AccountTransactionsCsvFields.TRX_DATE.ordinal();
+
+    private static final int TRX_TIME = AccountTransactionsCsvFields.TRX_TIME.ordinal();
+
+    private static final int CUSTOMER_ID = AccountTransactionsCsvFields.CUSTOMER_ID.ordinal();
+
+    /**
+     * Max mantissa that is exactly representable as a {@code double}
+     * @since 1.0.0
+     */
+    private static final long MAX_EXACT_MANTISSA = 1l << 53;
+
+    /**
+     * Exactly representable powers of ten ; dividing an exact mantissa by one
+     * of these is correctly rounded, which gives the same result as
+     * {@link Double#parseDouble(java.lang.String)}
+     * @since 1.0.0
+     */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Max number of rows buffered before {@link #drainTo(java.util.function.Consumer)}
+     * @since 1.0.0
+     */
+    @Getter
+    private final int capacity;
+
+    /**
+     * Per row, per column start offset into {@link #arena} (string columns)
+     * @since 1.0.0
+     */
+    private final int[] offsets;
+
+    /**
+     * Per row, per column length in {@link #arena} (string columns)
+     * @since 1.0.0
+     */
+    private final int[] lengths;
+
+    private final double[] trxAmounts;
+
+    private final long[] customerIds;
+
+    /**
+     * Per row source line number, {@code 0} if unknown
+     * @since 1.0.0
+     */
+    private final long[] lineNumbers;
+
+    /**
+     * String column bytes of the buffered rows
+     * @since 1.0.0
+     */
+    private byte[] arena;
+
+    private int arenaSize;
+
+    /**
+     * Number of buffered rows
+     * @since 1.0.0
+     */
+    @Getter
+    private int rows;
+
+    /**
+     * {@code true} to also check the {@link AccountTransaction} bean
+     * constraints ({@code @Min(1)} amount and customer id, {@code @NotBlank}
+     * strings) at decode time
+     * @since 1.0.0
+     */
+    @Getter
+    private final boolean validateConstraints;
+
+    /**
+     * New decoder
+     * @param capacity                          Max number of rows buffered,
+     *                                          usually the batch size. Must be
+     *                                          greater than {@code 0}
+     * @since 1.0.0
+     */
+    public AccountTransactionsColumnarDecoder(final int capacity)
+    {
+        this(
+            capacity,
+            false
+        );
+    }
+
+    /**
+     * New decoder
+     * @param capacity                          Max number of rows buffered,
+     *                                          usually the batch size. Must be
+     *                                          greater than {@code 0}
+     * @param validateConstraints               {@code true} to reject rows
+     *                                          violating the
+     *                                          {@link AccountTransaction} bean
+     *                                          constraints
+     * @since 1.0.0
+     */
+    public AccountTransactionsColumnarDecoder(final int capacity,
+                                              final boolean validateConstraints)
+    {
+        if(capacity<1)
+        {
+            throw new IllegalArgumentException(
+                String.format("Columnar decoder capacity (%d) must be greater than 0",
+                    capacity
+                )
+            );
+        }
+        this.capacity = capacity;
+        this.validateConstraints = validateConstraints;
+        this.offsets = new int[capacity * COLUMN_COUNT];
+        this.lengths = new int[capacity * COLUMN_COUNT];
+        this.trxAmounts = new double[capacity];
+        this.customerIds = new long[capacity];
+        this.lineNumbers = new long[capacity];
+        this.arena = new byte[capacity * 64];
+    }
+
+    /**
+     * @return                                  {@code true} if no more rows can
+     *                                          be buffered until drained
+     * @since 1.0.0
+     */
+    public boolean isFull()
+    {
+        return rows>=capacity;
+    }
+
+    /**
+     * Decode a row (one line, excluding its line terminator) into the column
+     * buffers
+     * @param line                              Line bytes. Must not be
+     *                                          {@code null}
+     * @param from                              Row start offset (inclusive)
+     * @param to                                Row end offset (exclusive)
+     * @throws IllegalArgumentException         If the row does not have
+     *                                          {@link #COLUMN_COUNT} columns, a
+     *                                          numeric column cannot be parsed
+     *                                          or (if
+     *                                          {@link #isValidateConstraints()})
+     *                                          a constraint is violated ; the
+     *                                          row is not buffered
+     * @throws IllegalStateException            If the decoder is full
+     * @since 1.0.0
+     * @see #decodeRow(byte[], int, int, long)
+     */
+    public void decodeRow(@Nonnull
+                          final byte[] line,
+                          final int from,
+                          final int to)
+    {
+        decodeRow(
+            line,
+            from,
+            to,
+            0l
+        );
+    }
+
+    /**
+     * Decode a row (one line, excluding its line terminator) into the column
+     * buffers, remembering its source line number
+     * @param line                              Line bytes. Must not be
+     *                                          {@code null}
+     * @param from                              Row start offset (inclusive)
+     * @param to                                Row end offset (exclusive)
+     * @param lineNumber                        Line number of the row within
+     *                                          its source, set on the drained
+     *                                          {@link AccountTransaction} ;
+     *                                          {@code 0} if unknown
+     * @throws IllegalArgumentException         If the row does not have
+     *                                          {@link #COLUMN_COUNT} columns, a
+     *                                          numeric column cannot be parsed
+     *                                          or (if
+     *                                          {@link #isValidateConstraints()})
+     *                                          a constraint is violated ; the
+     *                                          row is not buffered
+     * @throws IllegalStateException            If the decoder is full
+     * @since 1.0.0
+     */
+    public void decodeRow(@Nonnull
+                          final byte[] line,
+                          final int from,
+                          final int to,
+                          final long lineNumber)
+    {
+        if(isFull())
+        {
+            throw new IllegalStateException(
+                String.format("Columnar decoder is full (%d) row(s) ; drain before decoding further rows",
+                    capacity
+                )
+            );
+        }
+        final int row = rows;
+        final int arenaRowStart = arenaSize;
+        int pos = from;
+        int column = 0;
+        while(true)
+        {
+            if(column>=COLUMN_COUNT)
+            {
+                arenaSize = arenaRowStart;
+                throw new IllegalArgumentException(
+                    String.format("The number of columns to be processed (%d) must match the number of expected columns (%d)",
+                        countColumns(line, from, to),
+                        COLUMN_COUNT
+                    )
+                );
+            }
+
+            // slice the column ; quoted columns are unescaped into the arena
+            final byte[] src;
+            final int start;
+            final int length;
+            if(pos<to && line[pos]==QUOTE)
+            {
+                start = arenaSize;
+                pos = unquote(line, pos + 1, to);
+                src = arena;
+                length = arenaSize - start;
+            }
+            else
+            {
+                int end = pos;
+                while(end<to && line[end]!=DELIMITER)
+                {
+                    end++;
+                }
+                src = line;
+                start = pos;
+                length = end - pos;
+                pos = end;
+            }
+
+            final int slot = row * COLUMN_COUNT + column;
+            if(length==0)
+            {
+                arenaSize = arenaRowStart;
+                throw new IllegalArgumentException(
+                    String.format("Column '%s' is empty",
+                        AccountTransactionsCsvFields.values()[column].getColName()
+                    )
+                );
+            }
+            if(column==TRX_AMOUNT)
+            {
+                trxAmounts[row] = parseDouble(src, start, length);
+            }
+            else if(column==CUSTOMER_ID)
+            {
+                customerIds[row] = parseLong(src, start, length);
+            }
+            else if(src==arena)
+            {
+                offsets[slot] = start;
+                lengths[slot] = length;
+            }
+            else
+            {
+                ensureArenaCapacity(length);
+                System.arraycopy(line, start, arena, arenaSize, length);
+                offsets[slot] = arenaSize;
+                lengths[slot] = length;
+                arenaSize += length;
+            }
+            if(src==arena && (column==TRX_AMOUNT || column==CUSTOMER_ID))
+            {
+                // numeric quoted column ; no need to keep its bytes
+                arenaSize = start;
+            }
+            column++;
+
+            if(pos>=to)
+            {
+                break;
+            }
+            if(line[pos]!=DELIMITER)
+            {
+                arenaSize = arenaRowStart;
+                throw new IllegalArgumentException(
+                    String.format("Unexpected character '%c' after quoted column (%d)",
+                        (char)line[pos],
+                        column
+                    )
+                );
+            }
+            pos++;
+            if(pos>=to)
+            {
+                // trailing delimiter ; last column is empty
+                arenaSize = arenaRowStart;
+                throw new IllegalArgumentException(
+                    column>=COLUMN_COUNT?
+                        String.format("The number of columns to be processed (%d) must match the number of expected columns (%d)",
+                            column + 1,
+                            COLUMN_COUNT
+                        ):
+                        String.format("Column '%s' is empty",
+                            AccountTransactionsCsvFields.values()[column].getColName()
+                        )
+                );
+            }
+        }
+        if(column!=COLUMN_COUNT)
+        {
+            arenaSize = arenaRowStart;
+            throw new IllegalArgumentException(
+                String.format("The number of columns to be processed (%d) must match the number of expected columns (%d)",
+                    column,
+                    COLUMN_COUNT
+                )
+            );
+        }
+        if(validateConstraints)
+        {
+            final String constraintViolations = constraintViolations(
+                row
+            );
+            if(constraintViolations!=null)
+            {
+                arenaSize = arenaRowStart;
+                throw new IllegalArgumentException(
+                    constraintViolations
+                );
+            }
+        }
+        lineNumbers[row] = lineNumber;
+        rows++;
+    }
+
+    /**
+     * Check the decoded row against the {@link AccountTransaction} bean
+     * constraints, without materialising it ; messages follow the bean
+     * validation ones (sorted by property)
+     * @param row                               Decoded row
+     * @return                                  Violations, {@code null} if
+     *                                          none
+     * @since 1.0.0
+     */
+    private String constraintViolations(final int row)
+    {
+        final StringBuilder constraintViolations = new StringBuilder();
+        constraintViolation(constraintViolations, isBlank(row, ACCOUNT_NUMBER), "accountNumber must not be blank");
+        constraintViolation(constraintViolations, customerIds[row]<1, "customerId must be greater than or equal to 1");
+        constraintViolation(constraintViolations, isBlank(row, DESCRIPTION), "description must not be blank");
+        constraintViolation(constraintViolations, !(trxAmounts[row]>=1), "trxAmount must be greater than or equal to 1");
+        constraintViolation(constraintViolations, isBlank(row, TRX_DATE), "trxDate must not be blank");
+        constraintViolation(constraintViolations, isBlank(row, TRX_TIME), "trxTime must not be blank");
+        return constraintViolations.length()==0?null:constraintViolations.toString();
+    }
+
+    private static void constraintViolation(@Nonnull
+                                            final StringBuilder constraintViolations,
+                                            final boolean violated,
+                                            @Nonnull
+                                            final String message)
+    {
+        if(violated)
+        {
+            if(constraintViolations.length()>0)
+            {
+                constraintViolations.append(", ");
+            }
+            constraintViolations.append(message);
+        }
+    }
+
+    private boolean isBlank(final int row,
+                            final int column)
+    {
+        final int slot = row * COLUMN_COUNT + column;
+        final int end = offsets[slot] + lengths[slot];
+        for(int i = offsets[slot]; i < end; i++)
+        {
+            if(!Character.isWhitespace(arena[i]))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Materialise the buffered rows into {@link AccountTransaction}(s), hand
+     * them to {@code consume} in row order and reset the buffers
+     * @param consume                           Consumer callback. Must not be
+     *                                          {@code null}
+     * @return                                  Number of rows drained
+     * @since 1.0.0
+     */
+    public int drainTo(@Nonnull
+                       final Consumer<AccountTransaction> consume)
+    {
+        final int drained = rows;
+        for(int row = 0; row < drained; row++)
+        {
+            consume.accept(
+                new AccountTransaction().setAccountNumber(
+                    string(row, ACCOUNT_NUMBER)
+                ).setTrxAmount(
+                    trxAmounts[row]
+                ).setDescription(
+                    string(row, DESCRIPTION)
+                ).setTrxDate(
+                    string(row, TRX_DATE)
+                ).setTrxTime(
+                    string(row, TRX_TIME)
+                ).setCustomerId(
+                    customerIds[row]
+                ).setLineNumber(
+                    lineNumbers[row]>0?lineNumbers[row]:null
+                )
+            );
+        }
+        rows = 0;
+        arenaSize = 0;
+        return drained;
+    }
+
+    /**
+     * Parse a decimal the same way {@link Double#parseDouble(java.lang.String)}
+     * does ; plain {@code [+-]digits[.digits]} values with an exactly
+     * representable mantissa are computed without allocating, anything else
+     * (exponents, surrounding whitespace, long mantissas) falls back to
+     * {@link Double#parseDouble(java.lang.String)}
+     * @param src                               Source bytes
+     * @param start                             Start offset
+     * @param length                            Length (greater than {@code 0})
+     * @return                                  Parsed value
+     * @throws IllegalArgumentException         If not a valid decimal
+     * @since 1.0.0
+     */
+    static double parseDouble(@Nonnull
+                              final byte[] src,
+                              final int start,
+                              final int length)
+    {
+        final int end = start + length;
+        int pos = start;
+        boolean negative = false;
+        if(src[pos]=='-' || src[pos]=='+')
+        {
+            negative = src[pos]=='-';
+            pos++;
+        }
+        long mantissa = 0l;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        boolean fastPath = pos<end;
+        for(; fastPath && pos < end; pos++)
+        {
+            final byte c = src[pos];
+            if(c>='0' && c<='9')
+            {
+                if(mantissa>(MAX_EXACT_MANTISSA - 9) / 10)
+                {
+                    fastPath = false;
+                    break;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if(fraction)
+                {
+                    fractionDigits++;
+                }
+            }
+            else if(c=='.' && !fraction)
+            {
+                fraction = true;
+            }
+            else
+            {
+                fastPath = false;
+            }
+        }
+        if(fastPath && digits>0 && fractionDigits<POWERS_OF_TEN.length)
+        {
+            final double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative?-value:value;
+        }
+
+        final String value = new String(src, start, length, StandardCharsets.UTF_8);
+        try
+        {
+            return Double.parseDouble(value);
+        }
+        catch(NumberFormatException e)
+        {
+            throw new IllegalArgumentException(
+                String.format("'%s' could not be parsed as a Double",
+                    value
+                ),
+                e
+            );
+        }
+    }
+
+    /**
+     * Parse an integer the same way {@link Long#parseLong(java.lang.String)}
+     * does ; values up to 18 digits are computed without allocating
+     * @param src                               Source bytes
+     * @param start                             Start offset
+     * @param length                            Length (greater than {@code 0})
+     * @return                                  Parsed value
+     * @throws IllegalArgumentException         If not a valid integer
+     * @since 1.0.0
+     */
+    static long parseLong(@Nonnull
+                          final byte[] src,
+                          final int start,
+                          final int length)
+    {
+        final int end = start + length;
+        int pos = start;
+        boolean negative = false;
+        if(src[pos]=='-' || src[pos]=='+')
+        {
+            negative = src[pos]=='-';
+            pos++;
+        }
+        if(pos<end && end - pos<=18)
+        {
+            long value = 0l;
+            for(; pos < end; pos++)
+            {
+                final byte c = src[pos];
+                if(c<'0' || c>'9')
+                {
+                    break;
+                }
+                value = value * 10 + (c - '0');
+            }
+            if(pos==end)
+            {
+                return negative?-value:value;
+            }
+        }
+
+        final String value = new String(src, start, length, StandardCharsets.UTF_8);
+        try
+        {
+            return Long.parseLong(value);
+        }
+        catch(NumberFormatException e)
+        {
+            throw new IllegalArgumentException(
+                String.format("'%s' could not be parsed as a Long",
+                    value
+                ),
+                e
+            );
+        }
+    }
+
+    /**
+     * Unescape a quoted column into the arena
+     * @return                                  Position right after the
+     *                                          closing quote
+     * @since 1.0.0
+     */
+    private int unquote(@Nonnull
+                        final byte[] line,
+                        final int from,
+                        final int to)
+    {
+        int pos = from;
+        while(pos<to)
+        {
+            final byte c = line[pos];
+            if(c==QUOTE)
+            {
+                if(pos + 1<to && line[pos + 1]==QUOTE)
+                {
+                    ensureArenaCapacity(1);
+                    arena[arenaSize++] = QUOTE;
+                    pos += 2;
+                    continue;
+                }
+                return pos + 1;
+            }
+            ensureArenaCapacity(1);
+            arena[arenaSize++] = c;
+            pos++;
+        }
+        throw new IllegalArgumentException(
+            "Unterminated quoted column ; multi-line quoted columns are not supported"
+        );
+    }
+
+    private void ensureArenaCapacity(final int extra)
+    {
+        if(arenaSize + extra>arena.length)
+        {
+            arena = Arrays.copyOf(
+                arena,
+                Math.max(
+                    arena.length * 2,
+                    arenaSize + extra
+                )
+            );
+        }
+    }
+
+    private String string(final int row,
+                          final int column)
+    {
+        final int slot = row * COLUMN_COUNT + column;
+        return new String(
+            arena,
+            offsets[slot],
+            lengths[slot],
+            StandardCharsets.UTF_8
+        );
+    }
+
+    private static int countColumns(@Nonnull
+                                    final byte[] line,
+                                    final int from,
+                                    final int to)
+    {
+        int columns = 1;
+        for(int pos = from; pos < to; pos++)
+        {
+            if(line[pos]==DELIMITER)
+            {
+                columns++;
+            }
+        }
+        return columns;
+    }
+}
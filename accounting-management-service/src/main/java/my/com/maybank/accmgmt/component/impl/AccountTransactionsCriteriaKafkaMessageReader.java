@@ -6,7 +6,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import lombok.Getter;
@@ -218,44 +217,56 @@ public class AccountTransactionsCriteriaKafkaMessageReader
      * @param consume
      * @param createdAccountTransactionsBatchJobs
      * @param batchSize
-     * @return                                  The consumed {@link AccountTransactionsBatchJob}
+     * @return                                  The consumed {@link AccountTransactionsBatchJob}(s) 
+     *                                          ; one per partition key of the 
+     *                                          page (see {@link DefaultAppService#getAccountingKafkaPartitionKey()})
      * @since 1.0.0
      */
     @Nonnull
-    private AccountTransactionsBatchJob processAccountTransactionsBatch(@Nonnull
-                                                                        final AccountTransactions accountTransactionsBatch,
-                                                                        @Nonnull
-                                                                        final AccountTransactionsBatchJob.Operation operation,
-                                                                        @Nonnull
-                                                                        final AccountTransactionCriteria criteria,
-                                                                        @Nonnull
-                                                                        final Consumer<AccountTransactionsBatchJob> consume,
-                                                                        @Nonnull
-                                                                        final List<AccountTransactionsBatchJob> createdAccountTransactionsBatchJobs,
-                                                                        final int batchSize)
+    private List<AccountTransactionsBatchJob> processAccountTransactionsBatch(@Nonnull
+                                                                              final AccountTransactions accountTransactionsBatch,
+                                                                              @Nonnull
+                                                                              final AccountTransactionsBatchJob.Operation operation,
+                                                                              @Nonnull
+                                                                              final AccountTransactionCriteria criteria,
+                                                                              @Nonnull
+                                                                              final Consumer<AccountTransactionsBatchJob> consume,
+                                                                              @Nonnull
+                                                                              final List<AccountTransactionsBatchJob> createdAccountTransactionsBatchJobs,
+                                                                              final int batchSize)
     {
-        // create and send the batch job
-        final AccountTransactionsBatchJob accountTransactionsBatchJob = new AccountTransactionsBatchJob().setBatchId(
-            UUID.randomUUID().toString()
-        ).setBatchSize(
-            batchSize
-        ).setOperation(
-            operation
-        ).setBatchAccountTransaction(
-            Optional.ofNullable(
-                accountTransactionsBatch.getAccountTransactions()
-            ).orElseThrow()
+        // create the batch job(s) ; a page holds at most one batch of rows, 
+        // split per partition key so updates follow the creates of the key
+        final List<AccountTransactionsBatchJob> accountTransactionsBatchJobs = new ArrayList<>();
+        final AccountTransactionsBatchAssembler accountTransactionsBatchAssembler = new AccountTransactionsBatchAssembler(
+            batchSize,
+            Long.MAX_VALUE,
+            0l,
+            AccountTransactionsBatchSizer.keyOf(
+                ((DefaultAppService)getAppService()).getAccountingKafkaPartitionKey()
+            ),
+            operation,
+            accountTransactionsBatchJobs::add
         );
-        
-        // send to kafka
-        consume.accept(
-            accountTransactionsBatchJob
+        Optional.ofNullable(
+            accountTransactionsBatch.getAccountTransactions()
+        ).orElseThrow().forEach(
+            accountTransactionsBatchAssembler::add
         );
+        accountTransactionsBatchAssembler.flush();
         
-        // add the details of this jobs as it was successfully sent to kafka
-        createdAccountTransactionsBatchJobs.add(
-            accountTransactionsBatchJob
-        );
+        for(AccountTransactionsBatchJob accountTransactionsBatchJob : accountTransactionsBatchJobs)
+        {
+            // send to kafka
+            consume.accept(
+                accountTransactionsBatchJob
+            );
+            
+            // add the details of this jobs as it was successfully sent to kafka
+            createdAccountTransactionsBatchJobs.add(
+                accountTransactionsBatchJob
+            );
+        }
         
         // do we have next?
         Optional.ofNullable(
@@ -291,6 +302,6 @@ public class AccountTransactionsCriteriaKafkaMessageReader
         );
         
         // all good
-        return accountTransactionsBatchJob;
+        return accountTransactionsBatchJobs;
     }
 }
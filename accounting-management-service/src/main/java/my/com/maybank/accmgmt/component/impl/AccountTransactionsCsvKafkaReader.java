@@ -1,32 +1,39 @@
 package my.com.maybank.accmgmt.component.impl;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import java.io.BufferedInputStream;
 import java.io.FileInputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
-import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
-import my.com.maybank.accmgmt.configuration.DefaultAppService;
 import my.com.maybank.accmgmt.models.AccountTransaction;
 import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
 import my.com.maybank.accmgmt.models.AccountTransactionsCsvFields;
 import my.com.maybank.core.configuration.service.AppService;
 import my.com.maybank.core.exception.InternalException;
 import org.springframework.stereotype.Component;
+import org.supercsv.exception.SuperCsvException;
 import org.supercsv.io.CsvBeanReader;
 import org.supercsv.prefs.CsvPreference;
 import my.com.maybank.accmgmt.component.CsvMessageReader;
+import my.com.maybank.accmgmt.component.RowRejectSink;
 
 /**
  * {@link my.com.maybank.accmgmt.models.AccountTransaction} CSV reader
@@ -46,10 +53,38 @@ import my.com.maybank.accmgmt.component.CsvMessageReader;
 public class AccountTransactionsCsvKafkaReader
        implements CsvMessageReader<AccountTransactionsBatchJob.Operation, AccountTransactionsBatchJob>
 {
+    /**
+     * Account transactions CSV preference ; pipe delimited, double quoted, 
+     * CRLF terminated
+     * @since 1.0.0
+     */
+    static final CsvPreference CSV_PREFERENCE = new CsvPreference.Builder(
+        '"', 
+        '|', 
+        "\r\n"
+    ).build();
+    
     @NonNull
     @Nonnull
     private final AppService appService;
     
+    /**
+     * Bean validator ; only used to check the {@link AccountTransaction} 
+     * constraints of rows read with a {@link RowRejectSink}
+     * @since 1.0.0
+     */
+    @NonNull
+    @Nonnull
+    private final Validator validator;
+
+    /**
+     * Batch policy ; creates the batch assembler of every read
+     * @since 1.0.0
+     */
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsBatchSizer accountTransactionsBatchSizer;
+    
     /**
      * Read the CSV file and perform the callback for the converted line to 
      * object {@link my.com.maybank.accmgmt.models.AccountTransactions} type
@@ -72,103 +107,295 @@ public class AccountTransactionsCsvKafkaReader
                                 @Nonnull
                                 final Consumer<AccountTransactionsBatchJob> consume)
     {
-        final AtomicInteger processedLinesCount = new AtomicInteger();
-        try(CsvBeanReader beanReader = new CsvBeanReader(
-            new InputStreamReader(
-                new FileInputStream(
-                    filePath
-                )
-            ), 
-            new CsvPreference.Builder(
-                '"', 
-                '|', 
-                "\r\n"
-            ).build()
+        return readAndCallback(
+            filePath,
+            operation,
+            consume,
+            null
+        );
+    }
+    
+    @Override
+    public long readAndCallback(@Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String filePath, 
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume,
+                                @Nullable
+                                final RowRejectSink rejectSink)
+    {
+        try(InputStream csvInputStream = new BufferedInputStream(
+            new FileInputStream(
+                filePath
+            )
         ))
         {
+            return readAndCallback(
+                csvInputStream,
+                filePath,
+                operation,
+                consume,
+                rejectSink
+            );
+        }
+        catch(InternalException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            log.error("Error while opening file: " +  filePath, e);
+            throw new InternalException(
+                String.format("Read CSV file '%s' ENCOUNTERED FAILURE ; %s",
+                    filePath,
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+    
+    /**
+     * Read the CSV stream and perform the callback for the converted line to 
+     * object {@link my.com.maybank.accmgmt.models.AccountTransactions} type
+     * <p>
+     * Each batch is handed to {@code consume} as soon as it is full, so for an 
+     * HTTP request body the first batches are produced while the client is 
+     * still sending
+     * </p>
+     * @param csvInputStream                    CSV stream to read/process. Must 
+     *                                          not be {@code null}
+     * @param csvSourceName                     CSV source name (file path or 
+     *                                          uploaded file name). Must not be 
+     *                                          {@code null} or blank/empty
+     * @param operation                         Operation to act on
+     * @param consume                           Callback operation. Must not be 
+     *                                          {@code null}
+     * @return                                  Total number of CSV lines read
+     * @since 1.0.0
+     */
+    @Override
+    public long readAndCallback(@Nonnull
+                                final InputStream csvInputStream,
+                                @Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String csvSourceName, 
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        return readAndCallback(
+            csvInputStream,
+            csvSourceName,
+            operation,
+            consume,
+            null
+        );
+    }
+    
+    @Override
+    public long readAndCallback(@Nonnull
+                                final InputStream csvInputStream,
+                                @Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String csvSourceName, 
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume,
+                                @Nullable
+                                final RowRejectSink rejectSink)
+    {
+        final AtomicLong processedLinesCount = new AtomicLong();
+        CsvBeanReader beanReader = null;
+        try(InputStream csvInputStreamToRead = csvInputStream)
+        {
+            beanReader = new CsvBeanReader(
+                new InputStreamReader(
+                    csvInputStreamToRead,
+                    StandardCharsets.UTF_8
+                ), 
+                CSV_PREFERENCE
+            );
+            
             // consume the header line (assuming we'll have the first line as 
             // header as a practise or standard)
             beanReader.getHeader(
                 true
             );
             
-            final Integer batchSize = ((DefaultAppService)appService).getAccountingKafkaTransactionJobBatchSize();
-            final AtomicReference<AccountTransactionsBatchJob> accountTransactionsBatchJob = new AtomicReference<>(
-                new AccountTransactionsBatchJob().setBatchId(
-                    UUID.randomUUID().toString()
-                ).setBatchSize(
-                    batchSize
-                ).setOperation(
-                    operation
-                ).setBatchAccountTransaction(
-                    new ArrayList<>()
-                )
+            final AccountTransactionsBatchAssembler accountTransactionsBatchAssembler = accountTransactionsBatchSizer.newAssembler(
+                operation,
+                consume
+            );
+            readBeans(
+                beanReader,
+                0l,
+                accountTransactionsBatchAssembler,
+                processedLinesCount,
+                rejectSink,
+                () -> false
+            );
+            accountTransactionsBatchAssembler.flush();
+            
+            log.info("Read CSV file '{}' COMPLETED ; number of ({}) lines processed",
+                csvSourceName,
+                processedLinesCount.get()
+            );
+        }
+        catch(Exception e)
+        {
+            log.error("Error while reading file: " +  csvSourceName, e);
+            throw new InternalException(
+                String.format("Read CSV file '%s' ENCOUNTERED FAILURE ; %s, last line read (%d)",
+                    csvSourceName,
+                    e.getMessage(),
+                    Objects.nonNull(beanReader)?beanReader.getLineNumber():0
+                ),
+                e
             );
-            int i = 0;
-            AccountTransaction accountTransaction;
-            while(Objects.nonNull(
+        }
+        finally
+        {
+            closeQuietly(
+                beanReader,
+                csvSourceName
+            );
+        }
+        return processedLinesCount.get();
+    }
+    
+    /**
+     * Read the rows of a positioned bean reader (header already consumed, if 
+     * any) into the batch assembler
+     * <p>
+     * Without {@code rejectSink} the first row that fails cell processing 
+     * aborts the read. With it, such rows and rows violating the 
+     * {@link AccountTransaction} constraints are rejected and reading goes on
+     * </p>
+     * @param beanReader                        Bean reader. Must not be 
+     *                                          {@code null}
+     * @param baseLineNumber                    Number of physical lines that 
+     *                                          precede the reader content in 
+     *                                          the source
+     * @param accountTransactionsBatchAssembler Batch assembler. Must not be 
+     *                                          {@code null}
+     * @param processedLinesCount               Incremented per row added. Must 
+     *                                          not be {@code null}
+     * @param rejectSink                        Reject sink, {@code null} to 
+     *                                          fail on the first bad row
+     * @param stop                              Checked per row ; reading stops 
+     *                                          early once it returns 
+     *                                          {@code true}. Must not be 
+     *                                          {@code null}
+     * @throws Exception                        If a row fails without a reject 
+     *                                          sink or the stream cannot be 
+     *                                          read
+     * @since 1.0.0
+     */
+    void readBeans(@Nonnull
+                   final CsvBeanReader beanReader,
+                   final long baseLineNumber,
+                   @Nonnull
+                   final AccountTransactionsBatchAssembler accountTransactionsBatchAssembler,
+                   @Nonnull
+                   final AtomicLong processedLinesCount,
+                   @Nullable
+                   final RowRejectSink rejectSink,
+                   @Nonnull
+                   final BooleanSupplier stop)
+            throws Exception
+    {
+        while(!stop.getAsBoolean())
+        {
+            final AccountTransaction accountTransaction;
+            try
+            {
                 accountTransaction = beanReader.read(
                     AccountTransaction.class,
                     AccountTransactionsCsvFields.getFieldMappings(), 
                     AccountTransactionsCsvFields.getCellProcessors()
-                )
-            ))
+                );
+            }
+            catch(SuperCsvException e)
             {
-                if(i>0 && i%batchSize==0)
+                if(Objects.isNull(rejectSink))
                 {
-                    consume.accept(
-                        accountTransactionsBatchJob.get()
-                    );
-                    
-                    accountTransactionsBatchJob.set(
-                        new AccountTransactionsBatchJob().setBatchId(
-                            UUID.randomUUID().toString()
-                        ).setBatchSize(
-                            batchSize
-                        ).setOperation(
-                            operation
-                        ).setBatchAccountTransaction(
-                            new ArrayList<>()
-                        )
-                    );
+                    throw e;
                 }
-                
-                accountTransactionsBatchJob.get().getBatchAccountTransaction().add(
-                    accountTransaction
+                rejectSink.reject(
+                    baseLineNumber + beanReader.getLineNumber(),
+                    beanReader.getUntokenizedRow(),
+                    e.getMessage()
                 );
-                
-                processedLinesCount.incrementAndGet();
-                
-                i++;
+                continue;
             }
-            if(Objects.nonNull(accountTransactionsBatchJob.get()) && 
-                !accountTransactionsBatchJob.get().getBatchAccountTransaction().isEmpty())
+            if(Objects.isNull(accountTransaction))
             {
-                consume.accept(
-                    accountTransactionsBatchJob.get()
+                break;
+            }
+            if(Objects.nonNull(rejectSink))
+            {
+                final Set<ConstraintViolation<AccountTransaction>> constraintViolations = validator.validate(
+                    accountTransaction
                 );
+                if(!constraintViolations.isEmpty())
+                {
+                    rejectSink.reject(
+                        baseLineNumber + beanReader.getLineNumber(),
+                        beanReader.getUntokenizedRow(),
+                        constraintViolations.stream().map(
+                            constraintViolationToProcess -> constraintViolationToProcess.getPropertyPath() + " " + constraintViolationToProcess.getMessage()
+                        ).sorted().collect(
+                            Collectors.joining(
+                                ", "
+                            )
+                        )
+                    );
+                    continue;
+                }
             }
-            accountTransactionsBatchJob.set(
-                null
+            accountTransaction.setLineNumber(
+                baseLineNumber + beanReader.getLineNumber()
             );
-            
-            log.info("Read CSV file '{}' COMPLETED ; number of ({}) lines processed",
-                filePath,
-                processedLinesCount.get()
+            accountTransactionsBatchAssembler.add(
+                accountTransaction
             );
+            processedLinesCount.incrementAndGet();
         }
-        catch(Exception e)
+    }
+    
+    /**
+     * Close the bean reader, logging (not throwing) a failure
+     * @param beanReader                        Bean reader (may be 
+     *                                          {@code null})
+     * @param csvSourceName                     CSV source name
+     * @since 1.0.0
+     */
+    static void closeQuietly(@Nullable
+                             final CsvBeanReader beanReader,
+                             @Nonnull
+                             final String csvSourceName)
+    {
+        if(Objects.nonNull(beanReader))
         {
-            log.error("Error while reading file: " +  filePath, e);
-            throw new InternalException(
-                String.format("Read CSV file '%s' ENCOUNTERED FAILURE ; %s, last line read (%d)",
-                    filePath,
-                    e.getMessage(),
-                    processedLinesCount.get()
-                ),
-                e
-            );
+            try
+            {
+                beanReader.close();
+            }
+            catch(Exception e)
+            {
+                log.warn("Close CSV reader for file '{}' ENCOUNTERED FAILURE ; {}",
+                    csvSourceName,
+                    e.getMessage()
+                );
+            }
         }
-        return processedLinesCount.get();
     }
 }
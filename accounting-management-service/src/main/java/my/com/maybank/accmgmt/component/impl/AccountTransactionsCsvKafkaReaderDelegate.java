@@ -0,0 +1,239 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.CsvMessageReader;
+import my.com.maybank.accmgmt.component.RowRejectSink;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.utils.CompressionCodec;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.InternalException;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link my.com.maybank.accmgmt.models.AccountTransaction} CSV reader delegate 
+ * that routes to the CSV parser engine configured in 
+ * {@link DefaultAppService#getAccountingIngestParserEngine()} and the row 
+ * decoder configured in {@link DefaultAppService#getAccountingIngestRowDecoder()}
+ * <p>
+ * {@code .gz}/{@code .zst} files and sources are decoded as a stream by the 
+ * row decoder reader (see {@link CompressionCodec})
+ * </p>
+ * @since 1.0.0
+ * @see AccountTransactionsCsvKafkaReader
+ * @see AccountTransactionsMappedCsvKafkaReader
+ * @see AccountTransactionsColumnarCsvKafkaReader
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Primary
+@Component
+public class AccountTransactionsCsvKafkaReaderDelegate
+       implements CsvMessageReader<AccountTransactionsBatchJob.Operation, AccountTransactionsBatchJob>
+{
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+    
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsCsvKafkaReader accountTransactionsCsvKafkaReader;
+    
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsMappedCsvKafkaReader accountTransactionsMappedCsvKafkaReader;
+    
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsColumnarCsvKafkaReader accountTransactionsColumnarCsvKafkaReader;
+    
+    @Override
+    public long readAndCallback(@Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String filePath, 
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        return readAndCallback(
+            filePath,
+            operation,
+            consume,
+            null
+        );
+    }
+    
+    @Override
+    public long readAndCallback(@Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String filePath, 
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume,
+                                @Nullable
+                                final RowRejectSink rejectSink)
+    {
+        final CompressionCodec compressionCodec = CompressionCodec.ofFileName(
+            filePath
+        );
+        if(compressionCodec!=CompressionCodec.NONE)
+        {
+            // a compressed file cannot be mapped ; decode it as a stream
+            try
+            {
+                return readAndCallback(
+                    Files.newInputStream(
+                        Paths.get(
+                            filePath
+                        )
+                    ),
+                    filePath,
+                    operation,
+                    consume,
+                    rejectSink
+                );
+            }
+            catch(IOException e)
+            {
+                throw new InternalException(
+                    String.format(
+                        "Read CSV file '%s' ENCOUNTERED FAILURE ; %s",
+                        filePath,
+                        e.getMessage()
+                    ),
+                    e
+                );
+            }
+        }
+        return getCsvMessageReader().readAndCallback(
+            filePath,
+            operation,
+            consume,
+            rejectSink
+        );
+    }
+    
+    @Override
+    public long readAndCallback(@Nonnull
+                                final InputStream csvInputStream,
+                                @Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String csvSourceName, 
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        return readAndCallback(
+            csvInputStream,
+            csvSourceName,
+            operation,
+            consume,
+            null
+        );
+    }
+    
+    @Override
+    public long readAndCallback(@Nonnull
+                                final InputStream csvInputStream,
+                                @Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String csvSourceName, 
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume,
+                                @Nullable
+                                final RowRejectSink rejectSink)
+    {
+        // a stream cannot be mapped ; only the row decoder applies
+        final CompressionCodec compressionCodec = CompressionCodec.ofFileName(
+            csvSourceName
+        );
+        final InputStream decodedCsvInputStream;
+        try
+        {
+            decodedCsvInputStream = compressionCodec.decode(
+                csvInputStream
+            );
+        }
+        catch(IOException e)
+        {
+            throw new InternalException(
+                String.format(
+                    "Read CSV file '%s' ENCOUNTERED FAILURE ; %s payload is invalid, %s",
+                    csvSourceName,
+                    compressionCodec,
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+        return getStreamCsvMessageReader().readAndCallback(
+            decodedCsvInputStream,
+            compressionCodec.decodedFileName(
+                csvSourceName
+            ),
+            operation,
+            consume,
+            rejectSink
+        );
+    }
+    
+    /**
+     * Get the configured CSV parser engine reader
+     * @return                                  CSV reader, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    protected CsvMessageReader<AccountTransactionsBatchJob.Operation, AccountTransactionsBatchJob> getCsvMessageReader()
+    {
+        switch(((DefaultAppService)appService).getAccountingIngestParserEngine())
+        {
+            case MAPPED_PARALLEL:
+                return accountTransactionsMappedCsvKafkaReader;
+            case SUPER_CSV:
+            default:
+                return getStreamCsvMessageReader();
+        }
+    }
+    
+    /**
+     * Get the configured row decoder sequential reader
+     * @return                                  CSV reader, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    protected CsvMessageReader<AccountTransactionsBatchJob.Operation, AccountTransactionsBatchJob> getStreamCsvMessageReader()
+    {
+        switch(((DefaultAppService)appService).getAccountingIngestRowDecoder())
+        {
+            case COLUMNAR:
+                return accountTransactionsColumnarCsvKafkaReader;
+            case BEAN:
+            default:
+                return accountTransactionsCsvKafkaReader;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.IngestJob;
+import my.com.maybank.core.configuration.service.AppService;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory registry of the {@link IngestJob}(s) of this instance
+ * <p>
+ * Only the most recent {@link DefaultAppService#getAccountingIngestJobRetention()}
+ * finished jobs are kept. Batch consumption is only tracked when the batch is
+ * consumed by the same instance that produced it
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Component
+public class AccountTransactionsIngestJobRegistry
+{
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    private final Map<String, IngestJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Registered job ids in registration order, used to evict the oldest
+     * finished jobs
+     * @since 1.0.0
+     */
+    private final Queue<String> jobIds = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Register a new {@link IngestJob.Status#QUEUED} job
+     * @param fileName                          Uploaded file name. Must not be
+     *                                          {@code null}
+     * @return                                  Registered job, never
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public IngestJob register(@Nonnull
+                              final String fileName)
+    {
+        evict();
+        final IngestJob ingestJob = new IngestJob(
+            UUID.randomUUID().toString(),
+            fileName
+        );
+        jobs.put(
+            ingestJob.getJobId(),
+            ingestJob
+        );
+        jobIds.add(
+            ingestJob.getJobId()
+        );
+        return ingestJob;
+    }
+
+    /**
+     * Find a job
+     * @param jobId                             Job id
+     * @return                                  Job if registered (and not yet
+     *                                          evicted)
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Optional<IngestJob> find(@Nullable
+                                    final String jobId)
+    {
+        return Optional.ofNullable(
+            jobId
+        ).map(
+            jobs::get
+        );
+    }
+
+    /**
+     * Apply the update to the job if it is registered
+     * @param jobId                             Job id (may be {@code null} for
+     *                                          batches not produced by an
+     *                                          upload job)
+     * @param update                            Update to apply. Must not be
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    public void update(@Nullable
+                       final String jobId,
+                       @Nonnull
+                       final Consumer<IngestJob> update)
+    {
+        find(
+            jobId
+        ).ifPresent(
+            update
+        );
+    }
+
+    /**
+     * Evict the oldest finished jobs beyond the retention
+     * @since 1.0.0
+     */
+    private void evict()
+    {
+        final int jobRetention = ((DefaultAppService)appService).getAccountingIngestJobRetention();
+        int toInspect = jobIds.size();
+        while(jobs.size()>=jobRetention && toInspect-->0)
+        {
+            final String jobId = jobIds.poll();
+            if(jobId==null)
+            {
+                break;
+            }
+            final IngestJob ingestJob = jobs.get(
+                jobId
+            );
+            if(ingestJob!=null && !ingestJob.isFinished())
+            {
+                // still in progress ; keep it
+                jobIds.add(
+                    jobId
+                );
+                continue;
+            }
+            jobs.remove(
+                jobId
+            );
+            log.debug(
+                "Ingest job '{}' EVICTED",
+                jobId
+            );
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.MessagePublisher;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.utils.StagedPipeline;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.InternalException;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ingest pipeline between the CSV reader and the batch job transport (Kafka 
+ * or in-process, see {@link DefaultAppService#getAccountingTransport()})
+ * <p>
+ * The reading thread only parses ; every batch it assembles is queued to the
+ * serialise stage ({@link DefaultAppService#getAccountingKafkaPipelineSerializers()}
+ * threads turning it into its (keyed) Kafka record) which queues to the send stage
+ * ({@link DefaultAppService#getAccountingKafkaPipelineSenders()} threads
+ * calling {@code KafkaTemplate.send} without waiting for the acknowledgement,
+ * up to {@link DefaultAppService#getAccountingKafkaPublishMaxInFlight()}
+ * in flight), so parsing, serialisation and network send of consecutive
+ * batches overlap. A batch only counts as sent once the broker acknowledged
+ * it. Stages are connected by bounded
+ * lock-free queues of {@link DefaultAppService#getAccountingKafkaPipelineQueueCapacity()}
+ * batches ; a full queue holds the previous stage (ultimately the reader)
+ * back
+ * </p>
+ * <p>
+ * With {@link DefaultAppService#getAccountingKafkaPublishTransactional()} 
+ * (Kafka transport only) the batches of a read go out in a Kafka transaction closed by an 
+ * {@link AccountTransactionsBatchJob.Operation#COMMIT} marker once every 
+ * batch is acknowledged ; {@code read_committed} consumers see the whole 
+ * upload or nothing of it
+ * </p>
+ * <p>
+ * Usage, per upload :
+ * </p>
+ * <pre>
+ * long rowsAcknowledged = accountTransactionsIngestPipeline.readAndPublish(
+ *     consume -&gt; csvReader.readAndCallback(csvPath, operation, consume),
+ *     null
+ * );
+ * </pre>
+ * @since 1.0.0
+ * @see StagedPipeline
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Component
+public class AccountTransactionsIngestPipeline
+{
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    @NonNull
+    @Nonnull
+    private final MessagePublisher<AccountTransactionsBatchJob, ?> accountTransactionsBatchMessagePublisher;
+
+    @Getter(
+        AccessLevel.PROTECTED
+    )
+    @Nullable
+    private StagedPipeline<AccountTransactionsBatchJob, ?> stagedPipeline;
+
+    @PostConstruct
+    protected void init()
+    {
+        final DefaultAppService defaultAppService = (DefaultAppService)appService;
+        this.stagedPipeline = newStagedPipeline(
+            defaultAppService,
+            accountTransactionsBatchMessagePublisher
+        );
+        log.info(
+            "Ingest pipeline INITIALIZED ; ({}) transport, ({}) serialiser(s), ({}) sender(s), queue capacity ({})",
+            defaultAppService.getAccountingTransport(),
+            defaultAppService.getAccountingKafkaPipelineSerializers(),
+            defaultAppService.getAccountingKafkaPipelineSenders(),
+            stagedPipeline.getTransformQueue().capacity()
+        );
+    }
+    
+    /**
+     * New pipeline preparing then publishing through the publisher
+     * @param <P>                               Prepared message type
+     * @since 1.0.0
+     */
+    @Nonnull
+    private static <P> StagedPipeline<AccountTransactionsBatchJob, P> newStagedPipeline(@Nonnull
+                                                                                        final DefaultAppService defaultAppService,
+                                                                                        @Nonnull
+                                                                                        final MessagePublisher<AccountTransactionsBatchJob, P> messagePublisher)
+    {
+        return new StagedPipeline<>(
+            "ingest-pipeline",
+            defaultAppService.getAccountingKafkaPipelineSerializers(),
+            defaultAppService.getAccountingKafkaPipelineSenders(),
+            defaultAppService.getAccountingKafkaPipelineQueueCapacity(),
+            messagePublisher::prepareMessage,
+            messagePublisher::publishMessage
+        );
+    }
+
+    @PreDestroy
+    protected void destroy()
+    {
+        if(stagedPipeline!=null)
+        {
+            stagedPipeline.close();
+        }
+    }
+
+    /**
+     * Run a read through the pipeline and wait until every batch it produced 
+     * is acknowledged
+     * @param read                              Read ; given the batch callback, 
+     *                                          returns the number of rows read 
+     *                                          (rejected rows excluded). Must 
+     *                                          not be {@code null}
+     * @param onAcknowledged                    Callback for every acknowledged 
+     *                                          batch (invoked on a producer 
+     *                                          thread), may be {@code null}
+     * @return                                  Number of rows acknowledged ; 
+     *                                          equals the rows read
+     * @throws InternalException                If a batch could not be sent, 
+     *                                          or the rows acknowledged do not 
+     *                                          add up to the rows read (the 
+     *                                          transaction, if any, is 
+     *                                          aborted)
+     * @since 1.0.0
+     */
+    public long readAndPublish(@Nonnull
+                               final Function<Consumer<AccountTransactionsBatchJob>, Long> read,
+                               @Nullable
+                               final Consumer<AccountTransactionsBatchJob> onAcknowledged)
+    {
+        if(((DefaultAppService)appService).getAccountingKafkaPublishTransactional() && 
+           accountTransactionsBatchMessagePublisher instanceof AccountTransactionsBatchMessageKafkaProducer)
+        {
+            final AccountTransactionsBatchMessageKafkaProducer accountTransactionsBatchMessageKafkaProducer = (AccountTransactionsBatchMessageKafkaProducer)accountTransactionsBatchMessagePublisher;
+            try(AccountTransactionsBatchMessageKafkaProducer.Transaction transaction = accountTransactionsBatchMessageKafkaProducer.beginTransaction())
+            {
+                final AtomicReference<String> jobId = new AtomicReference<>();
+                final long rowsAcknowledged = readAndPublish(
+                    read,
+                    accountTransactionsBatchJobToProcess -> {
+                        jobId.compareAndSet(
+                            null,
+                            accountTransactionsBatchJobToProcess.getJobId()
+                        );
+                        if(Objects.nonNull(onAcknowledged))
+                        {
+                            onAcknowledged.accept(
+                                accountTransactionsBatchJobToProcess
+                            );
+                        }
+                    },
+                    transaction
+                );
+                transaction.commit(
+                    accountTransactionsBatchMessageKafkaProducer.serializeRecord(
+                        new AccountTransactionsBatchJob().setBatchId(
+                            UUID.randomUUID().toString()
+                        ).setJobId(
+                            jobId.get()
+                        ).setBatchSize(
+                            (int)transaction.getBatchesAcknowledged().get()
+                        ).setOperation(
+                            AccountTransactionsBatchJob.Operation.COMMIT
+                        ).setPartitionKey(
+                            jobId.get()
+                        ).setBatchAccountTransaction(
+                            Collections.emptyList()
+                        )
+                    )
+                );
+                return rowsAcknowledged;
+            }
+        }
+        return readAndPublish(
+            read,
+            onAcknowledged,
+            null
+        );
+    }
+    
+    /**
+     * Run a read through the pipeline, sending in the transaction (if any)
+     * @since 1.0.0
+     */
+    @SuppressWarnings("unchecked")
+    private long readAndPublish(@Nonnull
+                                final Function<Consumer<AccountTransactionsBatchJob>, Long> read,
+                                @Nullable
+                                final Consumer<AccountTransactionsBatchJob> onAcknowledged,
+                                @Nullable
+                                final AccountTransactionsBatchMessageKafkaProducer.Transaction transaction)
+    {
+        final AtomicLong rowsAcknowledged = new AtomicLong();
+        final Consumer<AccountTransactionsBatchJob> onSent = accountTransactionsBatchJobToProcess -> {
+            rowsAcknowledged.addAndGet(
+                accountTransactionsBatchJobToProcess.getBatchAccountTransaction().size()
+            );
+            if(Objects.nonNull(onAcknowledged))
+            {
+                onAcknowledged.accept(
+                    accountTransactionsBatchJobToProcess
+                );
+            }
+        };
+        // a transaction only comes with the Kafka producer, whose pipeline 
+        // carries Kafka records
+        try(StagedPipeline.Run<AccountTransactionsBatchJob> pipelineRun = Objects.nonNull(transaction)?
+            ((StagedPipeline<AccountTransactionsBatchJob, ProducerRecord<String, byte[]>>)stagedPipeline).open(
+                onSent,
+                transaction::publish
+            ):
+            stagedPipeline.open(
+                onSent
+            ))
+        {
+            final long rowsRead = read.apply(
+                pipelineRun::submit
+            );
+            pipelineRun.await();
+            if(rowsAcknowledged.get()!=rowsRead)
+            {
+                throw new InternalException(
+                    String.format(
+                        "Rows acknowledged (%d) DO NOT MATCH rows read (%d)",
+                        rowsAcknowledged.get(),
+                        rowsRead
+                    )
+                );
+            }
+            return rowsAcknowledged.get();
+        }
+    }
+    
+    /**
+     * Open a pipeline run for an upload
+     * @param onSent                            Callback for every batch 
+     *                                          taken over by the transport (invoked 
+     *                                          on a producer thread), may be 
+     *                                          {@code null}
+     * @return                                  Run ; submit the batches then
+     *                                          {@link StagedPipeline.Run#await()}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public StagedPipeline.Run<AccountTransactionsBatchJob> open(@Nullable
+                                                                final Consumer<AccountTransactionsBatchJob> onSent)
+    {
+        return stagedPipeline.open(
+            onSent
+        );
+    }
+}
@@ -0,0 +1,228 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableDoubleGauge;
+import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per consumer thread metrics of the account transaction batch job listener
+ * container, to right-size the listener concurrency (and the pods)
+ * <ul>
+ * <li>{@value #CONSUMER_CONCURRENCY_METRIC} : consumer threads</li>
+ * <li>{@value #CONSUMER_ASSIGNED_PARTITIONS_METRIC} : partitions assigned to
+ * each consumer thread ; {@code 0} is an idle thread</li>
+ * <li>{@value #CONSUMER_RECORDS_CONSUMED_RATE_METRIC} : records per second
+ * consumed by each consumer thread</li>
+ * <li>{@value #CONSUMER_RECORDS_LAG_MAX_METRIC} : records each consumer
+ * thread is behind on its most lagging partition</li>
+ * </ul>
+ * Threads are told apart by the {@code client.id} attribute (one Kafka
+ * consumer per thread) ; rate and lag come from the Kafka consumer metrics
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "app.service.accounting.transport",
+    havingValue = "KAFKA",
+    matchIfMissing = true
+)
+@Component
+public class AccountTransactionsKafkaConsumerMetrics
+{
+    /**
+     * Consumer threads metric name
+     * @since 1.0.0
+     */
+    public static final String CONSUMER_CONCURRENCY_METRIC = "accounting.kafka.consumer.concurrency";
+
+    /**
+     * Partitions assigned per consumer thread metric name
+     * @since 1.0.0
+     */
+    public static final String CONSUMER_ASSIGNED_PARTITIONS_METRIC = "accounting.kafka.consumer.assigned.partitions";
+
+    /**
+     * Records consumed per second per consumer thread metric name
+     * @since 1.0.0
+     */
+    public static final String CONSUMER_RECORDS_CONSUMED_RATE_METRIC = "accounting.kafka.consumer.records.consumed.rate";
+
+    /**
+     * Max partition lag per consumer thread metric name
+     * @since 1.0.0
+     */
+    public static final String CONSUMER_RECORDS_LAG_MAX_METRIC = "accounting.kafka.consumer.records.lag.max";
+
+    /**
+     * Kafka consumer metric group of the fetch metrics
+     * @since 1.0.0
+     */
+    private static final String FETCH_MANAGER_METRIC_GROUP = "consumer-fetch-manager-metrics";
+
+    private static final AttributeKey<String> CLIENT_ID_ATTRIBUTE_KEY = AttributeKey.stringKey(
+        "client.id"
+    );
+
+    @NonNull
+    @Nonnull
+    private final ConcurrentMessageListenerContainer<String, byte[]> messageListenerContainer;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private ObservableLongGauge concurrencyGauge;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private ObservableLongGauge assignedPartitionsGauge;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private ObservableDoubleGauge recordsConsumedRateGauge;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private ObservableDoubleGauge recordsLagMaxGauge;
+
+    @PostConstruct
+    protected void init()
+    {
+        final Meter meter = GlobalOpenTelemetry.getMeter(
+            getClass().getName()
+        );
+        this.concurrencyGauge = meter.gaugeBuilder(
+            CONSUMER_CONCURRENCY_METRIC
+        ).ofLongs().setDescription(
+            "Account transaction batch job listener consumer threads"
+        ).buildWithCallback(
+            measurement -> measurement.record(
+                messageListenerContainer.getConcurrency()
+            )
+        );
+        this.assignedPartitionsGauge = meter.gaugeBuilder(
+            CONSUMER_ASSIGNED_PARTITIONS_METRIC
+        ).ofLongs().setDescription(
+            "Topic partitions assigned to each account transaction batch job consumer thread"
+        ).buildWithCallback(
+            measurement -> Optional.ofNullable(
+                messageListenerContainer.getAssignmentsByClientId()
+            ).ifPresent(
+                assignmentsByClientId -> assignmentsByClientId.forEach(
+                    (clientId, assignedPartitions) -> measurement.record(
+                        assignedPartitions==null?0l:assignedPartitions.size(),
+                        Attributes.of(
+                            CLIENT_ID_ATTRIBUTE_KEY,
+                            clientId
+                        )
+                    )
+                )
+            )
+        );
+        this.recordsConsumedRateGauge = meter.gaugeBuilder(
+            CONSUMER_RECORDS_CONSUMED_RATE_METRIC
+        ).setDescription(
+            "Records consumed per second by each account transaction batch job consumer thread"
+        ).setUnit(
+            "{record}/s"
+        ).buildWithCallback(
+            measurement -> recordFetchMetric(
+                "records-consumed-rate",
+                measurement
+            )
+        );
+        this.recordsLagMaxGauge = meter.gaugeBuilder(
+            CONSUMER_RECORDS_LAG_MAX_METRIC
+        ).setDescription(
+            "Records each account transaction batch job consumer thread is behind on its most lagging partition"
+        ).setUnit(
+            "{record}"
+        ).buildWithCallback(
+            measurement -> recordFetchMetric(
+                "records-lag-max",
+                measurement
+            )
+        );
+    }
+
+    @PreDestroy
+    protected void destroy()
+    {
+        concurrencyGauge.close();
+        assignedPartitionsGauge.close();
+        recordsConsumedRateGauge.close();
+        recordsLagMaxGauge.close();
+    }
+
+    /**
+     * Record the consumer level (not per topic or partition) fetch metric of
+     * every consumer thread
+     * @param fetchMetricName                   Kafka consumer fetch metric
+     *                                          name
+     * @param measurement                       Measurement to record to
+     * @since 1.0.0
+     */
+    private void recordFetchMetric(@Nonnull
+                                   final String fetchMetricName,
+                                   @Nonnull
+                                   final ObservableDoubleMeasurement measurement)
+    {
+        messageListenerContainer.metrics().forEach(
+            (clientId, consumerMetrics) -> consumerMetrics.forEach(
+                (metricName, metric) -> {
+                    if(!FETCH_MANAGER_METRIC_GROUP.equals(
+                        metricName.group()
+                    ) || !fetchMetricName.equals(
+                        metricName.name()
+                    ) || metricName.tags().containsKey(
+                        "topic"
+                    ))
+                    {
+                        return;
+                    }
+                    final Object metricValue = metric.metricValue();
+                    // NaN until the first fetch
+                    if(metricValue instanceof Number && !Double.isNaN(
+                        ((Number)metricValue).doubleValue()
+                    ))
+                    {
+                        measurement.record(
+                            ((Number)metricValue).doubleValue(),
+                            Attributes.of(
+                                CLIENT_ID_ATTRIBUTE_KEY,
+                                Optional.ofNullable(
+                                    metricName.tags().get(
+                                        "client-id"
+                                    )
+                                ).orElse(
+                                    clientId
+                                )
+                            )
+                        );
+                    }
+                }
+            )
+        );
+    }
+}
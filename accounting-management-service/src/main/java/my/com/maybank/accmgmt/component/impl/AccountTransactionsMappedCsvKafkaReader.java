@@ -0,0 +1,604 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.CsvMessageReader;
+import my.com.maybank.accmgmt.component.RowRejectSink;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.utils.ByteBufferInputStream;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.InternalException;
+import org.springframework.stereotype.Component;
+import org.supercsv.io.CsvBeanReader;
+
+/**
+ * {@link my.com.maybank.accmgmt.models.AccountTransaction} CSV reader that
+ * memory-maps the file and parses it in parallel
+ * <p>
+ * The data section (after the header line) is split into byte ranges of at
+ * least {@link DefaultAppService#getAccountingIngestParserMinRangeSize()} bytes,
+ * each boundary moved forward to the next line start so that no record
+ * straddles two ranges. A first parallel pass counts the lines per range so
+ * that error messages report the line number within the whole file ; the
+ * second pass parses each range on its own fork-join worker with its own
+ * {@link AccountTransactionsBatchAssembler}, using the row decoder configured in
+ * {@link DefaultAppService#getAccountingIngestRowDecoder()}
+ * </p>
+ * <p>
+ * Ranges are aligned on {@code \n}, hence a quoted field spanning multiple
+ * lines is NOT supported by this engine (use
+ * {@link DefaultAppService.ParserEngine#SUPER_CSV} for such files). Batches
+ * are handed to the callback from several workers concurrently, in no
+ * particular order
+ * </p>
+ * @since 1.0.0
+ * @see AccountTransactionsCsvKafkaReader
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@Component
+public class AccountTransactionsMappedCsvKafkaReader
+       implements CsvMessageReader<AccountTransactionsBatchJob.Operation, AccountTransactionsBatchJob>
+{
+    /**
+     * Max bytes a single mapped range may hold ({@link MappedByteBuffer} is
+     * {@code int} indexed)
+     * @since 1.0.0
+     */
+    private static final long MAX_RANGE_SIZE = Integer.MAX_VALUE;
+
+    /**
+     * Window size used when scanning for a line terminator
+     * @since 1.0.0
+     */
+    private static final int SCAN_WINDOW_SIZE = 64 * 1024;
+
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsCsvKafkaReader accountTransactionsCsvKafkaReader;
+
+    @NonNull
+    @Nonnull
+    private final AccountTransactionsColumnarCsvKafkaReader accountTransactionsColumnarCsvKafkaReader;
+
+    @Nonnull
+    private final ForkJoinPool parserPool;
+
+    public AccountTransactionsMappedCsvKafkaReader(@NonNull
+                                                   @Nonnull
+                                                   final AppService appService,
+                                                   @NonNull
+                                                   @Nonnull
+                                                   final AccountTransactionsCsvKafkaReader accountTransactionsCsvKafkaReader,
+                                                   @NonNull
+                                                   @Nonnull
+                                                   final AccountTransactionsColumnarCsvKafkaReader accountTransactionsColumnarCsvKafkaReader)
+    {
+        this.appService = appService;
+        this.accountTransactionsCsvKafkaReader = accountTransactionsCsvKafkaReader;
+        this.accountTransactionsColumnarCsvKafkaReader = accountTransactionsColumnarCsvKafkaReader;
+        this.parserPool = new ForkJoinPool(
+            ((DefaultAppService)appService).getAccountingIngestParserParallelism()
+        );
+    }
+
+    /**
+     * Shutdown the parser pool
+     * @since 1.0.0
+     */
+    @PreDestroy
+    public void destroy()
+    {
+        parserPool.shutdownNow();
+    }
+
+    /**
+     * Read the CSV file by memory-mapping it and parsing its line aligned
+     * ranges in parallel, performing the callback for each converted batch
+     * @param filePath                          CSV file path to read/process.
+     *                                          Must not be {@code null} or
+     *                                          blank/empty
+     * @param operation                         Operation to act on
+     * @param consume                           Callback operation ; invoked
+     *                                          concurrently. Must not be
+     *                                          {@code null}
+     * @return                                  Total number of CSV lines read
+     * @since 1.0.0
+     */
+    @Override
+    public long readAndCallback(@Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String filePath,
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        return readAndCallback(
+            filePath,
+            operation,
+            consume,
+            null
+        );
+    }
+
+    @Override
+    public long readAndCallback(@Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String filePath,
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume,
+                                @Nullable
+                                final RowRejectSink rejectSink)
+    {
+        try(FileChannel fileChannel = FileChannel.open(
+            Paths.get(
+                filePath
+            ),
+            StandardOpenOption.READ
+        ))
+        {
+            final long fileSize = fileChannel.size();
+
+            // skip the header line (assuming we'll have the first line as
+            // header as a practise or standard)
+            final long dataStart = nextLineStart(
+                fileChannel,
+                0l,
+                fileSize
+            );
+            final List<long[]> ranges = splitRanges(
+                fileChannel,
+                dataStart,
+                fileSize
+            );
+
+            // pass 1 ; physical line count per range, used as the base line
+            // number of the following ranges
+            final List<ForkJoinTask<Long>> lineCountTasks = new ArrayList<>(
+                ranges.size()
+            );
+            for(long[] range : ranges)
+            {
+                lineCountTasks.add(
+                    parserPool.submit(
+                        () -> countLines(
+                            fileChannel,
+                            range[0],
+                            range[1]
+                        )
+                    )
+                );
+            }
+            final long[] baseLineNumbers = new long[ranges.size()];
+            long lineNumber = 1l; // header
+            for(int i = 0; i < ranges.size(); i++)
+            {
+                baseLineNumbers[i] = lineNumber;
+                lineNumber += lineCountTasks.get(
+                    i
+                ).join();
+            }
+
+            // pass 2 ; parse each range on its own worker
+            final AtomicBoolean failed = new AtomicBoolean();
+            final AtomicReference<InternalException> failure = new AtomicReference<>();
+            final List<ForkJoinTask<Long>> parseTasks = new ArrayList<>(
+                ranges.size()
+            );
+            for(int i = 0; i < ranges.size(); i++)
+            {
+                final long[] range = ranges.get(
+                    i
+                );
+                final long baseLineNumber = baseLineNumbers[i];
+                parseTasks.add(
+                    parserPool.submit(
+                        () -> parseRange(
+                            fileChannel,
+                            filePath,
+                            range[0],
+                            range[1],
+                            baseLineNumber,
+                            operation,
+                            consume,
+                            rejectSink,
+                            failed,
+                            failure
+                        )
+                    )
+                );
+            }
+            long processedLinesCount = 0l;
+            for(ForkJoinTask<Long> parseTask : parseTasks)
+            {
+                processedLinesCount += parseTask.join();
+            }
+            if(Objects.nonNull(
+                failure.get()
+            ))
+            {
+                throw failure.get();
+            }
+
+            log.info("Read CSV file '{}' COMPLETED ; number of ({}) lines processed over ({}) range(s)",
+                filePath,
+                processedLinesCount,
+                ranges.size()
+            );
+            return processedLinesCount;
+        }
+        catch(InternalException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            log.error("Error while reading file: " +  filePath, e);
+            throw new InternalException(
+                String.format("Read CSV file '%s' ENCOUNTERED FAILURE ; %s",
+                    filePath,
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+
+    /**
+     * A stream cannot be mapped ; delegates to the sequential
+     * {@link AccountTransactionsCsvKafkaReader}
+     * @param csvInputStream                    CSV stream to read/process. Must
+     *                                          not be {@code null}
+     * @param csvSourceName                     CSV source name. Must not be
+     *                                          {@code null} or blank/empty
+     * @param operation                         Operation to act on
+     * @param consume                           Callback operation. Must not be
+     *                                          {@code null}
+     * @return                                  Total number of CSV lines read
+     * @since 1.0.0
+     */
+    @Override
+    public long readAndCallback(@Nonnull
+                                final InputStream csvInputStream,
+                                @Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String csvSourceName,
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume)
+    {
+        return readAndCallback(
+            csvInputStream,
+            csvSourceName,
+            operation,
+            consume,
+            null
+        );
+    }
+
+    @Override
+    public long readAndCallback(@Nonnull
+                                final InputStream csvInputStream,
+                                @Nonnull
+                                @NotBlank
+                                @NotEmpty
+                                final String csvSourceName,
+                                @Nonnull
+                                final AccountTransactionsBatchJob.Operation operation,
+                                @Nonnull
+                                final Consumer<AccountTransactionsBatchJob> consume,
+                                @Nullable
+                                final RowRejectSink rejectSink)
+    {
+        return accountTransactionsCsvKafkaReader.readAndCallback(
+            csvInputStream,
+            csvSourceName,
+            operation,
+            consume,
+            rejectSink
+        );
+    }
+
+    /**
+     * Split the data section into line aligned {@code [start, end)} ranges
+     * @param fileChannel                       File channel. Must not be
+     *                                          {@code null}
+     * @param dataStart                         Data section start offset
+     * @param fileSize                          File size
+     * @return                                  Ranges, empty if there is no
+     *                                          data
+     * @throws Exception                        If scanning fails
+     * @since 1.0.0
+     */
+    private List<long[]> splitRanges(@Nonnull
+                                     final FileChannel fileChannel,
+                                     final long dataStart,
+                                     final long fileSize)
+            throws Exception
+    {
+        final List<long[]> ranges = new ArrayList<>();
+        final long dataSize = fileSize - dataStart;
+        if(dataSize<=0)
+        {
+            return ranges;
+        }
+        final DefaultAppService defaultAppService = (DefaultAppService)appService;
+        final long rangeSize = Math.min(
+            MAX_RANGE_SIZE - SCAN_WINDOW_SIZE,
+            Math.max(
+                defaultAppService.getAccountingIngestParserMinRangeSize(),
+                (dataSize + defaultAppService.getAccountingIngestParserParallelism() - 1) /
+                    defaultAppService.getAccountingIngestParserParallelism()
+            )
+        );
+        long start = dataStart;
+        while(start<fileSize)
+        {
+            final long end = start + rangeSize>=fileSize?
+                fileSize:
+                nextLineStart(
+                    fileChannel,
+                    start + rangeSize - 1,
+                    fileSize
+                );
+            ranges.add(
+                new long[]{start, end}
+            );
+            start = end;
+        }
+        return ranges;
+    }
+
+    /**
+     * Find the offset right after the first {@code \n} at or after
+     * {@code from}
+     * @param fileChannel                       File channel. Must not be
+     *                                          {@code null}
+     * @param from                              Offset to scan from
+     * @param fileSize                          File size
+     * @return                                  Next line start offset, or
+     *                                          {@code fileSize} if there is no
+     *                                          further line terminator
+     * @throws Exception                        If mapping fails
+     * @since 1.0.0
+     */
+    private long nextLineStart(@Nonnull
+                               final FileChannel fileChannel,
+                               final long from,
+                               final long fileSize)
+            throws Exception
+    {
+        long windowStart = from;
+        while(windowStart<fileSize)
+        {
+            final int windowSize = (int)Math.min(
+                SCAN_WINDOW_SIZE,
+                fileSize - windowStart
+            );
+            final MappedByteBuffer window = fileChannel.map(
+                FileChannel.MapMode.READ_ONLY,
+                windowStart,
+                windowSize
+            );
+            for(int i = 0; i < windowSize; i++)
+            {
+                if(window.get(i)=='\n')
+                {
+                    return windowStart + i + 1;
+                }
+            }
+            windowStart += windowSize;
+        }
+        return fileSize;
+    }
+
+    /**
+     * Count the physical lines of a range ; a trailing line without terminator
+     * counts as one
+     * @param fileChannel                       File channel. Must not be
+     *                                          {@code null}
+     * @param start                             Range start offset (inclusive)
+     * @param end                               Range end offset (exclusive)
+     * @return                                  Number of lines
+     * @throws Exception                        If mapping fails
+     * @since 1.0.0
+     */
+    private long countLines(@Nonnull
+                            final FileChannel fileChannel,
+                            final long start,
+                            final long end)
+            throws Exception
+    {
+        final int size = (int)(end - start);
+        if(size==0)
+        {
+            return 0l;
+        }
+        final MappedByteBuffer range = fileChannel.map(
+            FileChannel.MapMode.READ_ONLY,
+            start,
+            size
+        );
+        long lines = 0l;
+        for(int i = 0; i < size; i++)
+        {
+            if(range.get(i)=='\n')
+            {
+                lines++;
+            }
+        }
+        return range.get(size - 1)=='\n'?lines:lines + 1;
+    }
+
+    /**
+     * Parse a range and hand its batches to {@code consume} ; a failure is
+     * recorded (first one wins) and signals the other workers to stop ; with
+     * a {@code rejectSink}, bad rows are rejected instead of failing the range
+     * @return                                  Number of lines processed
+     * @since 1.0.0
+     */
+    private long parseRange(@Nonnull
+                            final FileChannel fileChannel,
+                            @Nonnull
+                            final String filePath,
+                            final long start,
+                            final long end,
+                            final long baseLineNumber,
+                            @Nonnull
+                            final AccountTransactionsBatchJob.Operation operation,
+                            @Nonnull
+                            final Consumer<AccountTransactionsBatchJob> consume,
+                            @Nullable
+                            final RowRejectSink rejectSink,
+                            @Nonnull
+                            final AtomicBoolean failed,
+                            @Nonnull
+                            final AtomicReference<InternalException> failure)
+    {
+        if(((DefaultAppService)appService).getAccountingIngestRowDecoder()==DefaultAppService.RowDecoder.COLUMNAR)
+        {
+            try
+            {
+                return accountTransactionsColumnarCsvKafkaReader.readRows(
+                    new ByteBufferInputStream(
+                        fileChannel.map(
+                            FileChannel.MapMode.READ_ONLY,
+                            start,
+                            end - start
+                        )
+                    ),
+                    filePath,
+                    baseLineNumber,
+                    false,
+                    operation,
+                    consume,
+                    rejectSink,
+                    failed::get
+                );
+            }
+            catch(InternalException e)
+            {
+                log.error("Error while reading file: " +  filePath, e);
+                failed.set(
+                    true
+                );
+                failure.compareAndSet(
+                    null,
+                    e
+                );
+            }
+            catch(Exception e)
+            {
+                log.error("Error while reading file: " +  filePath, e);
+                failed.set(
+                    true
+                );
+                failure.compareAndSet(
+                    null,
+                    new InternalException(
+                        String.format("Read CSV file '%s' ENCOUNTERED FAILURE ; %s",
+                            filePath,
+                            e.getMessage()
+                        ),
+                        e
+                    )
+                );
+            }
+            return 0l;
+        }
+        
+        final AtomicLong processedLinesCount = new AtomicLong();
+        CsvBeanReader beanReader = null;
+        try
+        {
+            beanReader = new CsvBeanReader(
+                new InputStreamReader(
+                    new ByteBufferInputStream(
+                        fileChannel.map(
+                            FileChannel.MapMode.READ_ONLY,
+                            start,
+                            end - start
+                        )
+                    ),
+                    StandardCharsets.UTF_8
+                ),
+                AccountTransactionsCsvKafkaReader.CSV_PREFERENCE
+            );
+            final AccountTransactionsBatchAssembler accountTransactionsBatchAssembler = accountTransactionsCsvKafkaReader.getAccountTransactionsBatchSizer().newAssembler(
+                operation,
+                consume
+            );
+            accountTransactionsCsvKafkaReader.readBeans(
+                beanReader,
+                baseLineNumber,
+                accountTransactionsBatchAssembler,
+                processedLinesCount,
+                rejectSink,
+                failed::get
+            );
+            accountTransactionsBatchAssembler.flush();
+        }
+        catch(Exception e)
+        {
+            final long lineNumber = baseLineNumber + (Objects.nonNull(beanReader)?beanReader.getLineNumber():0);
+            log.error("Error while reading file: " +  filePath + " at line " + lineNumber, e);
+            failed.set(
+                true
+            );
+            failure.compareAndSet(
+                null,
+                new InternalException(
+                    String.format("Read CSV file '%s' ENCOUNTERED FAILURE ; %s, at line (%d)",
+                        filePath,
+                        e.getMessage(),
+                        lineNumber
+                    ),
+                    e
+                )
+            );
+        }
+        finally
+        {
+            AccountTransactionsCsvKafkaReader.closeQuietly(
+                beanReader,
+                filePath
+            );
+        }
+        return processedLinesCount.get();
+    }
+}
@@ -0,0 +1,399 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.core.configuration.service.AppService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Offset acknowledgements of the consumed batch jobs ; see
+ * {@link DefaultAppService.ListenerAckMode#AFTER_COMMIT}
+ * <p>
+ * The listener tracks the records of a poll, then reports each one completed
+ * (persisted) or failed. A completed record is acknowledged once its database
+ * transaction committed and every record before it on its partition is
+ * acknowledged too, so the committed offset of a partition never passes a
+ * batch job still persisting, whatever order the batch jobs complete in. The
+ * listener container commits the acknowledged offsets asynchronously once per
+ * poll and reports back here ({@link OffsetCommitCallback})
+ * </p>
+ * <ul>
+ * <li>{@value #CONSUMER_COMMIT_LATENCY_METRIC} : milliseconds from the
+ * acknowledgement of a partition offset to its commit</li>
+ * <li>{@value #CONSUMER_ACKS_PENDING_METRIC} : records consumed whose offset
+ * is not committed yet (persisting, or acknowledged awaiting the commit)</li>
+ * </ul>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Component
+public class AccountTransactionsOffsetCommits
+       implements OffsetCommitCallback,
+                  ConsumerAwareRebalanceListener
+{
+    /**
+     * Acknowledgement to commit latency metric name
+     * @since 1.0.0
+     */
+    public static final String CONSUMER_COMMIT_LATENCY_METRIC = "accounting.kafka.consumer.commit.latency";
+
+    /**
+     * Records awaiting their offset commit metric name
+     * @since 1.0.0
+     */
+    public static final String CONSUMER_ACKS_PENDING_METRIC = "accounting.kafka.consumer.acks.pending";
+
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final Map<TopicPartition, NavigableMap<Long, PendingOffset>> pendingOffsets = new HashMap<>();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private DoubleHistogram commitLatencyHistogram;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private ObservableLongGauge acksPendingGauge;
+
+    @PostConstruct
+    protected void init()
+    {
+        final Meter meter = GlobalOpenTelemetry.getMeter(
+            getClass().getName()
+        );
+        this.commitLatencyHistogram = meter.histogramBuilder(
+            CONSUMER_COMMIT_LATENCY_METRIC
+        ).setDescription(
+            "Milliseconds from the acknowledgement of an account transaction batch job offset to its commit"
+        ).setUnit(
+            "ms"
+        ).build();
+        this.acksPendingGauge = meter.gaugeBuilder(
+            CONSUMER_ACKS_PENDING_METRIC
+        ).ofLongs().setDescription(
+            "Account transaction batch job records consumed whose offset is not committed yet"
+        ).setUnit(
+            "{record}"
+        ).buildWithCallback(
+            measurement -> measurement.record(
+                getPendingAcks()
+            )
+        );
+    }
+
+    @PreDestroy
+    protected void destroy()
+    {
+        acksPendingGauge.close();
+    }
+
+    /**
+     * Whether the listener acknowledges the offsets itself
+     * @return                                  {@code true} for
+     *                                          {@link DefaultAppService.ListenerAckMode#AFTER_COMMIT}
+     * @since 1.0.0
+     */
+    public boolean isEnabled()
+    {
+        return ((DefaultAppService)appService).getAccountingKafkaListenerAckMode()==DefaultAppService.ListenerAckMode.AFTER_COMMIT;
+    }
+
+    /**
+     * Track the records handed over to the listener
+     * @param records                           Records, in poll order. Must
+     *                                          not be {@code null}
+     * @param acknowledgement                   Acknowledges them to the
+     *                                          listener container ; run once,
+     *                                          when the first of them is
+     *                                          acknowledged. Must not be
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    public void track(@Nonnull
+                      final Collection<? extends ConsumerRecord<?, ?>> records,
+                      @Nonnull
+                      final Runnable acknowledgement)
+    {
+        final AtomicBoolean acknowledged = new AtomicBoolean();
+        final Runnable acknowledgeOnce = () -> {
+            if(acknowledged.compareAndSet(
+                false,
+                true
+            ))
+            {
+                acknowledgement.run();
+            }
+        };
+        synchronized(pendingOffsets)
+        {
+            records.forEach(
+                recordToProcess -> pendingOffsets.computeIfAbsent(
+                    new TopicPartition(
+                        recordToProcess.topic(),
+                        recordToProcess.partition()
+                    ),
+                    topicPartitionToProcess -> new TreeMap<>()
+                ).put(
+                    recordToProcess.offset(),
+                    new PendingOffset(
+                        acknowledgeOnce
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * Report the records persisted ; acknowledged once the calling database
+     * transaction (if any) committed
+     * @param records                           Tracked records. Must not be
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    public void completed(@Nonnull
+                          final Collection<? extends ConsumerRecord<?, ?>> records)
+    {
+        if(TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization()
+                {
+                    @Override
+                    public void afterCommit()
+                    {
+                        acknowledge(
+                            records
+                        );
+                    }
+                }
+            );
+            return;
+        }
+        acknowledge(
+            records
+        );
+    }
+
+    /**
+     * Report the records failed ; they and the later records of their
+     * partitions are dropped, as the error handler seeks back to (or
+     * commits past) them and they are polled again
+     * @param records                           Tracked records. Must not be
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    public void failed(@Nonnull
+                       final Collection<? extends ConsumerRecord<?, ?>> records)
+    {
+        synchronized(pendingOffsets)
+        {
+            records.forEach(
+                recordToProcess -> {
+                    final NavigableMap<Long, PendingOffset> partitionOffsets = pendingOffsets.get(
+                        new TopicPartition(
+                            recordToProcess.topic(),
+                            recordToProcess.partition()
+                        )
+                    );
+                    if(partitionOffsets!=null)
+                    {
+                        partitionOffsets.tailMap(
+                            recordToProcess.offset(),
+                            true
+                        ).clear();
+                    }
+                }
+            );
+        }
+    }
+
+    /**
+     * Records consumed whose offset is not committed yet
+     * @return                                  Pending acknowledgements
+     * @since 1.0.0
+     */
+    public long getPendingAcks()
+    {
+        synchronized(pendingOffsets)
+        {
+            return pendingOffsets.values().stream().mapToLong(
+                NavigableMap::size
+            ).sum();
+        }
+    }
+
+    @Override
+    public void onComplete(final Map<TopicPartition, OffsetAndMetadata> offsets,
+                           final Exception exception)
+    {
+        if(exception!=null)
+        {
+            // the offsets stay pending, the next commit covers them
+            log.warn(
+                "Kafka offset commit of ({}) partition(s) FAILURE ; {}",
+                offsets==null?0:offsets.size(),
+                exception.getMessage()
+            );
+            return;
+        }
+        final long committedNanos = System.nanoTime();
+        synchronized(pendingOffsets)
+        {
+            offsets.forEach(
+                (topicPartition, offsetAndMetadata) -> {
+                    final NavigableMap<Long, PendingOffset> partitionOffsets = pendingOffsets.get(
+                        topicPartition
+                    );
+                    if(partitionOffsets==null)
+                    {
+                        return;
+                    }
+                    // the committed offset is the next one to consume
+                    final NavigableMap<Long, PendingOffset> committedOffsets = partitionOffsets.headMap(
+                        offsetAndMetadata.offset(),
+                        false
+                    );
+                    committedOffsets.values().stream().mapToLong(
+                        PendingOffset::getAcknowledgedNanos
+                    ).filter(
+                        acknowledgedNanosToProcess -> acknowledgedNanosToProcess>0l
+                    ).min().ifPresent(
+                        acknowledgedNanosToProcess -> commitLatencyHistogram.record(
+                            (committedNanos - acknowledgedNanosToProcess)/1_000_000d
+                        )
+                    );
+                    committedOffsets.clear();
+                }
+            );
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(final Consumer<?, ?> consumer,
+                                               final Collection<TopicPartition> partitions)
+    {
+        // committed on revocation, or polled again by the next owner
+        synchronized(pendingOffsets)
+        {
+            partitions.forEach(
+                pendingOffsets::remove
+            );
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(final Consumer<?, ?> consumer,
+                                 final Collection<TopicPartition> partitions)
+    {
+        onPartitionsRevokedAfterCommit(
+            consumer,
+            partitions
+        );
+    }
+
+    /**
+     * Mark the records completed, then acknowledge the completed head of
+     * their partitions in offset order
+     * @since 1.0.0
+     */
+    private void acknowledge(@Nonnull
+                             final Collection<? extends ConsumerRecord<?, ?>> records)
+    {
+        synchronized(pendingOffsets)
+        {
+            records.forEach(
+                recordToProcess -> {
+                    final NavigableMap<Long, PendingOffset> partitionOffsets = pendingOffsets.get(
+                        new TopicPartition(
+                            recordToProcess.topic(),
+                            recordToProcess.partition()
+                        )
+                    );
+                    if(partitionOffsets==null)
+                    {
+                        return;
+                    }
+                    final PendingOffset pendingOffset = partitionOffsets.get(
+                        recordToProcess.offset()
+                    );
+                    if(pendingOffset==null)
+                    {
+                        // dropped (failed or revoked) meanwhile
+                        return;
+                    }
+                    pendingOffset.completed = true;
+                    for(final PendingOffset pendingOffsetToProcess : partitionOffsets.values())
+                    {
+                        if(!pendingOffsetToProcess.completed)
+                        {
+                            // an earlier batch job is still persisting
+                            break;
+                        }
+                        if(pendingOffsetToProcess.acknowledgedNanos==0l)
+                        {
+                            pendingOffsetToProcess.acknowledgedNanos = System.nanoTime();
+                            pendingOffsetToProcess.acknowledgement.run();
+                        }
+                    }
+                }
+            );
+        }
+    }
+
+    /**
+     * Tracked record offset
+     * @since 1.0.0
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class PendingOffset
+    {
+        @NonNull
+        @Nonnull
+        private final Runnable acknowledgement;
+
+        private boolean completed;
+
+        /**
+         * {@link System#nanoTime()} of the acknowledgement ; {@code 0} until
+         * acknowledged
+         * @since 1.0.0
+         */
+        private long acknowledgedNanos;
+    }
+}
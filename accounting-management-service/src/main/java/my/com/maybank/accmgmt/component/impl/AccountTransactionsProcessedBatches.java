@@ -0,0 +1,275 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.repository.ProcessedBatchRepository;
+import my.com.maybank.core.configuration.service.AppService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Registry of the persisted {@link AccountTransactionsBatchJob}(s), keyed on
+ * {@link AccountTransactionsBatchJob#getBatchId()}, making the at least once
+ * delivery of the batch jobs safe
+ * <p>
+ * {@link #claim(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)}
+ * inserts the batch id to {@code tbl_processed_batch} in the database
+ * transaction persisting the rows ; a batch job redelivered after a
+ * rebalance or a crash finds it there and is skipped, and the insert is the
+ * write the check needs anyway. The batch ids committed by this instance are
+ * also kept in a bounded in-memory front cache
+ * ({@link DefaultAppService#getAccountingProcessedBatchesCacheCapacity()}),
+ * so the consumers skip the common redelivery (same instance, recent batch
+ * job) with {@link #isProcessed(java.lang.String)} before a database
+ * transaction is opened. Processed batches older than
+ * {@link DefaultAppService#getAccountingProcessedBatchesRetentionMs()} are
+ * pruned every {@link DefaultAppService#getAccountingProcessedBatchesPruneIntervalMs()}
+ * </p>
+ * @since 1.0.0
+ * @see ProcessedBatchRepository
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Component
+public class AccountTransactionsProcessedBatches
+{
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    @NonNull
+    @Nonnull
+    private final ProcessedBatchRepository processedBatchRepository;
+
+    /**
+     * Redelivered batch jobs skipped by this instance
+     * @since 1.0.0
+     */
+    private final AtomicLong batchesSkipped = new AtomicLong();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private Map<String, Boolean> processedBatchIds;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private ScheduledExecutorService pruneScheduler;
+
+    @PostConstruct
+    protected void init()
+    {
+        final int cacheCapacity = ((DefaultAppService)appService).getAccountingProcessedBatchesCacheCapacity();
+        // insertion ordered ; the oldest batch id goes first
+        this.processedBatchIds = new LinkedHashMap<>()
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest)
+            {
+                return size()>cacheCapacity;
+            }
+        };
+        if(!((DefaultAppService)appService).getAccountingProcessedBatchesEnabled())
+        {
+            return;
+        }
+        this.pruneScheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                final Thread thread = new Thread(
+                    runnable,
+                    "processed-batch-prune"
+                );
+                thread.setDaemon(
+                    true
+                );
+                return thread;
+            }
+        );
+        pruneScheduler.scheduleWithFixedDelay(
+            this::pruneQuietly,
+            ((DefaultAppService)appService).getAccountingProcessedBatchesPruneIntervalMs(),
+            ((DefaultAppService)appService).getAccountingProcessedBatchesPruneIntervalMs(),
+            TimeUnit.MILLISECONDS
+        );
+        log.info(
+            "Processed batch registry ENABLED ; front cache of ({}) batch id(s), retention ({})ms",
+            cacheCapacity,
+            ((DefaultAppService)appService).getAccountingProcessedBatchesRetentionMs()
+        );
+    }
+
+    @PreDestroy
+    protected void destroy()
+    {
+        if(pruneScheduler!=null)
+        {
+            pruneScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Whether the batch job was persisted by this instance recently ; no
+     * database round trip
+     * @param batchId                           Batch job id
+     * @return                                  {@code true} if found in the
+     *                                          front cache (a {@code false}
+     *                                          is settled by {@link #claim(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)})
+     * @since 1.0.0
+     */
+    public boolean isProcessed(@Nullable
+                               final String batchId)
+    {
+        if(batchId==null || !((DefaultAppService)appService).getAccountingProcessedBatchesEnabled())
+        {
+            return false;
+        }
+        final boolean processed;
+        synchronized(processedBatchIds)
+        {
+            processed = processedBatchIds.containsKey(
+                batchId
+            );
+        }
+        if(processed)
+        {
+            batchesSkipped.incrementAndGet();
+        }
+        return processed;
+    }
+
+    /**
+     * Claim the batch job (every batch job merged into it) in the calling
+     * database transaction ; remembered in the front cache once committed
+     * @param accountTransactionsBatchJob       Batch job. Must not be
+     *                                          {@code null}
+     * @return                                  Batch jobs of it already
+     *                                          persisted ; {@code 0} if all
+     *                                          claimed
+     * @since 1.0.0
+     */
+    @Transactional(
+        propagation = Propagation.MANDATORY
+    )
+    public int claim(@Nonnull
+                     final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        final List<String> batchIds = batchIds(
+            accountTransactionsBatchJob
+        );
+        int alreadyProcessed = 0;
+        for(final String batchId : batchIds)
+        {
+            if(processedBatchRepository.insertIfAbsent(
+                batchId,
+                accountTransactionsBatchJob.getJobId()
+            )==0)
+            {
+                alreadyProcessed++;
+            }
+        }
+        if(alreadyProcessed>0)
+        {
+            // persisted by another consumer, or before the front cache
+            batchesSkipped.incrementAndGet();
+            return alreadyProcessed;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    synchronized(processedBatchIds)
+                    {
+                        batchIds.forEach(
+                            batchIdToProcess -> processedBatchIds.put(
+                                batchIdToProcess,
+                                Boolean.TRUE
+                            )
+                        );
+                    }
+                }
+            }
+        );
+        return 0;
+    }
+
+    /**
+     * Delete the processed batches past the retention
+     * @return                                  Processed batches deleted
+     * @since 1.0.0
+     */
+    public int prune()
+    {
+        final int pruned = processedBatchRepository.deleteExpired(
+            ((DefaultAppService)appService).getAccountingProcessedBatchesRetentionMs()
+        );
+        log.info(
+            "Processed batch registry PRUNED ; ({}) expired batch id(s) deleted",
+            pruned
+        );
+        return pruned;
+    }
+
+    /**
+     * Batch ids of a batch job ; the merged ones if merged by the consumer
+     * @param accountTransactionsBatchJob       Batch job. Must not be
+     *                                          {@code null}
+     * @return                                  Batch ids, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public static List<String> batchIds(@Nonnull
+                                        final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        return Optional.ofNullable(
+            accountTransactionsBatchJob.getMergedBatchIds()
+        ).orElseGet(
+            () -> List.of(
+                accountTransactionsBatchJob.getBatchId()
+            )
+        );
+    }
+
+    /**
+     * Prune on the scheduler ; a failure is retried at the next interval
+     * @since 1.0.0
+     */
+    private void pruneQuietly()
+    {
+        try
+        {
+            prune();
+        }
+        catch(Exception e)
+        {
+            log.warn(
+                "Processed batch registry prune FAILURE ; {}",
+                e.getMessage()
+            );
+        }
+    }
+}
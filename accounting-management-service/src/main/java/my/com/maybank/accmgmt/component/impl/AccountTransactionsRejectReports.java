@@ -0,0 +1,111 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.core.configuration.service.AppService;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CsvRejectReport} files of this instance, kept under
+ * {@link DefaultAppService#getUploadRejectsBasePath()} as
+ * {@code <reportId>.csv}
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Component
+public class AccountTransactionsRejectReports
+{
+    private static final String REPORT_FILE_EXTENSION = ".csv";
+
+    @NonNull
+    @Nonnull
+    private final AppService appService;
+
+    /**
+     * Open the reject report for an upload when
+     * {@link DefaultAppService#getAccountingIngestErrorMode()} is
+     * {@link DefaultAppService.ErrorMode#REJECT}
+     * @param reportId                          Report id (an {@link UUID},
+     *                                          i.e. the ingest job id). Must
+     *                                          not be {@code null}
+     * @return                                  Reject report, {@code null} to
+     *                                          fail on the first bad row
+     * @since 1.0.0
+     */
+    @Nullable
+    public CsvRejectReport open(@Nonnull
+                                final String reportId)
+    {
+        if(((DefaultAppService)appService).getAccountingIngestErrorMode()!=DefaultAppService.ErrorMode.REJECT)
+        {
+            return null;
+        }
+        final String normalizedReportId = UUID.fromString(
+            reportId
+        ).toString();
+        return new CsvRejectReport(
+            normalizedReportId,
+            reportPath(
+                normalizedReportId
+            )
+        );
+    }
+
+    /**
+     * Find a reject report file
+     * @param reportId                          Report id (may be {@code null})
+     * @return                                  Report file if it exists ; a
+     *                                          report without any rejected row
+     *                                          has no file
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Optional<Path> find(@Nullable
+                               final String reportId)
+    {
+        try
+        {
+            return Optional.ofNullable(
+                reportId
+            ).map(
+                reportIdToProcess -> reportPath(
+                    UUID.fromString(
+                        reportIdToProcess
+                    ).toString()
+                )
+            ).filter(
+                Files::isRegularFile
+            );
+        }
+        catch(IllegalArgumentException e)
+        {
+            // not a report id ; never resolve an arbitrary path
+            log.debug(
+                "Reject report id '{}' IS INVALID",
+                reportId
+            );
+            return Optional.empty();
+        }
+    }
+
+    @Nonnull
+    private Path reportPath(@Nonnull
+                            final String reportId)
+    {
+        return ((DefaultAppService)appService).getUploadRejectsBasePath().resolve(
+            reportId + REPORT_FILE_EXTENSION
+        );
+    }
+}
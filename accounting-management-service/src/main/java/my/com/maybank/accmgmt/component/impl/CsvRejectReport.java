@@ -0,0 +1,157 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.RowRejectSink;
+import my.com.maybank.core.exception.InternalException;
+import org.supercsv.io.CsvListWriter;
+import org.supercsv.prefs.CsvPreference;
+
+/**
+ * Reject report ; one CSV record ({@code LINE_NUMBER,REASON,ROW}) per
+ * rejected row
+ * <p>
+ * The file is only created on the first reject and is appended to when the
+ * same report is opened again (i.e. one per chunk of a resumable upload
+ * session). Writes are serialized, parallel readers may share an instance
+ * </p>
+ * @since 1.0.0
+ * @see AccountTransactionsRejectReports
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+public class CsvRejectReport
+       implements RowRejectSink, Closeable
+{
+    /**
+     * Report header
+     * @since 1.0.0
+     */
+    static final String[] HEADER = {
+        "LINE_NUMBER",
+        "REASON",
+        "ROW"
+    };
+
+    @NonNull
+    @Nonnull
+    private final String reportId;
+
+    @NonNull
+    @Nonnull
+    private final Path reportPath;
+
+    /**
+     * Rows rejected through this instance
+     * @since 1.0.0
+     */
+    private long rowsRejected;
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    @Nullable
+    private CsvListWriter csvListWriter;
+
+    @Override
+    public synchronized void reject(final long lineNumber,
+                                    @Nullable
+                                    final String row,
+                                    @Nonnull
+                                    final String reason)
+    {
+        try
+        {
+            if(Objects.isNull(csvListWriter))
+            {
+                Files.createDirectories(
+                    reportPath.getParent()
+                );
+                final boolean newReport = !Files.exists(
+                    reportPath
+                );
+                csvListWriter = new CsvListWriter(
+                    Files.newBufferedWriter(
+                        reportPath,
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND
+                    ),
+                    CsvPreference.STANDARD_PREFERENCE
+                );
+                if(newReport)
+                {
+                    csvListWriter.writeHeader(
+                        HEADER
+                    );
+                }
+            }
+            csvListWriter.write(
+                lineNumber,
+                reason,
+                row
+            );
+            rowsRejected++;
+        }
+        catch(IOException e)
+        {
+            throw new InternalException(
+                String.format(
+                    "Reject report '%s' write ENCOUNTERED FAILURE ; %s",
+                    reportId,
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+
+    /**
+     * Get the rows rejected through this instance
+     * @return                                  Number of rows rejected
+     * @since 1.0.0
+     */
+    public synchronized long getRowsRejected()
+    {
+        return rowsRejected;
+    }
+
+    /**
+     * Flush and close the report (no-op if nothing was rejected)
+     * @since 1.0.0
+     */
+    @Override
+    public synchronized void close()
+    {
+        if(Objects.nonNull(csvListWriter))
+        {
+            try
+            {
+                csvListWriter.close();
+            }
+            catch(IOException e)
+            {
+                log.warn(
+                    "Reject report '{}' close ENCOUNTERED FAILURE ; {}",
+                    reportId,
+                    e.getMessage()
+                );
+            }
+            csvListWriter = null;
+        }
+    }
+}
@@ -1,29 +1,91 @@
 package my.com.maybank.accmgmt.configuration;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
 import my.com.maybank.accmgmt.component.MessageConsumer;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsBatchJobRetryTiers;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsBatchMessageKafkaBatchConsumer;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsOffsetCommits;
 import my.com.maybank.core.configuration.service.AppService;
+import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
 
 /**
- * Configuration for accounting Kafka consumer
+ * Configuration for accounting Kafka consumer ; only with the 
+ * {@link DefaultAppService.Transport#KAFKA} transport
  * @since 1.0.0
  * @author ChristopherCKW
  */
+@Slf4j
+@ConditionalOnProperty(
+    name = "app.service.accounting.transport",
+    havingValue = "KAFKA",
+    matchIfMissing = true
+)
 @Configuration
 public class AccountTransactionsCsvKafkaConsumerConfiguration
 {
+    /**
+     * How long the startup waits for the topic partition count ; past it the 
+     * listener concurrency is left uncapped
+     * @since 1.0.0
+     */
+    private static final int TOPIC_DESCRIBE_TIMEOUT_MS = 2000;
+    
+    /**
+     * Kafka admin of the accounting endpoint (in place of the Spring Boot one, 
+     * which points at {@code spring.kafka.bootstrap-servers}) ; fails fast so 
+     * that no startup step waits long on an unreachable broker
+     * @param appService                        App service. Must not be 
+     *                                          {@code null}
+     * @return                                  Kafka admin
+     * @since 1.0.0
+     */
+    @Bean
+    public KafkaAdmin kafkaAdmin(@Nonnull
+                                 final AppService appService)
+    {
+        final Map<String, Object> configProps = new HashMap<>();
+        configProps.put(
+            AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+            ((DefaultAppService)appService).getAccountingKafkaEndpoint()
+        );
+        configProps.put(
+            AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG,
+            TOPIC_DESCRIBE_TIMEOUT_MS
+        );
+        configProps.put(
+            AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG,
+            TOPIC_DESCRIBE_TIMEOUT_MS
+        );
+        final KafkaAdmin kafkaAdmin = new KafkaAdmin(
+            configProps
+        );
+        kafkaAdmin.setOperationTimeout(
+            Math.max(
+                1,
+                TOPIC_DESCRIBE_TIMEOUT_MS / 1000
+            )
+        );
+        return kafkaAdmin;
+    }
+    
     @Bean
-    public ConsumerFactory<String, String> consumerFactory(@Nonnull
+    public ConsumerFactory<String, byte[]> consumerFactory(@Nonnull
                                                            final AppService appService)
     {
         final Map<String, Object> configProps = new HashMap<>();
@@ -41,18 +103,36 @@ public class AccountTransactionsCsvKafkaConsumerConfiguration
         );
         configProps.put(
             ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
-            StringDeserializer.class
+            // JSON or binary batch job, see AccountTransactionsBatchJobCodec
+            ByteArrayDeserializer.class
+        );
+        // offsets committed by the listener container only, never on a timer
+        configProps.put(
+            ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG,
+            false
+        );
+        // transactional uploads become visible once committed only
+        configProps.put(
+            ConsumerConfig.ISOLATION_LEVEL_CONFIG,
+            "read_committed"
         );
+        if(((DefaultAppService)appService).getAccountingKafkaListenerMaxPollRecords()!=null)
+        {
+            configProps.put(
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+                ((DefaultAppService)appService).getAccountingKafkaListenerMaxPollRecords()
+            );
+        }
         return new DefaultKafkaConsumerFactory<>(
             configProps
         );
     }
     
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(@Nonnull
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory(@Nonnull
                                                                                                  final AppService appService)
     {
-        final ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        final ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(
             consumerFactory(
                 appService
@@ -62,19 +142,131 @@ public class AccountTransactionsCsvKafkaConsumerConfiguration
     }
     
     @Bean
-    public ConcurrentMessageListenerContainer<String, String> messageListenerContainer(@Nonnull
+    public ConcurrentMessageListenerContainer<String, byte[]> messageListenerContainer(@Nonnull
                                                                                        final AppService appService,
                                                                                        @Nonnull
-                                                                                       final MessageConsumer messageConsumer)
+                                                                                       final MessageConsumer messageConsumer,
+                                                                                       @Nonnull
+                                                                                       final AccountTransactionsBatchMessageKafkaBatchConsumer accountTransactionsBatchMessageKafkaBatchConsumer,
+                                                                                       @Nonnull
+                                                                                       final AccountTransactionsBatchJobRetryTiers accountTransactionsBatchJobRetryTiers,
+                                                                                       @Nonnull
+                                                                                       final AccountTransactionsOffsetCommits accountTransactionsOffsetCommits,
+                                                                                       @Nonnull
+                                                                                       final KafkaAdmin kafkaAdmin)
     {
-        final ConcurrentMessageListenerContainer<String, String> messageListenerContainer = kafkaListenerContainerFactory(
+        final ConcurrentMessageListenerContainer<String, byte[]> messageListenerContainer = kafkaListenerContainerFactory(
             appService
         ).createContainer(
             ((DefaultAppService)appService).getAccountingKafkaTopic()
         );
+        // a record at a time, or the whole poll persisted merged
         messageListenerContainer.setupMessageListener(
-            messageConsumer
+            ((DefaultAppService)appService).getAccountingKafkaListenerMode()==DefaultAppService.ListenerMode.BATCH?
+                accountTransactionsBatchMessageKafkaBatchConsumer:
+                messageConsumer
         );
+        // failed batch jobs retried in place, or through the retry topics
+        messageListenerContainer.setCommonErrorHandler(
+            accountTransactionsBatchJobRetryTiers.getErrorHandler()
+        );
+        if(((DefaultAppService)appService).getAccountingKafkaListenerAckMode()==DefaultAppService.ListenerAckMode.AFTER_COMMIT)
+        {
+            // acknowledged once persisted, committed without blocking the poll loop
+            messageListenerContainer.getContainerProperties().setAckMode(
+                ContainerProperties.AckMode.MANUAL
+            );
+            messageListenerContainer.getContainerProperties().setSyncCommits(
+                false
+            );
+            messageListenerContainer.getContainerProperties().setCommitCallback(
+                accountTransactionsOffsetCommits
+            );
+            messageListenerContainer.getContainerProperties().setConsumerRebalanceListener(
+                accountTransactionsOffsetCommits
+            );
+            log.info(
+                "Kafka listener offsets committed ASYNCHRONOUSLY after the database commit"
+            );
+        }
+        // keyed batches keep their order per partition, one thread per partition
+        final Integer topicPartitions = topicPartitions(
+            (DefaultAppService)appService,
+            kafkaAdmin
+        );
+        final Integer listenerConcurrency = ((DefaultAppService)appService).getAccountingKafkaListenerConcurrency(
+            topicPartitions
+        );
+        if(listenerConcurrency<((DefaultAppService)appService).getAccountingKafkaListenerConcurrency())
+        {
+            log.warn(
+                "Kafka listener concurrency ({}) EXCEEDS topic {} partition count ({}) ; CAPPED at ({}), raise the partitions to scale further",
+                ((DefaultAppService)appService).getAccountingKafkaListenerConcurrency(),
+                ((DefaultAppService)appService).getAccountingKafkaTopic(),
+                topicPartitions,
+                listenerConcurrency
+            );
+        }
+        log.info(
+            "Kafka listener concurrency ({}) for topic {} of ({}) partition(s)",
+            listenerConcurrency,
+            ((DefaultAppService)appService).getAccountingKafkaTopic(),
+            topicPartitions==null?"UNKNOWN":topicPartitions
+        );
+        messageListenerContainer.setConcurrency(
+            listenerConcurrency
+        );
+        if(((DefaultAppService)appService).getAccountingExecutionListenerThreads()==DefaultAppService.ThreadModel.VIRTUAL)
+        {
+            // a virtual thread per consumer, blocking in poll and in JPA alike
+            messageListenerContainer.getContainerProperties().setListenerTaskExecutor(
+                AccountTransactionsExecutionConfiguration.newVirtualThreadExecutor(
+                    "kafka-listener-"
+                )
+            );
+            log.info(
+                "Kafka listener consumers on VIRTUAL threads"
+            );
+        }
         return messageListenerContainer;
     }
+    
+    /**
+     * Read the topic partition count from the broker, waiting at most 
+     * {@value #TOPIC_DESCRIBE_TIMEOUT_MS} ms
+     * @param appService                        App service. Must not be 
+     *                                          {@code null}
+     * @param kafkaAdmin                        Kafka admin. Must not be 
+     *                                          {@code null}
+     * @return                                  Partition count ; {@code null} 
+     *                                          if it could not be read (e.g. 
+     *                                          the topic is not created yet 
+     *                                          or the broker is unreachable)
+     * @since 1.0.0
+     */
+    @Nullable
+    protected Integer topicPartitions(@Nonnull
+                                      final DefaultAppService appService,
+                                      @Nonnull
+                                      final KafkaAdmin kafkaAdmin)
+    {
+        try
+        {
+            return kafkaAdmin.describeTopics(
+                appService.getAccountingKafkaTopic()
+            ).get(
+                appService.getAccountingKafkaTopic()
+            ).partitions().size();
+        }
+        catch(Exception e)
+        {
+            log.warn(
+                "Kafka topic {} partition count UNAVAILABLE, listener concurrency ({}) NOT CAPPED ; {}",
+                appService.getAccountingKafkaTopic(),
+                appService.getAccountingKafkaListenerConcurrency(),
+                e.getMessage()
+            );
+            return null;
+        }
+    }
 }
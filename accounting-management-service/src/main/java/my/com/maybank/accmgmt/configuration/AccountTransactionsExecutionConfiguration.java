@@ -0,0 +1,109 @@
+package my.com.maybank.accmgmt.configuration;
+
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.InternalException;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Configuration for the thread model (see {@link DefaultAppService.ThreadModel})
+ * of the blocking work and the database connection admission guarding the
+ * connection pool against it
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Configuration
+public class AccountTransactionsExecutionConfiguration
+{
+    /**
+     * First Java feature release with (final) virtual threads
+     * @since 1.0.0
+     */
+    public static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    /**
+     * Tomcat request threads ; virtual with {@link DefaultAppService.ThreadModel#VIRTUAL}
+     * @param appService                        Application service
+     *                                          configuration
+     * @return                                  Tomcat protocol handler
+     *                                          customizer
+     * @since 1.0.0
+     * @see DefaultAppService#getAccountingExecutionWebThreads()
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer(@Nonnull
+                                                                                                    final AppService appService)
+    {
+        return protocolHandler -> {
+            if(((DefaultAppService)appService).getAccountingExecutionWebThreads()==DefaultAppService.ThreadModel.VIRTUAL)
+            {
+                protocolHandler.setExecutor(
+                    newVirtualThreadExecutor(
+                        "http-"
+                    )
+                );
+                log.info(
+                    "Tomcat request handling on VIRTUAL threads"
+                );
+            }
+        };
+    }
+
+    /**
+     * Database connection admission ; see {@link DataSourceAdmissionBeanPostProcessor}
+     * @param appService                        Application service
+     *                                          configuration (resolved once
+     *                                          the data source is created)
+     * @return                                  Data source bean post processor
+     * @since 1.0.0
+     * @see DefaultAppService#getAccountingExecutionDbAdmissionPermits()
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceAdmissionBeanPostProcessor(@Nonnull
+                                                                         final ObjectProvider<AppService> appService)
+    {
+        return new DataSourceAdmissionBeanPostProcessor(
+            appService
+        );
+    }
+
+    /**
+     * New executor running each task on a virtual thread of its own
+     * @param threadNamePrefix                  Thread name prefix. Must not
+     *                                          be {@code null}
+     * @return                                  Virtual thread executor, never
+     *                                          {@code null}
+     * @throws InternalException                If the runtime has no virtual
+     *                                          threads (before Java
+     *                                          {@value #VIRTUAL_THREADS_JAVA_VERSION})
+     * @since 1.0.0
+     */
+    @Nonnull
+    public static AsyncTaskExecutor newVirtualThreadExecutor(@Nonnull
+                                                             final String threadNamePrefix)
+    {
+        if(Runtime.version().feature()<VIRTUAL_THREADS_JAVA_VERSION)
+        {
+            throw new InternalException(
+                String.format(
+                    "Configuration for property 'app.service.accounting.execution' IS MISSING OR INVALID ; %s threads need Java %d or later, running on Java %d",
+                    DefaultAppService.ThreadModel.VIRTUAL,
+                    VIRTUAL_THREADS_JAVA_VERSION,
+                    Runtime.version().feature()
+                )
+            );
+        }
+        return new VirtualThreadTaskExecutor(
+            threadNamePrefix
+        );
+    }
+}
@@ -0,0 +1,61 @@
+package my.com.maybank.accmgmt.configuration;
+
+import jakarta.annotation.Nonnull;
+import java.util.concurrent.ThreadPoolExecutor;
+import my.com.maybank.core.configuration.service.AppService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for accounting upload (ingest) processing
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Configuration
+public class AccountTransactionsIngestConfiguration
+{
+    /**
+     * Bean name of the ingest executor
+     * @since 1.0.0
+     */
+    public static final String INGEST_EXECUTOR = "accountTransactionsIngestExecutor";
+    
+    /**
+     * Bounded ingest executor ; caps the number of uploads processed (and 
+     * waiting) at the same time, further submissions are rejected
+     * @param appService                        Application service 
+     *                                          configuration
+     * @return                                  Ingest executor
+     * @since 1.0.0
+     * @see DefaultAppService#getAccountingIngestExecutorConcurrency()
+     * @see DefaultAppService#getAccountingIngestExecutorQueueCapacity()
+     */
+    @Bean(
+        name = INGEST_EXECUTOR
+    )
+    public ThreadPoolTaskExecutor accountTransactionsIngestExecutor(@Nonnull
+                                                                    final AppService appService)
+    {
+        final ThreadPoolTaskExecutor ingestExecutor = new ThreadPoolTaskExecutor();
+        ingestExecutor.setCorePoolSize(
+            ((DefaultAppService)appService).getAccountingIngestExecutorConcurrency()
+        );
+        ingestExecutor.setMaxPoolSize(
+            ((DefaultAppService)appService).getAccountingIngestExecutorConcurrency()
+        );
+        ingestExecutor.setQueueCapacity(
+            ((DefaultAppService)appService).getAccountingIngestExecutorQueueCapacity()
+        );
+        ingestExecutor.setRejectedExecutionHandler(
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        ingestExecutor.setThreadNamePrefix(
+            "ingest-"
+        );
+        ingestExecutor.setWaitForTasksToCompleteOnShutdown(
+            true
+        );
+        return ingestExecutor;
+    }
+}
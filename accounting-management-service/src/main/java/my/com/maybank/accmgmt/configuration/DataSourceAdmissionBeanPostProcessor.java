@@ -0,0 +1,204 @@
+package my.com.maybank.accmgmt.configuration;
+
+import jakarta.annotation.Nonnull;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.core.configuration.service.AppService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Data source bean post processor admitting at most
+ * {@link DefaultAppService#getAccountingExecutionDbAdmissionPermits()}
+ * connections out at the same time (disabled with {@code 0}) ; only when the
+ * listener or web threads are {@link DefaultAppService.ThreadModel#VIRTUAL}
+ * <p>
+ * With {@link DefaultAppService.ThreadModel#VIRTUAL} threads the thread
+ * count no longer bounds the callers ; thousands of them would otherwise
+ * queue inside the connection pool, each holding its wait until the pool
+ * times out. The admission is a fair {@link Semaphore} taken before the pool
+ * is asked and given back when the connection is closed, so a caller waits
+ * at most {@link DefaultAppService#getAccountingExecutionDbAdmissionTimeoutMs()}
+ * and then fails with a {@link SQLTransientConnectionException}. Keep the
+ * permits at or below the pool size
+ * </p>
+ * @since 1.0.0
+ * @see my.com.maybank.jpa.datasource.DatasourceTracerProxyBeanPostProcessor
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+public class DataSourceAdmissionBeanPostProcessor
+       implements BeanPostProcessor
+{
+    @NonNull
+    @Nonnull
+    private final ObjectProvider<AppService> appService;
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean,
+                                                 final String beanName)
+    {
+        if(!(bean instanceof DataSource))
+        {
+            return bean;
+        }
+        final DefaultAppService defaultAppService = (DefaultAppService)appService.getObject();
+        // platform threads are bounded by their pools already
+        if(defaultAppService.getAccountingExecutionDbAdmissionPermits()<1 ||
+            (defaultAppService.getAccountingExecutionListenerThreads()!=DefaultAppService.ThreadModel.VIRTUAL &&
+             defaultAppService.getAccountingExecutionWebThreads()!=DefaultAppService.ThreadModel.VIRTUAL))
+        {
+            return bean;
+        }
+        // keep the data source type (e.g. HikariDataSource), as the tracer does
+        final ProxyFactory factory = new ProxyFactory(
+            bean
+        );
+        factory.setProxyTargetClass(
+            true
+        );
+        factory.addAdvice(
+            new DataSourceAdmissionInterceptor(
+                defaultAppService.getAccountingExecutionDbAdmissionPermits(),
+                defaultAppService.getAccountingExecutionDbAdmissionTimeoutMs()
+            )
+        );
+        log.info(
+            "Datasource '{}' connection admission ENABLED ; ({}) permit(s), wait ({})ms at most",
+            beanName,
+            defaultAppService.getAccountingExecutionDbAdmissionPermits(),
+            defaultAppService.getAccountingExecutionDbAdmissionTimeoutMs()
+        );
+        return factory.getProxy();
+    }
+
+    /**
+     * Takes a permit per {@code getConnection}, given back on {@code close}
+     * @since 1.0.0
+     */
+    static class DataSourceAdmissionInterceptor
+           implements MethodInterceptor
+    {
+        @Getter
+        private final Semaphore permits;
+
+        private final int maxPermits;
+
+        private final long timeoutMs;
+
+        DataSourceAdmissionInterceptor(final int maxPermits,
+                                       final long timeoutMs)
+        {
+            this.permits = new Semaphore(
+                maxPermits,
+                true
+            );
+            this.maxPermits = maxPermits;
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public Object invoke(final MethodInvocation invocation)
+                throws Throwable
+        {
+            if(!"getConnection".equals(
+                invocation.getMethod().getName()
+            ))
+            {
+                return invocation.proceed();
+            }
+            try
+            {
+                if(!permits.tryAcquire(
+                    timeoutMs,
+                    TimeUnit.MILLISECONDS
+                ))
+                {
+                    throw new SQLTransientConnectionException(
+                        String.format(
+                            "Database connection admission TIMED OUT after (%d)ms ; all (%d) permit(s) in use",
+                            timeoutMs,
+                            maxPermits
+                        )
+                    );
+                }
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException(
+                    "Database connection admission INTERRUPTED",
+                    e
+                );
+            }
+            try
+            {
+                return admitted(
+                    (Connection)invocation.proceed()
+                );
+            }
+            catch(Throwable e)
+            {
+                permits.release();
+                throw e;
+            }
+        }
+
+        /**
+         * Connection giving its permit back once closed (the first time)
+         * @since 1.0.0
+         */
+        @Nonnull
+        private Connection admitted(@Nonnull
+                                    final Connection connection)
+        {
+            final AtomicBoolean released = new AtomicBoolean();
+            return (Connection)Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {
+                    Connection.class
+                },
+                (proxy, method, args) -> {
+                    try
+                    {
+                        return method.invoke(
+                            connection,
+                            args
+                        );
+                    }
+                    catch(InvocationTargetException e)
+                    {
+                        throw e.getCause();
+                    }
+                    finally
+                    {
+                        if("close".equals(
+                            method.getName()
+                        ) && released.compareAndSet(
+                            false,
+                            true
+                        ))
+                        {
+                            permits.release();
+                        }
+                    }
+                }
+            );
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package my.com.maybank.accmgmt.configuration;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -8,12 +10,19 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import my.com.maybank.core.configuration.service.AppService;
 import my.com.maybank.core.exception.InternalException;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.record.CompressionType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConfigurationPropertiesBindException;
 import org.springframework.context.annotation.Configuration;
@@ -104,268 +113,2860 @@ public class DefaultAppService
      */
     public static final Integer DEFAULT_ACCOUNTING_KAFKA_JOB_BATCH_SIZE = 10;
     
+    /**
+     * Default accounting Kafka ingest pipeline send stage width
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_KAFKA_PIPELINE_SENDERS = 1;
+    
+    /**
+     * Default accounting Kafka ingest pipeline stage queue capacity (in 
+     * batches)
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_KAFKA_PIPELINE_QUEUE_CAPACITY = 64;
+    
+    /**
+     * Default accounting Kafka max unacknowledged sends
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_KAFKA_PUBLISH_MAX_IN_FLIGHT = 64;
+    
+    /**
+     * Default accounting Kafka producer retries of a failed send
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_KAFKA_PUBLISH_RETRIES = 3;
+    
+    /**
+     * Default accounting Kafka producer first retry back-off (in milliseconds)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_KAFKA_PUBLISH_RETRY_BACKOFF_MS = 500l;
+    
+    /**
+     * Default accounting Kafka batch job wire format
+     * @since 1.0.0
+     */
+    public static final WireFormat DEFAULT_ACCOUNTING_KAFKA_WIRE_FORMAT = WireFormat.JSON;
+    
+    /**
+     * Default accounting Kafka batch policy
+     * @since 1.0.0
+     */
+    public static final BatchPolicy DEFAULT_ACCOUNTING_KAFKA_BATCH_POLICY = BatchPolicy.FIXED;
+    
+    /**
+     * Default accounting Kafka adaptive batch initial byte budget
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_KAFKA_BATCH_TARGET_BYTES = 64 * 1024;
+    
+    /**
+     * Default accounting Kafka adaptive batch min byte budget
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_KAFKA_BATCH_MIN_BYTES = 4 * 1024;
+    
+    /**
+     * Default accounting Kafka adaptive batch max byte budget ; stays below 
+     * the producer {@code max.request.size} default of 1 MiB
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_KAFKA_BATCH_MAX_BYTES = 768 * 1024;
+    
+    /**
+     * Default accounting Kafka adaptive batch max linger (in milliseconds)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_KAFKA_BATCH_MAX_LINGER_MS = 200l;
+    
+    /**
+     * Default accounting Kafka adaptive batch target consumer persist latency 
+     * (in milliseconds)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_KAFKA_BATCH_TARGET_PERSIST_MS = 250l;
+    
+    /**
+     * Default accounting Kafka transactional (exactly-once) publication
+     * @since 1.0.0
+     */
+    public static final Boolean DEFAULT_ACCOUNTING_KAFKA_PUBLISH_TRANSACTIONAL = Boolean.FALSE;
+    
+    /**
+     * Default accounting Kafka batches per transaction ({@code 0} for one 
+     * transaction per upload)
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_KAFKA_PUBLISH_TRANSACTION_BATCHES = 0;
+    
+    /**
+     * Default accounting Kafka transactional id prefix
+     * @since 1.0.0
+     */
+    public static final String DEFAULT_ACCOUNTING_KAFKA_PUBLISH_TRANSACTIONAL_ID_PREFIX = "accmgmt-ingest-";
+    
+    /**
+     * Default accounting Kafka batch job partition key
+     * @since 1.0.0
+     */
+    public static final PartitionKey DEFAULT_ACCOUNTING_KAFKA_PARTITION_KEY = PartitionKey.NONE;
+    
+    /**
+     * Default accounting Kafka listener container concurrency (consumer 
+     * threads)
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_KAFKA_LISTENER_CONCURRENCY = 1;
+    
+    /**
+     * Default accounting Kafka listener mode
+     * @since 1.0.0
+     */
+    public static final ListenerMode DEFAULT_ACCOUNTING_KAFKA_LISTENER_MODE = ListenerMode.RECORD;
+    
+    /**
+     * Default accounting Kafka listener offset acknowledgement mode
+     * @since 1.0.0
+     */
+    public static final ListenerAckMode DEFAULT_ACCOUNTING_KAFKA_LISTENER_ACK_MODE = ListenerAckMode.CONTAINER;
+    
+    /**
+     * Default accounting Kafka retry topics enabled
+     * @since 1.0.0
+     */
+    public static final Boolean DEFAULT_ACCOUNTING_KAFKA_RETRY_ENABLED = Boolean.FALSE;
+    
+    /**
+     * Default accounting Kafka retry topic tiers (before the dead-letter 
+     * topic)
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_KAFKA_RETRY_TIERS = 3;
+    
+    /**
+     * Default accounting Kafka first retry tier delay (in milliseconds)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_KAFKA_RETRY_INITIAL_DELAY_MS = 1000l;
+    
+    /**
+     * Default accounting Kafka retry tier delay multiplier
+     * @since 1.0.0
+     */
+    public static final Double DEFAULT_ACCOUNTING_KAFKA_RETRY_MULTIPLIER = 4d;
+    
+    /**
+     * Default accounting Kafka max retry tier delay (in milliseconds)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_KAFKA_RETRY_MAX_DELAY_MS = 60000l;
+    
+    /**
+     * Accounting Kafka retry topic suffix ; followed by the tier (from 
+     * {@code 0})
+     * @since 1.0.0
+     */
+    public static final String ACCOUNTING_KAFKA_RETRY_TOPIC_SUFFIX = "-retry-";
+    
+    /**
+     * Accounting Kafka dead-letter topic suffix
+     * @since 1.0.0
+     */
+    public static final String ACCOUNTING_KAFKA_DEAD_LETTER_TOPIC_SUFFIX = "-dlt";
+    
+    /**
+     * Default accounting Kafka producer tuning profile
+     * @since 1.0.0
+     */
+    public static final ProducerProfile DEFAULT_ACCOUNTING_KAFKA_PRODUCER_PROFILE = ProducerProfile.DEFAULT;
+    
+    /**
+     * Max in-flight requests per connection an idempotent Kafka producer 
+     * supports
+     * @since 1.0.0
+     */
+    public static final int IDEMPOTENT_PRODUCER_MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION = 5;
+    
+    /**
+     * Default accounting batch job transport
+     * @since 1.0.0
+     */
+    public static final Transport DEFAULT_ACCOUNTING_TRANSPORT = Transport.KAFKA;
+    
+    /**
+     * Default accounting local transport ring capacity (in batches)
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_LOCAL_RING_CAPACITY = 1024;
+    
+    /**
+     * Default accounting local transport max batches handled per consumer 
+     * round
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_LOCAL_CONSUMER_BATCH = 64;
+    
+    /**
+     * Default accounting local transport durability
+     * @since 1.0.0
+     */
+    public static final LocalDurability DEFAULT_ACCOUNTING_LOCAL_DURABILITY = LocalDurability.NONE;
+    
+    /**
+     * Default accounting local transport journal file name (under 
+     * {@link #getUploadDestBasePath()})
+     * @since 1.0.0
+     */
+    public static final String DEFAULT_ACCOUNTING_LOCAL_JOURNAL_FILE_NAME = "batch-jobs.journal";
+    
+    /**
+     * Default accounting batch job outbox enabled
+     * @since 1.0.0
+     */
+    public static final Boolean DEFAULT_ACCOUNTING_OUTBOX_ENABLED = Boolean.FALSE;
+    
+    /**
+     * Default accounting batch job outbox max entries claimed (and published) 
+     * per relay round
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_OUTBOX_RELAY_BATCH_SIZE = 500;
+    
+    /**
+     * Default accounting batch job outbox relay poll interval (in 
+     * milliseconds)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_OUTBOX_RELAY_POLL_MS = 1000l;
+    
+    /**
+     * Default accounting Kafka listener container thread model
+     * @since 1.0.0
+     */
+    public static final ThreadModel DEFAULT_ACCOUNTING_EXECUTION_LISTENER_THREADS = ThreadModel.PLATFORM;
+    
+    /**
+     * Default accounting web (Tomcat) request thread model
+     * @since 1.0.0
+     */
+    public static final ThreadModel DEFAULT_ACCOUNTING_EXECUTION_WEB_THREADS = ThreadModel.PLATFORM;
+    
+    /**
+     * Default accounting database connection admission permits ; {@code 0} 
+     * for no admission limit
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_EXECUTION_DB_ADMISSION_PERMITS = 0;
+    
+    /**
+     * Default accounting database connection admission wait (in milliseconds)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_EXECUTION_DB_ADMISSION_TIMEOUT_MS = 30000l;
+    
+    /**
+     * Default accounting processed batch registry enabled
+     * @since 1.0.0
+     */
+    public static final Boolean DEFAULT_ACCOUNTING_PROCESSED_BATCHES_ENABLED = Boolean.FALSE;
+    
+    /**
+     * Default accounting processed batch front cache capacity (batch ids)
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_PROCESSED_BATCHES_CACHE_CAPACITY = 10000;
+    
+    /**
+     * Default accounting processed batch retention (in milliseconds) ; 7 
+     * days, the Kafka default log retention
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_PROCESSED_BATCHES_RETENTION_MS = 604800000l;
+    
+    /**
+     * Default accounting processed batch prune interval (in milliseconds)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_PROCESSED_BATCHES_PRUNE_INTERVAL_MS = 3600000l;
+    
+    /**
+     * Default accounting account resolution cache enabled
+     * @since 1.0.0
+     */
+    public static final Boolean DEFAULT_ACCOUNTING_ACCOUNT_CACHE_ENABLED = Boolean.FALSE;
+    
+    /**
+     * Default accounting account resolution cache capacity (accounts)
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_ACCOUNT_CACHE_CAPACITY = 10000;
+    
+    /**
+     * Default accounting account resolution cache time to live of a found 
+     * account (in milliseconds)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_ACCOUNT_CACHE_TTL_MS = 300000l;
+    
+    /**
+     * Default accounting account resolution cache time to live of an unknown 
+     * account (in milliseconds)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_ACCOUNT_CACHE_NEGATIVE_TTL_MS = 30000l;
+    
+    /**
+     * Default accounting ingest upload mode
+     * @since 1.0.0
+     */
+    public static final UploadMode DEFAULT_ACCOUNTING_INGEST_UPLOAD_MODE = UploadMode.STAGED;
+    
+    /**
+     * Default accounting ingest CSV parser engine
+     * @since 1.0.0
+     */
+    public static final ParserEngine DEFAULT_ACCOUNTING_INGEST_PARSER_ENGINE = ParserEngine.SUPER_CSV;
+    
+    /**
+     * Default accounting ingest CSV parser min range size (in bytes) a file is 
+     * split into for parallel parsing
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_INGEST_PARSER_MIN_RANGE_SIZE = 4l * 1024l * 1024l;
+    
+    /**
+     * Default accounting ingest async upload
+     * @since 1.0.0
+     */
+    public static final Boolean DEFAULT_ACCOUNTING_INGEST_ASYNC_UPLOAD = Boolean.TRUE;
+    
+    /**
+     * Default accounting ingest executor concurrency (max uploads processed at 
+     * the same time)
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_INGEST_EXECUTOR_CONCURRENCY = 2;
+    
+    /**
+     * Default accounting ingest executor queue capacity (max uploads waiting 
+     * for an executor thread)
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_INGEST_EXECUTOR_QUEUE_CAPACITY = 8;
+    
+    /**
+     * Default accounting ingest job retention (max jobs kept for the status 
+     * API)
+     * @since 1.0.0
+     */
+    public static final Integer DEFAULT_ACCOUNTING_INGEST_JOB_RETENTION = 100;
+    
+    /**
+     * Default accounting ingest resumable upload max chunk size (in bytes)
+     * @since 1.0.0
+     */
+    public static final Long DEFAULT_ACCOUNTING_INGEST_CHUNK_MAX_SIZE = 64l * 1024l * 1024l;
+    
+    /**
+     * Default accounting ingest de-duplication (file and row fingerprints)
+     * @since 1.0.0
+     */
+    public static final Boolean DEFAULT_ACCOUNTING_INGEST_DEDUP = Boolean.TRUE;
+    
+    /**
+     * Default accounting ingest CSV row decoder
+     * @since 1.0.0
+     */
+    public static final RowDecoder DEFAULT_ACCOUNTING_INGEST_ROW_DECODER = RowDecoder.BEAN;
+    
+    /**
+     * Default accounting ingest bad row handling
+     * @since 1.0.0
+     */
+    public static final ErrorMode DEFAULT_ACCOUNTING_INGEST_ERROR_MODE = ErrorMode.FAIL_FAST;
+    
+    /**
+     * Transport handing the {@link my.com.maybank.accmgmt.models.AccountTransactionsBatchJob}(s) 
+     * from the producing side to the persisting side
+     * @since 1.0.0
+     */
+    public enum Transport
+    {
+        /**
+         * Kafka topic ({@link Kafka})
+         * @since 1.0.0
+         */
+        KAFKA,
+        
+        /**
+         * In-process ring buffer ({@link Local}) ; single node deployments 
+         * only, no Kafka (nor ZooKeeper) needed
+         * @since 1.0.0
+         */
+        LOCAL
+    }
+    
+    /**
+     * Threads blocking work (consumer record processing, request handling and 
+     * the JPA calls within) runs on
+     * @since 1.0.0
+     */
+    public enum ThreadModel
+    {
+        /**
+         * Platform threads of a bounded pool
+         * @since 1.0.0
+         */
+        PLATFORM,
+        
+        /**
+         * A virtual thread per task (Java 21 onwards) ; a thread blocked on 
+         * I/O no longer holds a platform thread, so the database connection 
+         * admission ({@link Execution#getDbAdmissionPermits()}) becomes the 
+         * limit instead of the thread count
+         * @since 1.0.0
+         */
+        VIRTUAL
+    }
+    
+    /**
+     * Durability of the batch jobs handed to the {@link Transport#LOCAL} 
+     * transport
+     * @since 1.0.0
+     */
+    public enum LocalDurability
+    {
+        /**
+         * In memory only ; batch jobs not persisted yet are lost with the 
+         * process
+         * @since 1.0.0
+         */
+        NONE,
+        
+        /**
+         * Every batch job is appended (and synced) to a local journal before 
+         * it counts as sent ; the ones not persisted yet are replayed on 
+         * restart
+         * @since 1.0.0
+         */
+        JOURNAL
+    }
+    
+    /**
+     * Wire format of the {@link my.com.maybank.accmgmt.models.AccountTransactionsBatchJob} 
+     * Kafka messages produced ; consumers read both
+     * @since 1.0.0
+     */
+    public enum WireFormat
+    {
+        /**
+         * JSON document
+         * @since 1.0.0
+         */
+        JSON,
+        
+        /**
+         * Versioned length-prefixed/varint binary layout (see 
+         * {@link my.com.maybank.accmgmt.component.impl.AccountTransactionsBatchJobCodec})
+         * @since 1.0.0
+         */
+        BINARY
+    }
+    
+    /**
+     * How the Kafka listener container hands the polled records over
+     * @since 1.0.0
+     */
+    public enum ListenerMode
+    {
+        /**
+         * One record at a time, a database transaction per batch job
+         * @since 1.0.0
+         */
+        RECORD,
+        
+        /**
+         * A whole poll at a time ; consecutive batch jobs of the same 
+         * operation (and ingest job) are merged and persisted in a single 
+         * database transaction
+         * @since 1.0.0
+         */
+        BATCH
+    }
+    
+    /**
+     * When the offsets of the consumed batch jobs are committed
+     * @since 1.0.0
+     */
+    public enum ListenerAckMode
+    {
+        /**
+         * The listener container commits the offsets of a poll synchronously 
+         * once the listener returns
+         * @since 1.0.0
+         */
+        CONTAINER,
+        
+        /**
+         * The listener acknowledges each batch job once its database 
+         * transaction committed, in offset order per partition ; the 
+         * acknowledged offsets are committed asynchronously once per poll 
+         * (see 
+         * {@link my.com.maybank.accmgmt.component.impl.AccountTransactionsOffsetCommits})
+         * @since 1.0.0
+         */
+        AFTER_COMMIT
+    }
+    
+    /**
+     * Row field the batch jobs are grouped and keyed by ; the key picks the 
+     * Kafka partition, so every batch of an account lands on the same 
+     * partition (consumed in order by a single listener thread)
+     * @since 1.0.0
+     */
+    public enum PartitionKey
+    {
+        /**
+         * Batches are not keyed (spread over the partitions) ; only ordered 
+         * with a single partition
+         * @since 1.0.0
+         */
+        NONE,
+        
+        /**
+         * Batches grouped and keyed by 
+         * {@link my.com.maybank.accmgmt.models.AccountTransaction#getAccountNumber()}
+         * @since 1.0.0
+         */
+        ACCOUNT_NUMBER,
+        
+        /**
+         * Batches grouped and keyed by 
+         * {@link my.com.maybank.accmgmt.models.AccountTransaction#getCustomerId()}
+         * @since 1.0.0
+         */
+        CUSTOMER_ID
+    }
+    
+    /**
+     * Named Kafka producer tuning ; every setting left unset under 
+     * {@code app.service.accounting.kafka.producer} falls back to the profile 
+     * one, then to the Kafka client default
+     * @since 1.0.0
+     */
+    @Getter
+    public enum ProducerProfile
+    {
+        /**
+         * Kafka client defaults
+         * @since 1.0.0
+         */
+        DEFAULT(
+            null,
+            null,
+            null,
+            null,
+            null,
+            null
+        ),
+        
+        /**
+         * Few large compressed requests ; batches linger to fill up
+         * @since 1.0.0
+         */
+        THROUGHPUT(
+            "lz4",
+            20l,
+            256 * 1024,
+            64l * 1024l * 1024l,
+            IDEMPOTENT_PRODUCER_MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION,
+            Boolean.TRUE
+        ),
+        
+        /**
+         * Every batch job sent as soon as possible, uncompressed
+         * @since 1.0.0
+         */
+        LATENCY(
+            "none",
+            0l,
+            16 * 1024,
+            32l * 1024l * 1024l,
+            IDEMPOTENT_PRODUCER_MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION,
+            Boolean.TRUE
+        );
+        
+        @Nullable
+        private final String compressionType;
+        
+        @Nullable
+        private final Long lingerMs;
+        
+        @Nullable
+        private final Integer batchSize;
+        
+        @Nullable
+        private final Long bufferMemory;
+        
+        @Nullable
+        private final Integer maxInFlightRequestsPerConnection;
+        
+        @Nullable
+        private final Boolean enableIdempotence;
+        
+        ProducerProfile(@Nullable
+                        final String compressionType,
+                        @Nullable
+                        final Long lingerMs,
+                        @Nullable
+                        final Integer batchSize,
+                        @Nullable
+                        final Long bufferMemory,
+                        @Nullable
+                        final Integer maxInFlightRequestsPerConnection,
+                        @Nullable
+                        final Boolean enableIdempotence)
+        {
+            this.compressionType = compressionType;
+            this.lingerMs = lingerMs;
+            this.batchSize = batchSize;
+            this.bufferMemory = bufferMemory;
+            this.maxInFlightRequestsPerConnection = maxInFlightRequestsPerConnection;
+            this.enableIdempotence = enableIdempotence;
+        }
+    }
+    
+    /**
+     * Policy closing an {@link my.com.maybank.accmgmt.models.AccountTransactionsBatchJob}
+     * @since 1.0.0
+     */
+    public enum BatchPolicy
+    {
+        /**
+         * A batch is closed every {@link Kafka#getTransactionJobBatchSize()} 
+         * rows
+         * @since 1.0.0
+         */
+        FIXED,
+        
+        /**
+         * A batch is closed on a serialised byte budget (tuned from the 
+         * observed consumer persist latency) or a max linger time, 
+         * {@link Kafka#getTransactionJobBatchSize()} rows at most
+         * @since 1.0.0
+         */
+        ADAPTIVE
+    }
+    
+    /**
+     * Bad row (conversion or constraint failure) handling
+     * @since 1.0.0
+     */
+    public enum ErrorMode
+    {
+        /**
+         * The first bad row aborts the upload
+         * @since 1.0.0
+         */
+        FAIL_FAST,
+        
+        /**
+         * Bad rows are written to a reject report (line number and reason) 
+         * and the other rows keep flowing
+         * @since 1.0.0
+         */
+        REJECT
+    }
+    
+    /**
+     * CSV row decoder used to turn a line into account transaction(s)
+     * @since 1.0.0
+     */
+    public enum RowDecoder
+    {
+        /**
+         * Super CSV bean reader with cell processors (reflection populated 
+         * bean per row)
+         * @since 1.0.0
+         */
+        BEAN,
+        
+        /**
+         * Byte level decoder into reusable primitive column buffers ; objects 
+         * are created at the batch boundary only
+         * @since 1.0.0
+         */
+        COLUMNAR
+    }
+    
+    /**
+     * CSV parser engine used to read an uploaded (staged) CSV file
+     * @since 1.0.0
+     */
+    public enum ParserEngine
+    {
+        /**
+         * Single-threaded Super CSV bean reader
+         * @since 1.0.0
+         */
+        SUPER_CSV,
+        
+        /**
+         * Memory-mapped file split into line aligned byte ranges, each parsed 
+         * on its own fork-join worker
+         * @since 1.0.0
+         */
+        MAPPED_PARALLEL
+    }
+    
+    /**
+     * Upload mode to identify how an uploaded CSV is handed to the CSV reader
+     * @since 1.0.0
+     */
+    public enum UploadMode
+    {
+        /**
+         * Upload is copied to {@link #getUploadDestBasePath()} first and only 
+         * then read
+         * @since 1.0.0
+         */
+        STAGED,
+        
+        /**
+         * Multipart upload is parsed from its part without the copy to 
+         * {@link #getUploadDestBasePath()} ; the part is buffered in full by 
+         * the servlet container first. Only applies when 
+         * {@link #isAccountingIngestAsyncUpload()} is disabled
+         * @since 1.0.0
+         */
+        STREAMING
+    }
+    
     /**
      * Accounting configuration
      * @since 1.0.0
      */
     @Nonnull
-    private Accounting accounting;
+    private Accounting accounting;
+    
+    /**
+     * Get page size max limit allowed by for any service that supports 
+     * pagination
+     * @return                                  A non-negative, non-zero page 
+     *                                          size max limit
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getPageSizeMaxLimit()
+    {
+        return Optional.ofNullable(
+            getDataLimiter()
+        ).map(
+            dataLimiterToProcess -> Optional.ofNullable(
+                dataLimiterToProcess.getPagination()
+            ).map(
+                paginationLimiterToProcess -> Optional.ofNullable(
+                    paginationLimiterToProcess.getPageSize()
+                ).filter(
+                    pageSizeMaxLimitToProcess -> pageSizeMaxLimitToProcess>0
+                ).orElse(
+                    DEFAULT_PAGESIZE_MAX_LIMIT
+                )
+            ).orElse(
+                DEFAULT_PAGESIZE_MAX_LIMIT
+            )
+        ).orElse(
+            DEFAULT_PAGESIZE_MAX_LIMIT
+        );
+    }
+    
+    /**
+     * Get simple date format
+     * @return                                  {@link SimpleDateFormat}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public SimpleDateFormat getSimpleDateFormat()
+    {
+        return new SimpleDateFormat(
+            Optional.ofNullable(
+                getDataFormatting()
+            ).map(dataFormattingToProcess -> Optional.ofNullable(
+                    dataFormattingToProcess.getDate()
+                ).map(dateFormattingToProcess -> Optional.ofNullable(
+                        dateFormattingToProcess.getSimple()
+                    ).filter(
+                        simpleDateFormatToProcess -> !simpleDateFormatToProcess.trim().equals(
+                            ""
+                        )
+                    ).orElse(DEFAULT_SIMPLE_DATE_FORMAT_PATTERN
+                    )
+                ).orElse(DEFAULT_SIMPLE_DATE_FORMAT_PATTERN
+                )
+            ).orElse(DEFAULT_SIMPLE_DATE_FORMAT_PATTERN
+            )
+        );
+    }
+    
+    /**
+     * Get simple time format
+     * @return                                  {@link SimpleDateFormat}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public SimpleDateFormat getSimpleTimeFormat()
+    {
+        return new SimpleDateFormat(
+            Optional.ofNullable(
+                getDataFormatting()
+            ).map(dataFormattingToProcess -> Optional.ofNullable(
+                    dataFormattingToProcess.getTime()
+                ).map(timeFormattingToProcess -> Optional.ofNullable(
+                        timeFormattingToProcess.getSimple()
+                    ).filter(
+                        simpleTimeFormatToProcess -> !simpleTimeFormatToProcess.trim().equals(
+                            ""
+                        )
+                    ).orElse(DEFAULT_SIMPLE_TIME_FORMAT_PATTERN
+                    )
+                ).orElse(DEFAULT_SIMPLE_TIME_FORMAT_PATTERN
+                )
+            ).orElse(DEFAULT_SIMPLE_TIME_FORMAT_PATTERN
+            )
+        );
+    }
+    
+    /**
+     * Get upload destination base path
+     * @return                                  {@link Path}, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Path getUploadDestBasePath()
+    {
+        return Paths.get(
+            Optional.ofNullable(
+                getDataPath()
+            ).map(
+                dataPathToProcess -> Optional.ofNullable(
+                    dataPathToProcess.getUpload()
+                ).map(
+                    uploadToProcess -> Optional.ofNullable(
+                        uploadToProcess.getDestBasePath()
+                    ).filter(
+                        destBasePathToProcess -> !destBasePathToProcess.trim().equals(
+                            ""
+                        )
+                    ).orElse(
+                        System.getProperty(
+                            "java.io.tmpdir"
+                        )
+                    )
+                ).orElse(
+                    System.getProperty(
+                        "java.io.tmpdir"
+                    )
+                )
+            ).orElse(
+                System.getProperty(
+                    "java.io.tmpdir"
+                )
+            ).replaceAll(
+                "\\\\", 
+                "/"
+            )
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka topic
+     * @return                                  Accounting Kafka endpoint
+     * @throws InternalException                If configuration is missing or 
+     *                                          invalid
+     * @since 1.0.0
+     */
+    @Nonnull
+    public String getAccountingKafkaEndpoint()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> Optional.ofNullable(
+                accountingToProcess.getKafka()
+            ).map(
+                kafkaToProcess -> Optional.ofNullable(
+                    kafkaToProcess.getEndpoint()
+                ).filter(
+                    endpointToProcess -> !endpointToProcess.trim().equals(
+                        ""
+                    )
+                ).orElse(
+                    null
+                )
+            ).orElse(
+                null
+            )
+        ).orElseThrow(
+            () -> new InternalException(
+                "Configuration for property 'app.service.accounting.kafka.endpoint' IS MISSING OR INVALID"
+            )
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka topic
+     * @return                                  Topic name
+     * @since 1.0.0
+     */
+    @Nonnull
+    public String getAccountingKafkaTopic()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> Optional.ofNullable(
+                accountingToProcess.getKafka()
+            ).map(
+                kafkaToProcess -> Optional.ofNullable(
+                    kafkaToProcess.getTopic()
+                ).filter(
+                    topicToProcess -> !topicToProcess.trim().equals(
+                        ""
+                    )
+                ).orElse(
+                    DEFAULT_ACCOUNTING_KAFKA_TOPIC
+                )
+            ).orElse(
+                DEFAULT_ACCOUNTING_KAFKA_TOPIC
+            )
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_TOPIC
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka consumer group-id
+     * @return                                  Group-Id
+     * @since 1.0.0
+     */
+    @Nonnull
+    public String getAccountingKafkaConsumerGroupId()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(accountingToProcess -> Optional.ofNullable(
+                accountingToProcess.getKafka()
+            ).map(kafkaToProcess -> Optional.ofNullable(
+                    kafkaToProcess.getConsumerGroupId()
+                ).filter(
+                    consumerGroupIdToProcess -> !consumerGroupIdToProcess.trim().equals(
+                        ""
+                    )
+                ).orElse(
+                    DEFAULT_ACCOUNTING_KAFKA_CONSUMER_GROUPID
+                )
+            ).orElse(
+                DEFAULT_ACCOUNTING_KAFKA_CONSUMER_GROUPID
+            )
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_CONSUMER_GROUPID
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka transaction job batch size
+     * @return                                  Batch size
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaTransactionJobBatchSize()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(accountingToProcess -> Optional.ofNullable(
+                accountingToProcess.getKafka()
+            ).map(kafkaToProcess -> Optional.ofNullable(
+                    kafkaToProcess.getTransactionJobBatchSize()
+                ).filter(
+                    transactionJobBatchSizeToProcess -> transactionJobBatchSizeToProcess>0
+                ).orElse(
+                    DEFAULT_ACCOUNTING_KAFKA_JOB_BATCH_SIZE
+                )
+            ).orElse(
+                DEFAULT_ACCOUNTING_KAFKA_JOB_BATCH_SIZE
+            )
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_JOB_BATCH_SIZE
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka ingest pipeline serialise stage width
+     * @return                                  Number of serialiser threads ; 
+     *                                          defaults to half the available 
+     *                                          processors (at least 
+     *                                          {@code 1})
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaPipelineSerializers()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getPipelineSerializers()
+        ).filter(
+            pipelineSerializersToProcess -> pipelineSerializersToProcess>0
+        ).orElseGet(
+            () -> Math.max(
+                1,
+                Runtime.getRuntime().availableProcessors() / 2
+            )
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka max unacknowledged sends
+     * @return                                  Sends awaiting the broker 
+     *                                          acknowledgement (retries 
+     *                                          included) before the send 
+     *                                          stage is held back
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaPublishMaxInFlight()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getPublishMaxInFlight()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_PUBLISH_MAX_IN_FLIGHT
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka producer retries of a failed send (Kafka 
+     * {@code retries})
+     * @return                                  Retries ; {@code 0} fails the 
+     *                                          upload on the first failed 
+     *                                          send (and is invalid with 
+     *                                          idempotence enabled)
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaPublishRetries()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getPublishRetries()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_PUBLISH_RETRIES
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka producer back-off before the first retry of a 
+     * failed send (Kafka {@code retry.backoff.ms})
+     * @return                                  Back-off (in milliseconds) ; 
+     *                                          the producer grows it up to 
+     *                                          {@code retry.backoff.max.ms} 
+     *                                          on further retries
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingKafkaPublishRetryBackoffMs()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getPublishRetryBackoffMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_PUBLISH_RETRY_BACKOFF_MS
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka transactional publication
+     * @return                                  {@code true} to publish the 
+     *                                          batches of an upload in Kafka 
+     *                                          transaction(s) closed by a 
+     *                                          commit marker ; consumers 
+     *                                          read committed records only
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Boolean getAccountingKafkaPublishTransactional()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getPublishTransactional()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_PUBLISH_TRANSACTIONAL
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka batches per transaction
+     * @return                                  Batches committed together ; 
+     *                                          {@code 0} for one transaction 
+     *                                          per upload (atomic import)
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaPublishTransactionBatches()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getPublishTransactionBatches()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_PUBLISH_TRANSACTION_BATCHES
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka transactional id prefix
+     * @return                                  Transactional id prefix ; must 
+     *                                          be unique per service instance
+     * @since 1.0.0
+     */
+    @Nonnull
+    public String getAccountingKafkaPublishTransactionalIdPrefix()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getPublishTransactionalIdPrefix()
+        ).filter(
+            publishTransactionalIdPrefixToProcess -> !publishTransactionalIdPrefixToProcess.trim().isEmpty()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_PUBLISH_TRANSACTIONAL_ID_PREFIX
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka batch job wire format
+     * @return                                  {@link WireFormat} of the 
+     *                                          messages produced, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public WireFormat getAccountingKafkaWireFormat()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getWireFormat()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_WIRE_FORMAT
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka batch policy
+     * @return                                  {@link BatchPolicy}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public BatchPolicy getAccountingKafkaBatchPolicy()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getBatchPolicy()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_BATCH_POLICY
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka adaptive batch initial byte budget
+     * @return                                  Serialised bytes per batch the 
+     *                                          sizer starts from ; kept 
+     *                                          within 
+     *                                          {@link #getAccountingKafkaBatchMinBytes()} 
+     *                                          and 
+     *                                          {@link #getAccountingKafkaBatchMaxBytes()}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaBatchTargetBytes()
+    {
+        return Math.min(
+            Math.max(
+                Optional.ofNullable(
+                    getAccounting()
+                ).map(
+                    accountingToProcess -> accountingToProcess.getKafka()
+                ).map(
+                    kafkaToProcess -> kafkaToProcess.getBatchTargetBytes()
+                ).orElse(
+                    DEFAULT_ACCOUNTING_KAFKA_BATCH_TARGET_BYTES
+                ),
+                getAccountingKafkaBatchMinBytes()
+            ),
+            getAccountingKafkaBatchMaxBytes()
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka adaptive batch min byte budget
+     * @return                                  Min serialised bytes per batch
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaBatchMinBytes()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getBatchMinBytes()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_BATCH_MIN_BYTES
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka adaptive batch max byte budget
+     * @return                                  Max serialised bytes per batch 
+     *                                          (at least 
+     *                                          {@link #getAccountingKafkaBatchMinBytes()})
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaBatchMaxBytes()
+    {
+        return Math.max(
+            Optional.ofNullable(
+                getAccounting()
+            ).map(
+                accountingToProcess -> accountingToProcess.getKafka()
+            ).map(
+                kafkaToProcess -> kafkaToProcess.getBatchMaxBytes()
+            ).orElse(
+                DEFAULT_ACCOUNTING_KAFKA_BATCH_MAX_BYTES
+            ),
+            getAccountingKafkaBatchMinBytes()
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka adaptive batch max linger
+     * @return                                  Max time (in milliseconds) a 
+     *                                          batch stays open once its 
+     *                                          first row is added
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingKafkaBatchMaxLingerMs()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getBatchMaxLingerMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_BATCH_MAX_LINGER_MS
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka adaptive batch target consumer persist latency
+     * @return                                  Time (in milliseconds) the 
+     *                                          consumer should take to 
+     *                                          persist one batch ; the byte 
+     *                                          budget is tuned towards it
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingKafkaBatchTargetPersistMs()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getBatchTargetPersistMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_BATCH_TARGET_PERSIST_MS
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka ingest pipeline send stage width
+     * @return                                  Number of sender threads
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaPipelineSenders()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getPipelineSenders()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_PIPELINE_SENDERS
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka ingest pipeline stage queue capacity
+     * @return                                  Max batches waiting in front of 
+     *                                          each stage before the previous 
+     *                                          one is held back
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaPipelineQueueCapacity()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getPipelineQueueCapacity()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_PIPELINE_QUEUE_CAPACITY
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka batch job partition key
+     * @return                                  {@link PartitionKey}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public PartitionKey getAccountingKafkaPartitionKey()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getPartitionKey()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_PARTITION_KEY
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka listener mode
+     * @return                                  {@link ListenerMode}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public ListenerMode getAccountingKafkaListenerMode()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getListenerMode()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_LISTENER_MODE
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka listener offset acknowledgement mode
+     * @return                                  {@link ListenerAckMode}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public ListenerAckMode getAccountingKafkaListenerAckMode()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getListenerAckMode()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_LISTENER_ACK_MODE
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka listener max records per poll
+     * @return                                  Max records per poll, 
+     *                                          {@code null} for the Kafka 
+     *                                          client default
+     * @since 1.0.0
+     */
+    @Nullable
+    public Integer getAccountingKafkaListenerMaxPollRecords()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getListenerMaxPollRecords()
+        ).orElse(
+            null
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka listener container concurrency
+     * @return                                  Consumer threads ; {@code 0} 
+     *                                          (auto) defaults to the number 
+     *                                          of available processors. 
+     *                                          Threads beyond the topic 
+     *                                          partition count stay idle
+     * @since 1.0.0
+     * @see #getAccountingKafkaListenerConcurrency(java.lang.Integer)
+     */
+    @Nonnull
+    public Integer getAccountingKafkaListenerConcurrency()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getListenerConcurrency()
+        ).map(
+            listenerConcurrencyToProcess -> listenerConcurrencyToProcess>0?
+                listenerConcurrencyToProcess:
+                Runtime.getRuntime().availableProcessors()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_LISTENER_CONCURRENCY
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka listener container concurrency for the topic
+     * @param topicPartitions                   Topic partition count ; 
+     *                                          {@code null} if unknown
+     * @return                                  Consumer threads, capped at the 
+     *                                          topic partition count (one 
+     *                                          partition per thread at most)
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaListenerConcurrency(@Nullable
+                                                         final Integer topicPartitions)
+    {
+        final Integer listenerConcurrency = getAccountingKafkaListenerConcurrency();
+        if(topicPartitions==null || topicPartitions<1)
+        {
+            return listenerConcurrency;
+        }
+        return Math.min(
+            listenerConcurrency,
+            topicPartitions
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka retry topics enabled
+     * @return                                  {@code true} to send the batch 
+     *                                          jobs failing to persist through 
+     *                                          the retry topics then to the 
+     *                                          dead-letter topic, instead of 
+     *                                          retrying them in place
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Boolean getAccountingKafkaRetryEnabled()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getRetry()
+        ).map(
+            retryToProcess -> retryToProcess.getEnabled()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_RETRY_ENABLED
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka retry topic tiers
+     * @return                                  Retry topics a batch job goes 
+     *                                          through before the dead-letter 
+     *                                          topic
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingKafkaRetryTiers()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getRetry()
+        ).map(
+            retryToProcess -> retryToProcess.getTiers()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_RETRY_TIERS
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka retry tier delay ; exponential, capped
+     * @param tier                              Retry tier (from {@code 0})
+     * @return                                  Delay (in milliseconds) before 
+     *                                          a batch job of the tier is 
+     *                                          retried
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingKafkaRetryDelayMs(final int tier)
+    {
+        final Optional<Retry> retry = Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getRetry()
+        );
+        final long initialDelayMs = retry.map(
+            retryToProcess -> retryToProcess.getInitialDelayMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_RETRY_INITIAL_DELAY_MS
+        );
+        final double multiplier = retry.map(
+            retryToProcess -> retryToProcess.getMultiplier()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_RETRY_MULTIPLIER
+        );
+        final long maxDelayMs = retry.map(
+            retryToProcess -> retryToProcess.getMaxDelayMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_RETRY_MAX_DELAY_MS
+        );
+        return (long)Math.min(
+            initialDelayMs*Math.pow(
+                multiplier,
+                tier
+            ),
+            maxDelayMs
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka retry topic name
+     * @param tier                              Retry tier (from {@code 0})
+     * @return                                  Topic name, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public String getAccountingKafkaRetryTopic(final int tier)
+    {
+        return getAccountingKafkaTopic() + ACCOUNTING_KAFKA_RETRY_TOPIC_SUFFIX + tier;
+    }
+    
+    /**
+     * Get Accounting Kafka dead-letter topic name
+     * @return                                  Topic name, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public String getAccountingKafkaDeadLetterTopic()
+    {
+        return getAccountingKafkaTopic() + ACCOUNTING_KAFKA_DEAD_LETTER_TOPIC_SUFFIX;
+    }
+    
+    /**
+     * Get Accounting Kafka producer tuning profile
+     * @return                                  {@link ProducerProfile}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public ProducerProfile getAccountingKafkaProducerProfile()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getProducer()
+        ).map(
+            producerToProcess -> producerToProcess.getProfile()
+        ).orElse(
+            DEFAULT_ACCOUNTING_KAFKA_PRODUCER_PROFILE
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka producer effective tuning
+     * <p>
+     * Settings set under {@code app.service.accounting.kafka.producer} win 
+     * over the {@link #getAccountingKafkaProducerProfile()} ones ; settings 
+     * set by neither are left out (i.e. Kafka client default)
+     * </p>
+     * @return                                  Unmodifiable Kafka producer 
+     *                                          properties (by 
+     *                                          {@link ProducerConfig} name), 
+     *                                          never {@code null}
+     * @throws InternalException                If a setting is invalid, or 
+     *                                          idempotence is enabled with 
+     *                                          more than 
+     *                                          {@value #IDEMPOTENT_PRODUCER_MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION} 
+     *                                          in-flight requests
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Map<String, Object> getAccountingKafkaProducerConfigs()
+    {
+        final ProducerProfile producerProfile = getAccountingKafkaProducerProfile();
+        final Producer producer = Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getKafka()
+        ).map(
+            kafkaToProcess -> kafkaToProcess.getProducer()
+        ).orElseGet(
+            Producer::new
+        );
+        final Map<String, Object> producerConfigs = new LinkedHashMap<>();
+        final String compressionType = Optional.ofNullable(
+            producer.getCompressionType()
+        ).orElse(
+            producerProfile.getCompressionType()
+        );
+        if(Objects.nonNull(compressionType))
+        {
+            try
+            {
+                producerConfigs.put(
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG,
+                    CompressionType.forName(
+                        compressionType.trim().toLowerCase()
+                    ).name
+                );
+            }
+            catch(IllegalArgumentException e)
+            {
+                throw new InternalException(
+                    String.format(
+                        "Configuration for property 'app.service.accounting.kafka.producer.compression-type' IS INVALID ; '%s' is none of %s",
+                        compressionType,
+                        Arrays.toString(
+                            CompressionType.values()
+                        )
+                    ),
+                    e
+                );
+            }
+        }
+        putProducerConfig(
+            producerConfigs,
+            ProducerConfig.LINGER_MS_CONFIG,
+            "linger-ms",
+            Optional.ofNullable(
+                producer.getLingerMs()
+            ).orElse(
+                producerProfile.getLingerMs()
+            ),
+            0l
+        );
+        putProducerConfig(
+            producerConfigs,
+            ProducerConfig.BATCH_SIZE_CONFIG,
+            "batch-size",
+            Optional.ofNullable(
+                producer.getBatchSize()
+            ).orElse(
+                producerProfile.getBatchSize()
+            ),
+            0l
+        );
+        putProducerConfig(
+            producerConfigs,
+            ProducerConfig.BUFFER_MEMORY_CONFIG,
+            "buffer-memory",
+            Optional.ofNullable(
+                producer.getBufferMemory()
+            ).orElse(
+                producerProfile.getBufferMemory()
+            ),
+            0l
+        );
+        putProducerConfig(
+            producerConfigs,
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION,
+            "max-in-flight-requests-per-connection",
+            Optional.ofNullable(
+                producer.getMaxInFlightRequestsPerConnection()
+            ).orElse(
+                producerProfile.getMaxInFlightRequestsPerConnection()
+            ),
+            1l
+        );
+        final Boolean enableIdempotence = Optional.ofNullable(
+            producer.getEnableIdempotence()
+        ).orElse(
+            producerProfile.getEnableIdempotence()
+        );
+        if(Objects.nonNull(enableIdempotence))
+        {
+            producerConfigs.put(
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG,
+                enableIdempotence
+            );
+            if(enableIdempotence)
+            {
+                // idempotence needs every replica acknowledgement
+                producerConfigs.put(
+                    ProducerConfig.ACKS_CONFIG,
+                    "all"
+                );
+            }
+        }
+        if(Boolean.TRUE.equals(enableIdempotence) &&
+            producerConfigs.containsKey(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION) &&
+            ((Number)producerConfigs.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION)).intValue()>IDEMPOTENT_PRODUCER_MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION)
+        {
+            throw new InternalException(
+                String.format(
+                    "Configuration for property 'app.service.accounting.kafka.producer.max-in-flight-requests-per-connection' IS INVALID ; (%s) exceeds (%d) with idempotence enabled",
+                    producerConfigs.get(
+                        ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION
+                    ),
+                    IDEMPOTENT_PRODUCER_MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION
+                )
+            );
+        }
+        return Collections.unmodifiableMap(
+            producerConfigs
+        );
+    }
+    
+    /**
+     * Put a numeric Kafka producer setting unless unset
+     * @throws InternalException                If the setting is below 
+     *                                          {@code minValue}
+     * @since 1.0.0
+     */
+    private static void putProducerConfig(@Nonnull
+                                          final Map<String, Object> producerConfigs,
+                                          @Nonnull
+                                          final String producerConfigName,
+                                          @Nonnull
+                                          final String propertyName,
+                                          @Nullable
+                                          final Number value,
+                                          final long minValue)
+    {
+        if(Objects.isNull(value))
+        {
+            return;
+        }
+        if(value.longValue()<minValue)
+        {
+            throw new InternalException(
+                String.format(
+                    "Configuration for property 'app.service.accounting.kafka.producer.%s' IS INVALID ; (%s) is below (%d)",
+                    propertyName,
+                    value,
+                    minValue
+                )
+            );
+        }
+        producerConfigs.put(
+            producerConfigName,
+            value
+        );
+    }
+    
+    /**
+     * Get Accounting batch job transport
+     * @return                                  {@link Transport}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Transport getAccountingTransport()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getTransport()
+        ).orElse(
+            DEFAULT_ACCOUNTING_TRANSPORT
+        );
+    }
+    
+    /**
+     * Get Accounting local transport ring capacity
+     * @return                                  Batch jobs the ring holds 
+     *                                          before the producing side is 
+     *                                          held back
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingLocalRingCapacity()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getLocal()
+        ).map(
+            localToProcess -> localToProcess.getRingCapacity()
+        ).orElse(
+            DEFAULT_ACCOUNTING_LOCAL_RING_CAPACITY
+        );
+    }
+    
+    /**
+     * Get Accounting local transport consumer batch
+     * @return                                  Max batch jobs the consumer 
+     *                                          takes off the ring per round
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingLocalConsumerBatch()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getLocal()
+        ).map(
+            localToProcess -> localToProcess.getConsumerBatch()
+        ).orElse(
+            DEFAULT_ACCOUNTING_LOCAL_CONSUMER_BATCH
+        );
+    }
+    
+    /**
+     * Get Accounting local transport durability
+     * @return                                  {@link LocalDurability}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public LocalDurability getAccountingLocalDurability()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getLocal()
+        ).map(
+            localToProcess -> localToProcess.getDurability()
+        ).orElse(
+            DEFAULT_ACCOUNTING_LOCAL_DURABILITY
+        );
+    }
+    
+    /**
+     * Get Accounting local transport journal path
+     * @return                                  Journal file {@link Path} ; 
+     *                                          defaults to 
+     *                                          {@value #DEFAULT_ACCOUNTING_LOCAL_JOURNAL_FILE_NAME} 
+     *                                          under 
+     *                                          {@link #getUploadDestBasePath()}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Path getAccountingLocalJournalPath()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getLocal()
+        ).map(
+            localToProcess -> localToProcess.getJournalPath()
+        ).filter(
+            journalPathToProcess -> !journalPathToProcess.trim().isEmpty()
+        ).map(
+            journalPathToProcess -> Paths.get(
+                journalPathToProcess
+            )
+        ).orElseGet(
+            () -> getUploadDestBasePath().resolve(
+                DEFAULT_ACCOUNTING_LOCAL_JOURNAL_FILE_NAME
+            )
+        );
+    }
+    
+    /**
+     * Get Accounting batch job outbox enabled
+     * @return                                  {@code true} if the batch jobs 
+     *                                          of a criteria update are written 
+     *                                          to the outbox (in the database 
+     *                                          transaction reading their rows) 
+     *                                          and published by the relay
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Boolean getAccountingOutboxEnabled()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getOutbox()
+        ).map(
+            outboxToProcess -> outboxToProcess.getEnabled()
+        ).orElse(
+            DEFAULT_ACCOUNTING_OUTBOX_ENABLED
+        );
+    }
+    
+    /**
+     * Get Accounting batch job outbox relay batch size
+     * @return                                  Max outbox entries claimed per 
+     *                                          relay round
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingOutboxRelayBatchSize()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getOutbox()
+        ).map(
+            outboxToProcess -> outboxToProcess.getRelayBatchSize()
+        ).orElse(
+            DEFAULT_ACCOUNTING_OUTBOX_RELAY_BATCH_SIZE
+        );
+    }
+    
+    /**
+     * Get Accounting batch job outbox relay poll interval
+     * @return                                  Milliseconds between relay 
+     *                                          rounds once the outbox is 
+     *                                          drained
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingOutboxRelayPollMs()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getOutbox()
+        ).map(
+            outboxToProcess -> outboxToProcess.getRelayPollMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_OUTBOX_RELAY_POLL_MS
+        );
+    }
+    
+    /**
+     * Get Accounting Kafka listener container thread model
+     * @return                                  {@link ThreadModel}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public ThreadModel getAccountingExecutionListenerThreads()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getExecution()
+        ).map(
+            executionToProcess -> executionToProcess.getListenerThreads()
+        ).orElse(
+            DEFAULT_ACCOUNTING_EXECUTION_LISTENER_THREADS
+        );
+    }
+    
+    /**
+     * Get Accounting web (Tomcat) request thread model
+     * @return                                  {@link ThreadModel}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public ThreadModel getAccountingExecutionWebThreads()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getExecution()
+        ).map(
+            executionToProcess -> executionToProcess.getWebThreads()
+        ).orElse(
+            DEFAULT_ACCOUNTING_EXECUTION_WEB_THREADS
+        );
+    }
+    
+    /**
+     * Get Accounting database connection admission permits
+     * @return                                  Connections handed out at the 
+     *                                          same time at most ; {@code 0} 
+     *                                          for no admission limit
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingExecutionDbAdmissionPermits()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getExecution()
+        ).map(
+            executionToProcess -> executionToProcess.getDbAdmissionPermits()
+        ).orElse(
+            DEFAULT_ACCOUNTING_EXECUTION_DB_ADMISSION_PERMITS
+        );
+    }
+    
+    /**
+     * Get Accounting database connection admission wait
+     * @return                                  Max wait for an admission 
+     *                                          permit (in milliseconds)
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingExecutionDbAdmissionTimeoutMs()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getExecution()
+        ).map(
+            executionToProcess -> executionToProcess.getDbAdmissionTimeoutMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_EXECUTION_DB_ADMISSION_TIMEOUT_MS
+        );
+    }
+    
+    /**
+     * Get Accounting processed batch registry enabled
+     * @return                                  {@code true} to skip the batch 
+     *                                          jobs already persisted (e.g. 
+     *                                          redelivered after a rebalance 
+     *                                          or a crash)
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Boolean getAccountingProcessedBatchesEnabled()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getProcessedBatches()
+        ).map(
+            processedBatchesToProcess -> processedBatchesToProcess.getEnabled()
+        ).orElse(
+            DEFAULT_ACCOUNTING_PROCESSED_BATCHES_ENABLED
+        );
+    }
+    
+    /**
+     * Get Accounting processed batch front cache capacity
+     * @return                                  Batch ids of the latest 
+     *                                          persisted batch jobs kept in 
+     *                                          memory
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingProcessedBatchesCacheCapacity()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getProcessedBatches()
+        ).map(
+            processedBatchesToProcess -> processedBatchesToProcess.getCacheCapacity()
+        ).orElse(
+            DEFAULT_ACCOUNTING_PROCESSED_BATCHES_CACHE_CAPACITY
+        );
+    }
+    
+    /**
+     * Get Accounting processed batch retention
+     * @return                                  How long (in milliseconds) a 
+     *                                          processed batch is remembered ; 
+     *                                          keep it above the topic 
+     *                                          retention
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingProcessedBatchesRetentionMs()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getProcessedBatches()
+        ).map(
+            processedBatchesToProcess -> processedBatchesToProcess.getRetentionMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_PROCESSED_BATCHES_RETENTION_MS
+        );
+    }
+    
+    /**
+     * Get Accounting processed batch prune interval
+     * @return                                  Interval (in milliseconds) 
+     *                                          between the prunes of the 
+     *                                          expired processed batches
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingProcessedBatchesPruneIntervalMs()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getProcessedBatches()
+        ).map(
+            processedBatchesToProcess -> processedBatchesToProcess.getPruneIntervalMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_PROCESSED_BATCHES_PRUNE_INTERVAL_MS
+        );
+    }
+    
+    /**
+     * Get Accounting account resolution cache enabled
+     * @return                                  {@code true} to keep the 
+     *                                          accounts resolved by the 
+     *                                          <b>CREATE</b> batch jobs in 
+     *                                          memory
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Boolean getAccountingAccountCacheEnabled()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getAccountCache()
+        ).map(
+            accountCacheToProcess -> accountCacheToProcess.getEnabled()
+        ).orElse(
+            DEFAULT_ACCOUNTING_ACCOUNT_CACHE_ENABLED
+        );
+    }
+    
+    /**
+     * Get Accounting account resolution cache capacity
+     * @return                                  Accounts (found or unknown) 
+     *                                          kept in memory ; the least 
+     *                                          recently used go first
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingAccountCacheCapacity()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getAccountCache()
+        ).map(
+            accountCacheToProcess -> accountCacheToProcess.getCapacity()
+        ).orElse(
+            DEFAULT_ACCOUNTING_ACCOUNT_CACHE_CAPACITY
+        );
+    }
+    
+    /**
+     * Get Accounting account resolution cache time to live of a found account
+     * @return                                  How long (in milliseconds) a 
+     *                                          found account is reused
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingAccountCacheTtlMs()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getAccountCache()
+        ).map(
+            accountCacheToProcess -> accountCacheToProcess.getTtlMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_ACCOUNT_CACHE_TTL_MS
+        );
+    }
+    
+    /**
+     * Get Accounting account resolution cache time to live of an unknown 
+     * account
+     * @return                                  How long (in milliseconds) an 
+     *                                          unknown account is answered 
+     *                                          without a query ; {@code 0} 
+     *                                          not to cache unknown accounts
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingAccountCacheNegativeTtlMs()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getAccountCache()
+        ).map(
+            accountCacheToProcess -> accountCacheToProcess.getNegativeTtlMs()
+        ).orElse(
+            DEFAULT_ACCOUNTING_ACCOUNT_CACHE_NEGATIVE_TTL_MS
+        );
+    }
+    
+    /**
+     * Get Accounting ingest upload mode
+     * @return                                  {@link UploadMode}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public UploadMode getAccountingIngestUploadMode()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> Optional.ofNullable(
+                accountingToProcess.getIngest()
+            ).map(
+                ingestToProcess -> Optional.ofNullable(
+                    ingestToProcess.getUploadMode()
+                ).orElse(
+                    DEFAULT_ACCOUNTING_INGEST_UPLOAD_MODE
+                )
+            ).orElse(
+                DEFAULT_ACCOUNTING_INGEST_UPLOAD_MODE
+            )
+        ).orElse(
+            DEFAULT_ACCOUNTING_INGEST_UPLOAD_MODE
+        );
+    }
+    
+    /**
+     * Get Accounting ingest streaming upload spool for replay flag
+     * @return                                  {@code true} to tee the 
+     *                                          streamed upload to 
+     *                                          {@link #getUploadDestBasePath()} 
+     *                                          so it can be replayed if the 
+     *                                          ingest fails
+     * @since 1.0.0
+     */
+    public boolean isAccountingIngestSpoolForReplay()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> Optional.ofNullable(
+                accountingToProcess.getIngest()
+            ).map(
+                ingestToProcess -> Optional.ofNullable(
+                    ingestToProcess.getSpoolForReplay()
+                ).orElse(
+                    Boolean.FALSE
+                )
+            ).orElse(
+                Boolean.FALSE
+            )
+        ).orElse(
+            Boolean.FALSE
+        );
+    }
+    
+    /**
+     * Get Accounting ingest CSV parser engine
+     * @return                                  {@link ParserEngine}, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public ParserEngine getAccountingIngestParserEngine()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> Optional.ofNullable(
+                accountingToProcess.getIngest()
+            ).map(
+                ingestToProcess -> Optional.ofNullable(
+                    ingestToProcess.getParserEngine()
+                ).orElse(
+                    DEFAULT_ACCOUNTING_INGEST_PARSER_ENGINE
+                )
+            ).orElse(
+                DEFAULT_ACCOUNTING_INGEST_PARSER_ENGINE
+            )
+        ).orElse(
+            DEFAULT_ACCOUNTING_INGEST_PARSER_ENGINE
+        );
+    }
+    
+    /**
+     * Is Accounting ingest multipart upload processed asynchronously
+     * @return                                  {@code true} to stage the upload 
+     *                                          and respond {@code 202} with a 
+     *                                          job id right away
+     * @since 1.0.0
+     */
+    public boolean isAccountingIngestAsyncUpload()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getIngest()
+        ).map(
+            ingestToProcess -> ingestToProcess.getAsyncUpload()
+        ).orElse(
+            DEFAULT_ACCOUNTING_INGEST_ASYNC_UPLOAD
+        );
+    }
+    
+    /**
+     * Get Accounting ingest executor concurrency
+     * @return                                  Max uploads processed at the 
+     *                                          same time
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingIngestExecutorConcurrency()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getIngest()
+        ).map(
+            ingestToProcess -> ingestToProcess.getExecutorConcurrency()
+        ).filter(
+            executorConcurrencyToProcess -> executorConcurrencyToProcess>0
+        ).orElse(
+            DEFAULT_ACCOUNTING_INGEST_EXECUTOR_CONCURRENCY
+        );
+    }
+    
+    /**
+     * Get Accounting ingest executor queue capacity
+     * @return                                  Max uploads waiting for an 
+     *                                          executor thread ; further 
+     *                                          uploads are rejected
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Integer getAccountingIngestExecutorQueueCapacity()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getIngest()
+        ).map(
+            ingestToProcess -> ingestToProcess.getExecutorQueueCapacity()
+        ).filter(
+            executorQueueCapacityToProcess -> executorQueueCapacityToProcess>=0
+        ).orElse(
+            DEFAULT_ACCOUNTING_INGEST_EXECUTOR_QUEUE_CAPACITY
+        );
+    }
     
     /**
-     * Get page size max limit allowed by for any service that supports 
-     * pagination
-     * @return                                  A non-negative, non-zero page 
-     *                                          size max limit
+     * Get Accounting ingest job retention
+     * @return                                  Max jobs kept for the status API
      * @since 1.0.0
      */
     @Nonnull
-    public Integer getPageSizeMaxLimit()
+    public Integer getAccountingIngestJobRetention()
     {
         return Optional.ofNullable(
-            getDataLimiter()
+            getAccounting()
         ).map(
-            dataLimiterToProcess -> Optional.ofNullable(
-                dataLimiterToProcess.getPagination()
-            ).map(
-                paginationLimiterToProcess -> Optional.ofNullable(
-                    paginationLimiterToProcess.getPageSize()
-                ).filter(
-                    pageSizeMaxLimitToProcess -> pageSizeMaxLimitToProcess>0
-                ).orElse(
-                    DEFAULT_PAGESIZE_MAX_LIMIT
-                )
-            ).orElse(
-                DEFAULT_PAGESIZE_MAX_LIMIT
-            )
+            accountingToProcess -> accountingToProcess.getIngest()
+        ).map(
+            ingestToProcess -> ingestToProcess.getJobRetention()
+        ).filter(
+            jobRetentionToProcess -> jobRetentionToProcess>0
         ).orElse(
-            DEFAULT_PAGESIZE_MAX_LIMIT
+            DEFAULT_ACCOUNTING_INGEST_JOB_RETENTION
         );
     }
     
     /**
-     * Get simple date format
-     * @return                                  {@link SimpleDateFormat}, never 
+     * Get Accounting ingest resumable upload max chunk size
+     * @return                                  Max bytes per chunk
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Long getAccountingIngestChunkMaxSize()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getIngest()
+        ).map(
+            ingestToProcess -> ingestToProcess.getChunkMaxSize()
+        ).filter(
+            chunkMaxSizeToProcess -> chunkMaxSizeToProcess>0 && chunkMaxSizeToProcess<Integer.MAX_VALUE
+        ).orElse(
+            DEFAULT_ACCOUNTING_INGEST_CHUNK_MAX_SIZE
+        );
+    }
+    
+    /**
+     * Is Accounting ingest de-duplication enabled
+     * @return                                  {@code true} to short-circuit 
+     *                                          exact file re-uploads and skip 
+     *                                          rows already persisted
+     * @since 1.0.0
+     */
+    public boolean isAccountingIngestDedup()
+    {
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getIngest()
+        ).map(
+            ingestToProcess -> ingestToProcess.getDedup()
+        ).orElse(
+            DEFAULT_ACCOUNTING_INGEST_DEDUP
+        );
+    }
+    
+    /**
+     * Get the resumable upload sessions base path
+     * @return                                  Sessions base path under 
+     *                                          {@link #getUploadDestBasePath()}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Path getUploadSessionsBasePath()
+    {
+        return getUploadDestBasePath().resolve(
+            "sessions"
+        );
+    }
+    
+    /**
+     * Get Accounting ingest bad row handling
+     * @return                                  {@link ErrorMode}, never 
      *                                          {@code null}
      * @since 1.0.0
      */
     @Nonnull
-    public SimpleDateFormat getSimpleDateFormat()
+    public ErrorMode getAccountingIngestErrorMode()
     {
-        return new SimpleDateFormat(
-            Optional.ofNullable(
-                getDataFormatting()
-            ).map(dataFormattingToProcess -> Optional.ofNullable(
-                    dataFormattingToProcess.getDate()
-                ).map(dateFormattingToProcess -> Optional.ofNullable(
-                        dateFormattingToProcess.getSimple()
-                    ).filter(
-                        simpleDateFormatToProcess -> !simpleDateFormatToProcess.trim().equals(
-                            ""
-                        )
-                    ).orElse(DEFAULT_SIMPLE_DATE_FORMAT_PATTERN
-                    )
-                ).orElse(DEFAULT_SIMPLE_DATE_FORMAT_PATTERN
-                )
-            ).orElse(DEFAULT_SIMPLE_DATE_FORMAT_PATTERN
-            )
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getIngest()
+        ).map(
+            ingestToProcess -> ingestToProcess.getErrorMode()
+        ).orElse(
+            DEFAULT_ACCOUNTING_INGEST_ERROR_MODE
         );
     }
     
     /**
-     * Get simple time format
-     * @return                                  {@link SimpleDateFormat}, never 
+     * Get the reject reports base path
+     * @return                                  Reject reports base path under 
+     *                                          {@link #getUploadDestBasePath()}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Path getUploadRejectsBasePath()
+    {
+        return getUploadDestBasePath().resolve(
+            "rejects"
+        );
+    }
+    
+    /**
+     * Get Accounting ingest CSV row decoder
+     * @return                                  {@link RowDecoder}, never 
      *                                          {@code null}
      * @since 1.0.0
      */
     @Nonnull
-    public SimpleDateFormat getSimpleTimeFormat()
+    public RowDecoder getAccountingIngestRowDecoder()
     {
-        return new SimpleDateFormat(
-            Optional.ofNullable(
-                getDataFormatting()
-            ).map(dataFormattingToProcess -> Optional.ofNullable(
-                    dataFormattingToProcess.getTime()
-                ).map(timeFormattingToProcess -> Optional.ofNullable(
-                        timeFormattingToProcess.getSimple()
-                    ).filter(
-                        simpleTimeFormatToProcess -> !simpleTimeFormatToProcess.trim().equals(
-                            ""
-                        )
-                    ).orElse(DEFAULT_SIMPLE_TIME_FORMAT_PATTERN
-                    )
-                ).orElse(DEFAULT_SIMPLE_TIME_FORMAT_PATTERN
-                )
-            ).orElse(DEFAULT_SIMPLE_TIME_FORMAT_PATTERN
-            )
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getIngest()
+        ).map(
+            ingestToProcess -> ingestToProcess.getRowDecoder()
+        ).orElse(
+            DEFAULT_ACCOUNTING_INGEST_ROW_DECODER
         );
     }
     
     /**
-     * Get upload destination base path
-     * @return                                  {@link Path}, never {@code null}
+     * Get Accounting ingest CSV parser parallelism
+     * @return                                  Number of fork-join workers ; 
+     *                                          defaults to the number of 
+     *                                          available processors
      * @since 1.0.0
      */
     @Nonnull
-    public Path getUploadDestBasePath()
+    public Integer getAccountingIngestParserParallelism()
     {
-        return Paths.get(
-            Optional.ofNullable(
-                getDataPath()
-            ).map(
-                dataPathToProcess -> Optional.ofNullable(
-                    dataPathToProcess.getUpload()
-                ).map(
-                    uploadToProcess -> Optional.ofNullable(
-                        uploadToProcess.getDestBasePath()
-                    ).filter(
-                        destBasePathToProcess -> !destBasePathToProcess.trim().equals(
-                            ""
-                        )
-                    ).orElse(
-                        System.getProperty(
-                            "java.io.tmpdir"
-                        )
-                    )
-                ).orElse(
-                    System.getProperty(
-                        "java.io.tmpdir"
-                    )
-                )
-            ).orElse(
-                System.getProperty(
-                    "java.io.tmpdir"
-                )
-            ).replaceAll(
-                "\\\\", 
-                "/"
-            )
+        return Optional.ofNullable(
+            getAccounting()
+        ).map(
+            accountingToProcess -> accountingToProcess.getIngest()
+        ).map(
+            ingestToProcess -> ingestToProcess.getParserParallelism()
+        ).filter(
+            parserParallelismToProcess -> parserParallelismToProcess>0
+        ).orElseGet(
+            () -> Runtime.getRuntime().availableProcessors()
         );
     }
     
     /**
-     * Get Accounting Kafka topic
-     * @return                                  Accounting Kafka endpoint
-     * @throws InternalException                If configuration is missing or 
-     *                                          invalid
+     * Get Accounting ingest CSV parser min range size
+     * @return                                  Min byte range size a file is 
+     *                                          split into for parallel parsing
      * @since 1.0.0
      */
     @Nonnull
-    public String getAccountingKafkaEndpoint()
+    public Long getAccountingIngestParserMinRangeSize()
     {
         return Optional.ofNullable(
             getAccounting()
         ).map(
-            accountingToProcess -> Optional.ofNullable(
-                accountingToProcess.getKafka()
-            ).map(
-                kafkaToProcess -> Optional.ofNullable(
-                    kafkaToProcess.getEndpoint()
-                ).filter(
-                    endpointToProcess -> !endpointToProcess.trim().equals(
-                        ""
-                    )
-                ).orElse(
-                    null
-                )
-            ).orElse(
-                null
-            )
-        ).orElseThrow(
-            () -> new InternalException(
-                "Configuration for property 'app.service.accounting.kafka.endpoint' IS MISSING OR INVALID"
-            )
+            accountingToProcess -> accountingToProcess.getIngest()
+        ).map(
+            ingestToProcess -> ingestToProcess.getParserMinRangeSize()
+        ).filter(
+            parserMinRangeSizeToProcess -> parserMinRangeSizeToProcess>0
+        ).orElse(
+            DEFAULT_ACCOUNTING_INGEST_PARSER_MIN_RANGE_SIZE
         );
     }
     
     /**
-     * Get Accounting Kafka topic
-     * @return                                  Topic name
+     * Accounting configuration
+     * @since 1.0.0
+     */
+    @Accessors(
+        fluent = false,
+        chain = true
+    )
+    @Getter
+    @Setter
+    public static class Accounting
+    {
+        @Nonnull
+        private Kafka kafka;
+        
+        @Nullable
+        private Ingest ingest;
+        
+        /**
+         * Batch job transport
+         * @since 1.0.0
+         */
+        @Nullable
+        private Transport transport;
+        
+        /**
+         * In-process transport ; only for {@link Transport#LOCAL}
+         * @since 1.0.0
+         */
+        @Nullable
+        private Local local;
+        
+        /**
+         * Batch job outbox
+         * @since 1.0.0
+         */
+        @Nullable
+        private Outbox outbox;
+        
+        /**
+         * Thread model and database connection admission
+         * @since 1.0.0
+         */
+        @Nullable
+        private Execution execution;
+        
+        /**
+         * Processed batch registry (consumer deduplication)
+         * @since 1.0.0
+         */
+        @Nullable
+        private ProcessedBatches processedBatches;
+        
+        /**
+         * Account resolution cache (<b>CREATE</b> batch jobs)
+         * @since 1.0.0
+         */
+        @Nullable
+        private AccountCache accountCache;
+    }
+    
+    /**
+     * Account resolution cache configuration
+     * @since 1.0.0
+     */
+    @Accessors(
+        fluent = false,
+        chain = true
+    )
+    @Getter
+    @Setter
+    public static class AccountCache
+    {
+        /**
+         * Keep the resolved accounts in memory
+         * @since 1.0.0
+         */
+        @Nullable
+        private Boolean enabled;
+        
+        /**
+         * Accounts kept in memory
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer capacity;
+        
+        /**
+         * How long (in milliseconds) a found account is reused
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Long ttlMs;
+        
+        /**
+         * How long (in milliseconds) an unknown account is answered without a 
+         * query ; {@code 0} not to cache unknown accounts
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Long negativeTtlMs;
+    }
+    
+    /**
+     * Processed batch registry configuration
+     * @since 1.0.0
+     */
+    @Accessors(
+        fluent = false,
+        chain = true
+    )
+    @Getter
+    @Setter
+    public static class ProcessedBatches
+    {
+        /**
+         * Skip the batch jobs already persisted
+         * @since 1.0.0
+         */
+        @Nullable
+        private Boolean enabled;
+        
+        /**
+         * Batch ids kept in the in-memory front cache
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Integer cacheCapacity;
+        
+        /**
+         * How long (in milliseconds) a processed batch is remembered
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Long retentionMs;
+        
+        /**
+         * Interval (in milliseconds) between the prunes of the expired 
+         * processed batches
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Long pruneIntervalMs;
+    }
+    
+    /**
+     * Execution (thread model) configuration
      * @since 1.0.0
      */
-    @Nonnull
-    public String getAccountingKafkaTopic()
+    @Accessors(
+        fluent = false,
+        chain = true
+    )
+    @Getter
+    @Setter
+    public static class Execution
     {
-        return Optional.ofNullable(
-            getAccounting()
-        ).map(
-            accountingToProcess -> Optional.ofNullable(
-                accountingToProcess.getKafka()
-            ).map(
-                kafkaToProcess -> Optional.ofNullable(
-                    kafkaToProcess.getTopic()
-                ).filter(
-                    topicToProcess -> !topicToProcess.trim().equals(
-                        ""
-                    )
-                ).orElse(
-                    DEFAULT_ACCOUNTING_KAFKA_TOPIC
-                )
-            ).orElse(
-                DEFAULT_ACCOUNTING_KAFKA_TOPIC
-            )
-        ).orElse(
-            DEFAULT_ACCOUNTING_KAFKA_TOPIC
-        );
+        /**
+         * Kafka listener container thread model
+         * @since 1.0.0
+         */
+        @Nullable
+        private ThreadModel listenerThreads;
+        
+        /**
+         * Web (Tomcat) request thread model
+         * @since 1.0.0
+         */
+        @Nullable
+        private ThreadModel webThreads;
+        
+        /**
+         * Database connections handed out at the same time at most with 
+         * {@link ThreadModel#VIRTUAL} listener or web threads ; {@code 0} for 
+         * no admission limit
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Integer dbAdmissionPermits;
+        
+        /**
+         * Max wait for a database connection admission permit (in 
+         * milliseconds)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Long dbAdmissionTimeoutMs;
     }
     
     /**
-     * Get Accounting Kafka consumer group-id
-     * @return                                  Group-Id
+     * Batch job outbox configuration
      * @since 1.0.0
      */
-    @Nonnull
-    public String getAccountingKafkaConsumerGroupId()
+    @Accessors(
+        fluent = false,
+        chain = true
+    )
+    @Getter
+    @Setter
+    public static class Outbox
     {
-        return Optional.ofNullable(
-            getAccounting()
-        ).map(accountingToProcess -> Optional.ofNullable(
-                accountingToProcess.getKafka()
-            ).map(kafkaToProcess -> Optional.ofNullable(
-                    kafkaToProcess.getConsumerGroupId()
-                ).filter(
-                    consumerGroupIdToProcess -> !consumerGroupIdToProcess.trim().equals(
-                        ""
-                    )
-                ).orElse(
-                    DEFAULT_ACCOUNTING_KAFKA_CONSUMER_GROUPID
-                )
-            ).orElse(
-                DEFAULT_ACCOUNTING_KAFKA_CONSUMER_GROUPID
-            )
-        ).orElse(
-            DEFAULT_ACCOUNTING_KAFKA_CONSUMER_GROUPID
-        );
+        /**
+         * Write the criteria update batch jobs to the outbox
+         * @since 1.0.0
+         */
+        @Nullable
+        private Boolean enabled;
+        
+        /**
+         * Max entries claimed per relay round
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer relayBatchSize;
+        
+        /**
+         * Relay poll interval (in milliseconds)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Long relayPollMs;
     }
     
     /**
-     * Get Accounting Kafka transaction job batch size
-     * @return                                  Batch size
+     * In-process ({@link Transport#LOCAL}) batch job transport configuration
      * @since 1.0.0
      */
-    @Nonnull
-    public Integer getAccountingKafkaTransactionJobBatchSize()
+    @Accessors(
+        fluent = false,
+        chain = true
+    )
+    @Getter
+    @Setter
+    public static class Local
     {
-        return Optional.ofNullable(
-            getAccounting()
-        ).map(accountingToProcess -> Optional.ofNullable(
-                accountingToProcess.getKafka()
-            ).map(kafkaToProcess -> Optional.ofNullable(
-                    kafkaToProcess.getTransactionJobBatchSize()
-                ).filter(
-                    transactionJobBatchSizeToProcess -> transactionJobBatchSizeToProcess>0
-                ).orElse(
-                    DEFAULT_ACCOUNTING_KAFKA_JOB_BATCH_SIZE
-                )
-            ).orElse(
-                DEFAULT_ACCOUNTING_KAFKA_JOB_BATCH_SIZE
-            )
-        ).orElse(
-            DEFAULT_ACCOUNTING_KAFKA_JOB_BATCH_SIZE
-        );
+        /**
+         * Ring capacity (in batch jobs)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer ringCapacity;
+        
+        /**
+         * Max batch jobs taken off the ring per consumer round
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer consumerBatch;
+        
+        /**
+         * Durability of the batch jobs handed over
+         * @since 1.0.0
+         */
+        @Nullable
+        private LocalDurability durability;
+        
+        /**
+         * Journal file ; only for {@link LocalDurability#JOURNAL}
+         * @since 1.0.0
+         */
+        @Nullable
+        private String journalPath;
     }
     
     /**
-     * Accounting configuration
+     * Ingest (CSV upload) accounting service configuration
      * @since 1.0.0
      */
     @Accessors(
@@ -374,10 +2975,124 @@ public class DefaultAppService
     )
     @Getter
     @Setter
-    public static class Accounting
+    public static class Ingest
     {
-        @Nonnull
-        private Kafka kafka;
+        /**
+         * How the uploaded CSV is handed to the reader
+         * @since 1.0.0
+         */
+        @Nullable
+        private UploadMode uploadMode;
+        
+        /**
+         * Only for the raw body upload (or {@link UploadMode#STREAMING}) ; tee 
+         * the streamed bytes to disk and keep them when the ingest fails so it can be replayed
+         * @since 1.0.0
+         */
+        @Nullable
+        private Boolean spoolForReplay;
+        
+        /**
+         * CSV parser engine used for staged upload files
+         * @since 1.0.0
+         */
+        @Nullable
+        private ParserEngine parserEngine;
+        
+        /**
+         * CSV row decoder, applies to every parser engine and to streamed 
+         * uploads
+         * @since 1.0.0
+         */
+        @Nullable
+        private RowDecoder rowDecoder;
+        
+        /**
+         * Stage multipart uploads and process them on the ingest executor, 
+         * responding {@code 202} with a job id right away
+         * @since 1.0.0
+         */
+        @Nullable
+        private Boolean asyncUpload;
+        
+        /**
+         * Ingest executor threads (max uploads processed at the same time)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer executorConcurrency;
+        
+        /**
+         * Ingest executor queue capacity ; uploads beyond it are rejected with 
+         * {@code 503}
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Integer executorQueueCapacity;
+        
+        /**
+         * Max jobs kept for the status API (oldest finished jobs are evicted)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer jobRetention;
+        
+        /**
+         * Resumable upload max chunk size (in bytes)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Long chunkMaxSize;
+        
+        /**
+         * Short-circuit exact file re-uploads (SHA-256 of the uploaded bytes) 
+         * and skip rows whose natural key fingerprint is already persisted
+         * @since 1.0.0
+         */
+        @Nullable
+        private Boolean dedup;
+        
+        /**
+         * Bad row handling ; {@link ErrorMode#REJECT} writes them to a 
+         * downloadable reject report instead of aborting the upload
+         * @since 1.0.0
+         */
+        @Nullable
+        private ErrorMode errorMode;
+        
+        /**
+         * Only for {@link ParserEngine#MAPPED_PARALLEL} ; number of fork-join 
+         * workers, {@code 0} to use the number of available processors
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Integer parserParallelism;
+        
+        /**
+         * Only for {@link ParserEngine#MAPPED_PARALLEL} ; min byte range size 
+         * a file is split into
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Long parserMinRangeSize;
     }
     
     /**
@@ -407,10 +3122,359 @@ public class DefaultAppService
         @NotEmpty
         private String consumerGroupId;
         
+        /**
+         * Rows per batch ({@link BatchPolicy#FIXED}) or max rows per batch 
+         * ({@link BatchPolicy#ADAPTIVE}) ; independent of the JDBC batch size 
+         * of the persisting side
+         * @since 1.0.0
+         */
         @Nonnull
         @Min(
             1l
         )
         private Integer transactionJobBatchSize;
+        
+        /**
+         * Wire format of the batch job messages produced
+         * @since 1.0.0
+         */
+        @Nullable
+        private WireFormat wireFormat;
+        
+        /**
+         * Max sends awaiting the broker acknowledgement
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer publishMaxInFlight;
+        
+        /**
+         * Producer retries of a failed send
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Integer publishRetries;
+        
+        /**
+         * Producer back-off before the first retry (in milliseconds)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Long publishRetryBackoffMs;
+        
+        /**
+         * Publish the batches of an upload in Kafka transaction(s)
+         * @since 1.0.0
+         */
+        @Nullable
+        private Boolean publishTransactional;
+        
+        /**
+         * Batches per transaction ; {@code 0} for one transaction per upload
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Integer publishTransactionBatches;
+        
+        /**
+         * Transactional id prefix (unique per service instance)
+         * @since 1.0.0
+         */
+        @Nullable
+        private String publishTransactionalIdPrefix;
+        
+        /**
+         * Policy closing a batch
+         * @since 1.0.0
+         */
+        @Nullable
+        private BatchPolicy batchPolicy;
+        
+        /**
+         * Adaptive batch initial byte budget (serialised bytes)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer batchTargetBytes;
+        
+        /**
+         * Adaptive batch min byte budget (serialised bytes)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer batchMinBytes;
+        
+        /**
+         * Adaptive batch max byte budget (serialised bytes)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer batchMaxBytes;
+        
+        /**
+         * Adaptive batch max linger (in milliseconds) ; {@code 0} to disable
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Long batchMaxLingerMs;
+        
+        /**
+         * Adaptive batch target consumer persist latency (in milliseconds)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Long batchTargetPersistMs;
+        
+        /**
+         * Ingest pipeline serialise stage width (JSON serialisation of the 
+         * batches) ; {@code 0} to use half the available processors
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Integer pipelineSerializers;
+        
+        /**
+         * Ingest pipeline send stage width ({@code KafkaTemplate.send})
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer pipelineSenders;
+        
+        /**
+         * Ingest pipeline stage queue capacity (in batches) ; a full queue 
+         * holds the previous stage back
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer pipelineQueueCapacity;
+        
+        /**
+         * Row field the batch jobs are grouped and keyed by
+         * @since 1.0.0
+         */
+        @Nullable
+        private PartitionKey partitionKey;
+        
+        /**
+         * Listener container consumer threads ; {@code 0} for auto
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Integer listenerConcurrency;
+        
+        /**
+         * Listener mode
+         * @since 1.0.0
+         */
+        @Nullable
+        private ListenerMode listenerMode;
+        
+        /**
+         * Listener offset acknowledgement mode
+         * @since 1.0.0
+         */
+        @Nullable
+        private ListenerAckMode listenerAckMode;
+        
+        /**
+         * Listener max records per poll
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer listenerMaxPollRecords;
+        
+        /**
+         * Batch job message producer tuning
+         * @since 1.0.0
+         */
+        @Nullable
+        private Producer producer;
+        
+        /**
+         * Retry topics and dead-letter topic of the batch jobs failing to 
+         * persist
+         * @since 1.0.0
+         */
+        @Nullable
+        private Retry retry;
+    }
+    
+    /**
+     * Kafka retry topics configuration
+     * @since 1.0.0
+     */
+    @Accessors(
+        fluent = false,
+        chain = true
+    )
+    @Getter
+    @Setter
+    public static class Retry
+    {
+        /**
+         * Send failing batch jobs through the retry topics
+         * @since 1.0.0
+         */
+        @Nullable
+        private Boolean enabled;
+        
+        /**
+         * Retry topics before the dead-letter topic
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Integer tiers;
+        
+        /**
+         * First retry tier delay (in milliseconds)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Long initialDelayMs;
+        
+        /**
+         * Delay multiplier from a tier to the next
+         * @since 1.0.0
+         */
+        @Nullable
+        @DecimalMin(
+            "1.0"
+        )
+        private Double multiplier;
+        
+        /**
+         * Max retry tier delay (in milliseconds) ; keep it well below the 
+         * consumer {@code max.poll.interval.ms}
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Long maxDelayMs;
+    }
+    
+    /**
+     * Kafka batch job message producer tuning ; unset settings fall back to 
+     * the {@link ProducerProfile} ones
+     * @since 1.0.0
+     */
+    @Accessors(
+        fluent = false,
+        chain = true
+    )
+    @Getter
+    @Setter
+    public static class Producer
+    {
+        /**
+         * Named tuning the settings below override
+         * @since 1.0.0
+         */
+        @Nullable
+        private ProducerProfile profile;
+        
+        /**
+         * Compression codec ({@code none}, {@code gzip}, {@code snappy}, 
+         * {@code lz4} or {@code zstd})
+         * @since 1.0.0
+         */
+        @Nullable
+        private String compressionType;
+        
+        /**
+         * Time (in milliseconds) a partition batch waits to fill up
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Long lingerMs;
+        
+        /**
+         * Partition batch size (in bytes)
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Integer batchSize;
+        
+        /**
+         * Memory (in bytes) buffering the records waiting to be sent
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            0l
+        )
+        private Long bufferMemory;
+        
+        /**
+         * Unacknowledged requests per broker connection
+         * @since 1.0.0
+         */
+        @Nullable
+        @Min(
+            1l
+        )
+        private Integer maxInFlightRequestsPerConnection;
+        
+        /**
+         * Exactly once per partition writes on resend ({@code acks=all})
+         * @since 1.0.0
+         */
+        @Nullable
+        private Boolean enableIdempotence;
     }
 }
@@ -25,6 +25,45 @@ public final class AppCodes
      */
     public static final Long ERROR_CODE_UPLOAD_NO_CONTENT = 40002l;
     
+    /**
+     * Error code to indicate the upload is rejected because the ingest 
+     * executor is saturated
+     * @since 1.0.0
+     */
+    public static final Long ERROR_CODE_UPLOAD_REJECTED = 40003l;
+    
+    /**
+     * Error code to indicate the upload job is not found
+     * @since 1.0.0
+     */
+    public static final Long ERROR_CODE_UPLOAD_JOB_NOT_FOUND = 40004l;
+    
+    /**
+     * Error code to indicate the resumable upload session is not found
+     * @since 1.0.0
+     */
+    public static final Long ERROR_CODE_UPLOAD_SESSION_NOT_FOUND = 40005l;
+    
+    /**
+     * Error code to indicate the resumable upload chunk is out of order, too 
+     * large or sent to a completed session
+     * @since 1.0.0
+     */
+    public static final Long ERROR_CODE_UPLOAD_CHUNK_REJECTED = 40006l;
+    
+    /**
+     * Error code to indicate the upload reject report is not found
+     * @since 1.0.0
+     */
+    public static final Long ERROR_CODE_REJECT_REPORT_NOT_FOUND = 40007l;
+    
+    /**
+     * Error code to indicate the dead-letter topic re-drive is unavailable 
+     * (not the Kafka transport or the retry topics are disabled)
+     * @since 1.0.0
+     */
+    public static final Long ERROR_CODE_DEAD_LETTER_REDRIVE_UNAVAILABLE = 40008l;
+    
     /**
      * Error code to indicate the update failure
      * @since 1.0.0
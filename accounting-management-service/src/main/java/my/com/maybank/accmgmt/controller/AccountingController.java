@@ -2,10 +2,12 @@ package my.com.maybank.accmgmt.controller;
 
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.Getter;
@@ -13,12 +15,17 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.impl.CsvRejectReport;
 import my.com.maybank.accmgmt.configuration.DefaultAppService;
 import my.com.maybank.accmgmt.constants.AppCodes;
 import my.com.maybank.accmgmt.models.AccountTransaction;
 import my.com.maybank.accmgmt.models.AccountTransactionCriteria;
 import my.com.maybank.accmgmt.models.AccountTransactions;
+import my.com.maybank.accmgmt.models.IngestJob;
+import my.com.maybank.accmgmt.models.UploadSession;
 import my.com.maybank.accmgmt.service.AccountingService;
+import my.com.maybank.accmgmt.service.UploadSessionService;
+import my.com.maybank.accmgmt.utils.CompressionCodec;
 import my.com.maybank.core.configuration.service.AppService;
 import my.com.maybank.core.constants.DefaultRoles;
 import my.com.maybank.core.controller.BaseSecurityController;
@@ -29,19 +36,29 @@ import my.com.maybank.core.exception.PermissionDeniedException;
 import my.com.maybank.core.models.MessageModel;
 import my.com.maybank.schema.entity.Account;
 import my.com.maybank.schema.entity.Transaction;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * Accounting controller REST APIs
@@ -76,8 +93,28 @@ public class AccountingController
     @Nonnull
     private final AccountingService accountingService;
     
+    /**
+     * Resumable (chunked) upload session service
+     * @since 1.0.0
+     */
+    @NonNull
+    @Nonnull
+    private final UploadSessionService uploadSessionService;
+    
     /**
      * Upload account transactions CSV file
+     * <p>
+     * When {@code app.service.accounting.ingest.async-upload} is enabled 
+     * (default), the file is staged and processed on the bounded ingest 
+     * executor ; the response is {@code 202} with the job status URI in the 
+     * {@code Location} header (see {@link #retrieveUploadJob(org.springframework.security.core.Authentication, java.lang.String)}), 
+     * or {@code 503} when the executor is saturated
+     * </p>
+     * <p>
+     * The multipart body is buffered in full by the servlet container before 
+     * it is read, so no batch is produced while the client is still sending ; 
+     * streaming clients send the raw body instead (see {@link #uploadStreamAccountTransactions(org.springframework.security.core.Authentication, java.lang.String, java.lang.String, java.io.InputStream)})
+     * </p>
      * @param authentication                    Authentication object for API 
      *                                          security
      * @param file                              Account transaction CSV file
@@ -103,6 +140,7 @@ public class AccountingController
                                                                                        final MultipartFile file)
     {
         final AtomicReference<Path> uploadedCsvPath = new AtomicReference<>();
+        final AtomicReference<CsvRejectReport> rejectReport = new AtomicReference<>();
         try
         {
             return Optional.of(
@@ -113,6 +151,33 @@ public class AccountingController
                 fileHasNoContentToProcess -> {
                     try
                     {
+                        // streaming mode ; parse from the (already buffered) 
+                        // multipart part, no copy to the upload destination 
+                        // path (synchronous only, the part does not outlive 
+                        // the request)
+                        if(!((DefaultAppService)getAppService()).isAccountingIngestAsyncUpload() &&
+                            ((DefaultAppService)getAppService()).getAccountingIngestUploadMode()==DefaultAppService.UploadMode.STREAMING)
+                        {
+                            try(InputStream fileInputStream = file.getInputStream())
+                            {
+                                rejectReport.set(
+                                    getAccountingService().openRejectReport(
+                                        UUID.randomUUID().toString()
+                                    )
+                                );
+                                final long batchLinesProcessed = getAccountingService().batchProducerCreateAccountTransactions(
+                                    fileInputStream,
+                                    file.getOriginalFilename(),
+                                    rejectReport.get()
+                                );
+                                return uploadSuccessResponse(
+                                    file.getOriginalFilename(),
+                                    batchLinesProcessed,
+                                    rejectReport.get()
+                                );
+                            }
+                        }
+                        
                         // file I/O processing
                         final Path uploadDestBasePath = ((DefaultAppService)getAppService()).getUploadDestBasePath();
                         final Path uploadTransferPath = uploadDestBasePath.resolve(
@@ -137,25 +202,46 @@ public class AccountingController
                         file.transferTo(
                             uploadedCsvPath.get()
                         );
+                        
+                        // async ; hand the staged file to the ingest executor
+                        if(((DefaultAppService)getAppService()).isAccountingIngestAsyncUpload())
+                        {
+                            final IngestJob ingestJob = getAccountingService().submitCreateAccountTransactions(
+                                uploadedCsvPath.get(),
+                                file.getOriginalFilename()
+                            );
+                            
+                            // the ingest job owns the staged file from now on
+                            uploadedCsvPath.set(
+                                null
+                            );
+                            return uploadAcceptedResponse(
+                                ingestJob
+                            );
+                        }
 
                         // now let us trigger the batch pipeline to a batch process
+                        rejectReport.set(
+                            getAccountingService().openRejectReport(
+                                UUID.randomUUID().toString()
+                            )
+                        );
                         final long batchLinesProcessed = getAccountingService().batchProducerCreateAccountTransactions(
-                            uploadedCsvPath.get()
+                            uploadedCsvPath.get(),
+                            rejectReport.get()
                         );
 
                         // all good, response back some kind of basic message
-                        return ResponseEntity.status(
-                            HttpStatus.OK
-                        ).body(
-                            MessageModel.infoMessage(
-                                String.format(
-                                    "File '%s' upload SUCCESS ; total no. of %d batch record(s)",
-                                    file.getOriginalFilename(),
-                                    batchLinesProcessed
-                                )
-                            )
+                        return uploadSuccessResponse(
+                            file.getOriginalFilename(),
+                            batchLinesProcessed,
+                            rejectReport.get()
                         );
                     }
+                    catch(InternalException e)
+                    {
+                        throw e;
+                    }
                     catch(Exception e)
                     {
                         throw new InternalException(
@@ -163,7 +249,8 @@ public class AccountingController
                                 "File '%s' upload FAILED ; %s",
                                 file.getOriginalFilename(),
                                 e.getMessage()
-                            )
+                            ),
+                            e
                         ).setCode(
                             AppCodes.ERROR_CODE_UPLOAD_FAILURE
                         );
@@ -190,7 +277,8 @@ public class AccountingController
                 String.format(
                     "Upload transaction create FAILED ; %s",
                     e.getMessage()
-                )
+                ),
+                e
             ).setCode(
                 AppCodes.ERROR_CODE_UPLOAD_FAILURE
             );
@@ -203,9 +291,437 @@ public class AccountingController
             ).ifPresent(
                 uploadedCsvPathToProcess -> uploadedCsvPathToProcess.toFile().delete()
             );
+            Optional.ofNullable(
+                rejectReport.get()
+            ).ifPresent(
+                CsvRejectReport::close
+            );
         }
     }
     
+    /**
+     * Upload account transactions CSV as the raw request body
+     * <p>
+     * The body is parsed as the bytes arrive and batches are produced while 
+     * the client is still sending ; nothing is staged to disk (unless 
+     * {@code app.service.accounting.ingest.spool-for-replay} is enabled). 
+     * Example : {@code curl -T dataSource.txt -H 'Content-Type: text/csv' 
+     * 'http://localhost:18082/api/v1/accounting/upload?fileName=dataSource.txt'}
+     * ; a {@code gzip}/{@code zstd} body is decoded as it is parsed (i.e. 
+     * {@code curl -T dataSource.txt.gz -H 'Content-Encoding: gzip' ...})
+     * </p>
+     * @param authentication                    Authentication object for API 
+     *                                          security
+     * @param fileName                          Optional uploaded file name 
+     *                                          (for logging/messages)
+     * @param contentEncoding                   Optional {@code gzip} or 
+     *                                          {@code zstd} body encoding 
+     *                                          (otherwise resolved from the 
+     *                                          {@code .gz}/{@code .zst} file 
+     *                                          name extension)
+     * @param csvInputStream                    Request body stream
+     * @return                                  {@link ResponseEntity} with  
+     *                                          basic message model
+     * @since 1.0.0
+     */
+    @Nonnull
+    @PreAuthorize(
+        "hasRole('" + DefaultRoles.ROLE_ADMIN + "')"
+    )
+    @PostMapping(
+        path = "/v1/accounting/upload",
+        consumes = {
+            "text/csv",
+            MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE
+        }
+    )
+    @ResponseBody
+    public ResponseEntity<MessageModel.MessageModelResponse> uploadStreamAccountTransactions(@Nullable
+                                                                                             final Authentication authentication,
+                                                                                             @Nullable
+                                                                                             @RequestParam(
+                                                                                                 name = "fileName",
+                                                                                                 required = false
+                                                                                             )
+                                                                                             final String fileName,
+                                                                                             @Nullable
+                                                                                             @RequestHeader(
+                                                                                                 name = HttpHeaders.CONTENT_ENCODING,
+                                                                                                 required = false
+                                                                                             )
+                                                                                             final String contentEncoding,
+                                                                                             @Nonnull
+                                                                                             final InputStream csvInputStream)
+    {
+        final String uploadFileName = Optional.ofNullable(
+            fileName
+        ).filter(
+            fileNameToProcess -> !fileNameToProcess.trim().equals(
+                ""
+            )
+        ).orElse(
+            "upload.csv"
+        );
+        
+        // the source name carries the compression extension so the reader 
+        // (and the replay spool) decode it
+        final String csvSourceName = CompressionCodec.resolve(
+            contentEncoding,
+            uploadFileName
+        ).encodedFileName(
+            uploadFileName
+        );
+        try(CsvRejectReport rejectReport = getAccountingService().openRejectReport(
+            UUID.randomUUID().toString()
+        ))
+        {
+            return uploadSuccessResponse(
+                csvSourceName,
+                getAccountingService().batchProducerCreateAccountTransactions(
+                    csvInputStream,
+                    csvSourceName,
+                    rejectReport
+                ),
+                rejectReport
+            );
+        }
+        catch(InternalException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            throw new InternalException(
+                String.format(
+                    "File '%s' upload FAILED ; %s",
+                    csvSourceName,
+                    e.getMessage()
+                ),
+                e
+            ).setCode(
+                AppCodes.ERROR_CODE_UPLOAD_FAILURE
+            );
+        }
+    }
+    
+    /**
+     * Retrieve the upload (ingest) job status and progress
+     * @param authentication                    Authentication object for API 
+     *                                          security
+     * @param jobId                             Job id returned by the upload
+     * @return                                  {@link IngestJob}
+     * @since 1.0.0
+     */
+    @Nonnull
+    @PreAuthorize(
+        "hasRole('" + DefaultRoles.ROLE_ADMIN + "')"
+    )
+    @GetMapping(
+        path = "/v1/accounting/jobs/{jobId}"
+    )
+    @ResponseBody
+    public IngestJob retrieveUploadJob(@Nullable
+                                       final Authentication authentication,
+                                       @Nonnull
+                                       @PathVariable(
+                                           "jobId"
+                                       )
+                                       final String jobId)
+    {
+        return getAccountingService().findIngestJob(
+            jobId
+        );
+    }
+    
+    /**
+     * Download the reject report of an upload ; one CSV record 
+     * ({@code LINE_NUMBER,REASON,ROW}) per row rejected when 
+     * {@code app.service.accounting.ingest.error-mode} is {@code REJECT}
+     * @param authentication                    Authentication object for API 
+     *                                          security
+     * @param reportId                          Reject report id returned by 
+     *                                          the upload (the job id for an 
+     *                                          asynchronous upload)
+     * @return                                  {@link ResponseEntity} with the 
+     *                                          report CSV as attachment
+     * @since 1.0.0
+     */
+    @Nonnull
+    @PreAuthorize(
+        "hasRole('" + DefaultRoles.ROLE_ADMIN + "')"
+    )
+    @GetMapping(
+        path = "/v1/accounting/rejects/{reportId}",
+        produces = "text/csv"
+    )
+    @ResponseBody
+    public ResponseEntity<Resource> retrieveRejectReport(@Nullable
+                                                         final Authentication authentication,
+                                                         @Nonnull
+                                                         @PathVariable(
+                                                             "reportId"
+                                                         )
+                                                         final String reportId)
+    {
+        final Path rejectReportPath = getAccountingService().findRejectReport(
+            reportId
+        );
+        return ResponseEntity.status(
+            HttpStatus.OK
+        ).header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(
+                rejectReportPath.getFileName().toString()
+            ).build().toString()
+        ).contentType(
+            MediaType.parseMediaType(
+                "text/csv"
+            )
+        ).body(
+            new FileSystemResource(
+                rejectReportPath
+            )
+        );
+    }
+    
+    /**
+     * Open a resumable (chunked) upload session
+     * <p>
+     * The response is {@code 201} with the session URI in the 
+     * {@code Location} header ; send the file in order with 
+     * {@link #uploadChunk(org.springframework.security.core.Authentication, java.lang.String, int, java.io.InputStream)} 
+     * then {@link #completeUploadSession(org.springframework.security.core.Authentication, java.lang.String)}. 
+     * After a lost connection, {@link #retrieveUploadSession(org.springframework.security.core.Authentication, java.lang.String)} 
+     * tells the next chunk to send
+     * </p>
+     * @param authentication                    Authentication object for API 
+     *                                          security
+     * @param fileName                          Uploaded file name
+     * @return                                  {@link UploadSession}
+     * @since 1.0.0
+     */
+    @Nonnull
+    @PreAuthorize(
+        "hasRole('" + DefaultRoles.ROLE_ADMIN + "')"
+    )
+    @PostMapping(
+        path = "/v1/accounting/uploads"
+    )
+    @ResponseBody
+    public ResponseEntity<UploadSession> createUploadSession(@Nullable
+                                                             final Authentication authentication,
+                                                             @Nonnull
+                                                             @RequestParam(
+                                                                 "fileName"
+                                                             )
+                                                             final String fileName)
+    {
+        final UploadSession uploadSession = getUploadSessionService().createSession(
+            fileName
+        );
+        return ResponseEntity.created(
+            ServletUriComponentsBuilder.fromCurrentContextPath().path(
+                "/api/v1/accounting/uploads/{sessionId}"
+            ).buildAndExpand(
+                uploadSession.getSessionId()
+            ).toUri()
+        ).body(
+            uploadSession
+        );
+    }
+    
+    /**
+     * Upload the next chunk of a resumable upload session
+     * <p>
+     * Re-sending an already committed chunk is acknowledged without being 
+     * processed again ; skipping ahead is rejected
+     * </p>
+     * @param authentication                    Authentication object for API 
+     *                                          security
+     * @param sessionId                         Upload session id
+     * @param chunkNumber                       Chunk number, from {@code 0}
+     * @param chunkInputStream                  Request body stream (chunk 
+     *                                          bytes)
+     * @return                                  {@link UploadSession} 
+     *                                          checkpoint after the chunk
+     * @since 1.0.0
+     */
+    @Nonnull
+    @PreAuthorize(
+        "hasRole('" + DefaultRoles.ROLE_ADMIN + "')"
+    )
+    @PutMapping(
+        path = "/v1/accounting/uploads/{sessionId}/chunks/{chunkNumber}",
+        consumes = {
+            "text/csv",
+            MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE
+        }
+    )
+    @ResponseBody
+    public UploadSession uploadChunk(@Nullable
+                                     final Authentication authentication,
+                                     @Nonnull
+                                     @PathVariable(
+                                         "sessionId"
+                                     )
+                                     final String sessionId,
+                                     @PathVariable(
+                                         "chunkNumber"
+                                     )
+                                     final int chunkNumber,
+                                     @Nonnull
+                                     final InputStream chunkInputStream)
+    {
+        return getUploadSessionService().uploadChunk(
+            sessionId,
+            chunkNumber,
+            chunkInputStream
+        );
+    }
+    
+    /**
+     * Retrieve a resumable upload session checkpoint
+     * @param authentication                    Authentication object for API 
+     *                                          security
+     * @param sessionId                         Upload session id
+     * @return                                  {@link UploadSession}
+     * @since 1.0.0
+     */
+    @Nonnull
+    @PreAuthorize(
+        "hasRole('" + DefaultRoles.ROLE_ADMIN + "')"
+    )
+    @GetMapping(
+        path = "/v1/accounting/uploads/{sessionId}"
+    )
+    @ResponseBody
+    public UploadSession retrieveUploadSession(@Nullable
+                                               final Authentication authentication,
+                                               @Nonnull
+                                               @PathVariable(
+                                                   "sessionId"
+                                               )
+                                               final String sessionId)
+    {
+        return getUploadSessionService().findSession(
+            sessionId
+        );
+    }
+    
+    /**
+     * Complete a resumable upload session ; the trailing line (if not 
+     * terminated) is processed and the session ingest job is marked produced
+     * @param authentication                    Authentication object for API 
+     *                                          security
+     * @param sessionId                         Upload session id
+     * @return                                  {@link UploadSession}
+     * @since 1.0.0
+     */
+    @Nonnull
+    @PreAuthorize(
+        "hasRole('" + DefaultRoles.ROLE_ADMIN + "')"
+    )
+    @PostMapping(
+        path = "/v1/accounting/uploads/{sessionId}/complete"
+    )
+    @ResponseBody
+    public UploadSession completeUploadSession(@Nullable
+                                               final Authentication authentication,
+                                               @Nonnull
+                                               @PathVariable(
+                                                   "sessionId"
+                                               )
+                                               final String sessionId)
+    {
+        return getUploadSessionService().completeSession(
+            sessionId
+        );
+    }
+    
+    /**
+     * Abandon a resumable upload session ; the session data is deleted and 
+     * its ingest job is marked failed. Rows of the chunks already committed 
+     * are kept
+     * @param authentication                    Authentication object for API 
+     *                                          security
+     * @param sessionId                         Upload session id
+     * @return                                  {@link UploadSession}
+     * @since 1.0.0
+     */
+    @Nonnull
+    @PreAuthorize(
+        "hasRole('" + DefaultRoles.ROLE_ADMIN + "')"
+    )
+    @DeleteMapping(
+        path = "/v1/accounting/uploads/{sessionId}"
+    )
+    @ResponseBody
+    public UploadSession abandonUploadSession(@Nullable
+                                              final Authentication authentication,
+                                              @Nonnull
+                                              @PathVariable(
+                                                  "sessionId"
+                                              )
+                                              final String sessionId)
+    {
+        return getUploadSessionService().abandonSession(
+            sessionId
+        );
+    }
+    
+    /**
+     * Re-drive the dead-lettered batch jobs in bulk ; sent back to the batch 
+     * job topic (oldest first) once the cause of their failure is fixed. Call 
+     * again until none are left
+     * @param authentication                    Authentication object for API 
+     *                                          security
+     * @param max                               Max batch jobs to re-drive
+     * @return                                  {@link ResponseEntity} with  
+     *                                          basic message model
+     * @since 1.0.0
+     */
+    @Nonnull
+    @PreAuthorize(
+        "hasRole('" + DefaultRoles.ROLE_ADMIN + "')"
+    )
+    @PostMapping(
+        path = "/v1/accounting/dead-letters/redrive"
+    )
+    @ResponseBody
+    public ResponseEntity<MessageModel.MessageModelResponse> redriveDeadLetters(@Nullable
+                                                                                final Authentication authentication,
+                                                                                @RequestParam(
+                                                                                    name = "max",
+                                                                                    defaultValue = "1000"
+                                                                                )
+                                                                                final int max)
+    {
+        if(max<1)
+        {
+            throw new BadParameterException(
+                String.format(
+                    "Dead-letter re-drive max (%d) INVALID ; must be at least 1",
+                    max
+                )
+            );
+        }
+        final long redrivenBatchJobs = getAccountingService().redriveDeadLetterBatchJobs(
+            max
+        );
+        return ResponseEntity.status(
+            HttpStatus.OK
+        ).body(
+            MessageModel.infoMessage(
+                String.format(
+                    "Dead-letter re-drive SUCCESS ; total no. of %d batch job(s) sent back",
+                    redrivenBatchJobs
+                )
+            )
+        );
+    }
+    
     /**
      * API to update the user accounting transactions
      * @param authentication                    Authentication object for API 
@@ -446,4 +962,103 @@ public class AccountingController
             }
         );
     }
+    
+    /**
+     * Build the upload accepted response
+     * @param ingestJob                         Submitted ingest job
+     * @return                                  {@link ResponseEntity} {@code 202} 
+     *                                          with the job status URI as 
+     *                                          {@code Location} and basic 
+     *                                          message model
+     * @since 1.0.0
+     */
+    @Nonnull
+    private ResponseEntity<MessageModel.MessageModelResponse> uploadAcceptedResponse(@Nonnull
+                                                                                     final IngestJob ingestJob)
+    {
+        return ResponseEntity.status(
+            HttpStatus.ACCEPTED
+        ).location(
+            ServletUriComponentsBuilder.fromCurrentContextPath().path(
+                "/api/v1/accounting/jobs/{jobId}"
+            ).buildAndExpand(
+                ingestJob.getJobId()
+            ).toUri()
+        ).body(
+            MessageModel.infoMessage(
+                String.format(
+                    "File '%s' upload ACCEPTED ; job '%s'",
+                    ingestJob.getFileName(),
+                    ingestJob.getJobId()
+                )
+            )
+        );
+    }
+    
+    /**
+     * Build the upload success response
+     * @param fileName                          Uploaded file name
+     * @param batchLinesProcessed               Number of CSV lines sent to the 
+     *                                          batch process
+     * @param rejectReport                      Reject report (may be 
+     *                                          {@code null}) ; the reject 
+     *                                          count, rate and report URI are 
+     *                                          added to the message
+     * @return                                  {@link ResponseEntity} with  
+     *                                          basic message model
+     * @since 1.0.0
+     */
+    @Nonnull
+    private ResponseEntity<MessageModel.MessageModelResponse> uploadSuccessResponse(@Nullable
+                                                                                    final String fileName,
+                                                                                    final long batchLinesProcessed,
+                                                                                    @Nullable
+                                                                                    final CsvRejectReport rejectReport)
+    {
+        // all good, response back some kind of basic message
+        final MessageModel.MessageModelResponse messageModelResponse = MessageModel.infoMessage(
+            String.format(
+                "File '%s' upload SUCCESS ; total no. of %d batch record(s)",
+                fileName,
+                batchLinesProcessed
+            )
+        );
+        Optional.ofNullable(
+            rejectReport
+        ).ifPresent(
+            rejectReportToProcess -> {
+                messageModelResponse.put(
+                    "rowsRejected",
+                    rejectReportToProcess.getRowsRejected()
+                );
+                Optional.ofNullable(
+                    IngestJob.rejectRate(
+                        batchLinesProcessed,
+                        rejectReportToProcess.getRowsRejected()
+                    )
+                ).ifPresent(
+                    rejectRateToProcess -> messageModelResponse.put(
+                        "rejectRate",
+                        rejectRateToProcess
+                    )
+                );
+                if(rejectReportToProcess.getRowsRejected()>0)
+                {
+                    messageModelResponse.put(
+                        "rejectReport",
+                        ServletUriComponentsBuilder.fromCurrentContextPath().path(
+                            "/api/v1/accounting/rejects/{reportId}"
+                        ).buildAndExpand(
+                            rejectReportToProcess.getReportId()
+                        ).toUriString()
+                    );
+                }
+            }
+        );
+        return ResponseEntity.status(
+            HttpStatus.OK
+        ).body(
+            messageModelResponse
+        );
+    }
 }
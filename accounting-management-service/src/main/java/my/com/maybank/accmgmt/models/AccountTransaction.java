@@ -97,4 +97,13 @@ public class AccountTransaction
         1
     )
     private Long customerId;
+    
+    /**
+     * Line number of the row within its uploaded source (header is line 
+     * {@code 1}), to report the row back ; {@code null} if not read from a 
+     * CSV
+     * @since 1.0.0
+     */
+    @Nullable
+    private Long lineNumber;
 }
@@ -1,7 +1,9 @@
 package my.com.maybank.accmgmt.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import java.io.Serializable;
@@ -48,7 +50,16 @@ public class AccountTransactionsBatchJob
          * Update
          * @since 1.0.0
          */
-        UPDATE
+        UPDATE,
+        
+        /**
+         * Commit marker closing the transactional publication of an upload 
+         * ({@link #getJobId()}) ; carries no rows, {@link #getBatchSize()} 
+         * holds the number of batches of the upload
+         * @since 1.0.0
+         * @see my.com.maybank.accmgmt.configuration.DefaultAppService#getAccountingKafkaPublishTransactional()
+         */
+        COMMIT
     }
     
     @Nonnull
@@ -56,6 +67,14 @@ public class AccountTransactionsBatchJob
     @NotEmpty
     private String batchId;
     
+    /**
+     * Upload job this batch belongs to (if any)
+     * @since 1.0.0
+     * @see IngestJob#getJobId()
+     */
+    @Nullable
+    private String jobId;
+    
     /**
      * Record the max batch-size ; this is not the size of 
      * {@code batchAccountTransaction}
@@ -78,4 +97,24 @@ public class AccountTransactionsBatchJob
      */
     @Nonnull
     private List<AccountTransaction> batchAccountTransaction;
+    
+    /**
+     * Kafka record key of this batch job (every row shares it) ; carried by 
+     * the record, not the payload
+     * @since 1.0.0
+     * @see my.com.maybank.accmgmt.configuration.DefaultAppService#getAccountingKafkaPartitionKey()
+     */
+    @JsonIgnore
+    @Nullable
+    private String partitionKey;
+    
+    /**
+     * Ids of the batch jobs merged into this one by the consumer (each 
+     * persisted once) ; consumer side only, never sent
+     * @since 1.0.0
+     * @see my.com.maybank.accmgmt.component.impl.AccountTransactionsBatchMessageKafkaBatchConsumer
+     */
+    @JsonIgnore
+    @Nullable
+    private List<String> mergedBatchIds;
 }
@@ -74,6 +74,43 @@ public enum AccountTransactionsCsvFields
     
     ;
     
+    /**
+     * Column mappings, built once ; {@link #values()} returns a new array on 
+     * every call and the mappings are read per CSV row
+     * @since 1.0.0
+     */
+    private static final String[] COLUMN_MAPPINGS = Stream.of(
+        values()
+    ).map(
+        AccountTransactionsCsvFields::getColName
+    ).toArray(
+        String[]::new
+    );
+    
+    /**
+     * Java field mappings, built once
+     * @since 1.0.0
+     */
+    private static final String[] FIELD_MAPPINGS = Stream.of(
+        values()
+    ).map(
+        AccountTransactionsCsvFields::getFieldName
+    ).toArray(
+        String[]::new
+    );
+    
+    /**
+     * Cell processors, built once (the processors are stateless)
+     * @since 1.0.0
+     */
+    private static final CellProcessor[] CELL_PROCESSORS = Stream.of(
+        values()
+    ).map(
+        AccountTransactionsCsvFields::getColCellProcessor
+    ).toArray(
+        CellProcessor[]::new
+    );
+    
     /**
      * CSV column name of the formatted account transactions file
      * @since 1.0.0
@@ -106,7 +143,7 @@ public enum AccountTransactionsCsvFields
      * Get the column mappings (in the order of the enum)
      * <p>
      * It is expected that the CSV file format is complied to the order of this 
-     * enum
+     * enum. The returned array is shared and must not be modified
      * </p>
      * @return                                  Column mappings
      * @since 1.0.0
@@ -114,13 +151,7 @@ public enum AccountTransactionsCsvFields
     @Nonnull
     public static String[] getColumnMappings()
     {
-        return Stream.of(
-            values()
-        ).map(
-            AccountTransactionsCsvFields::getColName
-        ).toArray(
-            String[]::new
-        );
+        return COLUMN_MAPPINGS;
     }
     
     /**
@@ -128,7 +159,7 @@ public enum AccountTransactionsCsvFields
      * field mappings (in the order of the enum)
      * <p>
      * It is expected that the CSV file format is complied to the order of this 
-     * enum
+     * enum. The returned array is shared and must not be modified
      * </p>
      * @return                                  Java field mappings
      * @since 1.0.0
@@ -136,20 +167,14 @@ public enum AccountTransactionsCsvFields
     @Nonnull
     public static String[] getFieldMappings()
     {
-        return Stream.of(
-            values()
-        ).map(
-            AccountTransactionsCsvFields::getFieldName
-        ).toArray(
-            String[]::new
-        );
+        return FIELD_MAPPINGS;
     }
 
     /**
      * Get the cell processors (in the order of the enum)
      * <p>
      * It is expected that the CSV file format is complied to the order of this 
-     * enum
+     * enum. The returned array is shared and must not be modified
      * </p>
      * @return                                  Column processors
      * @since 1.0.0
@@ -157,12 +182,6 @@ public enum AccountTransactionsCsvFields
     @Nonnull
     public static CellProcessor[] getCellProcessors()
     {
-        return Stream.of(
-            values()
-        ).map(
-            AccountTransactionsCsvFields::getColCellProcessor
-        ).toArray(
-            CellProcessor[]::new
-        );
+        return CELL_PROCESSORS;
     }
 }
@@ -0,0 +1,543 @@
+package my.com.maybank.accmgmt.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Account transactions upload (ingest) job progress
+ * <p>
+ * Counters are updated by the producing side (rows parsed, batches produced)
+ * and by the consuming side (batches persisted/failed) ; the job is
+ * {@link Status#COMPLETED} (or {@link Status#FAILED}) once every produced
+ * batch has been consumed
+ * </p>
+ * @since 1.0.0
+ * @see my.com.maybank.accmgmt.component.impl.AccountTransactionsIngestJobRegistry
+ * @author ChristopherCKW
+ */
+@JsonInclude(
+    JsonInclude.Include.NON_NULL
+)
+@ToString(
+    doNotUseGetters = true
+)
+@Getter
+@RequiredArgsConstructor
+public class IngestJob
+       implements Serializable
+{
+    /**
+     * Job status
+     * @since 1.0.0
+     */
+    public enum Status
+    {
+        /**
+         * Accepted, waiting for an ingest executor thread
+         * @since 1.0.0
+         */
+        QUEUED,
+
+        /**
+         * Reading the CSV and producing batches
+         * @since 1.0.0
+         */
+        RUNNING,
+
+        /**
+         * Every batch produced, waiting for the consumer to persist them
+         * @since 1.0.0
+         */
+        PRODUCED,
+
+        /**
+         * Every produced batch persisted
+         * @since 1.0.0
+         */
+        COMPLETED,
+
+        /**
+         * Reading/producing failed or at least one batch failed to persist
+         * @since 1.0.0
+         */
+        FAILED
+    }
+
+    @NonNull
+    @Nonnull
+    private final String jobId;
+
+    /**
+     * Uploaded file name
+     * @since 1.0.0
+     */
+    @NonNull
+    @Nonnull
+    private final String fileName;
+
+    @Nonnull
+    private volatile Status status = Status.QUEUED;
+
+    @Nonnull
+    private final Date submittedAt = new Date();
+
+    @Nullable
+    private volatile Date startedAt;
+
+    @Nullable
+    private volatile Date producedAt;
+
+    @Nullable
+    private volatile Date completedAt;
+
+    /**
+     * First failure message (if any)
+     * @since 1.0.0
+     */
+    @Nullable
+    private volatile String failure;
+    
+    /**
+     * {@code true} if the upload was an exact re-upload of an already 
+     * ingested file ; nothing was produced, or for a resumable upload (known 
+     * once read) its rows already persisted were skipped by the consumer
+     * @since 1.0.0
+     */
+    @Nullable
+    private volatile Boolean duplicate;
+    
+    /**
+     * Reject report id, set once a row was rejected (see 
+     * {@code app.service.accounting.ingest.error-mode})
+     * @since 1.0.0
+     */
+    @Nullable
+    private volatile String rejectReportId;
+    
+    /**
+     * Rows skipped by the consumer as their account could not be resolved, 
+     * one line and reason each
+     * @since 1.0.0
+     */
+    @Getter(
+        AccessLevel.NONE
+    )
+    @ToString.Exclude
+    private final List<String> unresolvedRows = new ArrayList<>();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final AtomicLong rowsParsed = new AtomicLong();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final AtomicLong rowsRejected = new AtomicLong();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final AtomicLong batchesProduced = new AtomicLong();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final AtomicLong rowsPersisted = new AtomicLong();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final AtomicLong rowsUnresolved = new AtomicLong();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final AtomicLong batchesPersisted = new AtomicLong();
+
+    @Getter(
+        AccessLevel.NONE
+    )
+    private final AtomicLong batchesFailed = new AtomicLong();
+
+    /**
+     * Failure message of the batches counted as failed, by batch id ; one 
+     * persisted later (re-driven from the dead-letter topic) is no longer 
+     * counted as failed
+     * @since 1.0.0
+     */
+    @Getter(
+        AccessLevel.NONE
+    )
+    @ToString.Exclude
+    private final Map<String, String> batchFailures = new LinkedHashMap<>();
+
+    @JsonProperty
+    public long getRowsParsed()
+    {
+        return rowsParsed.get();
+    }
+
+    @JsonProperty
+    public long getRowsRejected()
+    {
+        return rowsRejected.get();
+    }
+
+    /**
+     * Rejected rows over the rows read (parsed and rejected)
+     * @return                                  Reject rate between {@code 0}
+     *                                          and {@code 1}, {@code null} if
+     *                                          no row was read yet
+     * @since 1.0.0
+     */
+    @Nullable
+    @JsonProperty
+    public Double getRejectRate()
+    {
+        return rejectRate(
+            getRowsParsed(),
+            getRowsRejected()
+        );
+    }
+
+    @JsonProperty
+    public long getBatchesProduced()
+    {
+        return batchesProduced.get();
+    }
+
+    @JsonProperty
+    public long getRowsPersisted()
+    {
+        return rowsPersisted.get();
+    }
+
+    @JsonProperty
+    public long getRowsUnresolved()
+    {
+        return rowsUnresolved.get();
+    }
+
+    @JsonProperty
+    public long getBatchesPersisted()
+    {
+        return batchesPersisted.get();
+    }
+
+    @JsonProperty
+    public long getBatchesFailed()
+    {
+        return batchesFailed.get();
+    }
+
+    /**
+     * @return                                  Rows skipped by the consumer 
+     *                                          as their account could not be 
+     *                                          resolved, one line and reason 
+     *                                          each
+     * @since 1.0.0
+     */
+    @Nonnull
+    @JsonProperty
+    public synchronized List<String> getUnresolvedRows()
+    {
+        return new ArrayList<>(
+            unresolvedRows
+        );
+    }
+
+    /**
+     * @return                                  Failure message of every batch 
+     *                                          counted as failed
+     * @since 1.0.0
+     */
+    @Nonnull
+    @JsonProperty
+    public synchronized List<String> getBatchFailures()
+    {
+        return new ArrayList<>(
+            batchFailures.values()
+        );
+    }
+
+    /**
+     * Rows parsed per second, from start until every batch is produced (or
+     * now while running)
+     * @return                                  Throughput, {@code null} if not
+     *                                          started
+     * @since 1.0.0
+     */
+    @Nullable
+    @JsonProperty
+    public Double getRowsParsedPerSecond()
+    {
+        return throughput(
+            getRowsParsed(),
+            producedAt
+        );
+    }
+
+    /**
+     * Rows persisted per second, from start until every batch is consumed (or
+     * now while in progress)
+     * @return                                  Throughput, {@code null} if not
+     *                                          started
+     * @since 1.0.0
+     */
+    @Nullable
+    @JsonProperty
+    public Double getRowsPersistedPerSecond()
+    {
+        return throughput(
+            getRowsPersisted(),
+            completedAt
+        );
+    }
+
+    /**
+     * @return                                  {@code true} if the job reached
+     *                                          a final status
+     * @since 1.0.0
+     */
+    @JsonIgnore
+    public boolean isFinished()
+    {
+        return status==Status.COMPLETED || status==Status.FAILED;
+    }
+
+    /**
+     * Mark the job as started
+     * @since 1.0.0
+     */
+    public synchronized void started()
+    {
+        startedAt = new Date();
+        status = Status.RUNNING;
+    }
+
+    /**
+     * Record a batch acknowledged by Kafka
+     * @param batchRows                         Number of rows in the batch
+     * @since 1.0.0
+     */
+    public void batchProduced(final long batchRows)
+    {
+        rowsParsed.addAndGet(
+            batchRows
+        );
+        batchesProduced.incrementAndGet();
+    }
+
+    /**
+     * Record rows written to the reject report instead of being produced
+     * @param rejectedRows                      Number of rows rejected
+     * @param rejectReportId                    Reject report id
+     * @since 1.0.0
+     */
+    public void rowsRejected(final long rejectedRows,
+                             @Nonnull
+                             final String rejectReportId)
+    {
+        if(rejectedRows>0)
+        {
+            rowsRejected.addAndGet(
+                rejectedRows
+            );
+            this.rejectReportId = rejectReportId;
+        }
+    }
+
+    /**
+     * Mark the job as fully produced
+     * @since 1.0.0
+     */
+    public synchronized void produced()
+    {
+        producedAt = new Date();
+        status = Status.PRODUCED;
+        completeIfConsumed();
+    }
+
+    /**
+     * Record a batch persisted by the consumer ; a batch that failed earlier 
+     * (re-driven) moves from failed to persisted
+     * @param batchId                           Batch id
+     * @param batchRows                         Number of rows persisted
+     * @since 1.0.0
+     */
+    public synchronized void batchPersisted(@Nonnull
+                                            final String batchId,
+                                            final long batchRows)
+    {
+        rowsPersisted.addAndGet(
+            batchRows
+        );
+        batchesPersisted.incrementAndGet();
+        if(batchFailures.containsKey(
+            batchId
+        ))
+        {
+            batchFailures.remove(
+                batchId
+            );
+            batchesFailed.decrementAndGet();
+            if(batchFailures.isEmpty() &&
+                status==Status.FAILED &&
+                Objects.nonNull(producedAt))
+            {
+                // failed by its batches only ; completed again below
+                failure = null;
+                completedAt = null;
+                status = Status.PRODUCED;
+            }
+        }
+        completeIfConsumed();
+    }
+
+    /**
+     * Record rows the consumer skipped as their account could not be resolved 
+     * (unknown, owned by another customer or without a customer) ; the other 
+     * rows of their batch are persisted
+     * @param reasons                           Line and reason of every row 
+     *                                          skipped
+     * @since 1.0.0
+     */
+    public synchronized void rowsUnresolved(@Nonnull
+                                            final List<String> reasons)
+    {
+        rowsUnresolved.addAndGet(
+            reasons.size()
+        );
+        unresolvedRows.addAll(
+            reasons
+        );
+    }
+
+    /**
+     * Record a batch the consumer failed to persist ; counted once
+     * @param batchId                           Batch id
+     * @param failureMessage                    Failure message
+     * @since 1.0.0
+     */
+    public synchronized void batchFailed(@Nonnull
+                                         final String batchId,
+                                         @Nullable
+                                         final String failureMessage)
+    {
+        if(batchFailures.containsKey(
+            batchId
+        ))
+        {
+            return;
+        }
+        batchFailures.put(
+            batchId,
+            failureMessage
+        );
+        batchesFailed.incrementAndGet();
+        if(Objects.isNull(failure))
+        {
+            failure = failureMessage;
+        }
+        completeIfConsumed();
+    }
+
+    /**
+     * Mark the job as completed without producing anything ; the file was 
+     * already ingested
+     * @since 1.0.0
+     */
+    public synchronized void duplicate()
+    {
+        duplicate = Boolean.TRUE;
+        producedAt = new Date();
+        completedAt = producedAt;
+        status = Status.COMPLETED;
+    }
+    
+    /**
+     * Flag the job as an exact re-upload found once read ; its batches are 
+     * still consumed
+     * @since 1.0.0
+     */
+    public void duplicateRead()
+    {
+        duplicate = Boolean.TRUE;
+    }
+    
+    /**
+     * Mark the job as failed (reading/producing failure)
+     * @param failureMessage                    Failure message
+     * @since 1.0.0
+     */
+    public synchronized void failed(@Nullable
+                                    final String failureMessage)
+    {
+        failure = failureMessage;
+        completedAt = new Date();
+        status = Status.FAILED;
+    }
+
+    private void completeIfConsumed()
+    {
+        if(status==Status.PRODUCED &&
+            batchesPersisted.get() + batchesFailed.get()>=batchesProduced.get())
+        {
+            completedAt = new Date();
+            status = batchesFailed.get()>0?Status.FAILED:Status.COMPLETED;
+        }
+    }
+
+    /**
+     * Rejected rows over the rows read
+     * @param rowsAccepted                      Rows read and accepted
+     * @param rowsRejected                      Rows read and rejected
+     * @return                                  Reject rate between {@code 0}
+     *                                          and {@code 1}, {@code null} if
+     *                                          no row was read
+     * @since 1.0.0
+     */
+    @Nullable
+    public static Double rejectRate(final long rowsAccepted,
+                                    final long rowsRejected)
+    {
+        final long rowsRead = rowsAccepted + rowsRejected;
+        return rowsRead==0?null:(double)rowsRejected / rowsRead;
+    }
+
+    @Nullable
+    private Double throughput(final long rows,
+                              @Nullable
+                              final Date until)
+    {
+        if(Objects.isNull(startedAt))
+        {
+            return null;
+        }
+        final long elapsedMillis = Math.max(
+            1l,
+            Objects.requireNonNullElseGet(
+                until,
+                Date::new
+            ).getTime() - startedAt.getTime()
+        );
+        return rows * 1000d / elapsedMillis;
+    }
+}
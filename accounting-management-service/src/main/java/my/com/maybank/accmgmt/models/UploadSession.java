@@ -0,0 +1,129 @@
+package my.com.maybank.accmgmt.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.io.Serializable;
+import java.util.Date;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * Resumable (chunked) upload session checkpoint
+ * <p>
+ * Persisted next to the session data after every committed chunk ; a client
+ * that lost its connection reads it back to find the {@link #nextChunk} to
+ * send. Everything up to {@link #committedBytes} has been turned into
+ * {@link AccountTransactionsBatchJob}(s) ({@link #committedRows} rows), the
+ * remaining received bytes are the trailing partial line kept for the next
+ * chunk
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@JsonInclude(
+    JsonInclude.Include.NON_NULL
+)
+@ToString(
+    doNotUseGetters = true
+)
+@Accessors(
+    fluent = false,
+    chain = true
+)
+@Getter
+@Setter
+public class UploadSession
+       implements Serializable
+{
+    /**
+     * Session status
+     * @since 1.0.0
+     */
+    public enum Status
+    {
+        /**
+         * Accepting chunks
+         * @since 1.0.0
+         */
+        OPEN,
+
+        /**
+         * Every chunk received and committed
+         * @since 1.0.0
+         */
+        COMPLETED,
+
+        /**
+         * Given up by the client ; the session data is deleted, the rows of 
+         * the chunks already committed are kept
+         * @since 1.0.0
+         */
+        ABANDONED
+    }
+
+    @Nonnull
+    private String sessionId;
+
+    /**
+     * Uploaded file name
+     * @since 1.0.0
+     */
+    @Nonnull
+    private String fileName;
+
+    /**
+     * Ingest job tracking the batches of this session
+     * @since 1.0.0
+     * @see IngestJob#getJobId()
+     */
+    @Nullable
+    private String jobId;
+
+    @Nonnull
+    private Status status;
+
+    /**
+     * Next expected chunk number (chunks are numbered from {@code 0})
+     * @since 1.0.0
+     */
+    @Nonnull
+    private Integer nextChunk;
+
+    /**
+     * Total bytes received over the committed chunks
+     * @since 1.0.0
+     */
+    @Nonnull
+    private Long bytesReceived;
+
+    /**
+     * Bytes fully turned into batches (header included)
+     * @since 1.0.0
+     */
+    @Nonnull
+    private Long committedBytes;
+
+    /**
+     * Rows fully turned into batches
+     * @since 1.0.0
+     */
+    @Nonnull
+    private Long committedRows;
+
+    /**
+     * Header line length (line terminator included), {@code 0} until the
+     * header line is complete
+     * @since 1.0.0
+     */
+    @Nonnull
+    private Integer headerLength;
+
+    @Nonnull
+    private Date createdAt;
+
+    @Nonnull
+    private Date updatedAt;
+}
@@ -1,6 +1,8 @@
 package my.com.maybank.accmgmt.repository;
 
 import jakarta.annotation.Nonnull;
+import java.util.Collection;
+import java.util.List;
 import my.com.maybank.schema.entity.Account;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
@@ -45,4 +47,18 @@ public interface AccountRepository
                                                             final String accountNumber,
                                                             @Nonnull
                                                             final Pageable pageable);
+    
+    /**
+     * Find by {@link Account#accountNumber} exact, many at once ; a single 
+     * {@code IN} query on the primary key
+     * @param accountNumbers                    Account numbers. Must not be 
+     *                                          {@code null} or empty
+     * @return                                  {@link Account}(s) found, in no 
+     *                                          particular order ; unknown 
+     *                                          account numbers are left out
+     * @since 1.0.0
+     */
+    @Nonnull
+    List<Account> findByAccountNumberIn(@Nonnull
+                                        final Collection<String> accountNumbers);
 }
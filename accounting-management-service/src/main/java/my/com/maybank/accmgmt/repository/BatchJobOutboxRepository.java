@@ -0,0 +1,36 @@
+package my.com.maybank.accmgmt.repository;
+
+import java.util.List;
+import my.com.maybank.schema.entity.BatchJobOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Batch job outbox repository
+ * @since 1.0.0
+ * @see my.com.maybank.schema.entity.BatchJobOutbox
+ * @author ChristopherCKW
+ */
+public interface BatchJobOutboxRepository
+       extends JpaRepository<BatchJobOutbox, Long>
+{
+    /**
+     * Claim the oldest outbox entries not claimed by another relay ; the rows 
+     * stay locked until the calling transaction ends (so it must run in one), 
+     * concurrent relays skip them instead of waiting
+     * @param limit                             Max entries to claim
+     * @return                                  Claimed entries, in outbox 
+     *                                          order
+     * @since 1.0.0
+     */
+    @Query(
+        value = "SELECT * FROM tbl_batch_job_outbox " + 
+                "ORDER BY col_id " + 
+                "LIMIT :limit " + 
+                "FOR UPDATE SKIP LOCKED",
+        nativeQuery = true
+    )
+    List<BatchJobOutbox> claimOldest(@Param("limit")
+                                     final int limit);
+}
@@ -0,0 +1,67 @@
+package my.com.maybank.accmgmt.repository;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import my.com.maybank.schema.entity.ProcessedBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Processed batch repository
+ * @since 1.0.0
+ * @see my.com.maybank.schema.entity.ProcessedBatch
+ * @author ChristopherCKW
+ */
+public interface ProcessedBatchRepository
+       extends JpaRepository<ProcessedBatch, String>
+{
+    /**
+     * Insert the processed batch unless it already exists, in the calling 
+     * transaction (the one persisting the batch rows) ; the primary key makes 
+     * the claim atomic between consumers given the same batch job, the later 
+     * one waiting for the first to commit or roll back
+     * @param batchId                           Batch job id. Must not be 
+     *                                          {@code null}
+     * @param jobId                             Ingest job id (if any)
+     * @return                                  {@code 1} if inserted (claimed), 
+     *                                          {@code 0} if already processed
+     * @since 1.0.0
+     */
+    @Modifying
+    @Transactional(
+        propagation = Propagation.MANDATORY
+    )
+    @Query(
+        value = "INSERT INTO tbl_processed_batch (col_batch_id, col_job_id) " + 
+                "VALUES (:batchId, :jobId) " + 
+                "ON CONFLICT (col_batch_id) DO NOTHING",
+        nativeQuery = true
+    )
+    int insertIfAbsent(@Nonnull
+                       @Param("batchId")
+                       final String batchId,
+                       @Nullable
+                       @Param("jobId")
+                       final String jobId);
+    
+    /**
+     * Delete the processed batches older than the retention ; aged by the 
+     * database clock, the one stamping them
+     * @param retentionMs                       Retention (in milliseconds)
+     * @return                                  Processed batches deleted
+     * @since 1.0.0
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        value = "DELETE FROM tbl_processed_batch " + 
+                "WHERE col_created < CURRENT_TIMESTAMP - (:retentionMs * INTERVAL '1 millisecond')",
+        nativeQuery = true
+    )
+    int deleteExpired(@Param("retentionMs")
+                      final long retentionMs);
+}
@@ -1,6 +1,8 @@
 package my.com.maybank.accmgmt.repository;
 
 import jakarta.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 import my.com.maybank.schema.entity.Transaction;
 import org.springframework.data.domain.Pageable;
@@ -53,4 +55,22 @@ public interface TransactionRepository
                                                                             final String description,
                                                                             @Nonnull
                                                                             final Pageable pageable);
+    
+    /**
+     * Find which of the row fingerprints are already persisted ; one query per 
+     * batch instead of one per row
+     * @param rowFingerprints                   Row fingerprints to look up. 
+     *                                          Must not be {@code null} or 
+     *                                          empty
+     * @return                                  Persisted row fingerprints
+     * @since 1.0.0
+     */
+    @Nonnull
+    @Query(
+        "SELECT DISTINCT t.rowFingerprint FROM Transaction t " + 
+        "WHERE t.rowFingerprint IN :rowFingerprints"
+    )
+    Set<Long> findRowFingerprintsIn(@Nonnull
+                                    @Param("rowFingerprints")
+                                    final Collection<Long> rowFingerprints);
 }
@@ -0,0 +1,48 @@
+package my.com.maybank.accmgmt.repository;
+
+import jakarta.annotation.Nonnull;
+import my.com.maybank.schema.entity.UploadFingerprint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Upload fingerprint repository
+ * @since 1.0.0
+ * @see my.com.maybank.schema.entity.UploadFingerprint
+ * @author ChristopherCKW
+ */
+public interface UploadFingerprintRepository
+       extends JpaRepository<UploadFingerprint, String>
+{
+    /**
+     * Insert the fingerprint unless it already exists ; the primary key makes 
+     * the claim atomic between concurrent uploads of the same file
+     * @param sha256                            SHA-256 (lower case hex). Must 
+     *                                          not be {@code null}
+     * @param fileName                          Uploaded file name. Must not be 
+     *                                          {@code null}
+     * @param fileSize                          Uploaded file size (in bytes)
+     * @return                                  {@code 1} if inserted (claimed), 
+     *                                          {@code 0} if it already exists
+     * @since 1.0.0
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        value = "INSERT INTO tbl_upload_fingerprint (col_sha256, col_file_name, col_file_size) " + 
+                "VALUES (:sha256, :fileName, :fileSize) " + 
+                "ON CONFLICT (col_sha256) DO NOTHING",
+        nativeQuery = true
+    )
+    int insertIfAbsent(@Nonnull
+                       @Param("sha256")
+                       final String sha256,
+                       @Nonnull
+                       @Param("fileName")
+                       final String fileName,
+                       @Param("fileSize")
+                       final long fileSize);
+}
@@ -1,13 +1,18 @@
 package my.com.maybank.accmgmt.service;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.Min;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Optional;
+import my.com.maybank.accmgmt.component.RowRejectSink;
+import my.com.maybank.accmgmt.component.impl.CsvRejectReport;
 import my.com.maybank.accmgmt.models.AccountTransactionCriteria;
 import my.com.maybank.accmgmt.models.AccountTransactions;
 import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.models.IngestJob;
 import org.slf4j.Logger;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,17 +24,134 @@ import org.springframework.data.domain.Pageable;
  */
 public interface AccountingService
 {
+    /**
+     * {@link #batchConsumerOperationAccountTransactions(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)} 
+     * result of a batch job persisted already (redelivered) ; it must not be 
+     * counted again
+     * @since 1.0.0
+     */
+    long BATCH_PERSISTED_ALREADY = -1l;
+    
     /**
      * Batch produce the {@link my.com.maybank.accmgmt.models.AccountTransactionsBatchJob} 
      * that was read from CSV path
      * @param csvPath                           CSV path that must exist. Must 
      *                                          not be {@code null}
+     * @param rejectSink                        Reject sink for the bad rows 
+     *                                          (see {@link #openRejectReport(java.lang.String)}), 
+     *                                          {@code null} to fail on the 
+     *                                          first bad row
      * @return                                  Number of lines converted to 
      *                                          batch {@link my.com.maybank.accmgmt.models.AccountTransaction} 
      * @since 1.0.0
      */
     long batchProducerCreateAccountTransactions(@Nonnull
-                                                final Path csvPath);
+                                                final Path csvPath,
+                                                @Nullable
+                                                final RowRejectSink rejectSink);
+    
+    /**
+     * Batch produce the {@link my.com.maybank.accmgmt.models.AccountTransactionsBatchJob} 
+     * that was read straight from a CSV stream (i.e. the upload request body) 
+     * without staging it to disk first
+     * @param csvInputStream                    CSV stream. Must not be 
+     *                                          {@code null}
+     * @param csvSourceName                     CSV source name (i.e. uploaded 
+     *                                          file name). Must not be 
+     *                                          {@code null}
+     * @param rejectSink                        Reject sink for the bad rows 
+     *                                          (see {@link #openRejectReport(java.lang.String)}), 
+     *                                          {@code null} to fail on the 
+     *                                          first bad row
+     * @return                                  Number of lines converted to 
+     *                                          batch {@link my.com.maybank.accmgmt.models.AccountTransaction} 
+     * @since 1.0.0
+     */
+    long batchProducerCreateAccountTransactions(@Nonnull
+                                                final InputStream csvInputStream,
+                                                @Nonnull
+                                                final String csvSourceName,
+                                                @Nullable
+                                                final RowRejectSink rejectSink);
+    
+    /**
+     * Open the reject report of an upload
+     * @param reportId                          Report id (an UUID). Must not 
+     *                                          be {@code null}
+     * @return                                  Reject report, {@code null} 
+     *                                          unless the ingest error mode is 
+     *                                          {@code REJECT}
+     * @since 1.0.0
+     */
+    @Nullable
+    CsvRejectReport openRejectReport(@Nonnull
+                                     final String reportId);
+    
+    /**
+     * Find the reject report file of an upload
+     * @param reportId                          Report id. Must not be 
+     *                                          {@code null}
+     * @return                                  Report CSV file, never 
+     *                                          {@code null}
+     * @throws my.com.maybank.core.exception.ResourceNotFoundException 
+     *                                          If there is no such report 
+     *                                          (or no row was rejected)
+     * @since 1.0.0
+     */
+    @Nonnull
+    Path findRejectReport(@Nonnull
+                          final String reportId);
+    
+    /**
+     * Submit the CSV path to the bounded ingest executor ; batches are 
+     * produced asynchronously and tracked by the returned {@link IngestJob}
+     * @param csvPath                           Staged CSV path that must exist ; 
+     *                                          deleted once processed. Must not 
+     *                                          be {@code null}
+     * @param fileName                          Uploaded file name. Must not be 
+     *                                          {@code null}
+     * @return                                  Submitted job, never 
+     *                                          {@code null}
+     * @throws my.com.maybank.core.exception.ServiceUnavailableException 
+     *                                          If the ingest executor is 
+     *                                          saturated
+     * @since 1.0.0
+     */
+    @Nonnull
+    IngestJob submitCreateAccountTransactions(@Nonnull
+                                              final Path csvPath,
+                                              @Nonnull
+                                              final String fileName);
+    
+    /**
+     * Find the upload (ingest) job
+     * @param jobId                             Job id. Must not be {@code null}
+     * @return                                  Job, never {@code null}
+     * @throws my.com.maybank.core.exception.ResourceNotFoundException 
+     *                                          If the job is not found (or 
+     *                                          evicted)
+     * @since 1.0.0
+     */
+    @Nonnull
+    IngestJob findIngestJob(@Nonnull
+                            final String jobId);
+    
+    /**
+     * Re-drive the dead-lettered batch jobs ; sent back to the batch job 
+     * topic and consumed again
+     * @param maxRecords                        Max batch jobs to re-drive
+     * @return                                  Batch jobs re-driven ; 
+     *                                          {@code 0} once none are left
+     * @throws my.com.maybank.core.exception.ServiceUnavailableException 
+     *                                          If the batch jobs are not 
+     *                                          retried through the Kafka 
+     *                                          retry topics
+     * @since 1.0.0
+     */
+    long redriveDeadLetterBatchJobs(@Min(
+                                        1l
+                                    )
+                                    final int maxRecords);
     
     /**
      * Batch produce the {@link my.com.maybank.accmgmt.models.AccountTransactionsBatchJob} 
@@ -47,7 +169,9 @@ public interface AccountingService
      * that was produced
      * @param accountTransactionsBatchJob       Batch of account transactions to 
      *                                          act on based on the {@link AccountTransactionsBatchJob#getOperation()}
-     * @return                                  Number of batch items processed
+     * @return                                  Number of batch items processed, 
+     *                                          {@link #BATCH_PERSISTED_ALREADY} 
+     *                                          if skipped as redelivered
      * @since 1.0.0
      */
     long batchConsumerOperationAccountTransactions(@Nonnull
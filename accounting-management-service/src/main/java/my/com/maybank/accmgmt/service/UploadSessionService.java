@@ -0,0 +1,98 @@
+package my.com.maybank.accmgmt.service;
+
+import jakarta.annotation.Nonnull;
+import java.io.InputStream;
+import my.com.maybank.accmgmt.models.UploadSession;
+
+/**
+ * Resumable (chunked) upload service definition
+ * <p>
+ * A client opens a session, sends the CSV as numbered chunks (from 
+ * {@code 0}, in order) and completes the session. Every chunk is committed 
+ * on arrival ; its complete lines are turned into batches and the session 
+ * checkpoint is persisted, so a client that lost its connection resumes from 
+ * {@link UploadSession#getNextChunk()} instead of re-sending the whole file
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+public interface UploadSessionService
+{
+    /**
+     * Open a new upload session
+     * @param fileName                          Uploaded file name. Must not be 
+     *                                          {@code null}
+     * @return                                  Session checkpoint, never 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    UploadSession createSession(@Nonnull
+                                final String fileName);
+    
+    /**
+     * Find the upload session
+     * @param sessionId                         Session id. Must not be 
+     *                                          {@code null}
+     * @return                                  Session checkpoint, never 
+     *                                          {@code null}
+     * @throws my.com.maybank.core.exception.ResourceNotFoundException 
+     *                                          If the session is not found
+     * @since 1.0.0
+     */
+    @Nonnull
+    UploadSession findSession(@Nonnull
+                              final String sessionId);
+    
+    /**
+     * Receive and commit a chunk ; a chunk already committed is acknowledged 
+     * without being processed again
+     * @param sessionId                         Session id. Must not be 
+     *                                          {@code null}
+     * @param chunkNumber                       Chunk number, must be the 
+     *                                          session next chunk (or an 
+     *                                          already committed one)
+     * @param chunkInputStream                  Chunk content. Must not be 
+     *                                          {@code null}
+     * @return                                  Session checkpoint after the 
+     *                                          chunk is committed
+     * @throws my.com.maybank.core.exception.BadParameterException 
+     *                                          If the chunk is out of order, 
+     *                                          too large or the session is 
+     *                                          completed
+     * @since 1.0.0
+     */
+    @Nonnull
+    UploadSession uploadChunk(@Nonnull
+                              final String sessionId,
+                              final int chunkNumber,
+                              @Nonnull
+                              final InputStream chunkInputStream);
+    
+    /**
+     * Complete the session ; the trailing line (if not terminated) is turned 
+     * into a batch and the session data is deleted
+     * @param sessionId                         Session id. Must not be 
+     *                                          {@code null}
+     * @return                                  Final session checkpoint
+     * @since 1.0.0
+     */
+    @Nonnull
+    UploadSession completeSession(@Nonnull
+                                  final String sessionId);
+    
+    /**
+     * Abandon the session ; the session data is deleted and its ingest job 
+     * is marked failed. Rows of the chunks already committed are kept
+     * @param sessionId                         Session id. Must not be 
+     *                                          {@code null}
+     * @return                                  Last session checkpoint, 
+     *                                          {@link UploadSession.Status#ABANDONED}
+     * @throws my.com.maybank.core.exception.BadParameterException 
+     *                                          If the session is completed
+     * @since 1.0.0
+     */
+    @Nonnull
+    UploadSession abandonSession(@Nonnull
+                                 final String sessionId);
+}
@@ -5,19 +5,25 @@ import jakarta.annotation.Nullable;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.NoResultException;
-import jakarta.persistence.NonUniqueResultException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import lombok.Getter;
 import lombok.NonNull;
@@ -30,7 +36,12 @@ import my.com.maybank.accmgmt.models.AccountTransactionCriteria;
 import my.com.maybank.accmgmt.models.AccountTransactions;
 import my.com.maybank.accmgmt.repository.AccountRepository;
 import my.com.maybank.accmgmt.repository.TransactionRepository;
+import my.com.maybank.accmgmt.repository.UploadFingerprintRepository;
 import my.com.maybank.accmgmt.service.AccountingService;
+import my.com.maybank.accmgmt.utils.CompressionCodec;
+import my.com.maybank.accmgmt.utils.FingerprintingInputStream;
+import my.com.maybank.accmgmt.utils.IngestFingerprints;
+import my.com.maybank.accmgmt.utils.SpoolingInputStream;
 import my.com.maybank.core.configuration.service.AppService;
 import my.com.maybank.schema.entity.Account;
 import my.com.maybank.schema.entity.Transaction;
@@ -39,12 +50,30 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import my.com.maybank.accmgmt.component.MessageProducer;
 import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
 import my.com.maybank.accmgmt.component.CsvMessageReader;
+import my.com.maybank.accmgmt.component.RowRejectSink;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsAccountCache;
 import my.com.maybank.accmgmt.component.impl.AccountTransactionsCriteriaKafkaMessageReaderDelegate;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsIngestJobRegistry;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsBatchJobOutbox;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsBatchJobRetryTiers;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsIngestPipeline;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsProcessedBatches;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsRejectReports;
+import my.com.maybank.accmgmt.component.impl.CsvRejectReport;
+import my.com.maybank.accmgmt.constants.AppCodes;
+import my.com.maybank.accmgmt.models.IngestJob;
 import my.com.maybank.core.exception.BadParameterException;
 import my.com.maybank.core.exception.InternalException;
+import my.com.maybank.core.exception.ResourceNotFoundException;
+import my.com.maybank.core.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  * Default {@link AccountingService} implementation
@@ -83,30 +112,574 @@ public class DefaultAccountingService
     @NonNull
     private final AccountTransactionsCriteriaKafkaMessageReaderDelegate accountTransactionsCriteriaKafkaMessageReader;
     
+    @Nonnull
+    @NonNull
+    private final UploadFingerprintRepository uploadFingerprintRepository;
+    
+    @Nonnull
+    @NonNull
+    private final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry;
+    
+    @Nonnull
+    @NonNull
+    private final AccountTransactionsRejectReports accountTransactionsRejectReports;
+    
+    @Nonnull
+    @NonNull
+    private final AccountTransactionsIngestPipeline accountTransactionsIngestPipeline;
+    
+    @Nonnull
+    @NonNull
+    private final AccountTransactionsBatchJobOutbox accountTransactionsBatchJobOutbox;
+    
+    @Nonnull
+    @NonNull
+    private final AccountTransactionsProcessedBatches accountTransactionsProcessedBatches;
+    
+    @Nonnull
+    @NonNull
+    private final AccountTransactionsAccountCache accountTransactionsAccountCache;
+    
+    /**
+     * Retry topics ; with the {@link DefaultAppService.Transport#KAFKA} 
+     * transport only
+     * @since 1.0.0
+     */
+    @Nonnull
+    @NonNull
+    private final ObjectProvider<AccountTransactionsBatchJobRetryTiers> accountTransactionsBatchJobRetryTiers;
+    
+    /**
+     * Bounded ingest executor
+     * @since 1.0.0
+     * @see my.com.maybank.accmgmt.configuration.AccountTransactionsIngestConfiguration#INGEST_EXECUTOR
+     */
+    @Nonnull
+    @NonNull
+    private final ThreadPoolTaskExecutor accountTransactionsIngestExecutor;
+    
     /**
      * Process the CSV file, put in batches then push to Kafka which then upon 
      * consume, it calls {@link #batchConsumerOperationAccountTransactions(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)} 
      * and executes the batch standing operation order (to either CREATE or 
      * UPDATE)
      * @param csvPath
+     * @param rejectSink
      * @return                                  Number of processed results to 
      *                                          create
      * @since 1.0.0
      */
     @Override
     public long batchProducerCreateAccountTransactions(@Nonnull
-                                                       final Path csvPath)
+                                                       final Path csvPath,
+                                                       @Nullable
+                                                       final RowRejectSink rejectSink)
     {
-        final long csvProcessedResultSize = accountTransactionCsvReader.readAndCallback(
-            csvPath.toString(), 
-            AccountTransactionsBatchJob.Operation.CREATE,
-            accountTransactionMessageProducer::sendMessage
+        final AtomicReference<String> claimedUploadFingerprint = new AtomicReference<>();
+        if(isDuplicateUpload(
+            csvPath,
+            csvPath.getFileName().toString(),
+            claimedUploadFingerprint
+        ))
+        {
+            return 0l;
+        }
+        try
+        {
+            final long csvProcessedResultSize = pipelinedReadAndCallback(
+                withoutRepeatedRows(
+                    consumeToProcess -> accountTransactionCsvReader.readAndCallback(
+                        csvPath.toString(), 
+                        AccountTransactionsBatchJob.Operation.CREATE,
+                        consumeToProcess,
+                        rejectSink
+                    ),
+                    rejectSink
+                ),
+                null
+            );
+            log.info(
+                "Total number of CSV records size({}) of account transaction(s) acknowledged for create COMPLETED",
+                csvProcessedResultSize
+            );
+            return csvProcessedResultSize;
+        }
+        catch(RuntimeException e)
+        {
+            releaseUploadFingerprint(
+                claimedUploadFingerprint.get()
+            );
+            throw e;
+        }
+    }
+    
+    /**
+     * Register an {@link IngestJob} and run the CSV file on the ingest 
+     * executor ; every batch sent is stamped with the job id so the consumer 
+     * can report it back
+     * @param csvPath
+     * @param fileName
+     * @return                                  Submitted job
+     * @since 1.0.0
+     */
+    @Override
+    public IngestJob submitCreateAccountTransactions(@Nonnull
+                                                     final Path csvPath,
+                                                     @Nonnull
+                                                     final String fileName)
+    {
+        final IngestJob ingestJob = accountTransactionsIngestJobRegistry.register(
+            fileName
         );
-        log.info(
-            "Total number of CSV records size({}) of account transaction(s) sent to create COMPLETED",
-            csvProcessedResultSize
+        try
+        {
+            accountTransactionsIngestExecutor.execute(
+                () -> {
+                    final AtomicReference<String> claimedUploadFingerprint = new AtomicReference<>();
+                    final CsvRejectReport rejectReport = openRejectReport(
+                        ingestJob.getJobId()
+                    );
+                    try
+                    {
+                        ingestJob.started();
+                        if(isDuplicateUpload(
+                            csvPath,
+                            fileName,
+                            claimedUploadFingerprint
+                        ))
+                        {
+                            ingestJob.duplicate();
+                            return;
+                        }
+                        final long csvProcessedResultSize = pipelinedReadAndCallback(
+                            withoutRepeatedRows(
+                                consumeToProcess -> accountTransactionCsvReader.readAndCallback(
+                                    csvPath.toString(), 
+                                    AccountTransactionsBatchJob.Operation.CREATE,
+                                    accountTransactionsBatchJobToProcess -> consumeToProcess.accept(
+                                        accountTransactionsBatchJobToProcess.setJobId(
+                                            ingestJob.getJobId()
+                                        )
+                                    ),
+                                    rejectReport
+                                ),
+                                rejectReport
+                            ),
+                            accountTransactionsBatchJobToProcess -> ingestJob.batchProduced(
+                                accountTransactionsBatchJobToProcess.getBatchAccountTransaction().size()
+                            )
+                        );
+                        ingestJob.produced();
+                        log.info(
+                            "Ingest job '{}' of CSV '{}' records size({}) of account transaction(s) acknowledged for create COMPLETED",
+                            ingestJob.getJobId(),
+                            fileName,
+                            csvProcessedResultSize
+                        );
+                    }
+                    catch(Exception e)
+                    {
+                        log.error(
+                            "Ingest job '{}' of CSV '{}' FAILED ; {}",
+                            ingestJob.getJobId(),
+                            fileName,
+                            e.getMessage(),
+                            e
+                        );
+                        releaseUploadFingerprint(
+                            claimedUploadFingerprint.get()
+                        );
+                        ingestJob.failed(
+                            e.getMessage()
+                        );
+                    }
+                    finally
+                    {
+                        Optional.ofNullable(
+                            rejectReport
+                        ).ifPresent(
+                            rejectReportToProcess -> {
+                                rejectReportToProcess.close();
+                                ingestJob.rowsRejected(
+                                    rejectReportToProcess.getRowsRejected(),
+                                    rejectReportToProcess.getReportId()
+                                );
+                            }
+                        );
+                        
+                        // clear the resource
+                        csvPath.toFile().delete();
+                    }
+                }
+            );
+            return ingestJob;
+        }
+        catch(TaskRejectedException e)
+        {
+            ingestJob.failed(
+                "Ingest executor SATURATED"
+            );
+            csvPath.toFile().delete();
+            throw new ServiceUnavailableException(
+                String.format(
+                    "File '%s' upload REJECTED ; too many uploads in progress, retry later",
+                    fileName
+                ),
+                e
+            ).setCode(
+                AppCodes.ERROR_CODE_UPLOAD_REJECTED
+            );
+        }
+    }
+    
+    /**
+     * Run the CSV read through an {@link AccountTransactionsIngestPipeline} 
+     * run ; the read callback only queues the batches, serialisation and 
+     * Kafka send happen on the pipeline stages while the next rows are 
+     * parsed
+     * @param read                              CSV read, given the callback 
+     *                                          that queues a batch ; returns 
+     *                                          the number of lines read
+     * @param onSent                            Callback for every batch 
+     *                                          acknowledged by Kafka (may be 
+     *                                          {@code null})
+     * @return                                  Number of rows acknowledged, 
+     *                                          once every batch is 
+     *                                          acknowledged
+     * @since 1.0.0
+     * @see AccountTransactionsIngestPipeline#readAndPublish(java.util.function.Function, java.util.function.Consumer)
+     */
+    protected long pipelinedReadAndCallback(@Nonnull
+                                            final Function<Consumer<AccountTransactionsBatchJob>, Long> read,
+                                            @Nullable
+                                            final Consumer<AccountTransactionsBatchJob> onSent)
+    {
+        return accountTransactionsIngestPipeline.readAndPublish(
+            read,
+            onSent
+        );
+    }
+    
+    /**
+     * Check the file fingerprint (when 
+     * {@link DefaultAppService#isAccountingIngestDedup()} is enabled) and 
+     * claim it for this upload
+     * @param csvPath                           Staged upload file
+     * @param fileName                          Uploaded file name
+     * @param claimedUploadFingerprint          Set to the claimed fingerprint, 
+     *                                          to be released with 
+     *                                          {@link #releaseUploadFingerprint(java.lang.String)} 
+     *                                          if the upload fails
+     * @return                                  {@code true} if the exact same 
+     *                                          file was already ingested
+     * @since 1.0.0
+     */
+    protected boolean isDuplicateUpload(@Nonnull
+                                        final Path csvPath,
+                                        @Nonnull
+                                        final String fileName,
+                                        @Nonnull
+                                        final AtomicReference<String> claimedUploadFingerprint)
+    {
+        if(!((DefaultAppService)appService).isAccountingIngestDedup())
+        {
+            return false;
+        }
+        try
+        {
+            final String uploadFingerprint = IngestFingerprints.fileFingerprint(
+                csvPath
+            );
+            if(!claimUploadFingerprint(
+                uploadFingerprint,
+                fileName,
+                Files.size(
+                    csvPath
+                )
+            ))
+            {
+                log.info(
+                    "File '{}' upload SKIPPED ; same content (SHA-256 {}) ALREADY INGESTED",
+                    fileName,
+                    uploadFingerprint
+                );
+                return true;
+            }
+            claimedUploadFingerprint.set(
+                uploadFingerprint
+            );
+            return false;
+        }
+        catch(IOException e)
+        {
+            throw new InternalException(
+                String.format(
+                    "File '%s' fingerprint ENCOUNTERED FAILURE ; %s",
+                    fileName,
+                    e.getMessage()
+                ),
+                e
+            );
+        }
+    }
+    
+    /**
+     * Claim the file fingerprint for this upload
+     * @param uploadFingerprint                 File fingerprint (see 
+     *                                          {@link IngestFingerprints#fileFingerprint(java.nio.file.Path)}). 
+     *                                          Must not be {@code null}
+     * @param fileName                          Uploaded file name. Must not be 
+     *                                          {@code null}
+     * @param fileSize                          Uploaded file size (in bytes)
+     * @return                                  {@code false} if the exact same 
+     *                                          file was already ingested
+     * @since 1.0.0
+     */
+    protected boolean claimUploadFingerprint(@Nonnull
+                                             final String uploadFingerprint,
+                                             @Nonnull
+                                             final String fileName,
+                                             final long fileSize)
+    {
+        return uploadFingerprintRepository.insertIfAbsent(
+            uploadFingerprint,
+            fileName,
+            fileSize
+        )>0;
+    }
+    
+    /**
+     * Release a claimed file fingerprint so the file can be uploaded again
+     * @param uploadFingerprint                 Claimed fingerprint (may be 
+     *                                          {@code null} if none claimed)
+     * @since 1.0.0
+     */
+    protected void releaseUploadFingerprint(@Nullable
+                                            final String uploadFingerprint)
+    {
+        Optional.ofNullable(
+            uploadFingerprint
+        ).ifPresent(
+            uploadFingerprintToProcess -> {
+                try
+                {
+                    uploadFingerprintRepository.deleteById(
+                        uploadFingerprintToProcess
+                    );
+                }
+                catch(Exception e)
+                {
+                    log.warn(
+                        "Upload fingerprint '{}' release FAILED ; {}",
+                        uploadFingerprintToProcess,
+                        e.getMessage()
+                    );
+                }
+            }
+        );
+    }
+    
+    @Override
+    public CsvRejectReport openRejectReport(@Nonnull
+                                            final String reportId)
+    {
+        return accountTransactionsRejectReports.open(
+            reportId
+        );
+    }
+    
+    @Override
+    public Path findRejectReport(@Nonnull
+                                 final String reportId)
+    {
+        return accountTransactionsRejectReports.find(
+            reportId
+        ).orElseThrow(
+            () -> new ResourceNotFoundException(
+                String.format(
+                    "Reject report '%s' NOT FOUND",
+                    reportId
+                )
+            ).setCode(
+                AppCodes.ERROR_CODE_REJECT_REPORT_NOT_FOUND
+            )
+        );
+    }
+    
+    @Override
+    public IngestJob findIngestJob(@Nonnull
+                                   final String jobId)
+    {
+        return accountTransactionsIngestJobRegistry.find(
+            jobId
+        ).orElseThrow(
+            () -> new ResourceNotFoundException(
+                String.format(
+                    "Ingest job '%s' NOT FOUND",
+                    jobId
+                )
+            ).setCode(
+                AppCodes.ERROR_CODE_UPLOAD_JOB_NOT_FOUND
+            )
+        );
+    }
+    
+    @Override
+    public long redriveDeadLetterBatchJobs(final int maxRecords)
+    {
+        final AccountTransactionsBatchJobRetryTiers retryTiers = accountTransactionsBatchJobRetryTiers.getIfAvailable();
+        if(retryTiers==null || !((DefaultAppService)appService).getAccountingKafkaRetryEnabled())
+        {
+            throw new ServiceUnavailableException(
+                "Dead-letter batch job re-drive UNAVAILABLE ; batch jobs are not retried through the Kafka retry topics"
+            ).setCode(
+                AppCodes.ERROR_CODE_DEAD_LETTER_REDRIVE_UNAVAILABLE
+            );
+        }
+        return retryTiers.redrive(
+            maxRecords
         );
-        return csvProcessedResultSize;
+    }
+    
+    /**
+     * Process the CSV stream as it arrives, put in batches then push to Kafka 
+     * which then upon consume, it calls {@link #batchConsumerOperationAccountTransactions(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)} 
+     * <p>
+     * When {@link DefaultAppService#isAccountingIngestSpoolForReplay()} is 
+     * enabled, the bytes read are teed to the upload destination path ; the 
+     * spool is deleted on success and kept for replay on failure
+     * </p>
+     * <p>
+     * When {@link DefaultAppService#isAccountingIngestDedup()} is enabled, the 
+     * bytes read are fingerprinted as they arrive. A stream is only known to 
+     * be an exact re-upload once read ; its rows already persisted are then 
+     * skipped by the consumer (see {@link #withoutPersistedRows(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)})
+     * </p>
+     * @param csvInputStream
+     * @param csvSourceName
+     * @param rejectSink
+     * @return                                  Number of processed results to 
+     *                                          create
+     * @since 1.0.0
+     */
+    @Override
+    public long batchProducerCreateAccountTransactions(@Nonnull
+                                                       final InputStream csvInputStream,
+                                                       @Nonnull
+                                                       final String csvSourceName,
+                                                       @Nullable
+                                                       final RowRejectSink rejectSink)
+    {
+        final AtomicReference<SpoolingInputStream> spoolingInputStream = new AtomicReference<>();
+        final FingerprintingInputStream fingerprintingInputStream = ((DefaultAppService)appService).isAccountingIngestDedup()?
+            new FingerprintingInputStream(
+                csvInputStream
+            ):
+            null;
+        final InputStream uploadInputStream = Optional.<InputStream>ofNullable(
+            fingerprintingInputStream
+        ).orElse(
+            csvInputStream
+        );
+        try
+        {
+            if(((DefaultAppService)appService).isAccountingIngestSpoolForReplay())
+            {
+                // the client file name is never trusted as a path ; only the 
+                // compression extension is kept so the replay decodes it
+                spoolingInputStream.set(
+                    new SpoolingInputStream(
+                        uploadInputStream,
+                        ((DefaultAppService)appService).getUploadDestBasePath().resolve(
+                            CompressionCodec.ofFileName(
+                                csvSourceName
+                            ).encodedFileName(
+                                String.format(
+                                    "%s.csv",
+                                    UUID.randomUUID()
+                                )
+                            )
+                        )
+                    )
+                );
+                log.info(
+                    "Streamed CSV '{}' spooled for replay to '{}'",
+                    csvSourceName,
+                    spoolingInputStream.get().getSpoolPath()
+                );
+            }
+            
+            final long csvProcessedResultSize = pipelinedReadAndCallback(
+                withoutRepeatedRows(
+                    consumeToProcess -> accountTransactionCsvReader.readAndCallback(
+                        Optional.<InputStream>ofNullable(
+                            spoolingInputStream.get()
+                        ).orElse(
+                            uploadInputStream
+                        ), 
+                        csvSourceName,
+                        AccountTransactionsBatchJob.Operation.CREATE,
+                        consumeToProcess,
+                        rejectSink
+                    ),
+                    rejectSink
+                ),
+                null
+            );
+            log.info(
+                "Total number of streamed CSV '{}' records size({}) of account transaction(s) acknowledged for create COMPLETED",
+                csvSourceName,
+                csvProcessedResultSize
+            );
+            if(Objects.nonNull(fingerprintingInputStream))
+            {
+                final String uploadFingerprint = fingerprintingInputStream.getFileFingerprint();
+                if(!claimUploadFingerprint(
+                    uploadFingerprint,
+                    csvSourceName,
+                    fingerprintingInputStream.getBytesRead()
+                ))
+                {
+                    log.warn(
+                        "Streamed CSV '{}' SAME CONTENT (SHA-256 {}) ALREADY INGESTED ; its rows already persisted are skipped by the consumer",
+                        csvSourceName,
+                        uploadFingerprint
+                    );
+                }
+            }
+            
+            // no replay needed
+            Optional.ofNullable(
+                spoolingInputStream.get()
+            ).ifPresent(
+                SpoolingInputStream::discard
+            );
+            return csvProcessedResultSize;
+        }
+        catch(InternalException e)
+        {
+            Optional.ofNullable(
+                spoolingInputStream.get()
+            ).ifPresent(
+                spoolingInputStreamToProcess -> log.warn(
+                    "Streamed CSV '{}' ingest FAILED ; spooled content kept for replay at '{}'",
+                    csvSourceName,
+                    spoolingInputStreamToProcess.getSpoolPath()
+                )
+            );
+            throw e;
+        }
+        catch(Exception e)
+        {
+            throw new InternalException(
+                String.format(
+                    "Streamed CSV '%s' ingest ENCOUNTERED FAILURE ; %s",
+                    csvSourceName,
+                    e.getMessage()
+                ),
+                e
+            );
+        }
     }
     
     /**
@@ -115,6 +688,11 @@ public class DefaultAccountingService
      * {@link #batchConsumerOperationAccountTransactions(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob)} 
      * and executes the batch standing operation order (to either CREATE or 
      * UPDATE)
+     * <p>
+     * With {@link DefaultAppService#getAccountingOutboxEnabled()} the batches 
+     * are written to the outbox in the transaction reading their rows instead, 
+     * the outbox relay publishes them once committed
+     * </p>
      * @param criteria
      * @return                                  Number of processed results to 
      *                                          update
@@ -148,12 +726,21 @@ public class DefaultAccountingService
             );
             
             final AtomicInteger countProcessedResultSize = new AtomicInteger();
-            final List<AccountTransactionsBatchJob> batchesSent = accountTransactionsCriteriaKafkaMessageReader.readAndCallback(
-                criteria.setOperation(
-                    AccountTransactionsBatchJob.Operation.UPDATE
-                ), 
-                accountTransactionMessageProducer::sendMessage
-            );
+            final List<AccountTransactionsBatchJob> batchesSent = ((DefaultAppService)getAppService()).getAccountingOutboxEnabled()?
+                accountTransactionsBatchJobOutbox.readAndAppend(
+                    consume -> accountTransactionsCriteriaKafkaMessageReader.readAndCallback(
+                        criteria.setOperation(
+                            AccountTransactionsBatchJob.Operation.UPDATE
+                        ), 
+                        consume
+                    )
+                ):
+                accountTransactionsCriteriaKafkaMessageReader.readAndCallback(
+                    criteria.setOperation(
+                        AccountTransactionsBatchJob.Operation.UPDATE
+                    ), 
+                    accountTransactionMessageProducer::sendMessage
+                );
             batchesSent.stream().forEach(
                 batchSentToProcess -> countProcessedResultSize.addAndGet(
                     batchSentToProcess.getBatchAccountTransaction().size()
@@ -180,6 +767,12 @@ public class DefaultAccountingService
     /**
      * Process the batch operations accordingly to its standing operation 
      * instruction to either CREATE or UPDATE
+     * <p>
+     * With {@link DefaultAppService#getAccountingProcessedBatchesEnabled()} 
+     * the batch job is claimed in this transaction first ; a batch job 
+     * persisted already (redelivered) is skipped with {@link #BATCH_PERSISTED_ALREADY}, a 
+     * merged one partly persisted already fails so the consumer splits it
+     * </p>
      * @param accountTransactionsBatchJob
      * @return                                  Number of processed results that 
      *                                          was created/updated
@@ -195,6 +788,35 @@ public class DefaultAccountingService
             "Processing batch ID({}) ...",
             accountTransactionsBatchJob.getBatchId()
         );
+        if(((DefaultAppService)appService).getAccountingProcessedBatchesEnabled())
+        {
+            final int alreadyProcessed = accountTransactionsProcessedBatches.claim(
+                accountTransactionsBatchJob
+            );
+            if(alreadyProcessed>0)
+            {
+                if(AccountTransactionsProcessedBatches.batchIds(
+                    accountTransactionsBatchJob
+                ).size()>1)
+                {
+                    throw new InternalException(
+                        String.format(
+                            "Merged batch ID(%s) PARTLY PERSISTED ALREADY ; (%d) of (%d) batch job(s)",
+                            accountTransactionsBatchJob.getBatchId(),
+                            alreadyProcessed,
+                            AccountTransactionsProcessedBatches.batchIds(
+                                accountTransactionsBatchJob
+                            ).size()
+                        )
+                    );
+                }
+                log.info(
+                    "Batch ID({}) PERSISTED ALREADY, SKIPPED ; redelivered",
+                    accountTransactionsBatchJob.getBatchId()
+                );
+                return BATCH_PERSISTED_ALREADY;
+            }
+        }
         
         final Function<String, Date> strToDate = s -> {
             try
@@ -238,14 +860,16 @@ public class DefaultAccountingService
         {
             case CREATE -> processedCount.set(
                 getTransactionRepository().saveAll(
-                    accountTransactionsBatchJob.getBatchAccountTransaction().stream().map(
+                    withResolvedAccounts(
+                        accountTransactionsBatchJob,
+                        withoutPersistedRows(
+                            accountTransactionsBatchJob
+                        )
+                    ).stream().map(
+                        // resolved already ; no query for the account
                         accountTransactionToProcess -> new Transaction().setAccount(
-                            findUserAccount(
-                                new Account().setAccountNumber(
-                                    accountTransactionToProcess.getAccountNumber()
-                                ).setCustomerId(
-                                    accountTransactionToProcess.getCustomerId()
-                                )
+                            getAccountRepository().getReferenceById(
+                                accountTransactionToProcess.getAccountNumber()
                             )
                         ).setAmount(
                             accountTransactionToProcess.getTrxAmount()
@@ -259,6 +883,10 @@ public class DefaultAccountingService
                             strToTime.apply(
                                 accountTransactionToProcess.getTrxTime()
                             )
+                        ).setRowFingerprint(
+                            IngestFingerprints.rowFingerprint(
+                                accountTransactionToProcess
+                            )
                         )
                     ).toList()
                 ).size()
@@ -328,6 +956,382 @@ public class DefaultAccountingService
         return processedCount.get();
     }
 
+    /**
+     * Drop the batch rows repeated within the batch when 
+     * {@link DefaultAppService#isAccountingIngestDedup()} is enabled, before 
+     * it is sent ; every repeat is reported to the reject sink and left out 
+     * of the rows read (see {@link IngestFingerprints#withoutRepeatedRows(java.util.function.Function, my.com.maybank.accmgmt.component.RowRejectSink)})
+     * @param read                              Read sending its batches
+     * @param rejectSink                        Reject sink (may be 
+     *                                          {@code null})
+     * @return                                  Read to pipeline
+     * @since 1.0.0
+     */
+    @Nonnull
+    protected Function<Consumer<AccountTransactionsBatchJob>, Long> withoutRepeatedRows(@Nonnull
+                                                                                        final Function<Consumer<AccountTransactionsBatchJob>, Long> read,
+                                                                                        @Nullable
+                                                                                        final RowRejectSink rejectSink)
+    {
+        if(((DefaultAppService)appService).isAccountingIngestDedup())
+        {
+            return IngestFingerprints.withoutRepeatedRows(
+                read,
+                rejectSink
+            );
+        }
+        return read;
+    }
+
+    /**
+     * Drop the batch rows already persisted (or repeated within the batch, 
+     * when not dropped by the producer already) when 
+     * {@link DefaultAppService#isAccountingIngestDedup()} is enabled ; the 
+     * row fingerprints of the whole batch are looked up with one query
+     * @param accountTransactionsBatchJob       Batch to create
+     * @return                                  Rows to create
+     * @since 1.0.0
+     */
+    @Nonnull
+    protected List<AccountTransaction> withoutPersistedRows(@Nonnull
+                                                            final AccountTransactionsBatchJob accountTransactionsBatchJob)
+    {
+        final List<AccountTransaction> batchAccountTransaction = accountTransactionsBatchJob.getBatchAccountTransaction();
+        if(!((DefaultAppService)appService).isAccountingIngestDedup() || 
+            batchAccountTransaction.isEmpty())
+        {
+            return batchAccountTransaction;
+        }
+        final Map<Long, AccountTransaction> rowsByFingerprint = new LinkedHashMap<>();
+        batchAccountTransaction.forEach(
+            accountTransactionToProcess -> rowsByFingerprint.putIfAbsent(
+                IngestFingerprints.rowFingerprint(
+                    accountTransactionToProcess
+                ),
+                accountTransactionToProcess
+            )
+        );
+        final int repeatedRows = batchAccountTransaction.size() - rowsByFingerprint.size();
+        rowsByFingerprint.keySet().removeAll(
+            getTransactionRepository().findRowFingerprintsIn(
+                rowsByFingerprint.keySet()
+            )
+        );
+        if(repeatedRows>0)
+        {
+            log.warn(
+                "Batch ID({}) SKIPPED ({}) of ({}) row(s) REPEATED WITHIN THE BATCH",
+                accountTransactionsBatchJob.getBatchId(),
+                repeatedRows,
+                batchAccountTransaction.size()
+            );
+        }
+        if(rowsByFingerprint.size() + repeatedRows<batchAccountTransaction.size())
+        {
+            log.info(
+                "Batch ID({}) SKIPPED ({}) of ({}) row(s) ALREADY INGESTED",
+                accountTransactionsBatchJob.getBatchId(),
+                batchAccountTransaction.size() - repeatedRows - rowsByFingerprint.size(),
+                batchAccountTransaction.size()
+            );
+        }
+        return new ArrayList<>(
+            rowsByFingerprint.values()
+        );
+    }
+
+    /**
+     * @param accountTransaction                Row to report
+     * @param index                             Row index within the rows 
+     *                                          checked
+     * @return                                  Row line number within its 
+     *                                          uploaded source, its position 
+     *                                          in the batch if not read from 
+     *                                          a CSV
+     * @since 1.0.0
+     */
+    @Nonnull
+    private static String rowReference(@Nonnull
+                                       final AccountTransaction accountTransaction,
+                                       final int index)
+    {
+        return Optional.ofNullable(
+            accountTransaction.getLineNumber()
+        ).map(
+            lineNumberToProcess -> String.format(
+                "line (%d)",
+                lineNumberToProcess
+            )
+        ).orElseGet(
+            () -> String.format(
+                "row (%d)",
+                index + 1
+            )
+        );
+    }
+    
+    /**
+     * Drop the batch rows whose account is unknown or owned by another 
+     * customer ; the accounts of the whole batch are resolved at once (see 
+     * {@link AccountTransactionsAccountCache#resolveOwners(java.util.Collection)}) 
+     * and the ownership of each row checked in memory ; a row without a 
+     * positive {@code customerId} is unresolved too. Such rows fail the 
+     * batch, every one of them listed, unless {@link DefaultAppService#getAccountingIngestErrorMode()} 
+     * is {@link DefaultAppService.ErrorMode#REJECT} ; then they are skipped, 
+     * the rest of the batch is persisted, and once committed every one of 
+     * them is reported on the ingest job and written to the reject report 
+     * of the batch
+     * @param accountTransactionsBatchJob       Batch to create
+     * @param accountTransactions               Rows to create
+     * @return                                  Rows to create with a resolved 
+     *                                          account
+     * @throws EntityNotFoundException          If a row account is not 
+     *                                          resolved, failing fast
+     * @since 1.0.0
+     */
+    @Nonnull
+    protected List<AccountTransaction> withResolvedAccounts(@Nonnull
+                                                            final AccountTransactionsBatchJob accountTransactionsBatchJob,
+                                                            @Nonnull
+                                                            final List<AccountTransaction> accountTransactions)
+    {
+        if(accountTransactions.isEmpty())
+        {
+            return accountTransactions;
+        }
+        final Map<String, Long> accountOwners = accountTransactionsAccountCache.resolveOwners(
+            accountTransactions.stream().map(
+                AccountTransaction::getAccountNumber
+            ).toList()
+        );
+        final List<AccountTransaction> resolvedAccountTransactions = new ArrayList<>(
+            accountTransactions.size()
+        );
+        final List<AccountTransaction> unresolvedAccountTransactions = new ArrayList<>();
+        final List<String> unresolvedRows = new ArrayList<>();
+        for(int i = 0; i < accountTransactions.size(); i++)
+        {
+            final AccountTransaction accountTransactionToProcess = accountTransactions.get(
+                i
+            );
+            final Long ownerCustomerId = accountOwners.get(
+                accountTransactionToProcess.getAccountNumber()
+            );
+            if(Optional.ofNullable(
+                accountTransactionToProcess.getCustomerId()
+            ).filter(
+                customerIdToProcess -> customerIdToProcess>0
+            ).isEmpty())
+            {
+                // no owner to check against ; never persisted on trust
+                unresolvedAccountTransactions.add(
+                    accountTransactionToProcess
+                );
+                unresolvedRows.add(
+                    String.format(
+                        "Batch ID(%s) %s account number '%s' customer ID IS NULL OR INVALID ; expecting a positive value, received '%s'",
+                        accountTransactionsBatchJob.getBatchId(),
+                        rowReference(
+                            accountTransactionToProcess,
+                            i
+                        ),
+                        accountTransactionToProcess.getAccountNumber(),
+                        accountTransactionToProcess.getCustomerId()
+                    )
+                );
+            }
+            else if(ownerCustomerId==null)
+            {
+                unresolvedAccountTransactions.add(
+                    accountTransactionToProcess
+                );
+                unresolvedRows.add(
+                    String.format(
+                        "Batch ID(%s) %s account number '%s' NOT FOUND",
+                        accountTransactionsBatchJob.getBatchId(),
+                        rowReference(
+                            accountTransactionToProcess,
+                            i
+                        ),
+                        accountTransactionToProcess.getAccountNumber()
+                    )
+                );
+            }
+            else if(!ownerCustomerId.equals(
+                accountTransactionToProcess.getCustomerId()
+            ))
+            {
+                unresolvedAccountTransactions.add(
+                    accountTransactionToProcess
+                );
+                unresolvedRows.add(
+                    String.format(
+                        "Batch ID(%s) %s account number '%s' OWNED BY customer '%d', NOT customer '%d'",
+                        accountTransactionsBatchJob.getBatchId(),
+                        rowReference(
+                            accountTransactionToProcess,
+                            i
+                        ),
+                        accountTransactionToProcess.getAccountNumber(),
+                        ownerCustomerId,
+                        accountTransactionToProcess.getCustomerId()
+                    )
+                );
+            }
+            else
+            {
+                resolvedAccountTransactions.add(
+                    accountTransactionToProcess
+                );
+            }
+        }
+        if(unresolvedRows.isEmpty())
+        {
+            return accountTransactions;
+        }
+        if(((DefaultAppService)appService).getAccountingIngestErrorMode()!=DefaultAppService.ErrorMode.REJECT)
+        {
+            // the whole batch fails ; the dead-letter topic keeps it to be 
+            // re-driven once its accounts are fixed
+            throw new EntityNotFoundException(
+                String.format(
+                    "Entity `%s` of (%d) of (%d) row(s) NOT RESOLVED ; %s",
+                    Account.class.getName(),
+                    unresolvedRows.size(),
+                    accountTransactions.size(),
+                    String.join(
+                        " ; ",
+                        unresolvedRows
+                    )
+                )
+            );
+        }
+        unresolvedRows.forEach(
+            unresolvedRowToProcess -> log.warn(
+                "{} ; row SKIPPED",
+                unresolvedRowToProcess
+            )
+        );
+        final Runnable reportUnresolvedRows = () -> {
+            accountTransactionsIngestJobRegistry.update(
+                accountTransactionsBatchJob.getJobId(),
+                ingestJobToProcess -> ingestJobToProcess.rowsUnresolved(
+                    unresolvedRows
+                )
+            );
+            rejectUnresolvedRows(
+                accountTransactionsBatchJob,
+                unresolvedAccountTransactions,
+                unresolvedRows
+            );
+        };
+        if(TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            // a rolled back batch is redelivered, its rows reported then
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization()
+                {
+                    @Override
+                    public void afterCommit()
+                    {
+                        reportUnresolvedRows.run();
+                    }
+                }
+            );
+        }
+        else
+        {
+            reportUnresolvedRows.run();
+        }
+        return resolvedAccountTransactions;
+    }
+    
+    @Nonnull
+    
+    /**
+     * Write the unresolved rows of a batch to the reject report named after 
+     * the batch id (see {@link AccountTransactionsRejectReports}) ; the batch 
+     * is committed already, so a write failure is only logged
+     * @param accountTransactionsBatchJob       Batch created
+     * @param unresolvedAccountTransactions     Rows skipped
+     * @param unresolvedRows                    Reason of every row skipped
+     * @since 1.0.0
+     */
+    private void rejectUnresolvedRows(@Nonnull
+                                      final AccountTransactionsBatchJob accountTransactionsBatchJob,
+                                      @Nonnull
+                                      final List<AccountTransaction> unresolvedAccountTransactions,
+                                      @Nonnull
+                                      final List<String> unresolvedRows)
+    {
+        try(CsvRejectReport rejectReport = accountTransactionsRejectReports.open(
+            accountTransactionsBatchJob.getBatchId()
+        ))
+        {
+            if(Objects.isNull(rejectReport))
+            {
+                return;
+            }
+            for(int i = 0; i < unresolvedAccountTransactions.size(); i++)
+            {
+                final AccountTransaction accountTransactionToProcess = unresolvedAccountTransactions.get(
+                    i
+                );
+                rejectReport.reject(
+                    Objects.requireNonNullElse(
+                        accountTransactionToProcess.getLineNumber(),
+                        0l
+                    ),
+                    String.join(
+                        "|",
+                        Objects.toString(
+                            accountTransactionToProcess.getAccountNumber(),
+                            ""
+                        ),
+                        Objects.toString(
+                            accountTransactionToProcess.getTrxAmount(),
+                            ""
+                        ),
+                        Objects.toString(
+                            accountTransactionToProcess.getDescription(),
+                            ""
+                        ),
+                        Objects.toString(
+                            accountTransactionToProcess.getTrxDate(),
+                            ""
+                        ),
+                        Objects.toString(
+                            accountTransactionToProcess.getTrxTime(),
+                            ""
+                        ),
+                        Objects.toString(
+                            accountTransactionToProcess.getCustomerId(),
+                            ""
+                        )
+                    ),
+                    unresolvedRows.get(
+                        i
+                    )
+                );
+            }
+            log.warn(
+                "Batch ID({}) ({}) unresolved row(s) written to reject report '{}'",
+                accountTransactionsBatchJob.getBatchId(),
+                rejectReport.getRowsRejected(),
+                rejectReport.getReportId()
+            );
+        }
+        catch(RuntimeException e)
+        {
+            log.error(
+                "Batch ID({}) unresolved rows reject report FAILURE ; {}",
+                accountTransactionsBatchJob.getBatchId(),
+                e.getMessage(),
+                e
+            );
+        }
+    }
+    
     @Nonnull
     @Transactional(
         readOnly = true
@@ -415,120 +1419,6 @@ public class DefaultAccountingService
         );
     }
 
-    /**
-     * Find user account
-     * @param account                           Account search criteria (support 
-     *                                          {@link Account#customerId}=exact 
-     *                                          and {@link Account#accountNumber}=containing). 
-     *                                          Must not be {@code null}
-     * @return                                  {@link Slice} results containing 
-     *                                          the matching {@link Account}(s), 
-     *                                          never {@code null}
-     * @throws EntityNotFoundException          If the {@link Account} entity 
-     *                                          is not found
-     * @throws NonUniqueResultException         If the {@link Account} entity 
-     *                                          is not unique (try to use exact 
-     *                                          for the {@link Account#accountNumber})
-     * @since 1.0.0
-     */
-    @Nonnull
-    private Account findUserAccount(@Nonnull
-                                    final Account account)
-    {
-        final Slice<Account> userAccounts = findUserAccounts(
-            account,
-            Optional.empty()
-        );
-        // we have no result
-        if(!userAccounts.hasContent())
-        {
-            throw new EntityNotFoundException(
-                Optional.ofNullable(
-                    account.getCustomerId()
-                ).filter(
-                    customerIdFilterToProcess -> customerIdFilterToProcess>0
-                ).map(
-                    customerIdFilterToProcess -> String.format(
-                        "Entity `account::customerId` AND `account::accountNumber` NOT FOUND ; expecting object `%s` type by `customerId` field value '%d' AND `accountNumber` field value '%s'",
-                        Account.class.getName(),
-                        customerIdFilterToProcess,
-                        account.getAccountNumber()
-                    )
-                ).orElseGet(
-                    () -> String.format(
-                        "Entity `account::accountNumber` NOT FOUND ; expecting object `%s` type by `accountNumber` field value '%s'",
-                        Account.class.getName(),
-                        account.getAccountNumber()
-                    )
-                )
-            );
-        }
-        // we have multiple result   
-        else if(userAccounts.hasNext() || userAccounts.getContent().size()>1)
-        {
-            // we have non-unique result
-            throw new NonUniqueResultException(
-                Optional.ofNullable(
-                    account.getCustomerId()
-                ).filter(
-                    customerIdFilterToProcess -> customerIdFilterToProcess>0
-                ).map(
-                    customerIdFilterToProcess -> String.format(
-                        "Entity `account::customerId` AND `account::accountNumber` NOT UNIQUE ; expecting ONE(1) object `%s` type by `customerId` field value '%d' AND `accountNumber` field value '%s'",
-                        Account.class.getName(),
-                        customerIdFilterToProcess,
-                        account.getAccountNumber()
-                    )
-                ).orElseGet(
-                    () -> String.format(
-                        "Entity `account::accountNumber` NOT UNIQUE ; expecting ONE(1) object `%s` type by `accountNumber` field value '%s'",
-                        Account.class.getName(),
-                        account.getAccountNumber()
-                    )
-                )
-            );
-        }
-        // ok, seems to be good
-        return userAccounts.getContent().get(
-            0
-        );
-    }
-    
-    /**
-     * Find user accounts
-     * @param account                           Account search criteria (support 
-     *                                          {@link Account#customerId}=exact 
-     *                                          and {@link Account#accountNumber}=containing). 
-     *                                          Must not be {@code null}
-     * @param pageable                          An optional {@link Pageable} OR 
-     *                                          it will default. Must not be 
-     *                                          {@code null}, use {@link Optional#empty()}
-     * @return                                  {@link Slice} results containing 
-     *                                          the matching {@link Account}(s), 
-     *                                          never {@code null}
-     * @since 1.0.0
-     */
-    @Nonnull
-    private Slice<Account> findUserAccounts(@Nonnull
-                                            final Account account,
-                                            @Nonnull
-                                            final Optional<Pageable> pageable)
-    {
-        // the default is to get ONE(1) item only
-        final Pageable pageablePreference = pageable.orElseGet(
-            // construct a default
-            () -> PageRequest.of(
-                0, // first page
-                1 // number of results in this page
-            )
-        );
-        return getAccountRepository().findByCustomerIdAndAccountNumberWildcard(
-            account.getCustomerId(),
-            account.getAccountNumber(),
-            pageablePreference
-        );
-    }
-    
     /**
      * Find account transactions
      * @param transaction                       Transaction search criteria (support 
@@ -0,0 +1,1099 @@
+package my.com.maybank.accmgmt.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.CsvMessageReader;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsIngestJobRegistry;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsIngestPipeline;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsRejectReports;
+import my.com.maybank.accmgmt.component.impl.CsvRejectReport;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.constants.AppCodes;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.models.IngestJob;
+import my.com.maybank.accmgmt.models.UploadSession;
+import my.com.maybank.accmgmt.repository.UploadFingerprintRepository;
+import my.com.maybank.accmgmt.service.UploadSessionService;
+import my.com.maybank.accmgmt.utils.ByteBufferInputStream;
+import my.com.maybank.accmgmt.utils.IngestFingerprints;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.BadParameterException;
+import my.com.maybank.core.exception.InternalException;
+import my.com.maybank.core.exception.ResourceNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Default {@link UploadSessionService} implementation
+ * <p>
+ * Each session lives in its own directory under
+ * {@link DefaultAppService#getUploadSessionsBasePath()} :
+ * </p>
+ * <ul>
+ *   <li>{@code session.json} - the {@link UploadSession} checkpoint, replaced
+ *   atomically ; this is the commit point of a chunk</li>
+ *   <li>{@code header.csv} - the CSV header line, prepended to every parsed
+ *   chunk so the configured {@link CsvMessageReader} can be reused as is</li>
+ *   <li>{@code tail-<n>.bin} - the trailing partial line left after committing
+ *   chunk {@code n - 1}</li>
+ * </ul>
+ * <p>
+ * Only the partial line is kept between chunks, never the whole file. A crash
+ * after a chunk's batches are sent but before its checkpoint is written means
+ * the chunk is processed again when re-sent (at-least-once)
+ * </p>
+ * <p>
+ * When {@link DefaultAppService#isAccountingIngestDedup()} is enabled, the 
+ * committed chunks are digested into the file fingerprint, claimed when the 
+ * session completes. The digest is kept in memory ; a session resumed after 
+ * a restart is not fingerprinted
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+@Service
+public class DefaultUploadSessionService
+       implements UploadSessionService
+{
+    private static final String CHECKPOINT_FILE = "session.json";
+
+    private static final String HEADER_FILE = "header.csv";
+
+    private static final String CHUNK_FILE = "chunk.part";
+
+    @Nonnull
+    @NonNull
+    private final AppService appService;
+
+    @Nonnull
+    @NonNull
+    private final ObjectMapper objectMapper;
+
+    @Nonnull
+    @NonNull
+    private final CsvMessageReader<AccountTransactionsBatchJob.Operation, AccountTransactionsBatchJob> accountTransactionCsvReader;
+
+    @Nonnull
+    @NonNull
+    private final AccountTransactionsIngestPipeline accountTransactionsIngestPipeline;
+
+    @Nonnull
+    @NonNull
+    private final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry;
+
+    @Nonnull
+    @NonNull
+    private final AccountTransactionsRejectReports accountTransactionsRejectReports;
+
+    @Nonnull
+    @NonNull
+    private final UploadFingerprintRepository uploadFingerprintRepository;
+
+    /**
+     * Per session lock ; chunks of the same session are committed one at a
+     * time. Only open sessions have an entry
+     * @since 1.0.0
+     */
+    private final Map<String, Object> sessionLocks = new ConcurrentHashMap<>();
+
+    /**
+     * File fingerprint digest of the chunks committed so far, per session
+     * @since 1.0.0
+     */
+    private final Map<String, MessageDigest> sessionDigests = new ConcurrentHashMap<>();
+
+    @Override
+    public UploadSession createSession(@Nonnull
+                                       final String fileName)
+    {
+        final IngestJob ingestJob = accountTransactionsIngestJobRegistry.register(
+            fileName
+        );
+        final Date now = new Date();
+        final UploadSession uploadSession = new UploadSession().setSessionId(
+            UUID.randomUUID().toString()
+        ).setFileName(
+            fileName
+        ).setJobId(
+            ingestJob.getJobId()
+        ).setStatus(
+            UploadSession.Status.OPEN
+        ).setNextChunk(
+            0
+        ).setBytesReceived(
+            0l
+        ).setCommittedBytes(
+            0l
+        ).setCommittedRows(
+            0l
+        ).setHeaderLength(
+            0
+        ).setCreatedAt(
+            now
+        ).setUpdatedAt(
+            now
+        );
+        try
+        {
+            Files.createDirectories(
+                sessionPath(
+                    uploadSession.getSessionId()
+                )
+            );
+            writeCheckpoint(
+                uploadSession
+            );
+        }
+        catch(IOException e)
+        {
+            throw new InternalException(
+                String.format(
+                    "Upload session for file '%s' create FAILED ; %s",
+                    fileName,
+                    e.getMessage()
+                ),
+                e
+            ).setCode(
+                AppCodes.ERROR_CODE_UPLOAD_FAILURE
+            );
+        }
+        ingestJob.started();
+        log.info(
+            "Upload session '{}' for file '{}' CREATED",
+            uploadSession.getSessionId(),
+            fileName
+        );
+        return uploadSession;
+    }
+
+    @Override
+    public UploadSession findSession(@Nonnull
+                                     final String sessionId)
+    {
+        try
+        {
+            return objectMapper.readValue(
+                checkpointPath(
+                    sessionId
+                ).toFile(),
+                UploadSession.class
+            );
+        }
+        catch(IOException e)
+        {
+            throw new InternalException(
+                String.format(
+                    "Upload session '%s' checkpoint read FAILED ; %s",
+                    sessionId,
+                    e.getMessage()
+                ),
+                e
+            ).setCode(
+                AppCodes.ERROR_CODE_UPLOAD_FAILURE
+            );
+        }
+    }
+
+    @Override
+    public UploadSession uploadChunk(@Nonnull
+                                     final String sessionId,
+                                     final int chunkNumber,
+                                     @Nonnull
+                                     final InputStream chunkInputStream)
+    {
+        synchronized(sessionLock(sessionId))
+        {
+            final UploadSession uploadSession = findSession(
+                sessionId
+            );
+            if(uploadSession.getStatus()!=UploadSession.Status.OPEN)
+            {
+                sessionLocks.remove(
+                    sessionId
+                );
+                throw new BadParameterException(
+                    String.format(
+                        "Upload session '%s' is %s ; no more chunks accepted",
+                        sessionId,
+                        uploadSession.getStatus()
+                    )
+                ).setCode(
+                    AppCodes.ERROR_CODE_UPLOAD_CHUNK_REJECTED
+                );
+            }
+            if(chunkNumber<uploadSession.getNextChunk())
+            {
+                // already committed (i.e. client retried after losing the
+                // response) ; acknowledge without processing it again
+                log.info(
+                    "Upload session '{}' chunk ({}) ALREADY COMMITTED ; next chunk ({})",
+                    sessionId,
+                    chunkNumber,
+                    uploadSession.getNextChunk()
+                );
+                return uploadSession;
+            }
+            if(chunkNumber>uploadSession.getNextChunk())
+            {
+                throw new BadParameterException(
+                    String.format(
+                        "Upload session '%s' chunk (%d) OUT OF ORDER ; expecting chunk (%d)",
+                        sessionId,
+                        chunkNumber,
+                        uploadSession.getNextChunk()
+                    )
+                ).setCode(
+                    AppCodes.ERROR_CODE_UPLOAD_CHUNK_REJECTED
+                );
+            }
+
+            final Path sessionPath = sessionPath(
+                sessionId
+            );
+            final Path chunkPath = sessionPath.resolve(
+                CHUNK_FILE
+            );
+            try
+            {
+                // receive the whole chunk first ; nothing is committed from a
+                // chunk that was cut off mid-way
+                final long chunkSize = receiveChunk(
+                    chunkInputStream,
+                    chunkPath
+                );
+                final Path tailPath = tailPath(
+                    sessionPath,
+                    chunkNumber
+                );
+                final Path nextTailPath = tailPath(
+                    sessionPath,
+                    chunkNumber + 1
+                );
+                final IngestJob ingestJob = accountTransactionsIngestJobRegistry.find(
+                    uploadSession.getJobId()
+                ).orElse(
+                    null
+                );
+
+                long rows = 0l;
+                try(FileChannel chunkChannel = FileChannel.open(
+                    chunkPath,
+                    StandardOpenOption.READ
+                ))
+                {
+                    long bodyStart = 0l;
+                    boolean tailConsumed = false;
+                    if(uploadSession.getHeaderLength()==0)
+                    {
+                        // header line not complete yet ; it is the tail plus
+                        // the chunk up to its first line terminator
+                        final long headerEnd = indexOf(
+                            chunkChannel,
+                            0l,
+                            chunkSize
+                        );
+                        if(headerEnd>=0)
+                        {
+                            try(OutputStream headerOutputStream = Files.newOutputStream(
+                                sessionPath.resolve(
+                                    HEADER_FILE
+                                )
+                            ))
+                            {
+                                if(Files.exists(
+                                    tailPath
+                                ))
+                                {
+                                    Files.copy(
+                                        tailPath,
+                                        headerOutputStream
+                                    );
+                                }
+                                new ByteBufferInputStream(
+                                    chunkChannel.map(
+                                        FileChannel.MapMode.READ_ONLY,
+                                        0l,
+                                        headerEnd + 1
+                                    )
+                                ).transferTo(
+                                    headerOutputStream
+                                );
+                            }
+                            uploadSession.setHeaderLength(
+                                (int)Files.size(
+                                    sessionPath.resolve(
+                                        HEADER_FILE
+                                    )
+                                )
+                            );
+                            bodyStart = headerEnd + 1;
+                            tailConsumed = true;
+                        }
+                        // else the whole chunk (no line terminator) is carried
+                        // over with the tail
+                    }
+
+                    final long lastLineEnd = lastIndexOf(
+                        chunkChannel,
+                        bodyStart,
+                        chunkSize
+                    );
+                    if(lastLineEnd>=0)
+                    {
+                        // complete lines ; header + previous tail + chunk up to
+                        // its last line terminator
+                        rows = readAndSend(
+                            uploadSession,
+                            ingestJob,
+                            chunkNumber,
+                            List.of(
+                                Files.newInputStream(
+                                    sessionPath.resolve(
+                                        HEADER_FILE
+                                    )
+                                ),
+                                !tailConsumed && Files.exists(tailPath)?
+                                    Files.newInputStream(
+                                        tailPath
+                                    ):
+                                    InputStream.nullInputStream(),
+                                new ByteBufferInputStream(
+                                    chunkChannel.map(
+                                        FileChannel.MapMode.READ_ONLY,
+                                        bodyStart,
+                                        lastLineEnd + 1 - bodyStart
+                                    )
+                                )
+                            )
+                        );
+                    }
+
+                    // new tail ; the bytes after the last line terminator (the
+                    // previous tail is carried over if the chunk has none)
+                    final long newTailStart = lastLineEnd>=0?lastLineEnd + 1:bodyStart;
+                    try(OutputStream nextTailOutputStream = Files.newOutputStream(
+                        nextTailPath
+                    ))
+                    {
+                        if(lastLineEnd<0 && !tailConsumed && Files.exists(
+                            tailPath
+                        ))
+                        {
+                            Files.copy(
+                                tailPath,
+                                nextTailOutputStream
+                            );
+                        }
+                        new ByteBufferInputStream(
+                            chunkChannel.map(
+                                FileChannel.MapMode.READ_ONLY,
+                                newTailStart,
+                                chunkSize - newTailStart
+                            )
+                        ).transferTo(
+                            nextTailOutputStream
+                        );
+                    }
+                }
+
+                // commit
+                final long bytesReceived = uploadSession.getBytesReceived() + chunkSize;
+                uploadSession.setNextChunk(
+                    chunkNumber + 1
+                ).setBytesReceived(
+                    bytesReceived
+                ).setCommittedBytes(
+                    bytesReceived - Files.size(
+                        nextTailPath
+                    )
+                ).setCommittedRows(
+                    uploadSession.getCommittedRows() + rows
+                ).setUpdatedAt(
+                    new Date()
+                );
+                writeCheckpoint(
+                    uploadSession
+                );
+                Files.deleteIfExists(
+                    tailPath
+                );
+                digestChunk(
+                    sessionId,
+                    chunkNumber,
+                    chunkPath
+                );
+                log.info(
+                    "Upload session '{}' chunk ({}) COMMITTED ; ({}) byte(s), ({}) row(s), total committed ({}) row(s)",
+                    sessionId,
+                    chunkNumber,
+                    chunkSize,
+                    rows,
+                    uploadSession.getCommittedRows()
+                );
+                return uploadSession;
+            }
+            catch(InternalException e)
+            {
+                throw e;
+            }
+            catch(Exception e)
+            {
+                throw new InternalException(
+                    String.format(
+                        "Upload session '%s' chunk (%d) FAILED ; %s",
+                        sessionId,
+                        chunkNumber,
+                        e.getMessage()
+                    ),
+                    e
+                ).setCode(
+                    AppCodes.ERROR_CODE_UPLOAD_FAILURE
+                );
+            }
+            finally
+            {
+                try
+                {
+                    Files.deleteIfExists(
+                        chunkPath
+                    );
+                }
+                catch(IOException e)
+                {
+                    log.warn(
+                        "Upload session '{}' chunk file delete FAILED ; {}",
+                        sessionId,
+                        e.getMessage()
+                    );
+                }
+            }
+        }
+    }
+
+    @Override
+    public UploadSession completeSession(@Nonnull
+                                         final String sessionId)
+    {
+        synchronized(sessionLock(sessionId))
+        {
+            final UploadSession uploadSession = findSession(
+                sessionId
+            );
+            if(uploadSession.getStatus()==UploadSession.Status.COMPLETED)
+            {
+                sessionLocks.remove(
+                    sessionId
+                );
+                return uploadSession;
+            }
+
+            final Path sessionPath = sessionPath(
+                sessionId
+            );
+            final Path tailPath = tailPath(
+                sessionPath,
+                uploadSession.getNextChunk()
+            );
+            final IngestJob ingestJob = accountTransactionsIngestJobRegistry.find(
+                uploadSession.getJobId()
+            ).orElse(
+                null
+            );
+            try
+            {
+                long rows = 0l;
+                if(uploadSession.getHeaderLength()>0 &&
+                    Files.exists(tailPath) &&
+                    Files.size(tailPath)>0)
+                {
+                    // last line without line terminator
+                    rows = readAndSend(
+                        uploadSession,
+                        ingestJob,
+                        uploadSession.getNextChunk(),
+                        List.of(
+                            Files.newInputStream(
+                                sessionPath.resolve(
+                                    HEADER_FILE
+                                )
+                            ),
+                            Files.newInputStream(
+                                tailPath
+                            )
+                        )
+                    );
+                }
+                uploadSession.setStatus(
+                    UploadSession.Status.COMPLETED
+                ).setCommittedBytes(
+                    uploadSession.getBytesReceived()
+                ).setCommittedRows(
+                    uploadSession.getCommittedRows() + rows
+                ).setUpdatedAt(
+                    new Date()
+                );
+                writeCheckpoint(
+                    uploadSession
+                );
+                Files.deleteIfExists(
+                    tailPath
+                );
+                Files.deleteIfExists(
+                    sessionPath.resolve(
+                        HEADER_FILE
+                    )
+                );
+                if(Objects.nonNull(ingestJob))
+                {
+                    ingestJob.produced();
+                }
+                claimFingerprint(
+                    uploadSession,
+                    ingestJob
+                );
+                sessionLocks.remove(
+                    sessionId
+                );
+                log.info(
+                    "Upload session '{}' for file '{}' COMPLETED ; total committed ({}) row(s) over ({}) byte(s)",
+                    sessionId,
+                    uploadSession.getFileName(),
+                    uploadSession.getCommittedRows(),
+                    uploadSession.getBytesReceived()
+                );
+                return uploadSession;
+            }
+            catch(InternalException e)
+            {
+                throw e;
+            }
+            catch(Exception e)
+            {
+                throw new InternalException(
+                    String.format(
+                        "Upload session '%s' complete FAILED ; %s",
+                        sessionId,
+                        e.getMessage()
+                    ),
+                    e
+                ).setCode(
+                    AppCodes.ERROR_CODE_UPLOAD_FAILURE
+                );
+            }
+        }
+    }
+
+    @Override
+    public UploadSession abandonSession(@Nonnull
+                                        final String sessionId)
+    {
+        synchronized(sessionLock(sessionId))
+        {
+            final UploadSession uploadSession = findSession(
+                sessionId
+            );
+            if(uploadSession.getStatus()==UploadSession.Status.COMPLETED)
+            {
+                sessionLocks.remove(
+                    sessionId
+                );
+                throw new BadParameterException(
+                    String.format(
+                        "Upload session '%s' is %s ; cannot be abandoned",
+                        sessionId,
+                        uploadSession.getStatus()
+                    )
+                ).setCode(
+                    AppCodes.ERROR_CODE_UPLOAD_CHUNK_REJECTED
+                );
+            }
+            try
+            {
+                FileSystemUtils.deleteRecursively(
+                    sessionPath(
+                        sessionId
+                    )
+                );
+            }
+            catch(IOException e)
+            {
+                throw new InternalException(
+                    String.format(
+                        "Upload session '%s' abandon FAILED ; %s",
+                        sessionId,
+                        e.getMessage()
+                    ),
+                    e
+                ).setCode(
+                    AppCodes.ERROR_CODE_UPLOAD_FAILURE
+                );
+            }
+            finally
+            {
+                sessionDigests.remove(
+                    sessionId
+                );
+                sessionLocks.remove(
+                    sessionId
+                );
+            }
+            accountTransactionsIngestJobRegistry.find(
+                uploadSession.getJobId()
+            ).ifPresent(
+                ingestJob -> ingestJob.failed(
+                    String.format(
+                        "Upload session '%s' ABANDONED after (%d) committed row(s)",
+                        sessionId,
+                        uploadSession.getCommittedRows()
+                    )
+                )
+            );
+            log.info(
+                "Upload session '{}' for file '{}' ABANDONED ; ({}) row(s) already committed are kept",
+                sessionId,
+                uploadSession.getFileName(),
+                uploadSession.getCommittedRows()
+            );
+            return uploadSession.setStatus(
+                UploadSession.Status.ABANDONED
+            ).setUpdatedAt(
+                new Date()
+            );
+        }
+    }
+
+    /**
+     * Read the (header prefixed) lines and send every batch, stamped with the
+     * session job id ; bad rows go to the job reject report (line numbers are
+     * relative to the chunk) when the ingest error mode is
+     * {@link DefaultAppService.ErrorMode#REJECT}
+     * @return                                  Number of rows sent
+     * @since 1.0.0
+     */
+    private long readAndSend(@Nonnull
+                             final UploadSession uploadSession,
+                             final IngestJob ingestJob,
+                             final int chunkNumber,
+                             @Nonnull
+                             final List<InputStream> inputStreams)
+    {
+        final CsvRejectReport rejectReport = accountTransactionsRejectReports.open(
+            uploadSession.getJobId()
+        );
+        try
+        {
+            return readAndSend(
+                uploadSession,
+                ingestJob,
+                chunkNumber,
+                inputStreams,
+                rejectReport
+            );
+        }
+        finally
+        {
+            if(Objects.nonNull(rejectReport))
+            {
+                rejectReport.close();
+                if(Objects.nonNull(ingestJob))
+                {
+                    ingestJob.rowsRejected(
+                        rejectReport.getRowsRejected(),
+                        rejectReport.getReportId()
+                    );
+                }
+            }
+        }
+    }
+
+    private long readAndSend(@Nonnull
+                             final UploadSession uploadSession,
+                             final IngestJob ingestJob,
+                             final int chunkNumber,
+                             @Nonnull
+                             final List<InputStream> inputStreams,
+                             @Nullable
+                             final CsvRejectReport rejectReport)
+    {
+        // every batch of the chunk is acknowledged before the checkpoint is 
+        // written
+        final Function<Consumer<AccountTransactionsBatchJob>, Long> read = consumeToProcess -> accountTransactionCsvReader.readAndCallback(
+            new SequenceInputStream(
+                Collections.enumeration(
+                    inputStreams
+                )
+            ),
+            String.format(
+                "%s#chunk-%d",
+                uploadSession.getFileName(),
+                chunkNumber
+            ),
+            AccountTransactionsBatchJob.Operation.CREATE,
+            accountTransactionsBatchJobToProcess -> consumeToProcess.accept(
+                accountTransactionsBatchJobToProcess.setJobId(
+                    uploadSession.getJobId()
+                )
+            ),
+            rejectReport
+        );
+        return accountTransactionsIngestPipeline.readAndPublish(
+            ((DefaultAppService)appService).isAccountingIngestDedup()?
+                IngestFingerprints.withoutRepeatedRows(
+                    read,
+                    rejectReport
+                ):
+                read,
+            accountTransactionsBatchJobToProcess -> {
+                if(Objects.nonNull(ingestJob))
+                {
+                    ingestJob.batchProduced(
+                        accountTransactionsBatchJobToProcess.getBatchAccountTransaction().size()
+                    );
+                }
+            }
+        );
+    }
+
+    /**
+     * Digest a committed chunk into the session file fingerprint
+     * @since 1.0.0
+     */
+    private void digestChunk(@Nonnull
+                             final String sessionId,
+                             final int chunkNumber,
+                             @Nonnull
+                             final Path chunkPath)
+            throws IOException
+    {
+        if(!((DefaultAppService)appService).isAccountingIngestDedup())
+        {
+            return;
+        }
+        if(chunkNumber==0)
+        {
+            sessionDigests.put(
+                sessionId,
+                IngestFingerprints.newFileDigest()
+            );
+        }
+        final MessageDigest sessionDigest = sessionDigests.get(
+            sessionId
+        );
+        if(Objects.nonNull(sessionDigest))
+        {
+            IngestFingerprints.digest(
+                sessionDigest,
+                chunkPath
+            );
+        }
+    }
+
+    /**
+     * Claim the file fingerprint of a completed session ; its batches are sent 
+     * already, so an exact re-upload is flagged on the ingest job and its rows 
+     * already persisted are skipped by the consumer
+     * @since 1.0.0
+     */
+    private void claimFingerprint(@Nonnull
+                                  final UploadSession uploadSession,
+                                  @Nullable
+                                  final IngestJob ingestJob)
+    {
+        final MessageDigest sessionDigest = sessionDigests.remove(
+            uploadSession.getSessionId()
+        );
+        if(!((DefaultAppService)appService).isAccountingIngestDedup() || 
+            uploadSession.getBytesReceived()==0l)
+        {
+            return;
+        }
+        if(Objects.isNull(sessionDigest))
+        {
+            log.info(
+                "Upload session '{}' for file '{}' NOT FINGERPRINTED ; resumed after a restart",
+                uploadSession.getSessionId(),
+                uploadSession.getFileName()
+            );
+            return;
+        }
+        final String uploadFingerprint = IngestFingerprints.fileFingerprint(
+            sessionDigest
+        );
+        if(uploadFingerprintRepository.insertIfAbsent(
+            uploadFingerprint,
+            uploadSession.getFileName(),
+            uploadSession.getBytesReceived()
+        )==0)
+        {
+            log.warn(
+                "Upload session '{}' for file '{}' SAME CONTENT (SHA-256 {}) ALREADY INGESTED ; its rows already persisted are skipped by the consumer",
+                uploadSession.getSessionId(),
+                uploadSession.getFileName(),
+                uploadFingerprint
+            );
+            if(Objects.nonNull(ingestJob))
+            {
+                ingestJob.duplicateRead();
+            }
+        }
+    }
+
+    /**
+     * Copy the chunk to disk, bounded by
+     * {@link DefaultAppService#getAccountingIngestChunkMaxSize()}
+     * @return                                  Chunk size
+     * @since 1.0.0
+     */
+    private long receiveChunk(@Nonnull
+                              final InputStream chunkInputStream,
+                              @Nonnull
+                              final Path chunkPath)
+            throws IOException
+    {
+        final long chunkMaxSize = ((DefaultAppService)appService).getAccountingIngestChunkMaxSize();
+        long chunkSize = 0l;
+        try(InputStream chunkInputStreamToRead = chunkInputStream;
+            OutputStream chunkOutputStream = Files.newOutputStream(
+                chunkPath
+            ))
+        {
+            final byte[] buffer = new byte[64 * 1024];
+            int read;
+            while((read = chunkInputStreamToRead.read(buffer))>=0)
+            {
+                chunkSize += read;
+                if(chunkSize>chunkMaxSize)
+                {
+                    throw new BadParameterException(
+                        String.format(
+                            "Upload chunk EXCEEDS max size (%d) byte(s)",
+                            chunkMaxSize
+                        )
+                    ).setCode(
+                        AppCodes.ERROR_CODE_UPLOAD_CHUNK_REJECTED
+                    );
+                }
+                chunkOutputStream.write(
+                    buffer,
+                    0,
+                    read
+                );
+            }
+        }
+        return chunkSize;
+    }
+
+    /**
+     * Write the checkpoint to a temporary file and atomically replace the
+     * current one
+     * @since 1.0.0
+     */
+    private void writeCheckpoint(@Nonnull
+                                 final UploadSession uploadSession)
+            throws IOException
+    {
+        final Path sessionPath = sessionPath(
+            uploadSession.getSessionId()
+        );
+        final Path checkpointTempPath = sessionPath.resolve(
+            CHECKPOINT_FILE + ".tmp"
+        );
+        objectMapper.writeValue(
+            checkpointTempPath.toFile(),
+            uploadSession
+        );
+        Files.move(
+            checkpointTempPath,
+            sessionPath.resolve(
+                CHECKPOINT_FILE
+            ),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+    }
+
+    /**
+     * Resolve the session directory ; the session id must be a UUID so it
+     * cannot escape the sessions base path
+     * @since 1.0.0
+     */
+    @Nonnull
+    private Path sessionPath(@Nonnull
+                             final String sessionId)
+    {
+        try
+        {
+            return ((DefaultAppService)appService).getUploadSessionsBasePath().resolve(
+                UUID.fromString(
+                    sessionId
+                ).toString()
+            );
+        }
+        catch(IllegalArgumentException e)
+        {
+            throw new ResourceNotFoundException(
+                String.format(
+                    "Upload session '%s' NOT FOUND",
+                    sessionId
+                )
+            ).setCode(
+                AppCodes.ERROR_CODE_UPLOAD_SESSION_NOT_FOUND
+            );
+        }
+    }
+
+    /**
+     * Resolve the session checkpoint
+     * @throws ResourceNotFoundException        If the session id is not a 
+     *                                          UUID or has no checkpoint
+     * @since 1.0.0
+     */
+    @Nonnull
+    private Path checkpointPath(@Nonnull
+                                final String sessionId)
+    {
+        final Path checkpointPath = sessionPath(
+            sessionId
+        ).resolve(
+            CHECKPOINT_FILE
+        );
+        if(!Files.exists(
+            checkpointPath
+        ))
+        {
+            throw new ResourceNotFoundException(
+                String.format(
+                    "Upload session '%s' NOT FOUND",
+                    sessionId
+                )
+            ).setCode(
+                AppCodes.ERROR_CODE_UPLOAD_SESSION_NOT_FOUND
+            );
+        }
+        return checkpointPath;
+    }
+
+    @Nonnull
+    private Path tailPath(@Nonnull
+                          final Path sessionPath,
+                          final int chunkNumber)
+    {
+        return sessionPath.resolve(
+            String.format(
+                "tail-%d.bin",
+                chunkNumber
+            )
+        );
+    }
+
+    /**
+     * Lock of an existing session ; the id is checked first so a malformed or
+     * unknown id never leaves an entry behind. The entry is removed once the
+     * session is completed or abandoned
+     * @throws ResourceNotFoundException        If the session is not found
+     * @since 1.0.0
+     */
+    @Nonnull
+    private Object sessionLock(@Nonnull
+                               final String sessionId)
+    {
+        checkpointPath(
+            sessionId
+        );
+        return sessionLocks.computeIfAbsent(
+            sessionId,
+            sessionIdToProcess -> new Object()
+        );
+    }
+
+    /**
+     * First {@code \n} offset within {@code [from, to)}, {@code -1} if none
+     * @since 1.0.0
+     */
+    private static long indexOf(@Nonnull
+                                final FileChannel fileChannel,
+                                final long from,
+                                final long to)
+            throws IOException
+    {
+        if(to<=from)
+        {
+            return -1l;
+        }
+        final ByteBufferInputStream byteBufferInputStream = new ByteBufferInputStream(
+            fileChannel.map(
+                FileChannel.MapMode.READ_ONLY,
+                from,
+                to - from
+            )
+        );
+        long offset = from;
+        int b;
+        while((b = byteBufferInputStream.read())>=0)
+        {
+            if(b=='\n')
+            {
+                return offset;
+            }
+            offset++;
+        }
+        return -1l;
+    }
+
+    /**
+     * Last {@code \n} offset within {@code [from, to)}, {@code -1} if none
+     * @since 1.0.0
+     */
+    private static long lastIndexOf(@Nonnull
+                                    final FileChannel fileChannel,
+                                    final long from,
+                                    final long to)
+            throws IOException
+    {
+        if(to<=from)
+        {
+            return -1l;
+        }
+        final MappedByteBuffer mappedByteBuffer = fileChannel.map(
+            FileChannel.MapMode.READ_ONLY,
+            from,
+            to - from
+        );
+        for(int i = (int)(to - from) - 1; i >= 0; i--)
+        {
+            if(mappedByteBuffer.get(i)=='\n')
+            {
+                return from + i;
+            }
+        }
+        return -1l;
+    }
+}
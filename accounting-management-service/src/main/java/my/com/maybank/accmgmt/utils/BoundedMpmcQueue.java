@@ -0,0 +1,203 @@
+package my.com.maybank.accmgmt.utils;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer queue
+ * <p>
+ * Array ring where every slot carries a sequence number telling whether it is
+ * free for the producer at a given position or filled for the consumer at
+ * that position (D. Vyukov's bounded MPMC queue) ; producers and consumers
+ * only contend on a compare-and-set of their own position counter.
+ * {@link #offer(java.lang.Object)} returns {@code false} when the queue is
+ * full, it is up to the caller to back off and retry (backpressure)
+ * </p>
+ * @param <E>                                   Element type
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+public final class BoundedMpmcQueue<E>
+{
+    private final int mask;
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong enqueuePosition = new AtomicLong();
+
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    /**
+     * New queue
+     * @param capacity                          Min capacity ; rounded up to the
+     *                                          next power of two (at least
+     *                                          {@code 2}). Must be
+     *                                          greater than {@code 0}
+     * @since 1.0.0
+     */
+    public BoundedMpmcQueue(final int capacity)
+    {
+        if(capacity<1 || capacity>(1 << 30))
+        {
+            throw new IllegalArgumentException(
+                String.format("Queue capacity (%d) must be between 1 and %d",
+                    capacity,
+                    1 << 30
+                )
+            );
+        }
+        final int slots = Integer.highestOneBit(
+            capacity - 1
+        ) << 1;
+        // at least two slots, a single slot cannot tell a full lap from an
+        // empty one
+        this.mask = Math.max(
+            slots,
+            2
+        ) - 1;
+        this.buffer = new AtomicReferenceArray<>(
+            mask + 1
+        );
+        this.sequences = new AtomicLongArray(
+            mask + 1
+        );
+        for(int i = 0; i <= mask; i++)
+        {
+            sequences.set(
+                i,
+                i
+            );
+        }
+    }
+
+    /**
+     * @return                                  Queue capacity (number of
+     *                                          slots)
+     * @since 1.0.0
+     */
+    public int capacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * Enqueue the element if there is a free slot
+     * @param element                           Element. Must not be
+     *                                          {@code null}
+     * @return                                  {@code false} if the queue is
+     *                                          full
+     * @since 1.0.0
+     */
+    public boolean offer(@Nonnull
+                         final E element)
+    {
+        long position = enqueuePosition.get();
+        int index;
+        for(;;)
+        {
+            index = (int)(position & mask);
+            final long difference = sequences.get(index) - position;
+            if(difference==0)
+            {
+                if(enqueuePosition.compareAndSet(
+                    position,
+                    position + 1
+                ))
+                {
+                    break;
+                }
+                position = enqueuePosition.get();
+            }
+            else if(difference<0)
+            {
+                // the slot still holds the element of the previous lap
+                return false;
+            }
+            else
+            {
+                position = enqueuePosition.get();
+            }
+        }
+        buffer.set(
+            index,
+            element
+        );
+        // publish the slot to the consumer at this position
+        sequences.set(
+            index,
+            position + 1
+        );
+        return true;
+    }
+
+    /**
+     * Dequeue the oldest element
+     * @return                                  Element, {@code null} if the
+     *                                          queue is empty
+     * @since 1.0.0
+     */
+    @Nullable
+    public E poll()
+    {
+        long position = dequeuePosition.get();
+        int index;
+        for(;;)
+        {
+            index = (int)(position & mask);
+            final long difference = sequences.get(index) - (position + 1);
+            if(difference==0)
+            {
+                if(dequeuePosition.compareAndSet(
+                    position,
+                    position + 1
+                ))
+                {
+                    break;
+                }
+                position = dequeuePosition.get();
+            }
+            else if(difference<0)
+            {
+                // not yet filled for this lap
+                return null;
+            }
+            else
+            {
+                position = dequeuePosition.get();
+            }
+        }
+        final E element = buffer.get(
+            index
+        );
+        buffer.set(
+            index,
+            null
+        );
+        // free the slot for the producer of the next lap
+        sequences.set(
+            index,
+            position + mask + 1
+        );
+        return element;
+    }
+
+    /**
+     * @return                                  Approximate number of elements
+     * @since 1.0.0
+     */
+    public int size()
+    {
+        return (int)Math.max(
+            0l,
+            Math.min(
+                enqueuePosition.get() - dequeuePosition.get(),
+                capacity()
+            )
+        );
+    }
+}
@@ -0,0 +1,75 @@
+package my.com.maybank.accmgmt.utils;
+
+import jakarta.annotation.Nonnull;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link InputStream} view over a {@link ByteBuffer} (i.e. a memory-mapped file 
+ * range) ; reads advance the buffer position, nothing is copied up front
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@RequiredArgsConstructor
+public class ByteBufferInputStream
+       extends InputStream
+{
+    @NonNull
+    @Nonnull
+    private final ByteBuffer byteBuffer;
+    
+    @Override
+    public int read()
+    {
+        return byteBuffer.hasRemaining()?byteBuffer.get() & 0xFF:-1;
+    }
+    
+    @Override
+    public int read(final byte[] b,
+                    final int off,
+                    final int len)
+    {
+        if(len==0)
+        {
+            return 0;
+        }
+        if(!byteBuffer.hasRemaining())
+        {
+            return -1;
+        }
+        final int n = Math.min(
+            len, 
+            byteBuffer.remaining()
+        );
+        byteBuffer.get(
+            b, 
+            off, 
+            n
+        );
+        return n;
+    }
+    
+    @Override
+    public long skip(final long n)
+    {
+        final int skipped = (int)Math.max(
+            0,
+            Math.min(
+                n, 
+                byteBuffer.remaining()
+            )
+        );
+        byteBuffer.position(
+            byteBuffer.position() + skipped
+        );
+        return skipped;
+    }
+    
+    @Override
+    public int available()
+    {
+        return byteBuffer.remaining();
+    }
+}
@@ -0,0 +1,224 @@
+package my.com.maybank.accmgmt.utils;
+
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Upload payload compression
+ * <p>
+ * Chosen by the {@code Content-Encoding} header or the file extension ; the
+ * payload is always decoded as a stream in front of the CSV parser, it is
+ * never inflated to disk or heap
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CompressionCodec
+{
+    /**
+     * Plain text
+     * @since 1.0.0
+     */
+    NONE(
+        null,
+        null
+    ),
+
+    /**
+     * {@code gzip} ({@code .gz})
+     * @since 1.0.0
+     */
+    GZIP(
+        "gzip",
+        ".gz"
+    ),
+
+    /**
+     * {@code zstd} ({@code .zst})
+     * @since 1.0.0
+     */
+    ZSTD(
+        "zstd",
+        ".zst"
+    );
+
+    /**
+     * Decoder input buffer size
+     * @since 1.0.0
+     */
+    private static final int DECODE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * {@code Content-Encoding} token
+     * @since 1.0.0
+     */
+    @Nullable
+    private final String contentEncoding;
+
+    /**
+     * File extension (lower case, dot included)
+     * @since 1.0.0
+     */
+    @Nullable
+    private final String fileExtension;
+
+    /**
+     * Resolve the compression from the {@code Content-Encoding} header,
+     * falling back to the file extension
+     * @param contentEncoding                   {@code Content-Encoding} header
+     *                                          value (may be {@code null})
+     * @param fileName                          File name (may be {@code null})
+     * @return                                  Compression, never
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public static CompressionCodec resolve(@Nullable
+                                           final String contentEncoding,
+                                           @Nullable
+                                           final String fileName)
+    {
+        return Optional.ofNullable(
+            contentEncoding
+        ).map(
+            contentEncodingToProcess -> contentEncodingToProcess.trim().toLowerCase(
+                Locale.ROOT
+            )
+        ).flatMap(
+            contentEncodingToProcess -> Arrays.stream(
+                values()
+            ).filter(
+                compressionCodecToProcess -> contentEncodingToProcess.equals(
+                    compressionCodecToProcess.getContentEncoding()
+                )
+            ).findFirst()
+        ).orElseGet(
+            () -> ofFileName(
+                fileName
+            )
+        );
+    }
+
+    /**
+     * Resolve the compression from the file extension
+     * @param fileName                          File name (may be {@code null})
+     * @return                                  Compression, {@link #NONE} if
+     *                                          the extension is not a
+     *                                          compressed one
+     * @since 1.0.0
+     */
+    @Nonnull
+    public static CompressionCodec ofFileName(@Nullable
+                                              final String fileName)
+    {
+        return Optional.ofNullable(
+            fileName
+        ).map(
+            fileNameToProcess -> fileNameToProcess.toLowerCase(
+                Locale.ROOT
+            )
+        ).flatMap(
+            fileNameToProcess -> Arrays.stream(
+                values()
+            ).filter(
+                compressionCodecToProcess -> compressionCodecToProcess.getFileExtension()!=null &&
+                    fileNameToProcess.endsWith(
+                        compressionCodecToProcess.getFileExtension()
+                    )
+            ).findFirst()
+        ).orElse(
+            NONE
+        );
+    }
+
+    /**
+     * Wrap the stream with the streaming decoder
+     * @param in                                Compressed stream. Must not be
+     *                                          {@code null}
+     * @return                                  Decoded stream ; closing it
+     *                                          closes {@code in}
+     * @throws IOException                      If the stream header is invalid
+     * @since 1.0.0
+     */
+    @Nonnull
+    public InputStream decode(@Nonnull
+                              final InputStream in)
+           throws IOException
+    {
+        switch(this)
+        {
+            case GZIP:
+                return new GZIPInputStream(
+                    in,
+                    DECODE_BUFFER_SIZE
+                );
+            case ZSTD:
+                return new BufferedInputStream(
+                    new ZstdInputStreamNoFinalizer(
+                        in
+                    ),
+                    DECODE_BUFFER_SIZE
+                );
+            case NONE:
+            default:
+                return in;
+        }
+    }
+
+    /**
+     * Remove this compression file extension from the file name (i.e.
+     * {@code dataSource.txt.gz} to {@code dataSource.txt})
+     * @param fileName                          File name. Must not be
+     *                                          {@code null}
+     * @return                                  Decoded file name
+     * @since 1.0.0
+     */
+    @Nonnull
+    public String decodedFileName(@Nonnull
+                                  final String fileName)
+    {
+        if(fileExtension!=null &&
+            fileName.toLowerCase(Locale.ROOT).endsWith(fileExtension) &&
+            fileName.length()>fileExtension.length())
+        {
+            return fileName.substring(
+                0,
+                fileName.length() - fileExtension.length()
+            );
+        }
+        return fileName;
+    }
+
+    /**
+     * Append this compression file extension to the file name if missing, so
+     * the name describes the payload (i.e. a {@code Content-Encoding: gzip}
+     * upload named {@code dataSource.txt} becomes {@code dataSource.txt.gz})
+     * @param fileName                          File name. Must not be
+     *                                          {@code null}
+     * @return                                  Encoded file name
+     * @since 1.0.0
+     */
+    @Nonnull
+    public String encodedFileName(@Nonnull
+                                  final String fileName)
+    {
+        if(fileExtension!=null &&
+            !fileName.toLowerCase(Locale.ROOT).endsWith(fileExtension))
+        {
+            return fileName + fileExtension;
+        }
+        return fileName;
+    }
+}
@@ -0,0 +1,130 @@
+package my.com.maybank.accmgmt.utils;
+
+import jakarta.annotation.Nonnull;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import lombok.Getter;
+
+/**
+ * Input stream that digests every byte read into the upload file fingerprint
+ * <p>
+ * Used by the streaming upload, whose bytes are parsed as they arrive and 
+ * never staged ; the fingerprint (see {@link IngestFingerprints#fileFingerprint(java.nio.file.Path)}) 
+ * is known once the stream was read to its end
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+public class FingerprintingInputStream
+       extends FilterInputStream
+{
+    @Nonnull
+    private final MessageDigest messageDigest = IngestFingerprints.newFileDigest();
+    
+    /**
+     * Number of bytes read (digested)
+     * @since 1.0.0
+     */
+    @Getter
+    private long bytesRead;
+    
+    /**
+     * Constructor
+     * @param in                                Source stream. Must not be 
+     *                                          {@code null}
+     * @since 1.0.0
+     */
+    public FingerprintingInputStream(@Nonnull
+                                     final InputStream in)
+    {
+        super(
+            in
+        );
+    }
+    
+    @Override
+    public int read()
+           throws IOException
+    {
+        final int b = super.read();
+        if(b!=-1)
+        {
+            messageDigest.update(
+                (byte)b
+            );
+            bytesRead++;
+        }
+        return b;
+    }
+    
+    @Override
+    public int read(final byte[] b,
+                    final int off,
+                    final int len)
+           throws IOException
+    {
+        final int n = super.read(
+            b, 
+            off, 
+            len
+        );
+        if(n>0)
+        {
+            messageDigest.update(
+                b, 
+                off, 
+                n
+            );
+            bytesRead += n;
+        }
+        return n;
+    }
+    
+    @Override
+    public long skip(final long n)
+           throws IOException
+    {
+        // skipped bytes are part of the file, so read them through
+        final byte[] skipBuffer = new byte[8192];
+        long remaining = n;
+        while(remaining>0)
+        {
+            final int read = read(
+                skipBuffer, 
+                0, 
+                (int)Math.min(
+                    skipBuffer.length, 
+                    remaining
+                )
+            );
+            if(read<0)
+            {
+                break;
+            }
+            remaining -= read;
+        }
+        return n - remaining;
+    }
+    
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+    
+    /**
+     * Fingerprint of the bytes read ; call once, after the stream was read to 
+     * its end
+     * @return                                  Lower case hex SHA-256
+     * @since 1.0.0
+     */
+    @Nonnull
+    public String getFileFingerprint()
+    {
+        return IngestFingerprints.fileFingerprint(
+            messageDigest
+        );
+    }
+}
@@ -0,0 +1,337 @@
+package my.com.maybank.accmgmt.utils;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.RowRejectSink;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+
+/**
+ * Ingest de-duplication fingerprints
+ * <ul>
+ *   <li>file : SHA-256 of the uploaded bytes, to short-circuit an exact
+ *   re-upload</li>
+ *   <li>row : 64-bit hash of the row natural key (account, amount, date,
+ *   time, description), compact enough to be indexed next to every
+ *   transaction</li>
+ * </ul>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@NoArgsConstructor(
+    access = AccessLevel.PRIVATE
+)
+@Slf4j
+public final class IngestFingerprints
+{
+    private static final long FNV64_OFFSET_BASIS = 0xcbf29ce484222325l;
+
+    private static final long FNV64_PRIME = 0x100000001b3l;
+
+    /**
+     * Field separator mixed in between the natural key fields (ASCII unit
+     * separator) so that {@code "ab"+"c"} and {@code "a"+"bc"} differ
+     * @since 1.0.0
+     */
+    private static final int FIELD_SEPARATOR = 0x1f;
+
+    private static final int FILE_READ_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * New SHA-256 message digest, for a file read in several parts (i.e. a
+     * streamed upload or the chunks of a resumable upload)
+     * @return                                  Message digest, never
+     *                                          {@code null}
+     * @since 1.0.0
+     * @see #fileFingerprint(java.security.MessageDigest)
+     */
+    @Nonnull
+    public static MessageDigest newFileDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(
+                "SHA-256"
+            );
+        }
+        catch(NoSuchAlgorithmException e)
+        {
+            // mandatory algorithm on every Java platform
+            throw new IllegalStateException(
+                e
+            );
+        }
+    }
+
+    /**
+     * SHA-256 of the file, streamed through a fixed size buffer
+     * @param filePath                          File path. Must not be
+     *                                          {@code null}
+     * @return                                  Lower case hex digest
+     * @throws IOException                      If the file cannot be read
+     * @since 1.0.0
+     */
+    @Nonnull
+    public static String fileFingerprint(@Nonnull
+                                         final Path filePath)
+           throws IOException
+    {
+        final MessageDigest messageDigest = newFileDigest();
+        digest(
+            messageDigest,
+            filePath
+        );
+        return fileFingerprint(
+            messageDigest
+        );
+    }
+
+    /**
+     * File fingerprint of the bytes digested so far ; the digest is reset
+     * @param messageDigest                     Digest from
+     *                                          {@link #newFileDigest()}. Must
+     *                                          not be {@code null}
+     * @return                                  Lower case hex digest
+     * @since 1.0.0
+     */
+    @Nonnull
+    public static String fileFingerprint(@Nonnull
+                                         final MessageDigest messageDigest)
+    {
+        return HexFormat.of().formatHex(
+            messageDigest.digest()
+        );
+    }
+
+    /**
+     * Add the file content to the digest, streamed through a fixed size
+     * buffer
+     * @param messageDigest                     Digest. Must not be
+     *                                          {@code null}
+     * @param filePath                          File path. Must not be
+     *                                          {@code null}
+     * @throws IOException                      If the file cannot be read
+     * @since 1.0.0
+     */
+    public static void digest(@Nonnull
+                              final MessageDigest messageDigest,
+                              @Nonnull
+                              final Path filePath)
+           throws IOException
+    {
+        try(FileChannel fileChannel = FileChannel.open(
+            filePath,
+            StandardOpenOption.READ
+        ))
+        {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(
+                FILE_READ_BUFFER_SIZE
+            );
+            while(fileChannel.read(buffer)>=0)
+            {
+                buffer.flip();
+                messageDigest.update(
+                    buffer
+                );
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * Natural key fingerprint of the row (FNV-1a over the fields, finished
+     * with the MurmurHash3 64-bit mix)
+     * @param accountTransaction                Row. Must not be {@code null}
+     * @return                                  64-bit fingerprint
+     * @since 1.0.0
+     */
+    public static long rowFingerprint(@Nonnull
+                                      final AccountTransaction accountTransaction)
+    {
+        long hash = FNV64_OFFSET_BASIS;
+        hash = hash(
+            hash,
+            accountTransaction.getAccountNumber()
+        );
+        hash = hash(
+            hash,
+            accountTransaction.getTrxAmount()==null?
+                null:
+                Long.toHexString(
+                    Double.doubleToLongBits(
+                        accountTransaction.getTrxAmount()
+                    )
+                )
+        );
+        hash = hash(
+            hash,
+            accountTransaction.getTrxDate()
+        );
+        hash = hash(
+            hash,
+            accountTransaction.getTrxTime()
+        );
+        hash = hash(
+            hash,
+            accountTransaction.getDescription()
+        );
+        return mix(
+            hash
+        );
+    }
+
+    /**
+     * Drop (in place) the batch rows with the same natural key as an earlier 
+     * row of the batch, reporting every repeat to the reject sink (or logging 
+     * them when there is none) ; the first occurrence is kept
+     * @param accountTransactionsBatchJob       Batch. Must not be {@code null}
+     * @param rejectSink                        Reject sink (may be 
+     *                                          {@code null})
+     * @return                                  Number of rows dropped
+     * @since 1.0.0
+     */
+    public static int dropRepeatedRows(@Nonnull
+                                       final AccountTransactionsBatchJob accountTransactionsBatchJob,
+                                       @Nullable
+                                       final RowRejectSink rejectSink)
+    {
+        final Map<Long, AccountTransaction> firstRowsByFingerprint = new HashMap<>();
+        int repeatedRows = 0;
+        final Iterator<AccountTransaction> batchAccountTransactionIterator = accountTransactionsBatchJob.getBatchAccountTransaction().iterator();
+        while(batchAccountTransactionIterator.hasNext())
+        {
+            final AccountTransaction accountTransactionToProcess = batchAccountTransactionIterator.next();
+            final AccountTransaction firstAccountTransaction = firstRowsByFingerprint.putIfAbsent(
+                rowFingerprint(
+                    accountTransactionToProcess
+                ),
+                accountTransactionToProcess
+            );
+            if(Objects.isNull(firstAccountTransaction))
+            {
+                continue;
+            }
+            batchAccountTransactionIterator.remove();
+            repeatedRows++;
+            final String reason = String.format(
+                "Row IDENTICAL to line %s of the same batch ; skipped by the ingest de-duplication",
+                Objects.toString(
+                    firstAccountTransaction.getLineNumber(),
+                    "?"
+                )
+            );
+            if(Objects.nonNull(rejectSink))
+            {
+                rejectSink.reject(
+                    Objects.requireNonNullElse(
+                        accountTransactionToProcess.getLineNumber(),
+                        0l
+                    ),
+                    null,
+                    reason
+                );
+            }
+            else
+            {
+                log.warn(
+                    "Batch ID({}) line ({}) SKIPPED ; {}",
+                    accountTransactionsBatchJob.getBatchId(),
+                    Objects.toString(
+                        accountTransactionToProcess.getLineNumber(),
+                        "?"
+                    ),
+                    reason
+                );
+            }
+        }
+        return repeatedRows;
+    }
+
+    /**
+     * Wrap a read so that every batch it produces has its repeated rows 
+     * dropped (see {@link #dropRepeatedRows(my.com.maybank.accmgmt.models.AccountTransactionsBatchJob, my.com.maybank.accmgmt.component.RowRejectSink)}) 
+     * before it is sent ; the rows read it returns leave out the rows dropped, 
+     * so they still match the rows sent
+     * @param read                              Read sending its batches to 
+     *                                          the given consumer, returning 
+     *                                          the rows read. Must not be 
+     *                                          {@code null}
+     * @param rejectSink                        Reject sink (may be 
+     *                                          {@code null})
+     * @return                                  De-duplicating read
+     * @since 1.0.0
+     */
+    @Nonnull
+    public static Function<Consumer<AccountTransactionsBatchJob>, Long> withoutRepeatedRows(@Nonnull
+                                                                                             final Function<Consumer<AccountTransactionsBatchJob>, Long> read,
+                                                                                             @Nullable
+                                                                                             final RowRejectSink rejectSink)
+    {
+        return consume -> {
+            // batches may be read on parallel parser threads
+            final AtomicLong repeatedRows = new AtomicLong();
+            final long rowsRead = read.apply(
+                accountTransactionsBatchJobToProcess -> {
+                    repeatedRows.addAndGet(
+                        dropRepeatedRows(
+                            accountTransactionsBatchJobToProcess,
+                            rejectSink
+                        )
+                    );
+                    consume.accept(
+                        accountTransactionsBatchJobToProcess
+                    );
+                }
+            );
+            return rowsRead - repeatedRows.get();
+        };
+    }
+
+    private static long hash(long hash,
+                             @Nullable
+                             final String field)
+    {
+        if(field!=null)
+        {
+            for(byte b : field.getBytes(
+                StandardCharsets.UTF_8
+            ))
+            {
+                hash ^= b & 0xff;
+                hash *= FNV64_PRIME;
+            }
+        }
+        hash ^= FIELD_SEPARATOR;
+        hash *= FNV64_PRIME;
+        return hash;
+    }
+
+    private static long mix(long hash)
+    {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdl;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53l;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
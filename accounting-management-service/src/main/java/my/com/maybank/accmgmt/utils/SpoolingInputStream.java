@@ -0,0 +1,176 @@
+package my.com.maybank.accmgmt.utils;
+
+import jakarta.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Input stream that tees every byte read to a spool file
+ * <p>
+ * Used by the streaming upload so that the parser reads straight from the 
+ * request while a copy is kept on disk for replay. The spool is deleted with 
+ * {@link #discard()} when the ingest succeeds and kept otherwise
+ * </p>
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+public class SpoolingInputStream
+       extends FilterInputStream
+{
+    /**
+     * Spool file path
+     * @since 1.0.0
+     */
+    @Getter
+    @Nonnull
+    private final Path spoolPath;
+    
+    @Nonnull
+    private final OutputStream spoolOutputStream;
+    
+    /**
+     * Constructor
+     * @param in                                Source stream. Must not be 
+     *                                          {@code null}
+     * @param spoolPath                         Spool file to write to ; parent 
+     *                                          directories are created. Must not 
+     *                                          be {@code null}
+     * @throws IOException                      If the spool file cannot be 
+     *                                          created
+     * @since 1.0.0
+     */
+    public SpoolingInputStream(@Nonnull
+                               final InputStream in,
+                               @Nonnull
+                               final Path spoolPath)
+           throws IOException
+    {
+        super(
+            in
+        );
+        Files.createDirectories(
+            spoolPath.getParent()
+        );
+        this.spoolPath = spoolPath;
+        this.spoolOutputStream = new BufferedOutputStream(
+            Files.newOutputStream(
+                spoolPath
+            )
+        );
+    }
+    
+    @Override
+    public int read()
+           throws IOException
+    {
+        final int b = super.read();
+        if(b!=-1)
+        {
+            spoolOutputStream.write(
+                b
+            );
+        }
+        return b;
+    }
+    
+    @Override
+    public int read(final byte[] b,
+                    final int off,
+                    final int len)
+           throws IOException
+    {
+        final int n = super.read(
+            b, 
+            off, 
+            len
+        );
+        if(n>0)
+        {
+            spoolOutputStream.write(
+                b, 
+                off, 
+                n
+            );
+        }
+        return n;
+    }
+    
+    @Override
+    public long skip(final long n)
+           throws IOException
+    {
+        // skipped bytes must still land in the spool, so read them through
+        final byte[] skipBuffer = new byte[8192];
+        long remaining = n;
+        while(remaining>0)
+        {
+            final int read = read(
+                skipBuffer, 
+                0, 
+                (int)Math.min(
+                    skipBuffer.length, 
+                    remaining
+                )
+            );
+            if(read<0)
+            {
+                break;
+            }
+            remaining -= read;
+        }
+        return n - remaining;
+    }
+    
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+    
+    @Override
+    public void close()
+           throws IOException
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            spoolOutputStream.close();
+        }
+    }
+    
+    /**
+     * Delete the spool file (i.e. when the ingest succeeded and no replay is 
+     * needed)
+     * @since 1.0.0
+     */
+    public void discard()
+    {
+        try
+        {
+            close();
+            Files.deleteIfExists(
+                spoolPath
+            );
+        }
+        catch(Exception e)
+        {
+            log.warn(
+                "Discard spool file '{}' ENCOUNTERED FAILURE ; {}",
+                spoolPath,
+                e.getMessage(),
+                e
+            );
+        }
+    }
+}
@@ -0,0 +1,674 @@
+package my.com.maybank.accmgmt.utils;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.core.exception.InternalException;
+
+/**
+ * Two stage worker pipeline ; items submitted by the caller are transformed
+ * by a pool of {@code transformWidth} threads then handed to a pool of
+ * {@code sendWidth} threads
+ * <p>
+ * The send stage is asynchronous : it returns a {@link CompletionStage} and an
+ * item only counts as sent once that stage completes, so a send thread can
+ * keep many items in flight (the send function itself bounds how many)
+ * </p>
+ * <p>
+ * The stages are connected by {@link BoundedMpmcQueue}(s) ; a stage facing a
+ * full queue backs off until the next stage catches up, so a slow sender
+ * eventually slows the submitting thread down instead of buffering without
+ * bound. The worker threads are shared by every {@link Run} ; a run tracks its
+ * own in flight items and first failure
+ * </p>
+ * @param <I>                                   Submitted item type
+ * @param <O>                                   Transformed item type
+ * @since 1.0.0
+ * @author ChristopherCKW
+ */
+@Slf4j
+@Getter
+public class StagedPipeline<I, O>
+       implements AutoCloseable
+{
+    /**
+     * Idle rounds spent spinning before parking
+     * @since 1.0.0
+     */
+    private static final int IDLE_SPINS = 64;
+
+    /**
+     * Max park time of an idle (or backed off) thread
+     * @since 1.0.0
+     */
+    private static final long IDLE_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(
+        1l
+    );
+
+    @Nonnull
+    private final String name;
+
+    @Nonnull
+    private final Function<I, O> transform;
+
+    @Nonnull
+    private final Function<O, ? extends CompletionStage<?>> send;
+
+    @Nonnull
+    private final BoundedMpmcQueue<Envelope<I, O>> transformQueue;
+
+    @Nonnull
+    private final BoundedMpmcQueue<Envelope<I, O>> sendQueue;
+
+    @Nonnull
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean closed;
+
+    /**
+     * New pipeline ; the worker threads are started right away
+     * @param name                              Pipeline name (thread name
+     *                                          prefix). Must not be
+     *                                          {@code null}
+     * @param transformWidth                    Number of transform threads.
+     *                                          Must be greater than {@code 0}
+     * @param sendWidth                         Number of send threads. Must be
+     *                                          greater than {@code 0}
+     * @param queueCapacity                     Capacity of each stage queue.
+     *                                          Must be greater than {@code 0}
+     * @param transform                         Transform stage. Must not be
+     *                                          {@code null}
+     * @param send                              Send stage ; returns the stage
+     *                                          completing once the item is
+     *                                          sent. Must not be {@code null}
+     * @since 1.0.0
+     */
+    public StagedPipeline(@Nonnull
+                          final String name,
+                          final int transformWidth,
+                          final int sendWidth,
+                          final int queueCapacity,
+                          @Nonnull
+                          final Function<I, O> transform,
+                          @Nonnull
+                          final Function<O, ? extends CompletionStage<?>> send)
+    {
+        this.name = name;
+        this.transform = transform;
+        this.send = send;
+        this.transformQueue = new BoundedMpmcQueue<>(
+            queueCapacity
+        );
+        this.sendQueue = new BoundedMpmcQueue<>(
+            queueCapacity
+        );
+        for(int i = 0; i < transformWidth; i++)
+        {
+            startWorker(
+                String.format("%s-transform-%d",
+                    name,
+                    i
+                ),
+                this::transformLoop
+            );
+        }
+        for(int i = 0; i < sendWidth; i++)
+        {
+            startWorker(
+                String.format("%s-send-%d",
+                    name,
+                    i
+                ),
+                this::sendLoop
+            );
+        }
+    }
+
+    /**
+     * Open a run ; typically one per upload
+     * @param onSent                            Callback for every item sent
+     *                                          (invoked on a send thread),
+     *                                          may be {@code null}
+     * @return                                  Run, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Run<I> open(@Nullable
+                       final Consumer<I> onSent)
+    {
+        return open(
+            onSent,
+            null
+        );
+    }
+
+    /**
+     * Open a run with its own send stage (e.g. bound to a per run resource) ;
+     * the transform stage and the worker threads stay shared
+     * @param onSent                            Callback for every item sent
+     *                                          (invoked on a send thread),
+     *                                          may be {@code null}
+     * @param send                              Send stage of this run ;
+     *                                          {@code null} for the pipeline
+     *                                          one
+     * @return                                  Run, never {@code null}
+     * @since 1.0.0
+     */
+    @Nonnull
+    public Run<I> open(@Nullable
+                       final Consumer<I> onSent,
+                       @Nullable
+                       final Function<O, ? extends CompletionStage<?>> send)
+    {
+        return new Run<>(
+            this,
+            onSent,
+            send
+        );
+    }
+
+    /**
+     * Stop the worker threads ; items still queued are dropped and their run
+     * fails
+     * @since 1.0.0
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        workers.forEach(
+            Thread::interrupt
+        );
+        for(Thread worker : workers)
+        {
+            try
+            {
+                worker.join(
+                    TimeUnit.SECONDS.toMillis(
+                        5l
+                    )
+                );
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        Envelope<I, O> envelope;
+        while((envelope = transformQueue.poll())!=null ||
+            (envelope = sendQueue.poll())!=null)
+        {
+            envelope.run.failed(
+                new IllegalStateException(
+                    String.format("Pipeline '%s' CLOSED",
+                        name
+                    )
+                )
+            );
+        }
+        log.info(
+            "Pipeline '{}' CLOSED",
+            name
+        );
+    }
+
+    private void startWorker(@Nonnull
+                             final String threadName,
+                             @Nonnull
+                             final Runnable loop)
+    {
+        final Thread worker = new Thread(
+            loop,
+            threadName
+        );
+        worker.setDaemon(
+            true
+        );
+        workers.add(
+            worker
+        );
+        worker.start();
+    }
+
+    private void transformLoop()
+    {
+        int idle = 0;
+        while(!closed)
+        {
+            final Envelope<I, O> envelope = transformQueue.poll();
+            if(envelope==null)
+            {
+                idle = idle(
+                    idle
+                );
+                continue;
+            }
+            idle = 0;
+            if(envelope.run.isFailed())
+            {
+                envelope.run.done();
+                continue;
+            }
+            try
+            {
+                envelope.output = transform.apply(
+                    envelope.input
+                );
+            }
+            catch(Exception e)
+            {
+                envelope.run.failed(
+                    e
+                );
+                continue;
+            }
+            if(!offer(
+                sendQueue,
+                envelope
+            ))
+            {
+                envelope.run.failed(
+                    new IllegalStateException(
+                        String.format("Pipeline '%s' CLOSED",
+                            name
+                        )
+                    )
+                );
+            }
+        }
+    }
+
+    private void sendLoop()
+    {
+        int idle = 0;
+        while(!closed)
+        {
+            final Envelope<I, O> envelope = sendQueue.poll();
+            if(envelope==null)
+            {
+                idle = idle(
+                    idle
+                );
+                continue;
+            }
+            idle = 0;
+            if(envelope.run.isFailed())
+            {
+                envelope.run.done();
+                continue;
+            }
+            final CompletionStage<?> sent;
+            try
+            {
+                sent = Optional.<Function<O, ? extends CompletionStage<?>>>ofNullable(
+                    envelope.run.send()
+                ).orElse(
+                    send
+                ).apply(
+                    envelope.output
+                );
+            }
+            catch(Exception e)
+            {
+                envelope.run.failed(
+                    e
+                );
+                continue;
+            }
+            sent.whenComplete(
+                (result, e) -> sent(
+                    envelope,
+                    e
+                )
+            );
+        }
+    }
+    
+    /**
+     * Complete an item once its send stage completed
+     * @param envelope                          Sent item
+     * @param e                                 Send failure, {@code null} on 
+     *                                          success
+     * @since 1.0.0
+     */
+    private void sent(@Nonnull
+                      final Envelope<I, O> envelope,
+                      @Nullable
+                      final Throwable e)
+    {
+        if(Objects.nonNull(e))
+        {
+            envelope.run.failed(
+                e instanceof CompletionException && Objects.nonNull(e.getCause())?e.getCause():e
+            );
+            return;
+        }
+        try
+        {
+            if(Objects.nonNull(envelope.run.onSent))
+            {
+                envelope.run.onSent.accept(
+                    envelope.input
+                );
+            }
+        }
+        catch(Exception onSentException)
+        {
+            envelope.run.failed(
+                onSentException
+            );
+            return;
+        }
+        envelope.run.done();
+    }
+
+    /**
+     * Offer to the queue, backing off while it is full
+     * @return                                  {@code false} if the pipeline
+     *                                          was closed meanwhile
+     * @since 1.0.0
+     */
+    private boolean offer(@Nonnull
+                          final BoundedMpmcQueue<Envelope<I, O>> queue,
+                          @Nonnull
+                          final Envelope<I, O> envelope)
+    {
+        int idle = 0;
+        while(!queue.offer(envelope))
+        {
+            if(closed)
+            {
+                return false;
+            }
+            idle = idle(
+                idle
+            );
+        }
+        return true;
+    }
+
+    /**
+     * Spin first, then park with an exponential back-off capped at
+     * {@link #IDLE_MAX_PARK_NANOS}
+     * @param idle                              Consecutive idle rounds
+     * @return                                  Next idle round count
+     * @since 1.0.0
+     */
+    private static int idle(final int idle)
+    {
+        if(idle<IDLE_SPINS)
+        {
+            Thread.onSpinWait();
+        }
+        else
+        {
+            LockSupport.parkNanos(
+                Math.min(
+                    IDLE_MAX_PARK_NANOS,
+                    1000l << Math.min(
+                        idle - IDLE_SPINS,
+                        10
+                    )
+                )
+            );
+        }
+        return idle + 1;
+    }
+
+    /**
+     * Submitted item travelling through the stages
+     * @since 1.0.0
+     */
+    private static final class Envelope<I, O>
+    {
+        private final Run<I> run;
+
+        private final I input;
+
+        private O output;
+
+        private Envelope(@Nonnull
+                         final Run<I> run,
+                         @Nonnull
+                         final I input)
+        {
+            this.run = run;
+            this.input = input;
+        }
+    }
+
+    /**
+     * Pipeline run ; submit the items then {@link #await()} them
+     * <p>
+     * The first failure of any stage fails the run : items still queued are
+     * dropped and the next {@link #submit(java.lang.Object)} or
+     * {@link #await()} throws. Closing a run that was not awaited cancels
+     * it and waits for its in flight items
+     * </p>
+     * @param <I>                               Submitted item type
+     * @since 1.0.0
+     */
+    public static final class Run<I>
+           implements AutoCloseable
+    {
+        private final StagedPipeline<I, ?> pipeline;
+
+        @Nullable
+        private final Consumer<I> onSent;
+
+        @Nullable
+        private final Function<?, ? extends CompletionStage<?>> send;
+
+        private final AtomicLong pending = new AtomicLong();
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        @Nullable
+        private volatile Thread waiter;
+
+        private Run(@Nonnull
+                    final StagedPipeline<I, ?> pipeline,
+                    @Nullable
+                    final Consumer<I> onSent,
+                    @Nullable
+                    final Function<?, ? extends CompletionStage<?>> send)
+        {
+            this.pipeline = pipeline;
+            this.onSent = onSent;
+            this.send = send;
+        }
+
+        /**
+         * @return                              Send stage of this run ; only
+         *                                      given by the pipeline it was
+         *                                      opened from, so typed as its
+         *                                      {@code O}
+         * @since 1.0.0
+         */
+        @Nullable
+        @SuppressWarnings("unchecked")
+        private <O> Function<O, ? extends CompletionStage<?>> send()
+        {
+            return (Function<O, ? extends CompletionStage<?>>)send;
+        }
+
+        /**
+         * Submit an item ; blocks (backs off) while the transform queue is
+         * full
+         * @param item                          Item. Must not be {@code null}
+         * @throws InternalException            If the run already failed
+         * @since 1.0.0
+         */
+        public void submit(@Nonnull
+                           final I item)
+        {
+            rethrowFailure();
+            pending.incrementAndGet();
+            if(!submit(
+                pipeline,
+                item
+            ))
+            {
+                failed(
+                    new IllegalStateException(
+                        String.format("Pipeline '%s' CLOSED",
+                            pipeline.getName()
+                        )
+                    )
+                );
+                rethrowFailure();
+            }
+        }
+
+        private <O> boolean submit(@Nonnull
+                                   final StagedPipeline<I, O> typedPipeline,
+                                   @Nonnull
+                                   final I item)
+        {
+            return typedPipeline.offer(
+                typedPipeline.transformQueue,
+                new Envelope<>(
+                    this,
+                    item
+                )
+            );
+        }
+
+        /**
+         * Wait until every submitted item is sent, i.e. its send stage 
+         * completed (or dropped after a failure)
+         * @throws InternalException            If the run failed
+         * @since 1.0.0
+         */
+        public void await()
+        {
+            waiter = Thread.currentThread();
+            try
+            {
+                while(pending.get()>0)
+                {
+                    LockSupport.parkNanos(
+                        this,
+                        IDLE_MAX_PARK_NANOS
+                    );
+                    if(Thread.interrupted())
+                    {
+                        failed(
+                            new InterruptedException(
+                                "Pipeline run await INTERRUPTED"
+                            )
+                        );
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            finally
+            {
+                waiter = null;
+            }
+            rethrowFailure();
+        }
+
+        /**
+         * @return                              {@code true} if a stage failed
+         * @since 1.0.0
+         */
+        public boolean isFailed()
+        {
+            return Objects.nonNull(
+                failure.get()
+            );
+        }
+
+        /**
+         * Cancel the run if it is still in flight and wait for its items to
+         * drain ; never throws
+         * @since 1.0.0
+         */
+        @Override
+        public void close()
+        {
+            if(pending.get()>0)
+            {
+                failure.compareAndSet(
+                    null,
+                    new IllegalStateException(
+                        "Pipeline run CANCELLED"
+                    )
+                );
+                try
+                {
+                    await();
+                }
+                catch(Exception e)
+                {
+                    // cancelled ; the submitting side reports its own failure
+                }
+            }
+        }
+
+        private void failed(@Nonnull
+                            final Throwable e)
+        {
+            if(failure.compareAndSet(
+                null,
+                e
+            ))
+            {
+                log.error(
+                    "Pipeline '{}' run FAILED ; {}",
+                    pipeline.getName(),
+                    e.getMessage(),
+                    e
+                );
+            }
+            done();
+        }
+
+        private void done()
+        {
+            if(pending.decrementAndGet()==0)
+            {
+                Optional.ofNullable(
+                    waiter
+                ).ifPresent(
+                    LockSupport::unpark
+                );
+            }
+        }
+
+        private void rethrowFailure()
+        {
+            final Throwable e = failure.get();
+            if(Objects.nonNull(e))
+            {
+                if(e instanceof InternalException)
+                {
+                    throw (InternalException)e;
+                }
+                throw new InternalException(
+                    String.format("Pipeline '%s' run FAILED ; %s",
+                        pipeline.getName(),
+                        e.getMessage()
+                    ),
+                    e
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.repository.AccountRepository;
+import my.com.maybank.schema.entity.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsAccountCacheJUnitTest
+{
+    private AccountRepository accountRepository;
+
+    private AccountTransactionsAccountCache accountTransactionsAccountCache;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        accountRepository = Mockito.mock(
+            AccountRepository.class
+        );
+        accountTransactionsAccountCache = new AccountTransactionsAccountCache(
+            new DefaultAppService().setAccounting(
+                new DefaultAppService.Accounting().setAccountCache(
+                    new DefaultAppService.AccountCache().setEnabled(
+                        true
+                    ).setNegativeTtlMs(
+                        50l
+                    )
+                )
+            ),
+            accountRepository,
+            new DefaultListableBeanFactory().getBeanProvider(
+                EntityManagerFactory.class
+            )
+        );
+        accountTransactionsAccountCache.init();
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void resolveOwners_repeatedAccounts_ExpectOneQueryThenCachedUntilInvalidated()
+    {
+        Mockito.when(
+            accountRepository.findByAccountNumberIn(
+                Mockito.any()
+            )
+        ).thenReturn(
+            List.of(
+                new Account().setAccountNumber(
+                    "8872838283"
+                ).setCustomerId(
+                    222l
+                ),
+                new Account().setAccountNumber(
+                    "8872838299"
+                ).setCustomerId(
+                    333l
+                )
+            )
+        );
+        final List<String> batchAccountNumbers = List.of(
+            "8872838283",
+            "8872838299",
+            "8872838283",
+            "8872838283"
+        );
+        for(int i = 0; i < 3; i++)
+        {
+            assertEquals(
+                Map.of(
+                    "8872838283",
+                    222l,
+                    "8872838299",
+                    333l
+                ),
+                accountTransactionsAccountCache.resolveOwners(
+                    batchAccountNumbers
+                )
+            );
+        }
+        // the distinct accounts of the first batch, at once
+        Mockito.verify(
+            accountRepository,
+            Mockito.times(
+                1
+            )
+        ).findByAccountNumberIn(
+            List.of(
+                "8872838283",
+                "8872838299"
+            )
+        );
+        assertEquals(
+            4l,
+            accountTransactionsAccountCache.getHits().get()
+        );
+        assertEquals(
+            2l,
+            accountTransactionsAccountCache.getMisses().get()
+        );
+
+        // changed ; looked up again
+        accountTransactionsAccountCache.invalidate(
+            "8872838283"
+        );
+        accountTransactionsAccountCache.resolveOwners(
+            batchAccountNumbers
+        );
+        Mockito.verify(
+            accountRepository
+        ).findByAccountNumberIn(
+            List.of(
+                "8872838283"
+            )
+        );
+        assertEquals(
+            3l,
+            accountTransactionsAccountCache.getMisses().get()
+        );
+    }
+
+    @Test
+    public void resolveOwners_unknownAccount_ExpectNegativeCachedUntilExpired()
+            throws Exception
+    {
+        Mockito.when(
+            accountRepository.findByAccountNumberIn(
+                Mockito.any()
+            )
+        ).thenReturn(
+            List.of()
+        );
+        assertTrue(
+            accountTransactionsAccountCache.resolveOwners(
+                List.of(
+                    "0000000000"
+                )
+            ).isEmpty()
+        );
+        assertTrue(
+            accountTransactionsAccountCache.resolveOwners(
+                List.of(
+                    "0000000000"
+                )
+            ).isEmpty()
+        );
+        assertEquals(
+            1l,
+            accountTransactionsAccountCache.getMisses().get()
+        );
+
+        TimeUnit.MILLISECONDS.sleep(
+            100l
+        );
+        assertTrue(
+            accountTransactionsAccountCache.resolveOwners(
+                List.of(
+                    "0000000000"
+                )
+            ).isEmpty()
+        );
+        assertEquals(
+            2l,
+            accountTransactionsAccountCache.getMisses().get()
+        );
+        Mockito.verify(
+            accountRepository,
+            Mockito.times(
+                2
+            )
+        ).findByAccountNumberIn(
+            Mockito.any()
+        );
+    }
+
+    @Test
+    public void resolveOwners_invalidatedWhileLoading_ExpectStaleOwnerNotCached()
+    {
+        // the account changes owner and is invalidated after the stale row 
+        // was read but before it is cached
+        Mockito.when(
+            accountRepository.findByAccountNumberIn(
+                Mockito.any()
+            )
+        ).thenAnswer(
+            invocation -> {
+                accountTransactionsAccountCache.invalidate(
+                    "8872838283"
+                );
+                return List.of(
+                    new Account().setAccountNumber(
+                        "8872838283"
+                    ).setCustomerId(
+                        222l
+                    )
+                );
+            }
+        ).thenReturn(
+            List.of(
+                new Account().setAccountNumber(
+                    "8872838283"
+                ).setCustomerId(
+                    333l
+                )
+            )
+        );
+        assertEquals(
+            Map.of(
+                "8872838283",
+                222l
+            ),
+            accountTransactionsAccountCache.resolveOwners(
+                List.of(
+                    "8872838283"
+                )
+            )
+        );
+        assertEquals(
+            Map.of(
+                "8872838283",
+                333l
+            ),
+            accountTransactionsAccountCache.resolveOwners(
+                List.of(
+                    "8872838283"
+                )
+            )
+        );
+        Mockito.verify(
+            accountRepository,
+            Mockito.times(
+                2
+            )
+        ).findByAccountNumberIn(
+            Mockito.any()
+        );
+    }
+}
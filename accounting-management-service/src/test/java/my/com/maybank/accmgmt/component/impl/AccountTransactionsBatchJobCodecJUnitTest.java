@@ -0,0 +1,199 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsBatchJobCodecJUnitTest
+{
+    private DefaultAppService appService;
+
+    private ObjectMapper objectMapper;
+
+    private AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
+
+    private AccountTransactionsBatchJob accountTransactionsBatchJob;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setKafka(
+                new DefaultAppService.Kafka().setWireFormat(
+                    DefaultAppService.WireFormat.BINARY
+                )
+            )
+        );
+        objectMapper = new ObjectMapper();
+        accountTransactionsBatchJobCodec = new AccountTransactionsBatchJobCodec(
+            appService,
+            objectMapper
+        );
+
+        final List<AccountTransaction> batchAccountTransaction = new ArrayList<>();
+        for(int i = 0; i < 100; i++)
+        {
+            batchAccountTransaction.add(
+                new AccountTransaction().setAccountNumber(
+                    String.valueOf(
+                        8872838283l + i
+                    )
+                ).setTrxAmount(
+                    123.45d + i
+                ).setDescription(
+                    "FUND TRANSFER"
+                ).setTrxDate(
+                    "2019-09-12"
+                ).setTrxTime(
+                    "11:11:11"
+                ).setCustomerId(
+                    222l
+                ).setLineNumber(
+                    2l + i
+                )
+            );
+        }
+        // odd rows : sparse, non cent amounts, negative ids, non ASCII
+        batchAccountTransaction.add(
+            new AccountTransaction().setTrxAmount(
+                0.125d
+            ).setDescription(
+                "BAYARAN – 付款"
+            ).setCustomerId(
+                -7l
+            )
+        );
+        batchAccountTransaction.add(
+            new AccountTransaction().setId(
+                "7b0c8f0e-0000-4000-8000-000000000001"
+            ).setTrxAmount(
+                -0.0d
+            )
+        );
+        batchAccountTransaction.add(
+            new AccountTransaction()
+        );
+        accountTransactionsBatchJob = new AccountTransactionsBatchJob().setBatchId(
+            "batch-1"
+        ).setJobId(
+            null
+        ).setBatchSize(
+            1000
+        ).setOperation(
+            AccountTransactionsBatchJob.Operation.CREATE
+        ).setBatchAccountTransaction(
+            batchAccountTransaction
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void encode_binary_ExpectSmallerAndRoundTrip()
+            throws Exception
+    {
+        final byte[] binaryMessage = accountTransactionsBatchJobCodec.encode(
+            accountTransactionsBatchJob
+        );
+        final byte[] jsonMessage = objectMapper.writeValueAsBytes(
+            accountTransactionsBatchJob
+        );
+        log.info(
+            "Got binary ({}) bytes vs JSON ({}) bytes",
+            binaryMessage.length,
+            jsonMessage.length
+        );
+        assertTrue(
+            AccountTransactionsBatchJobCodec.isBinary(
+                binaryMessage
+            )
+        );
+        assertTrue(
+            binaryMessage.length*2<jsonMessage.length
+        );
+
+        // same document whichever wire format it came in
+        assertEquals(
+            objectMapper.writeValueAsString(
+                accountTransactionsBatchJob
+            ),
+            objectMapper.writeValueAsString(
+                accountTransactionsBatchJobCodec.decode(
+                    binaryMessage
+                )
+            )
+        );
+        assertEquals(
+            objectMapper.writeValueAsString(
+                accountTransactionsBatchJob
+            ),
+            objectMapper.writeValueAsString(
+                accountTransactionsBatchJobCodec.decode(
+                    jsonMessage
+                )
+            )
+        );
+        assertEquals(
+            Double.doubleToLongBits(
+                -0.0d
+            ),
+            Double.doubleToLongBits(
+                accountTransactionsBatchJobCodec.decode(
+                    binaryMessage
+                ).getBatchAccountTransaction().get(101).getTrxAmount()
+            )
+        );
+    }
+
+    @Test
+    public void decode_unsupportedOrTruncated_ExpectIOException()
+            throws Exception
+    {
+        final byte[] binaryMessage = accountTransactionsBatchJobCodec.encode(
+            accountTransactionsBatchJob
+        );
+
+        final byte[] nextVersionMessage = binaryMessage.clone();
+        nextVersionMessage[AccountTransactionsBatchJobCodec.BINARY_MAGIC.length]++;
+        final IOException e = assertThrows(
+            IOException.class,
+            () -> accountTransactionsBatchJobCodec.decode(
+                nextVersionMessage
+            )
+        );
+        log.info(
+            "Got expected failure --- \n\t{}",
+            e.getMessage()
+        );
+
+        assertThrows(
+            IOException.class,
+            () -> accountTransactionsBatchJobCodec.decode(
+                Arrays.copyOf(
+                    binaryMessage,
+                    binaryMessage.length/2
+                )
+            )
+        );
+    }
+}
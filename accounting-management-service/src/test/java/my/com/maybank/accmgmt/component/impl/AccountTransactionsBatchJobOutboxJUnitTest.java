@@ -0,0 +1,301 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.MessagePublisher;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.repository.BatchJobOutboxRepository;
+import my.com.maybank.core.exception.InternalException;
+import my.com.maybank.schema.entity.BatchJobOutbox;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsBatchJobOutboxJUnitTest
+{
+    private AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
+
+    private BatchJobOutboxRepository batchJobOutboxRepository;
+
+    private PlatformTransactionManager transactionManager;
+
+    private List<AccountTransactionsBatchJob> publishedBatchJobs;
+
+    private List<CompletableFuture<Void>> publishedAcknowledgements;
+
+    private AccountTransactionsBatchJobOutbox accountTransactionsBatchJobOutbox;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        final DefaultAppService appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setOutbox(
+                new DefaultAppService.Outbox().setRelayBatchSize(
+                    3
+                )
+            )
+        );
+        accountTransactionsBatchJobCodec = new AccountTransactionsBatchJobCodec(
+            appService,
+            new ObjectMapper()
+        );
+        batchJobOutboxRepository = Mockito.mock(
+            BatchJobOutboxRepository.class
+        );
+        transactionManager = Mockito.mock(
+            PlatformTransactionManager.class
+        );
+        publishedBatchJobs = Collections.synchronizedList(
+            new ArrayList<>()
+        );
+        publishedAcknowledgements = Collections.synchronizedList(
+            new ArrayList<>()
+        );
+        accountTransactionsBatchJobOutbox = new AccountTransactionsBatchJobOutbox(
+            appService,
+            accountTransactionsBatchJobCodec,
+            batchJobOutboxRepository,
+            new MessagePublisher<AccountTransactionsBatchJob, AccountTransactionsBatchJob>()
+            {
+                @Override
+                public AccountTransactionsBatchJob prepareMessage(final AccountTransactionsBatchJob message)
+                {
+                    return message;
+                }
+
+                @Override
+                public CompletableFuture<Void> publishMessage(final AccountTransactionsBatchJob preparedMessage)
+                {
+                    publishedBatchJobs.add(
+                        preparedMessage
+                    );
+                    final CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+                    publishedAcknowledgements.add(
+                        acknowledged
+                    );
+                    return acknowledged;
+                }
+
+                @Override
+                public void sendMessage(final AccountTransactionsBatchJob message)
+                {
+                    publishMessage(
+                        message
+                    ).join();
+                }
+            },
+            transactionManager
+        );
+        accountTransactionsBatchJobOutbox.init();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        accountTransactionsBatchJobOutbox.destroy();
+    }
+
+    @Test
+    public void relay_claimedEntries_ExpectPublishedInOrderThenDeleted()
+            throws Exception
+    {
+        final List<BatchJobOutbox> claimedBatchJobOutboxes = outboxEntries(
+            3
+        );
+        Mockito.when(
+            batchJobOutboxRepository.claimOldest(
+                3
+            )
+        ).thenReturn(
+            claimedBatchJobOutboxes
+        );
+        // acknowledged out of order, straight away
+        final CompletableFuture<Integer> relayed = CompletableFuture.supplyAsync(
+            () -> accountTransactionsBatchJobOutbox.relay()
+        );
+        while(publishedAcknowledgements.size()<3)
+        {
+            Thread.onSpinWait();
+        }
+        Mockito.verify(
+            batchJobOutboxRepository,
+            Mockito.never()
+        ).deleteAllInBatch(
+            Mockito.any()
+        );
+        for(int i = 2; i >= 0; i--)
+        {
+            publishedAcknowledgements.get(
+                i
+            ).complete(
+                null
+            );
+        }
+        assertEquals(
+            3,
+            relayed.get()
+        );
+        for(int i = 0; i < 3; i++)
+        {
+            assertEquals(
+                claimedBatchJobOutboxes.get(
+                    i
+                ).getBatchId(),
+                publishedBatchJobs.get(
+                    i
+                ).getBatchId()
+            );
+            assertEquals(
+                claimedBatchJobOutboxes.get(
+                    i
+                ).getPartitionKey(),
+                publishedBatchJobs.get(
+                    i
+                ).getPartitionKey()
+            );
+        }
+        Mockito.verify(
+            batchJobOutboxRepository
+        ).deleteAllInBatch(
+            claimedBatchJobOutboxes
+        );
+        Mockito.verify(
+            transactionManager
+        ).commit(
+            Mockito.any()
+        );
+        assertEquals(
+            3l,
+            accountTransactionsBatchJobOutbox.getEntriesRelayed().get()
+        );
+    }
+
+    @Test
+    public void relay_publishFailure_ExpectRolledBackAndKept()
+            throws Exception
+    {
+        Mockito.when(
+            batchJobOutboxRepository.claimOldest(
+                3
+            )
+        ).thenReturn(
+            outboxEntries(
+                2
+            )
+        );
+        final CompletableFuture<Integer> relayed = CompletableFuture.supplyAsync(
+            () -> accountTransactionsBatchJobOutbox.relay()
+        );
+        while(publishedAcknowledgements.size()<2)
+        {
+            Thread.onSpinWait();
+        }
+        publishedAcknowledgements.get(
+            0
+        ).complete(
+            null
+        );
+        publishedAcknowledgements.get(
+            1
+        ).completeExceptionally(
+            new IllegalStateException(
+                "Broker unavailable"
+            )
+        );
+        final Exception e = assertThrows(
+            Exception.class,
+            () -> relayed.join()
+        );
+        log.info(
+            "Got expected failure --- \n\t{}",
+            e.getMessage()
+        );
+        assertInstanceOf(
+            InternalException.class,
+            e.getCause()
+        );
+        Mockito.verify(
+            batchJobOutboxRepository,
+            Mockito.never()
+        ).deleteAllInBatch(
+            Mockito.any()
+        );
+        Mockito.verify(
+            transactionManager
+        ).rollback(
+            Mockito.any()
+        );
+        assertEquals(
+            0l,
+            accountTransactionsBatchJobOutbox.getEntriesRelayed().get()
+        );
+    }
+
+    private List<BatchJobOutbox> outboxEntries(final int entries)
+            throws Exception
+    {
+        final List<BatchJobOutbox> batchJobOutboxes = new ArrayList<>();
+        for(int i = 0; i < entries; i++)
+        {
+            final AccountTransactionsBatchJob accountTransactionsBatchJob = new AccountTransactionsBatchJob().setBatchId(
+                String.format("batch-%d",
+                    i
+                )
+            ).setBatchSize(
+                1
+            ).setOperation(
+                AccountTransactionsBatchJob.Operation.UPDATE
+            ).setPartitionKey(
+                String.valueOf(
+                    8872838283l + i
+                )
+            ).setBatchAccountTransaction(
+                List.of(
+                    new AccountTransaction().setId(
+                        String.valueOf(
+                            i
+                        )
+                    ).setAccountNumber(
+                        String.valueOf(
+                            8872838283l + i
+                        )
+                    ).setDescription(
+                        "UPDATED"
+                    )
+                )
+            );
+            batchJobOutboxes.add(
+                new BatchJobOutbox().setId(
+                    (long)i
+                ).setBatchId(
+                    accountTransactionsBatchJob.getBatchId()
+                ).setPartitionKey(
+                    accountTransactionsBatchJob.getPartitionKey()
+                ).setPayload(
+                    accountTransactionsBatchJobCodec.encode(
+                        accountTransactionsBatchJob
+                    )
+                )
+            );
+        }
+        return batchJobOutboxes;
+    }
+}
@@ -0,0 +1,602 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.models.IngestJob;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.SendResult;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsBatchJobRetryTiersJUnitTest
+{
+    private AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
+
+    private AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry;
+
+    private List<ProducerRecord<String, byte[]>> publishedRecords;
+
+    private ConsumerFactory<String, byte[]> consumerFactory;
+
+    private AccountTransactionsBatchJobRetryTiers accountTransactionsBatchJobRetryTiers;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp()
+    {
+        final DefaultAppService appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setKafka(
+                new DefaultAppService.Kafka().setEndpoint(
+                    "localhost:9092"
+                ).setTopic(
+                    "account-transactions"
+                ).setConsumerGroupId(
+                    "consumer-persist"
+                ).setRetry(
+                    new DefaultAppService.Retry().setEnabled(
+                        true
+                    ).setTiers(
+                        2
+                    ).setInitialDelayMs(
+                        1000l
+                    ).setMultiplier(
+                        4d
+                    )
+                )
+            )
+        );
+        accountTransactionsBatchJobCodec = new AccountTransactionsBatchJobCodec(
+            appService,
+            new ObjectMapper()
+        );
+        accountTransactionsIngestJobRegistry = new AccountTransactionsIngestJobRegistry(
+            appService
+        );
+        publishedRecords = new ArrayList<>();
+        final KafkaOperations<String, byte[]> kafkaOperations = Mockito.mock(
+            KafkaOperations.class
+        );
+        Mockito.when(
+            kafkaOperations.send(
+                Mockito.any(
+                    ProducerRecord.class
+                )
+            )
+        ).thenAnswer(
+            invocation -> {
+                publishedRecords.add(
+                    invocation.getArgument(
+                        0
+                    )
+                );
+                return CompletableFuture.completedFuture(
+                    Mockito.mock(
+                        SendResult.class
+                    )
+                );
+            }
+        );
+        consumerFactory = Mockito.mock(
+            ConsumerFactory.class
+        );
+        accountTransactionsBatchJobRetryTiers = new AccountTransactionsBatchJobRetryTiers(
+            appService,
+            consumerFactory,
+            Mockito.mock(
+                AccountTransactionsBatchMessageKafkaConsumer.class
+            ),
+            accountTransactionsBatchJobCodec,
+            accountTransactionsIngestJobRegistry
+        )
+        {
+            @Override
+            protected KafkaOperations<String, byte[]> newKafkaOperations()
+            {
+                return kafkaOperations;
+            }
+        };
+        accountTransactionsBatchJobRetryTiers.init();
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void errorHandler_failingBatchJob_ExpectRetryTiersThenDeadLetter()
+            throws Exception
+    {
+        final IngestJob ingestJob = accountTransactionsIngestJobRegistry.register(
+            "dataSource.txt"
+        );
+        ConsumerRecord<String, byte[]> failedRecord = new ConsumerRecord<>(
+            "account-transactions",
+            0,
+            0l,
+            "8872838283",
+            accountTransactionsBatchJobCodec.encode(
+                batch(
+                    ingestJob.getJobId()
+                )
+            )
+        );
+        final long startMs = System.currentTimeMillis();
+        for(int attempt = 0; attempt < 3; attempt++)
+        {
+            assertTrue(
+                accountTransactionsBatchJobRetryTiers.getErrorHandler().handleOne(
+                    new IllegalStateException(
+                        "Connection refused"
+                    ),
+                    failedRecord,
+                    Mockito.mock(
+                        Consumer.class
+                    ),
+                    container()
+                )
+            );
+            // the next failure is the published one, as a retry topic consumes it
+            final ProducerRecord<String, byte[]> publishedRecord = publishedRecords.get(
+                attempt
+            );
+            failedRecord = new ConsumerRecord<>(
+                publishedRecord.topic(),
+                0,
+                attempt,
+                publishedRecord.key(),
+                publishedRecord.value()
+            );
+            publishedRecord.headers().forEach(
+                failedRecord.headers()::add
+            );
+        }
+        assertEquals(
+            List.of(
+                "account-transactions-retry-0",
+                "account-transactions-retry-1",
+                "account-transactions-dlt"
+            ),
+            publishedRecords.stream().map(
+                ProducerRecord::topic
+            ).toList()
+        );
+        // keyed, the same partition of every topic
+        publishedRecords.forEach(
+            publishedRecordToProcess -> {
+                assertNull(
+                    publishedRecordToProcess.partition()
+                );
+                assertEquals(
+                    "8872838283",
+                    publishedRecordToProcess.key()
+                );
+            }
+        );
+        assertTrue(
+            header(
+                publishedRecords.get(
+                    1
+                ),
+                AccountTransactionsBatchJobRetryTiers.RETRY_DUE_HEADER
+            )>=startMs + 4000l
+        );
+        assertEquals(
+            3l,
+            header(
+                publishedRecords.get(
+                    2
+                ),
+                AccountTransactionsBatchJobRetryTiers.RETRY_ATTEMPT_HEADER
+            )
+        );
+        final Header exceptionMessageHeader = publishedRecords.get(
+            2
+        ).headers().lastHeader(
+            "kafka_dlt-exception-message"
+        );
+        assertNotNull(
+            exceptionMessageHeader
+        );
+        log.info(
+            "Got expected dead letter failure header --- \n\t{}",
+            new String(
+                exceptionMessageHeader.value(),
+                StandardCharsets.UTF_8
+            )
+        );
+
+        // the ingest job is told once dead-lettered only
+        assertEquals(
+            1l,
+            ingestJob.getBatchesFailed()
+        );
+    }
+
+    @Test
+    public void errorHandler_unreadableBatchJob_ExpectDeadLetterAtOnce()
+    {
+        assertTrue(
+            accountTransactionsBatchJobRetryTiers.getErrorHandler().handleOne(
+                new IllegalStateException(
+                    "Unrecognized token"
+                ),
+                new ConsumerRecord<>(
+                    "account-transactions",
+                    0,
+                    0l,
+                    null,
+                    "{not a batch job".getBytes(
+                        StandardCharsets.UTF_8
+                    )
+                ),
+                Mockito.mock(
+                    Consumer.class
+                ),
+                container()
+            )
+        );
+        assertEquals(
+            1,
+            publishedRecords.size()
+        );
+        assertEquals(
+            "account-transactions-dlt",
+            publishedRecords.get(
+                0
+            ).topic()
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void errorHandler_retryTopicsDisabled_ExpectRetriedInPlaceThenFailedOnce()
+            throws Exception
+    {
+        final DefaultAppService appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setKafka(
+                new DefaultAppService.Kafka().setTopic(
+                    "account-transactions"
+                ).setRetry(
+                    new DefaultAppService.Retry().setEnabled(
+                        false
+                    )
+                )
+            )
+        );
+        final AccountTransactionsBatchJobRetryTiers inPlaceRetryTiers = new AccountTransactionsBatchJobRetryTiers(
+            appService,
+            Mockito.mock(
+                ConsumerFactory.class
+            ),
+            Mockito.mock(
+                AccountTransactionsBatchMessageKafkaConsumer.class
+            ),
+            accountTransactionsBatchJobCodec,
+            accountTransactionsIngestJobRegistry
+        );
+        inPlaceRetryTiers.init();
+        final IngestJob ingestJob = accountTransactionsIngestJobRegistry.register(
+            "dataSource.txt"
+        );
+        final ConsumerRecord<String, byte[]> failedRecord = new ConsumerRecord<>(
+            "account-transactions",
+            0,
+            0l,
+            "8872838283",
+            accountTransactionsBatchJobCodec.encode(
+                batch(
+                    ingestJob.getJobId()
+                )
+            )
+        );
+        int attempts = 0;
+        boolean recovered = false;
+        while(!recovered && attempts<100)
+        {
+            attempts++;
+            recovered = inPlaceRetryTiers.getErrorHandler().handleOne(
+                new IllegalStateException(
+                    "Connection refused"
+                ),
+                failedRecord,
+                Mockito.mock(
+                    Consumer.class
+                ),
+                container()
+            );
+            // nothing counted while it is still retried in place
+            assertEquals(
+                recovered?1l:0l,
+                ingestJob.getBatchesFailed()
+            );
+        }
+        log.info(
+            "Got batch job skipped after ({}) attempt(s)",
+            attempts
+        );
+        assertTrue(
+            recovered
+        );
+        assertTrue(
+            attempts>1
+        );
+        assertTrue(
+            publishedRecords.isEmpty()
+        );
+    }
+
+    @Test
+    public void redrive_deadLetters_ExpectSentBackAndCommitted()
+            throws Exception
+    {
+        // dead letter three batch jobs, keyed on both partitions
+        for(int i = 0; i < 3; i++)
+        {
+            accountTransactionsBatchJobRetryTiers.getErrorHandler().handleOne(
+                new IllegalStateException(
+                    "Unrecognized token"
+                ),
+                new ConsumerRecord<>(
+                    "account-transactions",
+                    0,
+                    i,
+                    String.valueOf(
+                        i
+                    ),
+                    "{not a batch job".getBytes(
+                        StandardCharsets.UTF_8
+                    )
+                ),
+                Mockito.mock(
+                    Consumer.class
+                ),
+                container()
+            );
+        }
+        final List<ProducerRecord<String, byte[]>> deadLetters = new ArrayList<>(
+            publishedRecords
+        );
+        publishedRecords.clear();
+
+        final TopicPartition deadLetterPartition0 = new TopicPartition(
+            "account-transactions-dlt",
+            0
+        );
+        final TopicPartition deadLetterPartition1 = new TopicPartition(
+            "account-transactions-dlt",
+            1
+        );
+        final Map<TopicPartition, OffsetAndMetadata> committedOffsets = new HashMap<>();
+        final MockConsumer<String, byte[]> consumer = new MockConsumer<>(
+            OffsetResetStrategy.EARLIEST
+        )
+        {
+            @Override
+            public synchronized void commitSync(final Map<TopicPartition, OffsetAndMetadata> offsets)
+            {
+                super.commitSync(
+                    offsets
+                );
+                committedOffsets.putAll(
+                    offsets
+                );
+            }
+
+            @Override
+            public synchronized void close()
+            {
+                // kept open to be read again
+            }
+        };
+        consumer.updatePartitions(
+            "account-transactions-dlt",
+            List.of(
+                new PartitionInfo(
+                    "account-transactions-dlt",
+                    0,
+                    null,
+                    null,
+                    null
+                ),
+                new PartitionInfo(
+                    "account-transactions-dlt",
+                    1,
+                    null,
+                    null,
+                    null
+                )
+            )
+        );
+        consumer.updateBeginningOffsets(
+            Map.of(
+                deadLetterPartition0,
+                0l,
+                deadLetterPartition1,
+                0l
+            )
+        );
+        consumer.updateEndOffsets(
+            Map.of(
+                deadLetterPartition0,
+                2l,
+                deadLetterPartition1,
+                1l
+            )
+        );
+        // nothing on the first poll ; the re-drive must not stop there
+        consumer.schedulePollTask(
+            () -> {}
+        );
+        consumer.schedulePollTask(
+            () -> {
+                for(int i = 0; i < deadLetters.size(); i++)
+                {
+                    final ConsumerRecord<String, byte[]> deadLetter = new ConsumerRecord<>(
+                        "account-transactions-dlt",
+                        i<2?0:1,
+                        i<2?i:0,
+                        deadLetters.get(i).key(),
+                        deadLetters.get(i).value()
+                    );
+                    deadLetters.get(i).headers().forEach(
+                        deadLetter.headers()::add
+                    );
+                    consumer.addRecord(
+                        deadLetter
+                    );
+                }
+            }
+        );
+        Mockito.when(
+            consumerFactory.createConsumer(
+                Mockito.eq(
+                    "consumer-persist" + AccountTransactionsBatchJobRetryTiers.REDRIVE_GROUP_ID_SUFFIX
+                ),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.any(
+                    Properties.class
+                )
+            )
+        ).thenReturn(
+            consumer
+        );
+
+        assertEquals(
+            3l,
+            accountTransactionsBatchJobRetryTiers.redrive(
+                10
+            )
+        );
+        assertEquals(
+            List.of(
+                "0",
+                "1",
+                "2"
+            ),
+            publishedRecords.stream().map(
+                ProducerRecord::key
+            ).toList()
+        );
+        publishedRecords.forEach(
+            publishedRecordToProcess -> {
+                assertEquals(
+                    "account-transactions",
+                    publishedRecordToProcess.topic()
+                );
+                assertNull(
+                    publishedRecordToProcess.headers().lastHeader(
+                        AccountTransactionsBatchJobRetryTiers.RETRY_ATTEMPT_HEADER
+                    )
+                );
+            }
+        );
+        assertEquals(
+            Map.of(
+                deadLetterPartition0,
+                new OffsetAndMetadata(
+                    2l
+                ),
+                deadLetterPartition1,
+                new OffsetAndMetadata(
+                    1l
+                )
+            ),
+            committedOffsets
+        );
+
+        // drained ; the next re-drive resumes from the committed offsets
+        assertEquals(
+            0l,
+            accountTransactionsBatchJobRetryTiers.redrive(
+                10
+            )
+        );
+    }
+
+    private static MessageListenerContainer container()
+    {
+        final MessageListenerContainer container = Mockito.mock(
+            MessageListenerContainer.class
+        );
+        Mockito.when(
+            container.getContainerProperties()
+        ).thenReturn(
+            new ContainerProperties(
+                "account-transactions"
+            )
+        );
+        return container;
+    }
+
+    private static long header(final ProducerRecord<String, byte[]> producerRecord,
+                               final String header)
+    {
+        return Long.parseLong(
+            new String(
+                producerRecord.headers().lastHeader(
+                    header
+                ).value(),
+                StandardCharsets.UTF_8
+            )
+        );
+    }
+
+    private static AccountTransactionsBatchJob batch(final String jobId)
+    {
+        return new AccountTransactionsBatchJob().setBatchId(
+            "0"
+        ).setJobId(
+            jobId
+        ).setBatchSize(
+            1
+        ).setOperation(
+            AccountTransactionsBatchJob.Operation.CREATE
+        ).setBatchAccountTransaction(
+            List.of(
+                new AccountTransaction().setId(
+                    "0-0"
+                ).setAccountNumber(
+                    "8872838283"
+                ).setCustomerId(
+                    1l
+                ).setTrxAmount(
+                    123.45d
+                )
+            )
+        );
+    }
+}
@@ -0,0 +1,402 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.models.IngestJob;
+import my.com.maybank.accmgmt.repository.ProcessedBatchRepository;
+import my.com.maybank.accmgmt.service.AccountingService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsBatchMessageKafkaBatchConsumerJUnitTest
+{
+    private AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
+
+    private AccountingService accountingService;
+
+    private AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry;
+
+    private AccountTransactionsBatchMessageKafkaBatchConsumer accountTransactionsBatchMessageKafkaBatchConsumer;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        final DefaultAppService appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setKafka(
+                new DefaultAppService.Kafka().setEndpoint(
+                    "localhost:9092"
+                )
+            )
+        );
+        accountTransactionsBatchJobCodec = new AccountTransactionsBatchJobCodec(
+            appService,
+            new ObjectMapper()
+        );
+        accountingService = Mockito.mock(
+            AccountingService.class
+        );
+        accountTransactionsIngestJobRegistry = new AccountTransactionsIngestJobRegistry(
+            appService
+        );
+        accountTransactionsBatchMessageKafkaBatchConsumer = new AccountTransactionsBatchMessageKafkaBatchConsumer(
+            appService,
+            accountTransactionsBatchJobCodec,
+            accountingService,
+            accountTransactionsIngestJobRegistry,
+            new AccountTransactionsBatchSizer(
+                appService
+            ),
+            new AccountTransactionsProcessedBatches(
+                appService,
+                Mockito.mock(
+                    ProcessedBatchRepository.class
+                )
+            ),
+            new AccountTransactionsOffsetCommits(
+                appService
+            )
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void onMessage_sameOperation_ExpectMergedIntoOnePersist()
+            throws Exception
+    {
+        final IngestJob ingestJob = accountTransactionsIngestJobRegistry.register(
+            "dataSource.txt"
+        );
+        final List<AccountTransactionsBatchJob> persistedBatchJobs = new ArrayList<>();
+        Mockito.when(
+            accountingService.batchConsumerOperationAccountTransactions(
+                Mockito.any()
+            )
+        ).thenAnswer(
+            invocation -> {
+                final AccountTransactionsBatchJob accountTransactionsBatchJob = invocation.getArgument(
+                    0
+                );
+                persistedBatchJobs.add(
+                    accountTransactionsBatchJob
+                );
+                return (long)accountTransactionsBatchJob.getBatchAccountTransaction().size();
+            }
+        );
+        final List<ConsumerRecord<String, byte[]>> consumerRecords = new ArrayList<>();
+        for(int i = 0; i < 5; i++)
+        {
+            consumerRecords.add(
+                record(
+                    i,
+                    batch(
+                        i,
+                        ingestJob.getJobId(),
+                        AccountTransactionsBatchJob.Operation.CREATE
+                    )
+                )
+            );
+        }
+        consumerRecords.add(
+            record(
+                5,
+                new AccountTransactionsBatchJob().setBatchId(
+                    "commit"
+                ).setJobId(
+                    ingestJob.getJobId()
+                ).setBatchSize(
+                    5
+                ).setOperation(
+                    AccountTransactionsBatchJob.Operation.COMMIT
+                ).setBatchAccountTransaction(
+                    List.of()
+                )
+            )
+        );
+        accountTransactionsBatchMessageKafkaBatchConsumer.onMessage(
+            consumerRecords
+        );
+
+        // 5 batch jobs, 1 database transaction ; the marker is not persisted
+        assertEquals(
+            1,
+            persistedBatchJobs.size()
+        );
+        assertEquals(
+            10,
+            persistedBatchJobs.get(
+                0
+            ).getBatchAccountTransaction().size()
+        );
+        assertEquals(
+            "0",
+            persistedBatchJobs.get(
+                0
+            ).getBatchId()
+        );
+        assertEquals(
+            10l,
+            ingestJob.getRowsPersisted()
+        );
+        assertEquals(
+            5l,
+            ingestJob.getBatchesPersisted()
+        );
+    }
+
+    @Test
+    public void onMessage_badBatchJob_ExpectIsolatedAndFailedAtItsIndex()
+            throws Exception
+    {
+        final IngestJob ingestJob = accountTransactionsIngestJobRegistry.register(
+            "dataSource.txt"
+        );
+        final List<Integer> persistedBatches = new ArrayList<>();
+        Mockito.when(
+            accountingService.batchConsumerOperationAccountTransactions(
+                Mockito.any()
+            )
+        ).thenAnswer(
+            invocation -> {
+                final AccountTransactionsBatchJob accountTransactionsBatchJob = invocation.getArgument(
+                    0
+                );
+                // batch job 5 carries the bad row
+                if(accountTransactionsBatchJob.getBatchAccountTransaction().stream().anyMatch(
+                    accountTransactionToProcess -> accountTransactionToProcess.getCustomerId()==5l
+                ))
+                {
+                    throw new IllegalStateException(
+                        "Constraint violation"
+                    );
+                }
+                accountTransactionsBatchJob.getBatchAccountTransaction().stream().map(
+                    accountTransactionToProcess -> accountTransactionToProcess.getCustomerId().intValue()
+                ).distinct().forEach(
+                    persistedBatches::add
+                );
+                return (long)accountTransactionsBatchJob.getBatchAccountTransaction().size();
+            }
+        );
+        final List<ConsumerRecord<String, byte[]>> consumerRecords = new ArrayList<>();
+        for(int i = 0; i < 8; i++)
+        {
+            consumerRecords.add(
+                record(
+                    i,
+                    batch(
+                        i,
+                        ingestJob.getJobId(),
+                        AccountTransactionsBatchJob.Operation.UPDATE
+                    )
+                )
+            );
+        }
+        final BatchListenerFailedException e = assertThrows(
+            BatchListenerFailedException.class,
+            () -> accountTransactionsBatchMessageKafkaBatchConsumer.onMessage(
+                consumerRecords
+            )
+        );
+        log.info(
+            "Got expected failure --- \n\t{}",
+            e.getMessage()
+        );
+
+        // the error handler commits up to the bad batch job and retries from it
+        assertEquals(
+            5,
+            e.getIndex()
+        );
+        assertEquals(
+            List.of(
+                0,
+                1,
+                2,
+                3,
+                4
+            ),
+            persistedBatches
+        );
+        // told by the error handler once it gives up, not on every attempt
+        assertEquals(
+            0l,
+            ingestJob.getBatchesFailed()
+        );
+    }
+
+    @Test
+    public void onMessage_redeliveredAndRedriven_ExpectEachBatchCountedOnce()
+            throws Exception
+    {
+        final IngestJob ingestJob = accountTransactionsIngestJobRegistry.register(
+            "dataSource.txt"
+        );
+        ingestJob.started();
+        ingestJob.batchProduced(
+            2l
+        );
+        ingestJob.batchProduced(
+            2l
+        );
+        ingestJob.produced();
+        final Set<String> claimedBatchIds = new HashSet<>();
+        Mockito.when(
+            accountingService.batchConsumerOperationAccountTransactions(
+                Mockito.any()
+            )
+        ).thenAnswer(
+            invocation -> {
+                final AccountTransactionsBatchJob accountTransactionsBatchJob = invocation.getArgument(
+                    0
+                );
+                return claimedBatchIds.add(
+                    accountTransactionsBatchJob.getBatchId()
+                )?(long)accountTransactionsBatchJob.getBatchAccountTransaction().size():AccountingService.BATCH_PERSISTED_ALREADY;
+            }
+        );
+        accountTransactionsBatchMessageKafkaBatchConsumer.onMessage(
+            List.of(
+                record(
+                    0,
+                    batch(
+                        0,
+                        ingestJob.getJobId(),
+                        AccountTransactionsBatchJob.Operation.CREATE
+                    )
+                )
+            )
+        );
+        // batch job 1 dead-lettered ; the ingest job is failed for now
+        ingestJob.batchFailed(
+            "1",
+            "Batch '1' ; retries EXHAUSTED"
+        );
+        assertEquals(
+            IngestJob.Status.FAILED,
+            ingestJob.getStatus()
+        );
+
+        // batch job 0 redelivered, batch job 1 re-driven from the dead-letter topic
+        accountTransactionsBatchMessageKafkaBatchConsumer.onMessage(
+            List.of(
+                record(
+                    1,
+                    batch(
+                        0,
+                        ingestJob.getJobId(),
+                        AccountTransactionsBatchJob.Operation.CREATE
+                    )
+                )
+            )
+        );
+        accountTransactionsBatchMessageKafkaBatchConsumer.onMessage(
+            List.of(
+                record(
+                    2,
+                    batch(
+                        1,
+                        ingestJob.getJobId(),
+                        AccountTransactionsBatchJob.Operation.CREATE
+                    )
+                )
+            )
+        );
+        assertEquals(
+            2l,
+            ingestJob.getBatchesPersisted()
+        );
+        assertEquals(
+            4l,
+            ingestJob.getRowsPersisted()
+        );
+        assertEquals(
+            0l,
+            ingestJob.getBatchesFailed()
+        );
+        assertEquals(
+            IngestJob.Status.COMPLETED,
+            ingestJob.getStatus()
+        );
+        assertNull(
+            ingestJob.getFailure()
+        );
+    }
+
+    private static ConsumerRecord<String, byte[]> record(final int offset,
+                                                         final AccountTransactionsBatchJob accountTransactionsBatchJob)
+            throws Exception
+    {
+        return new ConsumerRecord<>(
+            "account-transactions",
+            0,
+            offset,
+            null,
+            new AccountTransactionsBatchJobCodec(
+                new DefaultAppService(),
+                new ObjectMapper()
+            ).encode(
+                accountTransactionsBatchJob
+            )
+        );
+    }
+
+    private static AccountTransactionsBatchJob batch(final int batch,
+                                                     final String jobId,
+                                                     final AccountTransactionsBatchJob.Operation operation)
+    {
+        final List<AccountTransaction> batchAccountTransaction = new ArrayList<>();
+        for(int i = 0; i < 2; i++)
+        {
+            batchAccountTransaction.add(
+                new AccountTransaction().setId(
+                    String.format("%d-%d",
+                        batch,
+                        i
+                    )
+                ).setAccountNumber(
+                    "8872838283"
+                ).setCustomerId(
+                    (long)batch
+                ).setTrxAmount(
+                    123.45d + batch
+                )
+            );
+        }
+        return new AccountTransactionsBatchJob().setBatchId(
+            String.valueOf(
+                batch
+            )
+        ).setJobId(
+            jobId
+        ).setBatchSize(
+            batchAccountTransaction.size()
+        ).setOperation(
+            operation
+        ).setBatchAccountTransaction(
+            batchAccountTransaction
+        );
+    }
+}
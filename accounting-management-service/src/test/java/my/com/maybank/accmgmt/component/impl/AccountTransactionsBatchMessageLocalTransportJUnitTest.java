@@ -0,0 +1,268 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsBatchMessageLocalTransportJUnitTest
+{
+    @TempDir
+    Path tempDir;
+
+    private DefaultAppService.Local local;
+
+    private DefaultAppService appService;
+
+    private AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        local = new DefaultAppService.Local().setRingCapacity(
+            16
+        ).setConsumerBatch(
+            4
+        ).setJournalPath(
+            tempDir.resolve(
+                "batch-jobs.journal"
+            ).toString()
+        );
+        appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setTransport(
+                DefaultAppService.Transport.LOCAL
+            ).setLocal(
+                local
+            )
+        );
+        accountTransactionsBatchJobCodec = new AccountTransactionsBatchJobCodec(
+            appService,
+            new ObjectMapper()
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void sendMessage_inMemory_ExpectConsumedInOrder()
+    {
+        final List<String> consumedBatchIds = Collections.synchronizedList(
+            new ArrayList<>()
+        );
+        final AccountTransactionsBatchMessageLocalTransport accountTransactionsBatchMessageLocalTransport = new AccountTransactionsBatchMessageLocalTransport(
+            appService,
+            accountTransactionsBatchJobCodec,
+            accountTransactionsBatchJob -> consumedBatchIds.add(
+                accountTransactionsBatchJob.getBatchId()
+            )
+        );
+        accountTransactionsBatchMessageLocalTransport.init();
+        // more batch jobs than ring slots ; the sender is held back meanwhile
+        for(int i = 0; i < 200; i++)
+        {
+            accountTransactionsBatchMessageLocalTransport.sendMessage(
+                batch(
+                    i
+                )
+            );
+        }
+        accountTransactionsBatchMessageLocalTransport.destroy();
+
+        assertEquals(
+            200l,
+            accountTransactionsBatchMessageLocalTransport.getBatchJobsConsumed().get()
+        );
+        for(int i = 0; i < 200; i++)
+        {
+            assertEquals(
+                String.valueOf(
+                    i
+                ),
+                consumedBatchIds.get(
+                    i
+                )
+            );
+        }
+        assertFalse(
+            Files.exists(
+                tempDir.resolve(
+                    "batch-jobs.journal"
+                )
+            )
+        );
+    }
+
+    @Test
+    public void init_journalNotConsumed_ExpectReplayedWithoutTornTail()
+            throws Exception
+    {
+        local.setDurability(
+            DefaultAppService.LocalDurability.JOURNAL
+        );
+        // the first node stops consuming after batch job 0 (as if it died)
+        final CountDownLatch crashed = new CountDownLatch(
+            1
+        );
+        final AccountTransactionsBatchMessageLocalTransport crashedTransport = new AccountTransactionsBatchMessageLocalTransport(
+            appService,
+            accountTransactionsBatchJobCodec,
+            accountTransactionsBatchJob -> {
+                try
+                {
+                    crashed.await();
+                }
+                catch(InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        );
+        crashedTransport.init();
+        for(int i = 0; i < 10; i++)
+        {
+            crashedTransport.sendMessage(
+                batch(
+                    i
+                )
+            );
+        }
+        final long journalSize = Files.size(
+            tempDir.resolve(
+                "batch-jobs.journal"
+            )
+        );
+        // a record torn halfway through its append
+        Files.write(
+            tempDir.resolve(
+                "batch-jobs.journal"
+            ),
+            ByteBuffer.allocate(
+                6
+            ).putInt(
+                100
+            ).array(),
+            StandardOpenOption.APPEND
+        );
+
+        final CountDownLatch restarted = new CountDownLatch(
+            1
+        );
+        final List<String> replayedBatchIds = Collections.synchronizedList(
+            new ArrayList<>()
+        );
+        final AccountTransactionsBatchMessageLocalTransport restartedTransport = new AccountTransactionsBatchMessageLocalTransport(
+            appService,
+            accountTransactionsBatchJobCodec,
+            accountTransactionsBatchJob -> {
+                try
+                {
+                    restarted.await();
+                }
+                catch(InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                replayedBatchIds.add(
+                    accountTransactionsBatchJob.getBatchId()
+                );
+            }
+        );
+        restartedTransport.init();
+        // the torn tail is dropped before replaying
+        assertEquals(
+            journalSize,
+            Files.size(
+                tempDir.resolve(
+                    "batch-jobs.journal"
+                )
+            )
+        );
+        restarted.countDown();
+        for(int i = 0; i < 100 && replayedBatchIds.size()<10; i++)
+        {
+            TimeUnit.MILLISECONDS.sleep(
+                50l
+            );
+        }
+        log.info(
+            "Got replayed batch jobs --- \n\t{}",
+            replayedBatchIds
+        );
+        restartedTransport.destroy();
+        crashed.countDown();
+        crashedTransport.destroy();
+
+        assertEquals(
+            10,
+            replayedBatchIds.size()
+        );
+        for(int i = 0; i < 10; i++)
+        {
+            assertEquals(
+                String.valueOf(
+                    i
+                ),
+                replayedBatchIds.get(
+                    i
+                )
+            );
+        }
+        // emptied once caught up
+        assertEquals(
+            0l,
+            Files.size(
+                tempDir.resolve(
+                    "batch-jobs.journal"
+                )
+            )
+        );
+    }
+
+    private static AccountTransactionsBatchJob batch(final int batch)
+    {
+        return new AccountTransactionsBatchJob().setBatchId(
+            String.valueOf(
+                batch
+            )
+        ).setJobId(
+            "job-1"
+        ).setBatchSize(
+            1
+        ).setOperation(
+            AccountTransactionsBatchJob.Operation.CREATE
+        ).setBatchAccountTransaction(
+            List.of(
+                new AccountTransaction().setAccountNumber(
+                    "8872838283"
+                ).setTrxAmount(
+                    123.45d + batch
+                )
+            )
+        );
+    }
+}
@@ -0,0 +1,265 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsBatchSizerJUnitTest
+{
+    private static final int TARGET_BYTES = 4096;
+
+    private static final int MIN_BYTES = 1024;
+
+    private static final int MAX_BYTES = 16384;
+
+    private DefaultAppService appService;
+
+    private AccountTransactionsBatchSizer accountTransactionsBatchSizer;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setKafka(
+                new DefaultAppService.Kafka().setTransactionJobBatchSize(
+                    1000
+                ).setBatchPolicy(
+                    DefaultAppService.BatchPolicy.ADAPTIVE
+                ).setBatchTargetBytes(
+                    TARGET_BYTES
+                ).setBatchMinBytes(
+                    MIN_BYTES
+                ).setBatchMaxBytes(
+                    MAX_BYTES
+                ).setBatchMaxLingerMs(
+                    0l
+                ).setBatchTargetPersistMs(
+                    100l
+                )
+            )
+        );
+        accountTransactionsBatchSizer = new AccountTransactionsBatchSizer(
+            appService
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void newAssembler_adaptive_ExpectBatchesClosedOnByteBudget()
+            throws Exception
+    {
+        final List<AccountTransactionsBatchJob> accountTransactionsBatchJobs = new ArrayList<>();
+        final AccountTransactionsBatchAssembler accountTransactionsBatchAssembler = accountTransactionsBatchSizer.newAssembler(
+            AccountTransactionsBatchJob.Operation.CREATE,
+            accountTransactionsBatchJobs::add
+        );
+        for(int i = 0; i < 500; i++)
+        {
+            accountTransactionsBatchAssembler.add(
+                new AccountTransaction().setAccountNumber(
+                    String.valueOf(
+                        8872838283l + i
+                    )
+                ).setTrxAmount(
+                    123.0d + i
+                ).setDescription(
+                    "FUND TRANSFER"
+                ).setTrxDate(
+                    "2019-09-12"
+                ).setTrxTime(
+                    "11:11:11"
+                ).setCustomerId(
+                    222l
+                )
+            );
+        }
+        accountTransactionsBatchAssembler.flush();
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+        long rows = 0l;
+        for(int i = 0; i < accountTransactionsBatchJobs.size(); i++)
+        {
+            final List<AccountTransaction> batchAccountTransaction = accountTransactionsBatchJobs.get(i).getBatchAccountTransaction();
+            rows += batchAccountTransaction.size();
+            final long estimatedBytes = batchAccountTransaction.stream().mapToLong(
+                AccountTransactionsBatchAssembler::estimateSerializedBytes
+            ).sum();
+            if(i<accountTransactionsBatchJobs.size() - 1)
+            {
+                assertTrue(
+                    estimatedBytes>=TARGET_BYTES
+                );
+            }
+            // the estimate stays close to the real payload
+            final long serializedBytes = objectMapper.writeValueAsString(
+                accountTransactionsBatchJobs.get(i)
+            ).length();
+            assertTrue(
+                estimatedBytes>serializedBytes/2 && estimatedBytes<serializedBytes*2,
+                String.format("Estimated (%d) vs serialized (%d) bytes",
+                    estimatedBytes,
+                    serializedBytes
+                )
+            );
+        }
+        log.info(
+            "Got ({}) batches of ~({}) rows",
+            accountTransactionsBatchJobs.size(),
+            rows/accountTransactionsBatchJobs.size()
+        );
+        assertEquals(
+            500l,
+            rows
+        );
+        assertTrue(
+            accountTransactionsBatchJobs.size()>1
+        );
+    }
+
+    @Test
+    public void persisted_slowThenFastConsumer_ExpectBudgetTunedWithinBounds()
+    {
+        long previousTargetBytes = accountTransactionsBatchSizer.getTargetBytes().get();
+        for(int i = 0; i < 50; i++)
+        {
+            accountTransactionsBatchSizer.persisted(
+                accountTransactionsBatchSizer.getTargetBytes().get(),
+                TimeUnit.MILLISECONDS.toNanos(
+                    400l
+                )
+            );
+            assertTrue(
+                accountTransactionsBatchSizer.getTargetBytes().get()<=previousTargetBytes
+            );
+            previousTargetBytes = accountTransactionsBatchSizer.getTargetBytes().get();
+        }
+        assertEquals(
+            MIN_BYTES,
+            accountTransactionsBatchSizer.getTargetBytes().get()
+        );
+
+        for(int i = 0; i < 50; i++)
+        {
+            accountTransactionsBatchSizer.persisted(
+                accountTransactionsBatchSizer.getTargetBytes().get(),
+                TimeUnit.MILLISECONDS.toNanos(
+                    10l
+                )
+            );
+        }
+        assertEquals(
+            MAX_BYTES,
+            accountTransactionsBatchSizer.getTargetBytes().get()
+        );
+
+        // fixed batches never tune the budget
+        appService.getAccounting().getKafka().setBatchPolicy(
+            DefaultAppService.BatchPolicy.FIXED
+        );
+        accountTransactionsBatchSizer.persisted(
+            MAX_BYTES,
+            TimeUnit.SECONDS.toNanos(
+                10l
+            )
+        );
+        assertEquals(
+            MAX_BYTES,
+            accountTransactionsBatchSizer.getTargetBytes().get()
+        );
+    }
+
+    @Test
+    public void newAssembler_partitionKey_ExpectPerAccountBatchesInOrder()
+    {
+        appService.getAccounting().getKafka().setBatchPolicy(
+            DefaultAppService.BatchPolicy.FIXED
+        ).setTransactionJobBatchSize(
+            50
+        ).setPartitionKey(
+            DefaultAppService.PartitionKey.ACCOUNT_NUMBER
+        );
+        final List<AccountTransactionsBatchJob> accountTransactionsBatchJobs = new ArrayList<>();
+        final AccountTransactionsBatchAssembler accountTransactionsBatchAssembler = accountTransactionsBatchSizer.newAssembler(
+            AccountTransactionsBatchJob.Operation.CREATE,
+            accountTransactionsBatchJobs::add
+        );
+        // 3 accounts interleaved, the row id carries the per account sequence
+        for(int i = 0; i < 300; i++)
+        {
+            accountTransactionsBatchAssembler.add(
+                new AccountTransaction().setId(
+                    String.valueOf(
+                        i
+                    )
+                ).setAccountNumber(
+                    String.valueOf(
+                        8872838283l + i%3
+                    )
+                )
+            );
+        }
+        accountTransactionsBatchAssembler.flush();
+
+        final Set<String> batchIds = new HashSet<>();
+        final int[] lastIds = new int[] { -1, -1, -1 };
+        long rows = 0l;
+        for(AccountTransactionsBatchJob accountTransactionsBatchJob : accountTransactionsBatchJobs)
+        {
+            assertTrue(
+                batchIds.add(
+                    accountTransactionsBatchJob.getBatchId()
+                )
+            );
+            assertNotNull(
+                accountTransactionsBatchJob.getPartitionKey()
+            );
+            assertTrue(
+                accountTransactionsBatchJob.getBatchAccountTransaction().size()<=50
+            );
+            for(AccountTransaction accountTransaction : accountTransactionsBatchJob.getBatchAccountTransaction())
+            {
+                assertEquals(
+                    accountTransactionsBatchJob.getPartitionKey(),
+                    accountTransaction.getAccountNumber()
+                );
+                final int account = (int)(Long.parseLong(
+                    accountTransaction.getAccountNumber()
+                ) - 8872838283l);
+                final int id = Integer.parseInt(
+                    accountTransaction.getId()
+                );
+                assertTrue(
+                    id>lastIds[account]
+                );
+                lastIds[account] = id;
+                rows++;
+            }
+        }
+        assertEquals(
+            300l,
+            rows
+        );
+    }
+}
@@ -0,0 +1,149 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsColumnarDecoderJUnitTest
+{
+    private AccountTransactionsColumnarDecoder accountTransactionsColumnarDecoder;
+    
+    @BeforeAll
+    public static void setUpClass() {}
+    
+    @AfterAll
+    public static void tearDownClass() {}
+    
+    @BeforeEach
+    public void setUp()
+    {
+        accountTransactionsColumnarDecoder = new AccountTransactionsColumnarDecoder(
+            2
+        );
+    }
+    
+    @AfterEach
+    public void tearDown() {}
+    
+    @Test
+    public void decodeRow_plainAndQuoted_ExpectSameAsBeanReader()
+    {
+        decode(
+            "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222"
+        );
+        decode(
+            "\"8872838299\"|\"-0.1\"|\"PAY | \"\"BILL\"\"\"|2019-09-13|11:11:11|\"7\""
+        );
+        assertTrue(
+            accountTransactionsColumnarDecoder.isFull()
+        );
+        
+        final List<AccountTransaction> accountTransactions = new ArrayList<>();
+        assertEquals(
+            2, 
+            accountTransactionsColumnarDecoder.drainTo(
+                accountTransactions::add
+            )
+        );
+        log.info(
+            "Got decoded account transactions --- \n\t{}",
+            accountTransactions
+        );
+        
+        assertEquals("8872838283", accountTransactions.get(0).getAccountNumber());
+        assertEquals(123.00d, accountTransactions.get(0).getTrxAmount());
+        assertEquals("FUND TRANSFER", accountTransactions.get(0).getDescription());
+        assertEquals("2019-09-12", accountTransactions.get(0).getTrxDate());
+        assertEquals("11:11:11", accountTransactions.get(0).getTrxTime());
+        assertEquals(222l, accountTransactions.get(0).getCustomerId());
+        
+        assertEquals("8872838299", accountTransactions.get(1).getAccountNumber());
+        assertEquals(-0.1d, accountTransactions.get(1).getTrxAmount());
+        assertEquals("PAY | \"BILL\"", accountTransactions.get(1).getDescription());
+        assertEquals("2019-09-13", accountTransactions.get(1).getTrxDate());
+        assertEquals("11:11:11", accountTransactions.get(1).getTrxTime());
+        assertEquals(7l, accountTransactions.get(1).getCustomerId());
+        
+        assertEquals(
+            0, 
+            accountTransactionsColumnarDecoder.getRows()
+        );
+    }
+    
+    @Test
+    public void parseDouble_fastPathAndFallback_ExpectDoubleParseDouble()
+    {
+        for(String value : new String[]{
+            "0", "-0", "1.", ".5", "123.45", "0.1", "9007199254740993", "1e3", 
+            " 7.25 ", "1234567890.123456789", "0.000000000000000000000001"
+        })
+        {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            assertEquals(
+                Double.parseDouble(value),
+                AccountTransactionsColumnarDecoder.parseDouble(bytes, 0, bytes.length),
+                value
+            );
+        }
+    }
+    
+    @Test
+    public void decodeRow_badColumns_ExpectIllegalArgumentException()
+    {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> decode(
+                "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11"
+            )
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> decode(
+                "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222|X"
+            )
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> decode(
+                "8872838283|12x.00|FUND TRANSFER|2019-09-12|11:11:11|222"
+            )
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> decode(
+                "8872838283|123.00|FUND TRANSFER||11:11:11|222"
+            )
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> decode(
+                "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|"
+            )
+        );
+        assertEquals(
+            0, 
+            accountTransactionsColumnarDecoder.getRows()
+        );
+    }
+    
+    private void decode(final String row)
+    {
+        final byte[] bytes = row.getBytes(
+            StandardCharsets.UTF_8
+        );
+        accountTransactionsColumnarDecoder.decodeRow(
+            bytes, 
+            0, 
+            bytes.length
+        );
+    }
+}
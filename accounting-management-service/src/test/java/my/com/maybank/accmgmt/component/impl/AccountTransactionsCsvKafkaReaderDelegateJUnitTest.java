@@ -0,0 +1,195 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.utils.CompressionCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsCsvKafkaReaderDelegateJUnitTest
+{
+    private static final String CSV_HEADER = "ACCOUNT_NUMBER|TRX_AMOUNT|DESCRIPTION|TRX_DATE|TRX_TIME|CUSTOMER_ID\r\n";
+
+    private static final int CSV_LINES = 500;
+
+    private Path csvDirPath;
+
+    private DefaultAppService appService;
+
+    private AccountTransactionsMappedCsvKafkaReader accountTransactionsMappedCsvKafkaReader;
+
+    private AccountTransactionsCsvKafkaReaderDelegate accountTransactionsCsvKafkaReaderDelegate;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+            throws Exception
+    {
+        csvDirPath = Files.createTempDirectory(
+            "account-transactions-"
+        );
+
+        appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setKafka(
+                new DefaultAppService.Kafka().setTransactionJobBatchSize(
+                    7
+                )
+            ).setIngest(
+                new DefaultAppService.Ingest().setParserEngine(
+                    DefaultAppService.ParserEngine.MAPPED_PARALLEL
+                )
+            )
+        );
+        final AccountTransactionsBatchSizer accountTransactionsBatchSizer = new AccountTransactionsBatchSizer(
+            appService
+        );
+        final AccountTransactionsCsvKafkaReader accountTransactionsCsvKafkaReader = new AccountTransactionsCsvKafkaReader(
+            appService,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            accountTransactionsBatchSizer
+        );
+        final AccountTransactionsColumnarCsvKafkaReader accountTransactionsColumnarCsvKafkaReader = new AccountTransactionsColumnarCsvKafkaReader(
+            appService,
+            accountTransactionsBatchSizer
+        );
+        accountTransactionsMappedCsvKafkaReader = new AccountTransactionsMappedCsvKafkaReader(
+            appService,
+            accountTransactionsCsvKafkaReader,
+            accountTransactionsColumnarCsvKafkaReader
+        );
+        accountTransactionsCsvKafkaReaderDelegate = new AccountTransactionsCsvKafkaReaderDelegate(
+            appService,
+            accountTransactionsCsvKafkaReader,
+            accountTransactionsMappedCsvKafkaReader,
+            accountTransactionsColumnarCsvKafkaReader
+        );
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws Exception
+    {
+        accountTransactionsMappedCsvKafkaReader.destroy();
+        try(var csvPaths = Files.list(csvDirPath))
+        {
+            for(Path csvPath : csvPaths.toList())
+            {
+                Files.delete(
+                    csvPath
+                );
+            }
+        }
+        Files.delete(
+            csvDirPath
+        );
+    }
+
+    @Test
+    public void readAndCallback_gzipFile_ExpectDecodedLines()
+            throws Exception
+    {
+        final Path csvPath = csvDirPath.resolve(
+            "dataSource.txt.gz"
+        );
+        Files.write(
+            csvPath,
+            compress(
+                CompressionCodec.GZIP
+            )
+        );
+        assertLinesRead(
+            accountTransactionsCsvKafkaReaderDelegate.readAndCallback(
+                csvPath.toString(),
+                AccountTransactionsBatchJob.Operation.CREATE,
+                accountTransactionsBatchJob -> {}
+            )
+        );
+    }
+
+    @Test
+    public void readAndCallback_zstdStream_ExpectDecodedLines()
+            throws Exception
+    {
+        appService.getAccounting().getIngest().setRowDecoder(
+            DefaultAppService.RowDecoder.COLUMNAR
+        );
+        final AtomicLong rows = new AtomicLong();
+        assertLinesRead(
+            accountTransactionsCsvKafkaReaderDelegate.readAndCallback(
+                new ByteArrayInputStream(
+                    compress(
+                        CompressionCodec.ZSTD
+                    )
+                ),
+                "dataSource.txt.zst",
+                AccountTransactionsBatchJob.Operation.CREATE,
+                accountTransactionsBatchJob -> rows.addAndGet(
+                    accountTransactionsBatchJob.getBatchAccountTransaction().size()
+                )
+            )
+        );
+        assertEquals(
+            CSV_LINES,
+            rows.get()
+        );
+    }
+
+    private void assertLinesRead(final long linesRead)
+    {
+        assertEquals(
+            CSV_LINES,
+            linesRead
+        );
+    }
+
+    private byte[] compress(final CompressionCodec compressionCodec)
+            throws Exception
+    {
+        final StringBuilder csv = new StringBuilder(
+            CSV_HEADER
+        );
+        for(int i = 0; i < CSV_LINES; i++)
+        {
+            csv.append(
+                String.format("%010d|%d.25|FUND TRANSFER|2019-09-12|11:11:11|%d\r\n",
+                    i,
+                    i,
+                    i % 10
+                )
+            );
+        }
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try(OutputStream outputStream = compressionCodec==CompressionCodec.GZIP?
+            new GZIPOutputStream(compressed):
+            new ZstdOutputStream(compressed))
+        {
+            outputStream.write(
+                csv.toString().getBytes(
+                    StandardCharsets.UTF_8
+                )
+            );
+        }
+        return compressed.toByteArray();
+    }
+}
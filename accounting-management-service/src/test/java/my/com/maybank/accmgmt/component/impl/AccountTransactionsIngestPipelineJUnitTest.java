@@ -0,0 +1,306 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.utils.IngestFingerprints;
+import my.com.maybank.core.exception.InternalException;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsIngestPipelineJUnitTest
+{
+    private AccountTransactionsBatchJobCodec accountTransactionsBatchJobCodec;
+
+    private AccountTransactionsBatchMessageKafkaProducer accountTransactionsBatchMessageKafkaProducer;
+
+    private AccountTransactionsIngestPipeline accountTransactionsIngestPipeline;
+
+    private AtomicReference<MockProducer<String, byte[]>> mockProducer;
+
+    private DefaultAppService appService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setKafka(
+                new DefaultAppService.Kafka().setEndpoint(
+                    "localhost:9092"
+                ).setTopic(
+                    "test"
+                ).setPublishTransactional(
+                    Boolean.TRUE
+                ).setPipelineSerializers(
+                    2
+                )
+            )
+        );
+        accountTransactionsBatchJobCodec = new AccountTransactionsBatchJobCodec(
+            appService,
+            new ObjectMapper()
+        );
+        mockProducer = new AtomicReference<>();
+        final KafkaTemplate<String, byte[]> mockKafkaTemplate = new KafkaTemplate<>(
+            new MockProducerFactory<>(
+                (transactional, transactionIdPrefix) -> {
+                    final MockProducer<String, byte[]> transactionalMockProducer = new MockProducer<>(
+                        true,
+                        new StringSerializer(),
+                        new ByteArraySerializer()
+                    );
+                    transactionalMockProducer.initTransactions();
+                    mockProducer.set(
+                        transactionalMockProducer
+                    );
+                    return transactionalMockProducer;
+                },
+                "test-tx-"
+            )
+        );
+        accountTransactionsBatchMessageKafkaProducer = new AccountTransactionsBatchMessageKafkaProducer(
+            appService,
+            accountTransactionsBatchJobCodec,
+            mockKafkaTemplate
+        );
+        accountTransactionsBatchMessageKafkaProducer.init();
+
+        // swap the (never connected) Kafka producer back for the transactional mock
+        accountTransactionsBatchMessageKafkaProducer.getKafkaTemplate().destroy();
+        accountTransactionsBatchMessageKafkaProducer.setKafkaTemplate(
+            mockKafkaTemplate
+        );
+        accountTransactionsIngestPipeline = new AccountTransactionsIngestPipeline(
+            appService,
+            accountTransactionsBatchMessageKafkaProducer
+        );
+        accountTransactionsIngestPipeline.init();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        accountTransactionsIngestPipeline.destroy();
+        accountTransactionsBatchMessageKafkaProducer.destroy();
+    }
+
+    @Test
+    public void readAndPublish_transactional_ExpectBatchesCommittedWithMarker()
+            throws Exception
+    {
+        final long rowsAcknowledged = accountTransactionsIngestPipeline.readAndPublish(
+            consume -> {
+                for(int i = 0; i < 20; i++)
+                {
+                    consume.accept(
+                        batch(
+                            5
+                        )
+                    );
+                }
+                return 100l;
+            },
+            null
+        );
+        assertEquals(
+            100l,
+            rowsAcknowledged
+        );
+        assertTrue(
+            mockProducer.get().transactionCommitted()
+        );
+
+        final List<ProducerRecord<String, byte[]>> committedRecords = mockProducer.get().history();
+        assertEquals(
+            21,
+            committedRecords.size()
+        );
+        final AccountTransactionsBatchJob commitMarker = accountTransactionsBatchJobCodec.decode(
+            committedRecords.get(
+                committedRecords.size() - 1
+            ).value()
+        );
+        log.info(
+            "Got commit marker --- \n\t{}",
+            commitMarker
+        );
+        assertEquals(
+            AccountTransactionsBatchJob.Operation.COMMIT,
+            commitMarker.getOperation()
+        );
+        assertEquals(
+            "job-1",
+            commitMarker.getJobId()
+        );
+        assertEquals(
+            20,
+            commitMarker.getBatchSize()
+        );
+    }
+
+    @Test
+    public void readAndPublish_transactionalReadFailure_ExpectNothingCommitted()
+    {
+        assertThrows(
+            IllegalStateException.class,
+            () -> accountTransactionsIngestPipeline.readAndPublish(
+                consume -> {
+                    for(int i = 0; i < 5; i++)
+                    {
+                        consume.accept(
+                            batch(
+                                5
+                            )
+                        );
+                    }
+                    throw new IllegalStateException(
+                        "Reader died halfway"
+                    );
+                },
+                null
+            )
+        );
+        assertTrue(
+            mockProducer.get().transactionAborted()
+        );
+        assertTrue(
+            mockProducer.get().history().isEmpty()
+        );
+
+        // rows acknowledged short of the rows read abort as well
+        assertThrows(
+            InternalException.class,
+            () -> accountTransactionsIngestPipeline.readAndPublish(
+                consume -> {
+                    consume.accept(
+                        batch(
+                            5
+                        )
+                    );
+                    return 6l;
+                },
+                null
+            )
+        );
+        assertTrue(
+            mockProducer.get().history().isEmpty()
+        );
+    }
+
+    @Test
+    public void readAndPublish_repeatedRows_ExpectDroppedAndRowsReadMatched()
+            throws Exception
+    {
+        // lines 2 and 4 are identical, so are lines 3 and 6
+        final Path csvPath = Files.writeString(
+            tempDir.resolve(
+                "dataSource.txt"
+            ),
+            "ACCOUNT_NUMBER|TRX_AMOUNT|DESCRIPTION|TRX_DATE|TRX_TIME|CUSTOMER_ID\n" +
+            "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222\n" +
+            "8872838283|1123.00|ATM WITHDRWAL|2019-09-11|11:11:11|222\n" +
+            "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222\n" +
+            "8872838283|1223.00|FUND TRANSFER|2019-10-11|11:11:11|222\n" +
+            "8872838283|1123.00|ATM WITHDRWAL|2019-09-11|11:11:11|222\n",
+            StandardCharsets.UTF_8
+        );
+        final AccountTransactionsCsvKafkaReader accountTransactionsCsvKafkaReader = new AccountTransactionsCsvKafkaReader(
+            appService,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            new AccountTransactionsBatchSizer(
+                appService
+            )
+        );
+        final List<Long> rejectedLines = new ArrayList<>();
+        final long rowsAcknowledged = accountTransactionsIngestPipeline.readAndPublish(
+            IngestFingerprints.withoutRepeatedRows(
+                consume -> accountTransactionsCsvKafkaReader.readAndCallback(
+                    csvPath.toString(),
+                    AccountTransactionsBatchJob.Operation.CREATE,
+                    accountTransactionsBatchJob -> consume.accept(
+                        accountTransactionsBatchJob.setJobId(
+                            "job-1"
+                        )
+                    )
+                ),
+                (lineNumber, row, reason) -> rejectedLines.add(
+                    lineNumber
+                )
+            ),
+            null
+        );
+        assertEquals(
+            3l,
+            rowsAcknowledged
+        );
+        assertEquals(
+            List.of(
+                4l,
+                6l
+            ),
+            rejectedLines
+        );
+        assertTrue(
+            mockProducer.get().transactionCommitted()
+        );
+    }
+
+    private static AccountTransactionsBatchJob batch(final int rows)
+    {
+        final List<AccountTransaction> batchAccountTransaction = new ArrayList<>();
+        for(int i = 0; i < rows; i++)
+        {
+            batchAccountTransaction.add(
+                new AccountTransaction().setAccountNumber(
+                    String.valueOf(
+                        8872838283l + i
+                    )
+                ).setTrxAmount(
+                    123.45d
+                )
+            );
+        }
+        return new AccountTransactionsBatchJob().setBatchId(
+            UUID.randomUUID().toString()
+        ).setJobId(
+            "job-1"
+        ).setBatchSize(
+            rows
+        ).setOperation(
+            AccountTransactionsBatchJob.Operation.CREATE
+        ).setBatchAccountTransaction(
+            batchAccountTransaction
+        );
+    }
+}
@@ -0,0 +1,337 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import jakarta.validation.Validation;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.core.exception.InternalException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsMappedCsvKafkaReaderJUnitTest
+{
+    private static final String CSV_HEADER = "ACCOUNT_NUMBER|TRX_AMOUNT|DESCRIPTION|TRX_DATE|TRX_TIME|CUSTOMER_ID\r\n";
+    
+    private Path csvPath;
+    
+    private DefaultAppService appService;
+    
+    private AccountTransactionsMappedCsvKafkaReader accountTransactionsMappedCsvKafkaReader;
+    
+    @BeforeAll
+    public static void setUpClass() {}
+    
+    @AfterAll
+    public static void tearDownClass() {}
+    
+    @BeforeEach
+    public void setUp()
+            throws Exception
+    {
+        csvPath = Files.createTempFile(
+            "account-transactions-", 
+            ".csv"
+        );
+        
+        appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setKafka(
+                new DefaultAppService.Kafka().setTransactionJobBatchSize(
+                    7
+                )
+            ).setIngest(
+                new DefaultAppService.Ingest().setParserEngine(
+                    DefaultAppService.ParserEngine.MAPPED_PARALLEL
+                ).setParserParallelism(
+                    4
+                ).setParserMinRangeSize(
+                    256l
+                )
+            )
+        );
+        final AccountTransactionsBatchSizer accountTransactionsBatchSizer = new AccountTransactionsBatchSizer(
+            appService
+        );
+        accountTransactionsMappedCsvKafkaReader = new AccountTransactionsMappedCsvKafkaReader(
+            appService,
+            new AccountTransactionsCsvKafkaReader(
+                appService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                accountTransactionsBatchSizer
+            ),
+            new AccountTransactionsColumnarCsvKafkaReader(
+                appService,
+                accountTransactionsBatchSizer
+            )
+        );
+    }
+    
+    @AfterEach
+    public void tearDown()
+            throws Exception
+    {
+        accountTransactionsMappedCsvKafkaReader.destroy();
+        Files.deleteIfExists(
+            csvPath
+        );
+    }
+    
+    @Test
+    public void readAndCallback_parallelRanges_ExpectAllLinesOnce()
+            throws Exception
+    {
+        readAndCallback_parallelRanges(
+            DefaultAppService.RowDecoder.BEAN
+        );
+    }
+    
+    @Test
+    public void readAndCallback_parallelRangesColumnar_ExpectAllLinesOnce()
+            throws Exception
+    {
+        readAndCallback_parallelRanges(
+            DefaultAppService.RowDecoder.COLUMNAR
+        );
+    }
+    
+    @Test
+    public void readAndCallback_badLine_ExpectFileLineNumber()
+            throws Exception
+    {
+        readAndCallback_badLine(
+            DefaultAppService.RowDecoder.BEAN
+        );
+    }
+    
+    @Test
+    public void readAndCallback_badLineColumnar_ExpectFileLineNumber()
+            throws Exception
+    {
+        readAndCallback_badLine(
+            DefaultAppService.RowDecoder.COLUMNAR
+        );
+    }
+    
+    @Test
+    public void readAndCallback_badLinesRejected_ExpectOtherLinesRead()
+            throws Exception
+    {
+        readAndCallback_badLinesRejected(
+            DefaultAppService.RowDecoder.BEAN
+        );
+    }
+    
+    @Test
+    public void readAndCallback_badLinesRejectedColumnar_ExpectOtherLinesRead()
+            throws Exception
+    {
+        readAndCallback_badLinesRejected(
+            DefaultAppService.RowDecoder.COLUMNAR
+        );
+    }
+    
+    private void readAndCallback_parallelRanges(final DefaultAppService.RowDecoder rowDecoder)
+            throws Exception
+    {
+        appService.getAccounting().getIngest().setRowDecoder(
+            rowDecoder
+        );
+        
+        final StringBuilder csv = new StringBuilder(
+            CSV_HEADER
+        );
+        for(int i = 0; i < 1000; i++)
+        {
+            csv.append(
+                String.format("%010d|%d.25|FUND TRANSFER|2019-09-12|11:11:11|%d\r\n",
+                    i,
+                    i,
+                    i % 10
+                )
+            );
+        }
+        Files.writeString(
+            csvPath, 
+            csv.toString(),
+            StandardCharsets.UTF_8
+        );
+        
+        final Set<String> accountNumbers = Collections.synchronizedSet(
+            new HashSet<>()
+        );
+        final AtomicLong batches = new AtomicLong();
+        final long processedLinesCount = accountTransactionsMappedCsvKafkaReader.readAndCallback(
+            csvPath.toString(),
+            AccountTransactionsBatchJob.Operation.CREATE,
+            batchToProcess -> {
+                batches.incrementAndGet();
+                assertTrue(
+                    batchToProcess.getBatchAccountTransaction().size()<=7
+                );
+                batchToProcess.getBatchAccountTransaction().forEach(
+                    accountTransactionToProcess -> {
+                        assertTrue(
+                            accountNumbers.add(
+                                accountTransactionToProcess.getAccountNumber()
+                            )
+                        );
+                        assertEquals(
+                            Long.parseLong(accountTransactionToProcess.getAccountNumber()) + 0.25d,
+                            accountTransactionToProcess.getTrxAmount()
+                        );
+                        assertEquals(
+                            Long.parseLong(accountTransactionToProcess.getAccountNumber()) % 10,
+                            accountTransactionToProcess.getCustomerId()
+                        );
+                    }
+                );
+            }
+        );
+        
+        log.info(
+            "Got ({}) lines in ({}) batches using ({}) row decoder",
+            processedLinesCount,
+            batches.get(),
+            rowDecoder
+        );
+        assertEquals(
+            1000l, 
+            processedLinesCount
+        );
+        assertEquals(
+            1000, 
+            accountNumbers.size()
+        );
+    }
+    
+    private void readAndCallback_badLine(final DefaultAppService.RowDecoder rowDecoder)
+            throws Exception
+    {
+        appService.getAccounting().getIngest().setRowDecoder(
+            rowDecoder
+        );
+        
+        final StringBuilder csv = new StringBuilder(
+            CSV_HEADER
+        );
+        for(int i = 0; i < 500; i++)
+        {
+            csv.append(
+                String.format("%010d|%s|FUND TRANSFER|2019-09-12|11:11:11|1\r\n",
+                    i,
+                    i==321?"NOT_A_NUMBER":"10.00"
+                )
+            );
+        }
+        Files.writeString(
+            csvPath, 
+            csv.toString(),
+            StandardCharsets.UTF_8
+        );
+        
+        final InternalException e = assertThrows(
+            InternalException.class,
+            () -> accountTransactionsMappedCsvKafkaReader.readAndCallback(
+                csvPath.toString(),
+                AccountTransactionsBatchJob.Operation.CREATE,
+                batchToProcess -> {}
+            )
+        );
+        
+        log.info(
+            "Got expected failure --- \n\t{}",
+            e.getMessage()
+        );
+        // header is line 1
+        assertTrue(
+            e.getMessage().contains(
+                "at line (323)"
+            )
+        );
+    }
+    
+    private void readAndCallback_badLinesRejected(final DefaultAppService.RowDecoder rowDecoder)
+            throws Exception
+    {
+        appService.getAccounting().getIngest().setRowDecoder(
+            rowDecoder
+        );
+        
+        final StringBuilder csv = new StringBuilder(
+            CSV_HEADER
+        );
+        for(int i = 0; i < 500; i++)
+        {
+            csv.append(
+                String.format("%010d|%s|FUND TRANSFER|2019-09-12|11:11:11|1\r\n",
+                    i,
+                    i==321?"NOT_A_NUMBER":i==400?"0.00":"10.00"
+                )
+            );
+        }
+        Files.writeString(
+            csvPath, 
+            csv.toString(),
+            StandardCharsets.UTF_8
+        );
+        
+        final Map<Long, String> rejects = new ConcurrentHashMap<>();
+        final AtomicLong rows = new AtomicLong();
+        final long processedLinesCount = accountTransactionsMappedCsvKafkaReader.readAndCallback(
+            csvPath.toString(),
+            AccountTransactionsBatchJob.Operation.CREATE,
+            batchToProcess -> rows.addAndGet(
+                batchToProcess.getBatchAccountTransaction().size()
+            ),
+            (lineNumber, row, reason) -> {
+                log.info(
+                    "Got rejected line ({}) '{}' --- \n\t{}",
+                    lineNumber,
+                    row,
+                    reason
+                );
+                rejects.put(
+                    lineNumber,
+                    row
+                );
+            }
+        );
+        
+        assertEquals(
+            498l, 
+            processedLinesCount
+        );
+        assertEquals(
+            498l, 
+            rows.get()
+        );
+        // header is line 1
+        assertEquals(
+            Set.of(
+                323l,
+                402l
+            ),
+            rejects.keySet()
+        );
+        assertTrue(
+            rejects.get(
+                323l
+            ).contains(
+                "NOT_A_NUMBER"
+            )
+        );
+    }
+}
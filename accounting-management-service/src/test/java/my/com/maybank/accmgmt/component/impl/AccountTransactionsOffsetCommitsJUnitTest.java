@@ -0,0 +1,230 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsOffsetCommitsJUnitTest
+{
+    private static final TopicPartition TOPIC_PARTITION = new TopicPartition(
+        "account-transactions",
+        0
+    );
+
+    private List<Long> acknowledgedOffsets;
+
+    private AccountTransactionsOffsetCommits accountTransactionsOffsetCommits;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        acknowledgedOffsets = new ArrayList<>();
+        accountTransactionsOffsetCommits = new AccountTransactionsOffsetCommits(
+            new DefaultAppService().setAccounting(
+                new DefaultAppService.Accounting().setKafka(
+                    new DefaultAppService.Kafka().setListenerAckMode(
+                        DefaultAppService.ListenerAckMode.AFTER_COMMIT
+                    )
+                )
+            )
+        );
+        accountTransactionsOffsetCommits.init();
+        for(long offset = 0l; offset < 3l; offset++)
+        {
+            final long offsetToAcknowledge = offset;
+            accountTransactionsOffsetCommits.track(
+                List.of(
+                    record(
+                        offset
+                    )
+                ),
+                () -> acknowledgedOffsets.add(
+                    offsetToAcknowledge
+                )
+            );
+        }
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        accountTransactionsOffsetCommits.destroy();
+        if(TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void completed_outOfOrder_ExpectAcknowledgedInOffsetOrderAfterCommit()
+    {
+        assertTrue(
+            accountTransactionsOffsetCommits.isEnabled()
+        );
+        accountTransactionsOffsetCommits.completed(
+            List.of(
+                record(
+                    2l
+                )
+            )
+        );
+        // offset 0 and 1 still persisting
+        assertEquals(
+            List.of(),
+            acknowledgedOffsets
+        );
+
+        // acknowledged once the database transaction committed only
+        TransactionSynchronizationManager.initSynchronization();
+        accountTransactionsOffsetCommits.completed(
+            List.of(
+                record(
+                    0l
+                )
+            )
+        );
+        assertEquals(
+            List.of(),
+            acknowledgedOffsets
+        );
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(
+            List.of(
+                0l
+            ),
+            acknowledgedOffsets
+        );
+
+        accountTransactionsOffsetCommits.completed(
+            List.of(
+                record(
+                    1l
+                )
+            )
+        );
+        assertEquals(
+            List.of(
+                0l,
+                1l,
+                2l
+            ),
+            acknowledgedOffsets
+        );
+        assertEquals(
+            3l,
+            accountTransactionsOffsetCommits.getPendingAcks()
+        );
+        accountTransactionsOffsetCommits.onComplete(
+            Map.of(
+                TOPIC_PARTITION,
+                new OffsetAndMetadata(
+                    3l
+                )
+            ),
+            null
+        );
+        assertEquals(
+            0l,
+            accountTransactionsOffsetCommits.getPendingAcks()
+        );
+    }
+
+    @Test
+    public void failed_laterOffsetsPending_ExpectDroppedAndNeverAcknowledged()
+    {
+        accountTransactionsOffsetCommits.completed(
+            List.of(
+                record(
+                    0l
+                )
+            )
+        );
+        // offset 2 polled again after the error handler seeks back to 1
+        accountTransactionsOffsetCommits.failed(
+            List.of(
+                record(
+                    1l
+                )
+            )
+        );
+        accountTransactionsOffsetCommits.completed(
+            List.of(
+                record(
+                    2l
+                )
+            )
+        );
+        assertEquals(
+            List.of(
+                0l
+            ),
+            acknowledgedOffsets
+        );
+        assertEquals(
+            1l,
+            accountTransactionsOffsetCommits.getPendingAcks()
+        );
+
+        // a failed asynchronous commit keeps the offset pending
+        accountTransactionsOffsetCommits.onComplete(
+            Map.of(
+                TOPIC_PARTITION,
+                new OffsetAndMetadata(
+                    1l
+                )
+            ),
+            new IllegalStateException(
+                "Commit cannot be completed"
+            )
+        );
+        assertEquals(
+            1l,
+            accountTransactionsOffsetCommits.getPendingAcks()
+        );
+        accountTransactionsOffsetCommits.onComplete(
+            Map.of(
+                TOPIC_PARTITION,
+                new OffsetAndMetadata(
+                    1l
+                )
+            ),
+            null
+        );
+        assertEquals(
+            0l,
+            accountTransactionsOffsetCommits.getPendingAcks()
+        );
+    }
+
+    private static ConsumerRecord<String, byte[]> record(final long offset)
+    {
+        return new ConsumerRecord<>(
+            TOPIC_PARTITION.topic(),
+            TOPIC_PARTITION.partition(),
+            offset,
+            null,
+            new byte[0]
+        );
+    }
+}
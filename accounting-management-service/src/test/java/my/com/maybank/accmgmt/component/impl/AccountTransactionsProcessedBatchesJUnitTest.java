@@ -0,0 +1,178 @@
+package my.com.maybank.accmgmt.component.impl;
+
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.repository.ProcessedBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountTransactionsProcessedBatchesJUnitTest
+{
+    private ProcessedBatchRepository processedBatchRepository;
+
+    private AccountTransactionsProcessedBatches accountTransactionsProcessedBatches;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        processedBatchRepository = Mockito.mock(
+            ProcessedBatchRepository.class
+        );
+        accountTransactionsProcessedBatches = new AccountTransactionsProcessedBatches(
+            new DefaultAppService().setAccounting(
+                new DefaultAppService.Accounting().setProcessedBatches(
+                    new DefaultAppService.ProcessedBatches().setEnabled(
+                        true
+                    ).setCacheCapacity(
+                        2
+                    )
+                )
+            ),
+            processedBatchRepository
+        );
+        accountTransactionsProcessedBatches.init();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        TransactionSynchronizationManager.clearSynchronization();
+        accountTransactionsProcessedBatches.destroy();
+    }
+
+    @Test
+    public void claim_newBatchJobs_ExpectCachedOnceCommitted()
+    {
+        Mockito.when(
+            processedBatchRepository.insertIfAbsent(
+                Mockito.anyString(),
+                Mockito.any()
+            )
+        ).thenReturn(
+            1
+        );
+        for(final String batchId : List.of(
+            "1",
+            "2",
+            "3"
+        ))
+        {
+            assertEquals(
+                0,
+                accountTransactionsProcessedBatches.claim(
+                    batch(
+                        batchId
+                    )
+                )
+            );
+        }
+        // not before the commit
+        assertFalse(
+            accountTransactionsProcessedBatches.isProcessed(
+                "1"
+            )
+        );
+        TransactionSynchronizationManager.getSynchronizations().forEach(
+            TransactionSynchronization::afterCommit
+        );
+
+        // bounded ; the oldest batch id is left to the database
+        assertFalse(
+            accountTransactionsProcessedBatches.isProcessed(
+                "1"
+            )
+        );
+        assertTrue(
+            accountTransactionsProcessedBatches.isProcessed(
+                "2"
+            )
+        );
+        assertTrue(
+            accountTransactionsProcessedBatches.isProcessed(
+                "3"
+            )
+        );
+        assertEquals(
+            2l,
+            accountTransactionsProcessedBatches.getBatchesSkipped().get()
+        );
+    }
+
+    @Test
+    public void claim_redeliveredMergedBatchJob_ExpectAlreadyProcessedCounted()
+    {
+        Mockito.when(
+            processedBatchRepository.insertIfAbsent(
+                Mockito.anyString(),
+                Mockito.any()
+            )
+        ).thenAnswer(
+            invocation -> "2".equals(
+                invocation.getArgument(
+                    0
+                )
+            )?0:1
+        );
+        assertEquals(
+            1,
+            accountTransactionsProcessedBatches.claim(
+                batch(
+                    "1"
+                ).setMergedBatchIds(
+                    List.of(
+                        "1",
+                        "2",
+                        "3"
+                    )
+                )
+            )
+        );
+        Mockito.verify(
+            processedBatchRepository,
+            Mockito.times(
+                3
+            )
+        ).insertIfAbsent(
+            Mockito.anyString(),
+            Mockito.eq(
+                "job"
+            )
+        );
+        // rolled back by the caller ; nothing to remember
+        assertTrue(
+            TransactionSynchronizationManager.getSynchronizations().isEmpty()
+        );
+    }
+
+    private static AccountTransactionsBatchJob batch(final String batchId)
+    {
+        return new AccountTransactionsBatchJob().setBatchId(
+            batchId
+        ).setJobId(
+            "job"
+        ).setBatchSize(
+            0
+        ).setOperation(
+            AccountTransactionsBatchJob.Operation.CREATE
+        ).setBatchAccountTransaction(
+            List.of()
+        );
+    }
+}
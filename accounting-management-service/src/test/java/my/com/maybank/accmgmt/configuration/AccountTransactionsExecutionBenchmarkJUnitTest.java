@@ -0,0 +1,182 @@
+package my.com.maybank.accmgmt.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Platform versus virtual thread model on blocking work shaped like a batch
+ * job : a blocking wait holding no connection (e.g. the Kafka fetch or the
+ * upload stream), then a few JPA round trips under the database connection
+ * admission ; run with
+ * {@code mvn test -Dbenchmark=true -Dtest=AccountTransactionsExecutionBenchmarkJUnitTest}
+ * on a JDK 21
+ */
+@Slf4j
+@EnabledForJreRange(
+    min = JRE.JAVA_21
+)
+@EnabledIfSystemProperty(
+    named = "benchmark",
+    matches = "true"
+)
+public class AccountTransactionsExecutionBenchmarkJUnitTest
+{
+    private static final int TASKS = 20000;
+
+    private static final int PLATFORM_THREADS = 200;
+
+    private static final int DB_ADMISSION_PERMITS = 200;
+
+    private static final long DB_ROUND_TRIP_MS = 2l;
+
+    private static final int DB_ROUND_TRIPS = 3;
+
+    private static final long OTHER_BLOCKING_MS = 10l;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp() {}
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void execute_blockingWork_ComparePlatformAndVirtualThreads()
+            throws Exception
+    {
+        final ThreadPoolTaskExecutor platformExecutor = new ThreadPoolTaskExecutor();
+        platformExecutor.setCorePoolSize(
+            PLATFORM_THREADS
+        );
+        platformExecutor.setMaxPoolSize(
+            PLATFORM_THREADS
+        );
+        platformExecutor.setQueueCapacity(
+            TASKS
+        );
+        platformExecutor.setThreadNamePrefix(
+            "benchmark-platform-"
+        );
+        platformExecutor.initialize();
+
+        // warm up, then measure
+        run(
+            platformExecutor,
+            TASKS/10
+        );
+        final double platformTasksPerSecond = run(
+            platformExecutor,
+            TASKS
+        );
+        platformExecutor.shutdown();
+
+        final AsyncTaskExecutor virtualExecutor = AccountTransactionsExecutionConfiguration.newVirtualThreadExecutor(
+            "benchmark-virtual-"
+        );
+        run(
+            virtualExecutor,
+            TASKS/10
+        );
+        final double virtualTasksPerSecond = run(
+            virtualExecutor,
+            TASKS
+        );
+
+        log.info(
+            "Execution benchmark, ({}) tasks of ({})ms blocking then ({}) x ({})ms round trip(s) under ({}) admission permit(s) --- \n\tPLATFORM ({} threads) : {} task(s)/s\n\tVIRTUAL            : {} task(s)/s",
+            TASKS,
+            OTHER_BLOCKING_MS,
+            DB_ROUND_TRIPS,
+            DB_ROUND_TRIP_MS,
+            DB_ADMISSION_PERMITS,
+            PLATFORM_THREADS,
+            String.format(
+                "%.0f",
+                platformTasksPerSecond
+            ),
+            String.format(
+                "%.0f",
+                virtualTasksPerSecond
+            )
+        );
+        assertTrue(
+            platformTasksPerSecond>0d && virtualTasksPerSecond>0d
+        );
+    }
+
+    /**
+     * @return                                  Tasks per second
+     */
+    private static double run(final AsyncTaskExecutor executor,
+                              final int tasks)
+    {
+        final Semaphore dbAdmission = new Semaphore(
+            DB_ADMISSION_PERMITS,
+            true
+        );
+        final List<CompletableFuture<Void>> completions = new ArrayList<>(
+            tasks
+        );
+        final long startNanos = System.nanoTime();
+        for(int i = 0; i < tasks; i++)
+        {
+            completions.add(
+                CompletableFuture.runAsync(
+                    () -> {
+                        try
+                        {
+                            TimeUnit.MILLISECONDS.sleep(
+                                OTHER_BLOCKING_MS
+                            );
+                            dbAdmission.acquire();
+                            try
+                            {
+                                for(int j = 0; j < DB_ROUND_TRIPS; j++)
+                                {
+                                    TimeUnit.MILLISECONDS.sleep(
+                                        DB_ROUND_TRIP_MS
+                                    );
+                                }
+                            }
+                            finally
+                            {
+                                dbAdmission.release();
+                            }
+                        }
+                        catch(InterruptedException e)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                    },
+                    executor
+                )
+            );
+        }
+        CompletableFuture.allOf(
+            completions.toArray(
+                CompletableFuture[]::new
+            )
+        ).join();
+        return tasks/((System.nanoTime() - startNanos)/1_000_000_000d);
+    }
+}
@@ -0,0 +1,191 @@
+package my.com.maybank.accmgmt.configuration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.core.configuration.service.AppService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class DataSourceAdmissionBeanPostProcessorJUnitTest
+{
+    private DefaultAppService.Execution execution;
+
+    private DataSourceAdmissionBeanPostProcessor dataSourceAdmissionBeanPostProcessor;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        execution = new DefaultAppService.Execution().setListenerThreads(
+            DefaultAppService.ThreadModel.VIRTUAL
+        ).setDbAdmissionPermits(
+            2
+        ).setDbAdmissionTimeoutMs(
+            200l
+        );
+        final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton(
+            "appService",
+            new DefaultAppService().setAccounting(
+                new DefaultAppService.Accounting().setExecution(
+                    execution
+                )
+            )
+        );
+        dataSourceAdmissionBeanPostProcessor = new DataSourceAdmissionBeanPostProcessor(
+            beanFactory.getBeanProvider(
+                AppService.class
+            )
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void getConnection_permitsInUse_ExpectAdmittedOnceClosed()
+            throws Exception
+    {
+        final DataSource dataSource = (DataSource)dataSourceAdmissionBeanPostProcessor.postProcessAfterInitialization(
+            new StubDataSource(),
+            "dataSource"
+        );
+        assertInstanceOf(
+            StubDataSource.class,
+            dataSource
+        );
+        final Connection firstConnection = dataSource.getConnection();
+        final Connection secondConnection = dataSource.getConnection();
+        final CompletableFuture<Connection> thirdConnection = CompletableFuture.supplyAsync(
+            () -> {
+                try
+                {
+                    return dataSource.getConnection();
+                }
+                catch(Exception e)
+                {
+                    throw new IllegalStateException(
+                        e
+                    );
+                }
+            }
+        );
+        TimeUnit.MILLISECONDS.sleep(
+            50l
+        );
+        assertFalse(
+            thirdConnection.isDone()
+        );
+        // closing twice gives one permit back
+        firstConnection.close();
+        firstConnection.close();
+        assertNotNull(
+            thirdConnection.get(
+                1l,
+                TimeUnit.SECONDS
+            )
+        );
+        secondConnection.close();
+        thirdConnection.get().close();
+    }
+
+    @Test
+    public void getConnection_permitsExhausted_ExpectTimedOut()
+            throws Exception
+    {
+        final DataSource dataSource = (DataSource)dataSourceAdmissionBeanPostProcessor.postProcessAfterInitialization(
+            new StubDataSource(),
+            "dataSource"
+        );
+        dataSource.getConnection();
+        dataSource.getConnection();
+        final SQLTransientConnectionException e = assertThrows(
+            SQLTransientConnectionException.class,
+            () -> dataSource.getConnection()
+        );
+        log.info(
+            "Got expected failure --- \n\t{}",
+            e.getMessage()
+        );
+
+        // disabled with 0 permits
+        execution.setDbAdmissionPermits(
+            0
+        );
+        final StubDataSource stubDataSource = new StubDataSource();
+        assertSame(
+            stubDataSource,
+            dataSourceAdmissionBeanPostProcessor.postProcessAfterInitialization(
+                stubDataSource,
+                "dataSource"
+            )
+        );
+    }
+
+    @Test
+    public void postProcessAfterInitialization_platformThreads_ExpectNotWrapped()
+    {
+        execution.setListenerThreads(
+            DefaultAppService.ThreadModel.PLATFORM
+        );
+        final StubDataSource stubDataSource = new StubDataSource();
+        assertSame(
+            stubDataSource,
+            dataSourceAdmissionBeanPostProcessor.postProcessAfterInitialization(
+                stubDataSource,
+                "dataSource"
+            )
+        );
+
+        // virtual web threads alone are enough
+        execution.setWebThreads(
+            DefaultAppService.ThreadModel.VIRTUAL
+        );
+        assertNotSame(
+            stubDataSource,
+            dataSourceAdmissionBeanPostProcessor.postProcessAfterInitialization(
+                stubDataSource,
+                "dataSource"
+            )
+        );
+    }
+
+    public static class StubDataSource
+           extends AbstractDataSource
+    {
+        @Override
+        public Connection getConnection()
+                throws SQLException
+        {
+            return Mockito.mock(
+                Connection.class
+            );
+        }
+
+        @Override
+        public Connection getConnection(final String username,
+                                        final String password)
+                throws SQLException
+        {
+            return getConnection();
+        }
+    }
+}
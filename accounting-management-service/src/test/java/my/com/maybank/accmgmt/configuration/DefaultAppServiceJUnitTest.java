@@ -0,0 +1,171 @@
+package my.com.maybank.accmgmt.configuration;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.core.exception.InternalException;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class DefaultAppServiceJUnitTest
+{
+    private DefaultAppService.Producer producer;
+
+    private DefaultAppService appService;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        producer = new DefaultAppService.Producer();
+        appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setKafka(
+                new DefaultAppService.Kafka().setProducer(
+                    producer
+                )
+            )
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void getAccountingKafkaProducerConfigs_profileWithOverrides_ExpectOverridesWin()
+    {
+        assertTrue(
+            new DefaultAppService().getAccountingKafkaProducerConfigs().isEmpty()
+        );
+
+        producer.setProfile(
+            DefaultAppService.ProducerProfile.THROUGHPUT
+        ).setCompressionType(
+            "ZSTD"
+        ).setLingerMs(
+            50l
+        );
+        final Map<String, Object> producerConfigs = appService.getAccountingKafkaProducerConfigs();
+        log.info(
+            "Got producer configs --- \n\t{}",
+            producerConfigs
+        );
+        assertEquals(
+            "zstd",
+            producerConfigs.get(
+                ProducerConfig.COMPRESSION_TYPE_CONFIG
+            )
+        );
+        assertEquals(
+            50l,
+            producerConfigs.get(
+                ProducerConfig.LINGER_MS_CONFIG
+            )
+        );
+        assertEquals(
+            DefaultAppService.ProducerProfile.THROUGHPUT.getBatchSize(),
+            producerConfigs.get(
+                ProducerConfig.BATCH_SIZE_CONFIG
+            )
+        );
+        assertEquals(
+            Boolean.TRUE,
+            producerConfigs.get(
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG
+            )
+        );
+        assertEquals(
+            "all",
+            producerConfigs.get(
+                ProducerConfig.ACKS_CONFIG
+            )
+        );
+    }
+
+    @Test
+    public void getAccountingKafkaProducerConfigs_invalid_ExpectInternalException()
+    {
+        producer.setProfile(
+            DefaultAppService.ProducerProfile.LATENCY
+        ).setCompressionType(
+            "brotli"
+        );
+        final InternalException e = assertThrows(
+            InternalException.class,
+            () -> appService.getAccountingKafkaProducerConfigs()
+        );
+        log.info(
+            "Got expected failure --- \n\t{}",
+            e.getMessage()
+        );
+
+        producer.setCompressionType(
+            null
+        ).setMaxInFlightRequestsPerConnection(
+            10
+        );
+        assertThrows(
+            InternalException.class,
+            () -> appService.getAccountingKafkaProducerConfigs()
+        );
+
+        producer.setEnableIdempotence(
+            Boolean.FALSE
+        );
+        assertEquals(
+            10,
+            appService.getAccountingKafkaProducerConfigs().get(
+                ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION
+            )
+        );
+    }
+
+    @Test
+    public void getAccountingKafkaListenerConcurrency_autoAndTopicPartitions_ExpectCapped()
+    {
+        assertEquals(
+            DefaultAppService.DEFAULT_ACCOUNTING_KAFKA_LISTENER_CONCURRENCY,
+            new DefaultAppService().getAccountingKafkaListenerConcurrency()
+        );
+
+        appService.getAccounting().getKafka().setListenerConcurrency(
+            0
+        );
+        assertEquals(
+            Runtime.getRuntime().availableProcessors(),
+            appService.getAccountingKafkaListenerConcurrency()
+        );
+
+        appService.getAccounting().getKafka().setListenerConcurrency(
+            8
+        );
+        assertEquals(
+            3,
+            appService.getAccountingKafkaListenerConcurrency(
+                3
+            )
+        );
+        assertEquals(
+            8,
+            appService.getAccountingKafkaListenerConcurrency(
+                12
+            )
+        );
+        // partition count unknown
+        assertEquals(
+            8,
+            appService.getAccountingKafkaListenerConcurrency(
+                null
+            )
+        );
+    }
+}
@@ -0,0 +1,426 @@
+package my.com.maybank.accmgmt.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsIngestJobRegistry;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.IngestJob;
+import my.com.maybank.accmgmt.service.AccountingService;
+import my.com.maybank.accmgmt.service.UploadSessionService;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.BadParameterException;
+import my.com.maybank.core.exception.InternalException;
+import my.com.maybank.core.exception.ServiceUnavailableException;
+import my.com.maybank.core.models.MessageModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class AccountingControllerJUnitTest
+{
+    private static final String CSV = "ACCOUNT_NUMBER|TRX_AMOUNT|DESCRIPTION|TRX_DATE|TRX_TIME|CUSTOMER_ID\n" +
+        "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222\n";
+
+    private DefaultAppService.Ingest ingest;
+
+    private DefaultAppService appService;
+
+    private AccountingService accountingService;
+
+    private AccountingController accountingController;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        ingest = new DefaultAppService.Ingest();
+        appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setIngest(
+                ingest
+            )
+        );
+        appService.setDataPath(
+            new AppService.DataPath().setUpload(
+                new AppService.Upload().setDestBasePath(
+                    tempDir.toString()
+                )
+            )
+        );
+        accountingService = Mockito.mock(
+            AccountingService.class
+        );
+        accountingController = new AccountingController(
+            appService,
+            accountingService,
+            Mockito.mock(
+                UploadSessionService.class
+            )
+        );
+
+        // current request, for the response Location header
+        final HttpServletRequest httpServletRequest = Mockito.mock(
+            HttpServletRequest.class
+        );
+        Mockito.when(
+            httpServletRequest.getScheme()
+        ).thenReturn(
+            "http"
+        );
+        Mockito.when(
+            httpServletRequest.getServerName()
+        ).thenReturn(
+            "localhost"
+        );
+        Mockito.when(
+            httpServletRequest.getServerPort()
+        ).thenReturn(
+            18082
+        );
+        Mockito.when(
+            httpServletRequest.getContextPath()
+        ).thenReturn(
+            ""
+        );
+        Mockito.when(
+            httpServletRequest.getRequestURI()
+        ).thenReturn(
+            "/api/v1/accounting/upload"
+        );
+        Mockito.when(
+            httpServletRequest.getRequestURL()
+        ).thenAnswer(
+            invocation -> new StringBuffer(
+                "http://localhost:18082/api/v1/accounting/upload"
+            )
+        );
+        RequestContextHolder.setRequestAttributes(
+            new ServletRequestAttributes(
+                httpServletRequest
+            )
+        );
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void uploadAccountTransactions_streamingSynchronous_ExpectReadFromPartNotStaged()
+            throws Exception
+    {
+        ingest.setAsyncUpload(
+            Boolean.FALSE
+        ).setUploadMode(
+            DefaultAppService.UploadMode.STREAMING
+        );
+        Mockito.when(
+            accountingService.batchProducerCreateAccountTransactions(
+                Mockito.any(InputStream.class),
+                Mockito.eq("dataSource.txt"),
+                Mockito.any()
+            )
+        ).thenReturn(
+            1l
+        );
+        final ResponseEntity<MessageModel.MessageModelResponse> responseEntity = accountingController.uploadAccountTransactions(
+            null,
+            multipartFile()
+        );
+        log.info(
+            "Got response --- \n\t{}",
+            responseEntity.getBody()
+        );
+        assertEquals(
+            HttpStatus.OK,
+            responseEntity.getStatusCode()
+        );
+        Mockito.verify(
+            accountingService,
+            Mockito.never()
+        ).batchProducerCreateAccountTransactions(
+            Mockito.any(Path.class),
+            Mockito.any()
+        );
+        Mockito.verify(
+            accountingService,
+            Mockito.never()
+        ).submitCreateAccountTransactions(
+            Mockito.any(),
+            Mockito.any()
+        );
+    }
+
+    @Test
+    public void uploadAccountTransactions_failure_ExpectCauseKept()
+            throws Exception
+    {
+        ingest.setAsyncUpload(
+            Boolean.FALSE
+        );
+        final IllegalStateException cause = new IllegalStateException(
+            "Kafka unreachable"
+        );
+        Mockito.when(
+            accountingService.batchProducerCreateAccountTransactions(
+                Mockito.any(Path.class),
+                Mockito.any()
+            )
+        ).thenThrow(
+            cause
+        );
+        final InternalException e = assertThrows(
+            InternalException.class,
+            () -> accountingController.uploadAccountTransactions(
+                null,
+                multipartFile()
+            )
+        );
+        log.info(
+            "Got expected failure --- \n\t{}",
+            e.getMessage()
+        );
+        assertSame(
+            cause,
+            e.getCause()
+        );
+    }
+
+    @Test
+    public void uploadAccountTransactions_async_ExpectAcceptedWithJobLocation()
+            throws Exception
+    {
+        final IngestJob ingestJob = new AccountTransactionsIngestJobRegistry(
+            appService
+        ).register(
+            "dataSource.txt"
+        );
+        Mockito.when(
+            accountingService.submitCreateAccountTransactions(
+                Mockito.any(),
+                Mockito.eq("dataSource.txt")
+            )
+        ).thenReturn(
+            ingestJob
+        );
+        Mockito.when(
+            accountingService.findIngestJob(
+                ingestJob.getJobId()
+            )
+        ).thenReturn(
+            ingestJob
+        );
+        final ResponseEntity<MessageModel.MessageModelResponse> responseEntity = accountingController.uploadAccountTransactions(
+            null,
+            multipartFile()
+        );
+        log.info(
+            "Got response --- \n\t{}\n\t{}",
+            responseEntity.getHeaders().getLocation(),
+            responseEntity.getBody()
+        );
+        assertEquals(
+            HttpStatus.ACCEPTED,
+            responseEntity.getStatusCode()
+        );
+        assertEquals(
+            "http://localhost:18082/api/v1/accounting/jobs/" + ingestJob.getJobId(),
+            responseEntity.getHeaders().getLocation().toString()
+        );
+
+        // the staged file is handed over to the job, not deleted
+        final ArgumentCaptor<Path> stagedCsvPath = ArgumentCaptor.forClass(
+            Path.class
+        );
+        Mockito.verify(
+            accountingService
+        ).submitCreateAccountTransactions(
+            stagedCsvPath.capture(),
+            Mockito.eq("dataSource.txt")
+        );
+        assertTrue(
+            stagedCsvPath.getValue().startsWith(
+                tempDir
+            )
+        );
+
+        // the job status moves as the job runs
+        assertEquals(
+            IngestJob.Status.QUEUED,
+            accountingController.retrieveUploadJob(
+                null,
+                ingestJob.getJobId()
+            ).getStatus()
+        );
+        ingestJob.started();
+        assertEquals(
+            IngestJob.Status.RUNNING,
+            accountingController.retrieveUploadJob(
+                null,
+                ingestJob.getJobId()
+            ).getStatus()
+        );
+        ingestJob.failed(
+            "Kafka unreachable"
+        );
+        assertEquals(
+            IngestJob.Status.FAILED,
+            accountingController.retrieveUploadJob(
+                null,
+                ingestJob.getJobId()
+            ).getStatus()
+        );
+    }
+
+    @Test
+    public void uploadAccountTransactions_executorSaturated_ExpectServiceUnavailable()
+            throws Exception
+    {
+        final ServiceUnavailableException serviceUnavailableException = new ServiceUnavailableException(
+            "File 'dataSource.txt' upload REJECTED ; too many uploads in progress, retry later"
+        );
+        Mockito.when(
+            accountingService.submitCreateAccountTransactions(
+                Mockito.any(),
+                Mockito.any()
+            )
+        ).thenThrow(
+            serviceUnavailableException
+        );
+
+        // thrown as is, for the exception handler to answer 503
+        final InternalException e = assertThrows(
+            InternalException.class,
+            () -> accountingController.uploadAccountTransactions(
+                null,
+                multipartFile()
+            )
+        );
+        assertSame(
+            serviceUnavailableException,
+            e
+        );
+        assertEquals(
+            HttpStatus.SERVICE_UNAVAILABLE,
+            e.getClass().getAnnotation(
+                ResponseStatus.class
+            ).value()
+        );
+    }
+
+    @Test
+    public void uploadStreamAccountTransactions_body_ExpectReadAsItArrives()
+    {
+        final InputStream csvInputStream = new ByteArrayInputStream(
+            CSV.getBytes(
+                StandardCharsets.UTF_8
+            )
+        );
+        Mockito.when(
+            accountingService.batchProducerCreateAccountTransactions(
+                Mockito.same(csvInputStream),
+                Mockito.eq("dataSource.txt"),
+                Mockito.any()
+            )
+        ).thenReturn(
+            1l
+        );
+        assertEquals(
+            HttpStatus.OK,
+            accountingController.uploadStreamAccountTransactions(
+                null,
+                "dataSource.txt",
+                null,
+                csvInputStream
+            ).getStatusCode()
+        );
+    }
+
+    @Test
+    public void uploadStreamAccountTransactions_internalException_ExpectRethrownAsIs()
+    {
+        final BadParameterException badParameterException = new BadParameterException(
+            "Bad row"
+        );
+        Mockito.when(
+            accountingService.batchProducerCreateAccountTransactions(
+                Mockito.any(InputStream.class),
+                Mockito.any(),
+                Mockito.any()
+            )
+        ).thenThrow(
+            badParameterException
+        );
+        final InternalException e = assertThrows(
+            InternalException.class,
+            () -> accountingController.uploadStreamAccountTransactions(
+                null,
+                "dataSource.txt",
+                null,
+                new ByteArrayInputStream(
+                    CSV.getBytes(
+                        StandardCharsets.UTF_8
+                    )
+                )
+            )
+        );
+        assertSame(
+            badParameterException,
+            e
+        );
+    }
+
+    private static MultipartFile multipartFile()
+            throws Exception
+    {
+        final MultipartFile multipartFile = Mockito.mock(
+            MultipartFile.class
+        );
+        Mockito.when(
+            multipartFile.isEmpty()
+        ).thenReturn(
+            false
+        );
+        Mockito.when(
+            multipartFile.getOriginalFilename()
+        ).thenReturn(
+            "dataSource.txt"
+        );
+        Mockito.when(
+            multipartFile.getInputStream()
+        ).thenAnswer(
+            invocation -> new ByteArrayInputStream(
+                CSV.getBytes(
+                    StandardCharsets.UTF_8
+                )
+            )
+        );
+        return multipartFile;
+    }
+}
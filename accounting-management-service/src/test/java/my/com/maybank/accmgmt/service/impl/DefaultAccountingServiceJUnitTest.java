@@ -0,0 +1,690 @@
+package my.com.maybank.accmgmt.service.impl;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.CsvMessageReader;
+import my.com.maybank.accmgmt.component.MessageProducer;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsAccountCache;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsBatchJobOutbox;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsBatchJobRetryTiers;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsCriteriaKafkaMessageReaderDelegate;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsIngestJobRegistry;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsIngestPipeline;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsProcessedBatches;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsRejectReports;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.models.IngestJob;
+import my.com.maybank.accmgmt.repository.AccountRepository;
+import my.com.maybank.accmgmt.repository.TransactionRepository;
+import my.com.maybank.accmgmt.repository.UploadFingerprintRepository;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class DefaultAccountingServiceJUnitTest
+{
+    private static final String BATCH_ID = "5f0c3f6e-2a54-4b8e-9a44-0d5d8c1e7b21";
+
+    private AccountTransactionsAccountCache accountTransactionsAccountCache;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        accountTransactionsAccountCache = Mockito.mock(
+            AccountTransactionsAccountCache.class
+        );
+        Mockito.when(
+            accountTransactionsAccountCache.resolveOwners(
+                Mockito.any()
+            )
+        ).thenReturn(
+            Map.of(
+                "8872838283",
+                222l
+            )
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void withResolvedAccounts_failFast_ExpectBatchFailedWithEveryRow()
+    {
+        final DefaultAppService appService = appService(
+            DefaultAppService.ErrorMode.FAIL_FAST
+        );
+        final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry = new AccountTransactionsIngestJobRegistry(
+            appService
+        );
+        final IngestJob ingestJob = producedIngestJob(
+            accountTransactionsIngestJobRegistry
+        );
+        // the batch fails whole, for the dead-letter topic to keep it
+        final EntityNotFoundException e = assertThrows(
+            EntityNotFoundException.class,
+            () -> accountingService(
+                appService,
+                accountTransactionsIngestJobRegistry
+            ).withResolvedAccounts(
+                batch(
+                    ingestJob
+                ),
+                batch(
+                    ingestJob
+                ).getBatchAccountTransaction()
+            )
+        );
+        log.info(
+            "Got expected failure --- \n\t{}",
+            e.getMessage()
+        );
+        // every row reported at its line in the uploaded file, not its index
+        assertTrue(
+            e.getMessage().contains(
+                String.format(
+                    "Batch ID(%s) line (5) account number '8872838299' NOT FOUND",
+                    BATCH_ID
+                )
+            )
+        );
+        assertTrue(
+            e.getMessage().contains(
+                String.format(
+                    "Batch ID(%s) line (7) account number '8872838283' OWNED BY customer '222', NOT customer '333'",
+                    BATCH_ID
+                )
+            )
+        );
+        assertEquals(
+            0l,
+            ingestJob.getRowsUnresolved()
+        );
+    }
+
+    @Test
+    public void withResolvedAccounts_customerIdMissingOrInvalid_ExpectRowUnresolved()
+    {
+        final DefaultAppService appService = appService(
+            DefaultAppService.ErrorMode.REJECT
+        );
+        final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry = new AccountTransactionsIngestJobRegistry(
+            appService
+        );
+        final IngestJob ingestJob = producedIngestJob(
+            accountTransactionsIngestJobRegistry
+        );
+        // the account resolves, the customer is not checked against its owner
+        final List<AccountTransaction> resolvedAccountTransactions = accountingService(
+            appService,
+            accountTransactionsIngestJobRegistry
+        ).withResolvedAccounts(
+            batch(
+                ingestJob
+            ),
+            List.of(
+                // i.e. a JSON batch job without it
+                new AccountTransaction().setAccountNumber(
+                    "8872838283"
+                ).setTrxAmount(
+                    123.45d
+                ).setLineNumber(
+                    2l
+                ),
+                row(
+                    "8872838283",
+                    0l,
+                    3l
+                ),
+                row(
+                    "8872838283",
+                    222l,
+                    4l
+                )
+            )
+        );
+        assertEquals(
+            List.of(
+                4l
+            ),
+            resolvedAccountTransactions.stream().map(
+                AccountTransaction::getLineNumber
+            ).toList()
+        );
+        assertEquals(
+            2l,
+            ingestJob.getRowsUnresolved()
+        );
+        assertTrue(
+            ingestJob.getUnresolvedRows().get(
+                0
+            ).startsWith(
+                String.format(
+                    "Batch ID(%s) line (2) account number '8872838283' customer ID IS NULL OR INVALID",
+                    BATCH_ID
+                )
+            )
+        );
+    }
+
+    @Test
+    public void withResolvedAccounts_reject_ExpectOffendingRowsSkippedAndReported()
+            throws Exception
+    {
+        final DefaultAppService appService = appService(
+            DefaultAppService.ErrorMode.REJECT
+        );
+        final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry = new AccountTransactionsIngestJobRegistry(
+            appService
+        );
+        final IngestJob ingestJob = producedIngestJob(
+            accountTransactionsIngestJobRegistry
+        );
+        final List<AccountTransaction> resolvedAccountTransactions = accountingService(
+            appService,
+            accountTransactionsIngestJobRegistry
+        ).withResolvedAccounts(
+            batch(
+                ingestJob
+            ),
+            batch(
+                ingestJob
+            ).getBatchAccountTransaction()
+        );
+        assertEquals(
+            1,
+            resolvedAccountTransactions.size()
+        );
+        ingestJob.batchPersisted(
+            BATCH_ID,
+            resolvedAccountTransactions.size()
+        );
+        assertEquals(
+            IngestJob.Status.COMPLETED,
+            ingestJob.getStatus()
+        );
+        assertNull(
+            ingestJob.getFailure()
+        );
+
+        // every row on the job and in the reject report of the batch
+        assertEquals(
+            2l,
+            ingestJob.getRowsUnresolved()
+        );
+        assertEquals(
+            List.of(
+                5l,
+                7l
+            ),
+            ingestJob.getUnresolvedRows().stream().map(
+                unresolvedRowToProcess -> Long.valueOf(
+                    unresolvedRowToProcess.replaceAll(
+                        ".* line \\((\\d+)\\) .*",
+                        "$1"
+                    )
+                )
+            ).toList()
+        );
+        final List<String> rejectReportLines = Files.readAllLines(
+            appService.getUploadRejectsBasePath().resolve(
+                BATCH_ID + ".csv"
+            ),
+            StandardCharsets.UTF_8
+        );
+        log.info(
+            "Got reject report --- \n\t{}",
+            String.join(
+                "\n\t",
+                rejectReportLines
+            )
+        );
+        assertEquals(
+            3,
+            rejectReportLines.size()
+        );
+        assertTrue(
+            rejectReportLines.get(
+                1
+            ).startsWith(
+                "5,"
+            )
+        );
+        assertTrue(
+            rejectReportLines.get(
+                2
+            ).startsWith(
+                "7,"
+            )
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void submitCreateAccountTransactions_executorSaturated_ExpectRunningThenRejectedThenCompleted()
+            throws Exception
+    {
+        final DefaultAppService appService = appService(
+            DefaultAppService.ErrorMode.FAIL_FAST
+        );
+        final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry = new AccountTransactionsIngestJobRegistry(
+            appService
+        );
+        final CountDownLatch readStarted = new CountDownLatch(
+            1
+        );
+        final CountDownLatch readReleased = new CountDownLatch(
+            1
+        );
+        final CsvMessageReader<AccountTransactionsBatchJob.Operation, AccountTransactionsBatchJob> accountTransactionCsvReader = Mockito.mock(
+            CsvMessageReader.class
+        );
+        Mockito.when(
+            accountTransactionCsvReader.readAndCallback(
+                Mockito.anyString(),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.any()
+            )
+        ).thenAnswer(
+            invocation -> {
+                readStarted.countDown();
+                assertTrue(
+                    readReleased.await(
+                        10l,
+                        TimeUnit.SECONDS
+                    )
+                );
+                ((Consumer<AccountTransactionsBatchJob>)invocation.getArgument(
+                    2
+                )).accept(
+                    new AccountTransactionsBatchJob().setBatchId(
+                        BATCH_ID
+                    ).setOperation(
+                        AccountTransactionsBatchJob.Operation.CREATE
+                    ).setBatchAccountTransaction(
+                        List.of(
+                            row(
+                                "8872838283",
+                                222l,
+                                2l
+                            )
+                        )
+                    )
+                );
+                return 3l;
+            }
+        );
+
+        // a single thread, no queue
+        final ThreadPoolTaskExecutor accountTransactionsIngestExecutor = new ThreadPoolTaskExecutor();
+        accountTransactionsIngestExecutor.setCorePoolSize(
+            1
+        );
+        accountTransactionsIngestExecutor.setMaxPoolSize(
+            1
+        );
+        accountTransactionsIngestExecutor.setQueueCapacity(
+            0
+        );
+        accountTransactionsIngestExecutor.initialize();
+        try
+        {
+            final DefaultAccountingService accountingService = accountingService(
+                appService,
+                accountTransactionsIngestJobRegistry,
+                accountTransactionCsvReader,
+                accountTransactionsIngestExecutor
+            );
+            final IngestJob ingestJob = accountingService.submitCreateAccountTransactions(
+                csvPath(
+                    "dataSource.txt"
+                ),
+                "dataSource.txt"
+            );
+            assertTrue(
+                accountTransactionsIngestJobRegistry.find(
+                    ingestJob.getJobId()
+                ).isPresent()
+            );
+            assertTrue(
+                readStarted.await(
+                    10l,
+                    TimeUnit.SECONDS
+                )
+            );
+            assertEquals(
+                IngestJob.Status.RUNNING,
+                ingestJob.getStatus()
+            );
+
+            // the only thread is busy ; the next upload is turned away
+            final Path rejectedCsvPath = csvPath(
+                "dataSource2.txt"
+            );
+            final ServiceUnavailableException e = assertThrows(
+                ServiceUnavailableException.class,
+                () -> accountingService.submitCreateAccountTransactions(
+                    rejectedCsvPath,
+                    "dataSource2.txt"
+                )
+            );
+            log.info(
+                "Got expected failure --- \n\t{}",
+                e.getMessage()
+            );
+            assertFalse(
+                Files.exists(
+                    rejectedCsvPath
+                )
+            );
+
+            readReleased.countDown();
+            awaitStatus(
+                ingestJob,
+                IngestJob.Status.PRODUCED
+            );
+            assertEquals(
+                1l,
+                ingestJob.getBatchesProduced()
+            );
+
+            // the consumer reports the batch back
+            ingestJob.batchPersisted(
+                BATCH_ID,
+                3l
+            );
+            assertEquals(
+                IngestJob.Status.COMPLETED,
+                ingestJob.getStatus()
+            );
+        }
+        finally
+        {
+            readReleased.countDown();
+            accountTransactionsIngestExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void submitCreateAccountTransactions_readFailure_ExpectFailed()
+            throws Exception
+    {
+        final DefaultAppService appService = appService(
+            DefaultAppService.ErrorMode.FAIL_FAST
+        );
+        final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry = new AccountTransactionsIngestJobRegistry(
+            appService
+        );
+        final CsvMessageReader<AccountTransactionsBatchJob.Operation, AccountTransactionsBatchJob> accountTransactionCsvReader = Mockito.mock(
+            CsvMessageReader.class
+        );
+        Mockito.when(
+            accountTransactionCsvReader.readAndCallback(
+                Mockito.anyString(),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.any()
+            )
+        ).thenThrow(
+            new IllegalStateException(
+                "Line (2) is not a valid CSV row"
+            )
+        );
+        final ThreadPoolTaskExecutor accountTransactionsIngestExecutor = new ThreadPoolTaskExecutor();
+        accountTransactionsIngestExecutor.initialize();
+        try
+        {
+            final Path csvPath = csvPath(
+                "dataSource.txt"
+            );
+            final IngestJob ingestJob = accountingService(
+                appService,
+                accountTransactionsIngestJobRegistry,
+                accountTransactionCsvReader,
+                accountTransactionsIngestExecutor
+            ).submitCreateAccountTransactions(
+                csvPath,
+                "dataSource.txt"
+            );
+            awaitStatus(
+                ingestJob,
+                IngestJob.Status.FAILED
+            );
+            assertEquals(
+                "Line (2) is not a valid CSV row",
+                ingestJob.getFailure()
+            );
+            assertFalse(
+                Files.exists(
+                    csvPath
+                )
+            );
+        }
+        finally
+        {
+            accountTransactionsIngestExecutor.shutdown();
+        }
+    }
+
+    private DefaultAppService appService(final DefaultAppService.ErrorMode errorMode)
+    {
+        final DefaultAppService appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setIngest(
+                new DefaultAppService.Ingest().setErrorMode(
+                    errorMode
+                )
+            )
+        );
+        appService.getAccounting().getIngest().setDedup(
+            Boolean.FALSE
+        );
+        appService.setDataPath(
+            new AppService.DataPath().setUpload(
+                new AppService.Upload().setDestBasePath(
+                    tempDir.toString()
+                )
+            )
+        );
+        return appService;
+    }
+
+    private Path csvPath(final String fileName)
+            throws Exception
+    {
+        return Files.writeString(
+            tempDir.resolve(
+                fileName
+            ),
+            "ACCOUNT_NUMBER|TRX_AMOUNT|DESCRIPTION|TRX_DATE|TRX_TIME|CUSTOMER_ID\n" +
+            "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222\n",
+            StandardCharsets.UTF_8
+        );
+    }
+
+    private static void awaitStatus(final IngestJob ingestJob,
+                                    final IngestJob.Status status)
+            throws Exception
+    {
+        final long deadline = System.currentTimeMillis() + 10000l;
+        while(ingestJob.getStatus()!=status && System.currentTimeMillis()<deadline)
+        {
+            Thread.sleep(
+                10l
+            );
+        }
+        assertEquals(
+            status,
+            ingestJob.getStatus()
+        );
+    }
+
+    private static IngestJob producedIngestJob(final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry)
+    {
+        final IngestJob ingestJob = accountTransactionsIngestJobRegistry.register(
+            "dataSource.txt"
+        );
+        ingestJob.started();
+        ingestJob.batchProduced(
+            3l
+        );
+        ingestJob.produced();
+        return ingestJob;
+    }
+
+    @SuppressWarnings("unchecked")
+    private DefaultAccountingService accountingService(final DefaultAppService appService,
+                                                       final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry)
+    {
+        return accountingService(
+            appService,
+            accountTransactionsIngestJobRegistry,
+            Mockito.mock(
+                CsvMessageReader.class
+            ),
+            Mockito.mock(
+                ThreadPoolTaskExecutor.class
+            )
+        );
+    }
+
+    // every batch read is acknowledged at once by the (mocked) pipeline
+    @SuppressWarnings("unchecked")
+    private DefaultAccountingService accountingService(final DefaultAppService appService,
+                                                       final AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry,
+                                                       final CsvMessageReader<AccountTransactionsBatchJob.Operation, AccountTransactionsBatchJob> accountTransactionCsvReader,
+                                                       final ThreadPoolTaskExecutor accountTransactionsIngestExecutor)
+    {
+        final AccountTransactionsIngestPipeline accountTransactionsIngestPipeline = Mockito.mock(
+            AccountTransactionsIngestPipeline.class
+        );
+        Mockito.when(
+            accountTransactionsIngestPipeline.readAndPublish(
+                Mockito.any(),
+                Mockito.any()
+            )
+        ).thenAnswer(
+            invocation -> ((Function<Consumer<AccountTransactionsBatchJob>, Long>)invocation.getArgument(
+                0
+            )).apply(
+                invocation.getArgument(
+                    1
+                )
+            )
+        );
+        return new DefaultAccountingService(
+            appService,
+            Mockito.mock(
+                AccountRepository.class
+            ),
+            Mockito.mock(
+                TransactionRepository.class
+            ),
+            accountTransactionCsvReader,
+            Mockito.mock(
+                MessageProducer.class
+            ),
+            Mockito.mock(
+                AccountTransactionsCriteriaKafkaMessageReaderDelegate.class
+            ),
+            Mockito.mock(
+                UploadFingerprintRepository.class
+            ),
+            accountTransactionsIngestJobRegistry,
+            new AccountTransactionsRejectReports(
+                appService
+            ),
+            accountTransactionsIngestPipeline,
+            Mockito.mock(
+                AccountTransactionsBatchJobOutbox.class
+            ),
+            Mockito.mock(
+                AccountTransactionsProcessedBatches.class
+            ),
+            accountTransactionsAccountCache,
+            new DefaultListableBeanFactory().getBeanProvider(
+                AccountTransactionsBatchJobRetryTiers.class
+            ),
+            accountTransactionsIngestExecutor
+        );
+    }
+
+    // a row resolved, a row of an unknown account, a row of another customer ; 
+    // the lines between them dropped already (i.e. repeated)
+    private static AccountTransactionsBatchJob batch(final IngestJob ingestJob)
+    {
+        return new AccountTransactionsBatchJob().setBatchId(
+            BATCH_ID
+        ).setJobId(
+            ingestJob.getJobId()
+        ).setBatchSize(
+            3
+        ).setOperation(
+            AccountTransactionsBatchJob.Operation.CREATE
+        ).setBatchAccountTransaction(
+            List.of(
+                row(
+                    "8872838283",
+                    222l,
+                    2l
+                ),
+                row(
+                    "8872838299",
+                    222l,
+                    5l
+                ),
+                row(
+                    "8872838283",
+                    333l,
+                    7l
+                )
+            )
+        );
+    }
+
+    private static AccountTransaction row(final String accountNumber,
+                                          final Long customerId,
+                                          final long lineNumber)
+    {
+        return new AccountTransaction().setAccountNumber(
+            accountNumber
+        ).setCustomerId(
+            customerId
+        ).setTrxAmount(
+            123.45d
+        ).setLineNumber(
+            lineNumber
+        );
+    }
+}
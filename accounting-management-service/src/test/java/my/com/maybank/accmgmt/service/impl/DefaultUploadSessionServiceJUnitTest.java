@@ -0,0 +1,513 @@
+package my.com.maybank.accmgmt.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsBatchSizer;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsCsvKafkaReader;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsIngestJobRegistry;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsIngestPipeline;
+import my.com.maybank.accmgmt.component.impl.AccountTransactionsRejectReports;
+import my.com.maybank.accmgmt.configuration.DefaultAppService;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import my.com.maybank.accmgmt.models.IngestJob;
+import my.com.maybank.accmgmt.models.UploadSession;
+import my.com.maybank.accmgmt.repository.UploadFingerprintRepository;
+import my.com.maybank.core.configuration.service.AppService;
+import my.com.maybank.core.exception.BadParameterException;
+import my.com.maybank.core.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class DefaultUploadSessionServiceJUnitTest
+{
+    private static final String HEADER = "ACCOUNT_NUMBER|TRX_AMOUNT|DESCRIPTION|TRX_DATE|TRX_TIME|CUSTOMER_ID\n";
+
+    private DefaultAppService appService;
+
+    private AccountTransactionsIngestJobRegistry accountTransactionsIngestJobRegistry;
+
+    private AccountTransactionsIngestPipeline accountTransactionsIngestPipeline;
+
+    private UploadFingerprintRepository uploadFingerprintRepository;
+
+    private List<AccountTransaction> rowsSent;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp()
+    {
+        appService = new DefaultAppService().setAccounting(
+            new DefaultAppService.Accounting().setIngest(
+                new DefaultAppService.Ingest()
+            )
+        );
+        appService.setDataPath(
+            new AppService.DataPath().setUpload(
+                new AppService.Upload().setDestBasePath(
+                    tempDir.toString()
+                )
+            )
+        );
+        accountTransactionsIngestJobRegistry = new AccountTransactionsIngestJobRegistry(
+            appService
+        );
+
+        // every batch read is acknowledged at once and kept for the assertions
+        rowsSent = new ArrayList<>();
+        accountTransactionsIngestPipeline = Mockito.mock(
+            AccountTransactionsIngestPipeline.class
+        );
+        Mockito.when(
+            accountTransactionsIngestPipeline.readAndPublish(
+                Mockito.any(),
+                Mockito.any()
+            )
+        ).thenAnswer(
+            invocation -> ((Function<Consumer<AccountTransactionsBatchJob>, Long>)invocation.getArgument(
+                0
+            )).apply(
+                accountTransactionsBatchJob -> {
+                    rowsSent.addAll(
+                        accountTransactionsBatchJob.getBatchAccountTransaction()
+                    );
+                    ((Consumer<AccountTransactionsBatchJob>)invocation.getArgument(
+                        1
+                    )).accept(
+                        accountTransactionsBatchJob
+                    );
+                }
+            )
+        );
+        uploadFingerprintRepository = Mockito.mock(
+            UploadFingerprintRepository.class
+        );
+        Mockito.when(
+            uploadFingerprintRepository.insertIfAbsent(
+                Mockito.anyString(),
+                Mockito.anyString(),
+                Mockito.anyLong()
+            )
+        ).thenReturn(
+            1
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void uploadChunk_lineSplitAcrossChunks_ExpectRowSentOnceWhole()
+    {
+        final DefaultUploadSessionService uploadSessionService = uploadSessionService();
+        final String sessionId = uploadSessionService.createSession(
+            "dataSource.txt"
+        ).getSessionId();
+
+        // the header itself is split too
+        UploadSession uploadSession = uploadChunk(
+            uploadSessionService,
+            sessionId,
+            0,
+            "ACCOUNT_NUMBER|TRX_"
+        );
+        assertEquals(
+            0l,
+            uploadSession.getCommittedRows()
+        );
+        assertEquals(
+            0,
+            uploadSession.getHeaderLength()
+        );
+        uploadSession = uploadChunk(
+            uploadSessionService,
+            sessionId,
+            1,
+            "AMOUNT|DESCRIPTION|TRX_DATE|TRX_TIME|CUSTOMER_ID\n" +
+            "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222\n" +
+            "8872838283|1123.00|ATM WITH"
+        );
+        assertEquals(
+            HEADER.length(),
+            uploadSession.getHeaderLength()
+        );
+        assertEquals(
+            1l,
+            uploadSession.getCommittedRows()
+        );
+        uploadSession = uploadChunk(
+            uploadSessionService,
+            sessionId,
+            2,
+            "DRWAL|2019-09-11|11:11:11|222\n" +
+            "8872838283|1223.00|FUND TRANSFER|2019-10-11|11:11:11|222\n"
+        );
+        assertEquals(
+            3l,
+            uploadSession.getCommittedRows()
+        );
+        assertEquals(
+            uploadSession.getBytesReceived(),
+            uploadSession.getCommittedBytes()
+        );
+        log.info(
+            "Got rows sent --- \n\t{}",
+            rowsSent
+        );
+        assertEquals(
+            List.of(
+                "FUND TRANSFER",
+                "ATM WITHDRWAL",
+                "FUND TRANSFER"
+            ),
+            rowsSent.stream().map(
+                AccountTransaction::getDescription
+            ).toList()
+        );
+        assertEquals(
+            1123.00d,
+            rowsSent.get(
+                1
+            ).getTrxAmount()
+        );
+    }
+
+    @Test
+    public void uploadChunk_repeatedChunk_ExpectAcknowledgedNotSentAgain()
+    {
+        final DefaultUploadSessionService uploadSessionService = uploadSessionService();
+        final String sessionId = uploadSessionService.createSession(
+            "dataSource.txt"
+        ).getSessionId();
+        final String chunk = HEADER +
+            "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222\n" +
+            "8872838283|1123.00|ATM WITHDRWAL|2019-09-11|11:11:11|222\n";
+        uploadChunk(
+            uploadSessionService,
+            sessionId,
+            0,
+            chunk
+        );
+
+        // the client lost the response and sends the chunk again
+        final UploadSession uploadSession = uploadChunk(
+            uploadSessionService,
+            sessionId,
+            0,
+            chunk
+        );
+        assertEquals(
+            1,
+            uploadSession.getNextChunk()
+        );
+        assertEquals(
+            2l,
+            uploadSession.getCommittedRows()
+        );
+        assertEquals(
+            (long)chunk.length(),
+            uploadSession.getBytesReceived()
+        );
+        assertEquals(
+            2,
+            rowsSent.size()
+        );
+    }
+
+    @Test
+    public void uploadChunk_outOfOrder_ExpectRejected()
+    {
+        final DefaultUploadSessionService uploadSessionService = uploadSessionService();
+        final String sessionId = uploadSessionService.createSession(
+            "dataSource.txt"
+        ).getSessionId();
+        final BadParameterException e = assertThrows(
+            BadParameterException.class,
+            () -> uploadChunk(
+                uploadSessionService,
+                sessionId,
+                1,
+                HEADER
+            )
+        );
+        log.info(
+            "Got expected failure --- \n\t{}",
+            e.getMessage()
+        );
+        assertEquals(
+            0,
+            uploadSessionService.findSession(
+                sessionId
+            ).getNextChunk()
+        );
+        assertTrue(
+            rowsSent.isEmpty()
+        );
+    }
+
+    @Test
+    public void uploadChunk_resumedAfterRestart_ExpectContinuedFromCheckpoint()
+    {
+        final String sessionId = uploadSessionService().createSession(
+            "dataSource.txt"
+        ).getSessionId();
+        uploadChunk(
+            uploadSessionService(),
+            sessionId,
+            0,
+            HEADER +
+            "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222\n" +
+            "8872838283|1123.00|ATM "
+        );
+
+        // a new instance (i.e. after a restart) only has the session directory
+        final DefaultUploadSessionService uploadSessionService = uploadSessionService();
+        UploadSession uploadSession = uploadSessionService.findSession(
+            sessionId
+        );
+        assertEquals(
+            1,
+            uploadSession.getNextChunk()
+        );
+        assertEquals(
+            1l,
+            uploadSession.getCommittedRows()
+        );
+        uploadSession = uploadChunk(
+            uploadSessionService,
+            sessionId,
+            1,
+            "WITHDRWAL|2019-09-11|11:11:11|222\n"
+        );
+        assertEquals(
+            2l,
+            uploadSession.getCommittedRows()
+        );
+        uploadSession = uploadSessionService.completeSession(
+            sessionId
+        );
+        assertEquals(
+            UploadSession.Status.COMPLETED,
+            uploadSession.getStatus()
+        );
+        assertEquals(
+            List.of(
+                "FUND TRANSFER",
+                "ATM WITHDRWAL"
+            ),
+            rowsSent.stream().map(
+                AccountTransaction::getDescription
+            ).toList()
+        );
+    }
+
+    @Test
+    public void completeSession_unterminatedTail_ExpectLastRowSent()
+    {
+        final DefaultUploadSessionService uploadSessionService = uploadSessionService();
+        final UploadSession createdUploadSession = uploadSessionService.createSession(
+            "dataSource.txt"
+        );
+        final String sessionId = createdUploadSession.getSessionId();
+        UploadSession uploadSession = uploadChunk(
+            uploadSessionService,
+            sessionId,
+            0,
+            HEADER +
+            "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222\n" +
+            "8872838283|1223.00|FUND TRANSFER|2019-10-11|11:11:11|222"
+        );
+        assertEquals(
+            1l,
+            uploadSession.getCommittedRows()
+        );
+        assertTrue(
+            uploadSession.getCommittedBytes()<uploadSession.getBytesReceived()
+        );
+
+        uploadSession = uploadSessionService.completeSession(
+            sessionId
+        );
+        assertEquals(
+            UploadSession.Status.COMPLETED,
+            uploadSession.getStatus()
+        );
+        assertEquals(
+            2l,
+            uploadSession.getCommittedRows()
+        );
+        assertEquals(
+            uploadSession.getBytesReceived(),
+            uploadSession.getCommittedBytes()
+        );
+        assertEquals(
+            1223.00d,
+            rowsSent.get(
+                1
+            ).getTrxAmount()
+        );
+        assertEquals(
+            IngestJob.Status.PRODUCED,
+            accountTransactionsIngestJobRegistry.find(
+                createdUploadSession.getJobId()
+            ).orElseThrow().getStatus()
+        );
+
+        // no more chunks once completed
+        assertThrows(
+            BadParameterException.class,
+            () -> uploadChunk(
+                uploadSessionService,
+                sessionId,
+                1,
+                HEADER
+            )
+        );
+        assertTrue(
+            uploadSessionService.getSessionLocks().isEmpty()
+        );
+    }
+
+    @Test
+    public void uploadChunk_malformedOrUnknownSession_ExpectNoLockLeft()
+    {
+        final DefaultUploadSessionService uploadSessionService = uploadSessionService();
+        for(String sessionId : List.of(
+            "../../etc",
+            UUID.randomUUID().toString()
+        ))
+        {
+            final ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> uploadChunk(
+                    uploadSessionService,
+                    sessionId,
+                    0,
+                    HEADER
+                )
+            );
+            log.info(
+                "Got expected failure --- \n\t{}",
+                e.getMessage()
+            );
+            assertThrows(
+                ResourceNotFoundException.class,
+                () -> uploadSessionService.completeSession(
+                    sessionId
+                )
+            );
+        }
+        assertTrue(
+            uploadSessionService.getSessionLocks().isEmpty()
+        );
+    }
+
+    @Test
+    public void abandonSession_open_ExpectDataDeletedAndJobFailed()
+    {
+        final DefaultUploadSessionService uploadSessionService = uploadSessionService();
+        final UploadSession createdUploadSession = uploadSessionService.createSession(
+            "dataSource.txt"
+        );
+        final String sessionId = createdUploadSession.getSessionId();
+        uploadChunk(
+            uploadSessionService,
+            sessionId,
+            0,
+            HEADER +
+            "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222\n" +
+            "8872838283|1123.00|ATM "
+        );
+        assertFalse(
+            uploadSessionService.getSessionLocks().isEmpty()
+        );
+
+        final UploadSession uploadSession = uploadSessionService.abandonSession(
+            sessionId
+        );
+        assertEquals(
+            UploadSession.Status.ABANDONED,
+            uploadSession.getStatus()
+        );
+        assertTrue(
+            uploadSessionService.getSessionLocks().isEmpty()
+        );
+        assertTrue(
+            uploadSessionService.getSessionDigests().isEmpty()
+        );
+        assertThrows(
+            ResourceNotFoundException.class,
+            () -> uploadSessionService.findSession(
+                sessionId
+            )
+        );
+        assertEquals(
+            IngestJob.Status.FAILED,
+            accountTransactionsIngestJobRegistry.find(
+                createdUploadSession.getJobId()
+            ).orElseThrow().getStatus()
+        );
+    }
+
+    private DefaultUploadSessionService uploadSessionService()
+    {
+        return new DefaultUploadSessionService(
+            appService,
+            new ObjectMapper(),
+            new AccountTransactionsCsvKafkaReader(
+                appService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new AccountTransactionsBatchSizer(
+                    appService
+                )
+            ),
+            accountTransactionsIngestPipeline,
+            accountTransactionsIngestJobRegistry,
+            new AccountTransactionsRejectReports(
+                appService
+            ),
+            uploadFingerprintRepository
+        );
+    }
+
+    private static UploadSession uploadChunk(final DefaultUploadSessionService uploadSessionService,
+                                             final String sessionId,
+                                             final int chunkNumber,
+                                             final String chunk)
+    {
+        return uploadSessionService.uploadChunk(
+            sessionId,
+            chunkNumber,
+            new ByteArrayInputStream(
+                chunk.getBytes(
+                    StandardCharsets.UTF_8
+                )
+            )
+        );
+    }
+}
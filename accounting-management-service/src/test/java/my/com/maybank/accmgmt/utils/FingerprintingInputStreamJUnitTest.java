@@ -0,0 +1,105 @@
+package my.com.maybank.accmgmt.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class FingerprintingInputStreamJUnitTest
+{
+    private static final byte[] CSV_BYTES = (
+        "ACCOUNT_NUMBER|TRX_AMOUNT|DESCRIPTION|TRX_DATE|TRX_TIME|CUSTOMER_ID\n" +
+        "8872838283|123.00|FUND TRANSFER|2019-09-12|11:11:11|222\n" +
+        "8872838283|1123.00|ATM WITHDRWAL|2019-09-11|11:11:11|222\n"
+    ).getBytes(
+        StandardCharsets.UTF_8
+    );
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp() {}
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void getFileFingerprint_streamReadToEnd_ExpectStagedFileFingerprint()
+            throws Exception
+    {
+        final Path csvPath = Files.write(
+            tempDir.resolve(
+                "dataSource.txt"
+            ),
+            CSV_BYTES
+        );
+        final FingerprintingInputStream fingerprintingInputStream = new FingerprintingInputStream(
+            new ByteArrayInputStream(
+                CSV_BYTES
+            )
+        );
+        fingerprintingInputStream.transferTo(
+            OutputStream.nullOutputStream()
+        );
+        assertEquals(
+            CSV_BYTES.length,
+            fingerprintingInputStream.getBytesRead()
+        );
+        assertEquals(
+            IngestFingerprints.fileFingerprint(
+                csvPath
+            ),
+            fingerprintingInputStream.getFileFingerprint()
+        );
+    }
+
+    @Test
+    public void getFileFingerprint_bytesSkipped_ExpectStillDigested()
+            throws Exception
+    {
+        final FingerprintingInputStream fingerprintingInputStream = new FingerprintingInputStream(
+            new ByteArrayInputStream(
+                CSV_BYTES
+            )
+        );
+        try(InputStream inputStream = fingerprintingInputStream)
+        {
+            assertEquals(
+                10l,
+                inputStream.skip(
+                    10l
+                )
+            );
+            inputStream.readAllBytes();
+        }
+        final MessageDigest messageDigest = IngestFingerprints.newFileDigest();
+        messageDigest.update(
+            CSV_BYTES
+        );
+        assertEquals(
+            IngestFingerprints.fileFingerprint(
+                messageDigest
+            ),
+            fingerprintingInputStream.getFileFingerprint()
+        );
+    }
+}
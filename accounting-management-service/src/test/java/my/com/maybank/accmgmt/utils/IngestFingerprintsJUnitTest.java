@@ -0,0 +1,113 @@
+package my.com.maybank.accmgmt.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.accmgmt.models.AccountTransaction;
+import my.com.maybank.accmgmt.models.AccountTransactionsBatchJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class IngestFingerprintsJUnitTest
+{
+    private AccountTransactionsBatchJob accountTransactionsBatchJob;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        final List<AccountTransaction> batchAccountTransaction = new ArrayList<>();
+        for(int i = 0; i < 4; i++)
+        {
+            // lines 2 and 4 are identical, so are lines 3 and 5
+            batchAccountTransaction.add(
+                new AccountTransaction().setAccountNumber(
+                    "8872838283"
+                ).setTrxAmount(
+                    123.00d + i % 2
+                ).setDescription(
+                    "FUND TRANSFER"
+                ).setTrxDate(
+                    "2019-09-12"
+                ).setTrxTime(
+                    "11:11:11"
+                ).setCustomerId(
+                    222l
+                ).setLineNumber(
+                    2l + i
+                )
+            );
+        }
+        accountTransactionsBatchJob = new AccountTransactionsBatchJob().setBatchId(
+            "batch-1"
+        ).setOperation(
+            AccountTransactionsBatchJob.Operation.CREATE
+        ).setBatchAccountTransaction(
+            batchAccountTransaction
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @Test
+    public void dropRepeatedRows_repeatedRows_ExpectFirstKeptAndRepeatsRejected()
+    {
+        final List<String> rejectedRows = new ArrayList<>();
+        assertEquals(
+            2,
+            IngestFingerprints.dropRepeatedRows(
+                accountTransactionsBatchJob,
+                (lineNumber, row, reason) -> rejectedRows.add(
+                    lineNumber + " " + reason
+                )
+            )
+        );
+        log.info(
+            "Got rejected rows --- \n\t{}",
+            rejectedRows
+        );
+        assertEquals(
+            List.of(
+                2l,
+                3l
+            ),
+            accountTransactionsBatchJob.getBatchAccountTransaction().stream().map(
+                AccountTransaction::getLineNumber
+            ).toList()
+        );
+        assertEquals(
+            List.of(
+                "4 Row IDENTICAL to line 2 of the same batch ; skipped by the ingest de-duplication",
+                "5 Row IDENTICAL to line 3 of the same batch ; skipped by the ingest de-duplication"
+            ),
+            rejectedRows
+        );
+    }
+
+    @Test
+    public void dropRepeatedRows_noRejectSink_ExpectRepeatsStillDropped()
+    {
+        assertEquals(
+            2,
+            IngestFingerprints.dropRepeatedRows(
+                accountTransactionsBatchJob,
+                null
+            )
+        );
+        assertEquals(
+            2,
+            accountTransactionsBatchJob.getBatchAccountTransaction().size()
+        );
+    }
+}
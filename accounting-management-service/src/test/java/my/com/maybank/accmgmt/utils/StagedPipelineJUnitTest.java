@@ -0,0 +1,153 @@
+package my.com.maybank.accmgmt.utils;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import my.com.maybank.core.exception.InternalException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class StagedPipelineJUnitTest
+{
+    private static final int ITEMS = 10000;
+
+    private Set<String> sent;
+
+    private StagedPipeline<Integer, String> stagedPipeline;
+
+    @BeforeAll
+    public static void setUpClass() {}
+
+    @AfterAll
+    public static void tearDownClass() {}
+
+    @BeforeEach
+    public void setUp()
+    {
+        sent = ConcurrentHashMap.newKeySet();
+        stagedPipeline = new StagedPipeline<>(
+            "test-pipeline",
+            3,
+            2,
+            4,
+            itemToProcess -> {
+                if(itemToProcess<0)
+                {
+                    throw new IllegalArgumentException(
+                        "Negative item " + itemToProcess
+                    );
+                }
+                return Integer.toHexString(
+                    itemToProcess
+                );
+            },
+            // acknowledged asynchronously, like a Kafka send
+            payloadToProcess -> CompletableFuture.runAsync(
+                () -> assertTrue(
+                    sent.add(
+                        payloadToProcess
+                    )
+                )
+            )
+        );
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        stagedPipeline.close();
+    }
+
+    @Test
+    public void submit_manyItems_ExpectAllSentOnce()
+    {
+        final AtomicLong onSent = new AtomicLong();
+        try(StagedPipeline.Run<Integer> pipelineRun = stagedPipeline.open(
+            itemToProcess -> onSent.incrementAndGet()
+        ))
+        {
+            for(int i = 0; i < ITEMS; i++)
+            {
+                pipelineRun.submit(
+                    i
+                );
+                // both stage queues (4 slots each, rounded) plus one item per
+                // worker is all that may be in flight
+                assertTrue(
+                    stagedPipeline.getTransformQueue().size() + stagedPipeline.getSendQueue().size()<=8
+                );
+            }
+            pipelineRun.await();
+        }
+
+        assertEquals(
+            ITEMS,
+            sent.size()
+        );
+        assertEquals(
+            ITEMS,
+            onSent.get()
+        );
+    }
+
+    @Test
+    public void submit_transformFailure_ExpectAwaitThrows()
+    {
+        try(StagedPipeline.Run<Integer> pipelineRun = stagedPipeline.open(
+            null
+        ))
+        {
+            final InternalException e = assertThrows(
+                InternalException.class,
+                () -> {
+                    for(int i = 0; i < ITEMS; i++)
+                    {
+                        pipelineRun.submit(
+                            i==100?-1:i
+                        );
+                    }
+                    pipelineRun.await();
+                }
+            );
+
+            log.info(
+                "Got expected failure --- \n\t{}",
+                e.getMessage()
+            );
+            assertTrue(
+                e.getMessage().contains(
+                    "Negative item -1"
+                )
+            );
+            assertTrue(
+                pipelineRun.isFailed()
+            );
+        }
+
+        // the pipeline stays usable for the next run
+        try(StagedPipeline.Run<Integer> pipelineRun = stagedPipeline.open(
+            null
+        ))
+        {
+            sent.clear();
+            pipelineRun.submit(
+                ITEMS
+            );
+            pipelineRun.await();
+        }
+        assertTrue(
+            sent.contains(
+                Integer.toHexString(
+                    ITEMS
+                )
+            )
+        );
+    }
+}
@@ -45,4 +45,11 @@ public final class DefaultCodes
      * @since 1.0.0
      */
     public static final long ERROR_CODE_UNPROCESSABLE_ENTITY = 10006l;
+    
+    /**
+     * Error code to indicate the service is temporarily unable to accept the 
+     * request (i.e. saturated)
+     * @since 1.0.0
+     */
+    public static final long ERROR_CODE_SERVICE_UNAVAILABLE = 10007l;
 }